@@ -0,0 +1,83 @@
+package pe.banco.prestamos.amortizacion;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Cronograma de pagos en formato columnar.
+ *
+ * En lugar de una lista de objetos Cuota (un objeto + 3 BigDecimal por mes),
+ * cada columna es un arreglo primitivo indexado por (numeroCuota - 1):
+ *
+ * ┌─────────┬──────────────┬──────────────┬──────────────┬──────────────┐
+ * │ índice  │ cuota        │ capital      │ interes      │ saldo        │
+ * ├─────────┼──────────────┼──────────────┼──────────────┼──────────────┤
+ * │ 0       │ 90494        │ 77577        │ 12917        │ 922423       │
+ * │ 1       │ 90494        │ 78579        │ 11915        │ 843844       │
+ * │ ...     │ ...          │ ...          │ ...          │ ...          │
+ * └─────────┴──────────────┴──────────────┴──────────────┴──────────────┘
+ *            (centavos; FRANCES, $10,000 a 12 meses al 15.50%)
+ *
+ * Una hipoteca de 360 meses son 4 arreglos de 360 longs contiguos en memoria:
+ * sin boxing y sin presión sobre el GC. Los BigDecimal se crean recién al
+ * convertir a entidades o al responder.
+ *
+ * Invariantes (garantizados por el motor):
+ * - sum(capital) == monto del préstamo, al centavo
+ * - cuota[i] == capital[i] + interes[i]
+ * - saldo[plazo - 1] == 0
+ */
+public final class Cronograma {
+
+    public final TipoAmortizacion tipo;
+    public final int plazo;
+
+    public final long[] cuotaCentavos;
+    public final long[] capitalCentavos;
+    public final long[] interesCentavos;
+
+    /**
+     * Saldo de capital DESPUÉS de pagar la cuota i.
+     */
+    public final long[] saldoCentavos;
+
+    public final LocalDate[] fechasVencimiento;
+
+    Cronograma(TipoAmortizacion tipo, int plazo) {
+        this.tipo = tipo;
+        this.plazo = plazo;
+        this.cuotaCentavos = new long[plazo];
+        this.capitalCentavos = new long[plazo];
+        this.interesCentavos = new long[plazo];
+        this.saldoCentavos = new long[plazo];
+        this.fechasVencimiento = new LocalDate[plazo];
+    }
+
+    public BigDecimal cuota(int indice) {
+        return BigDecimal.valueOf(cuotaCentavos[indice], 2);
+    }
+
+    public BigDecimal capital(int indice) {
+        return BigDecimal.valueOf(capitalCentavos[indice], 2);
+    }
+
+    public BigDecimal interes(int indice) {
+        return BigDecimal.valueOf(interesCentavos[indice], 2);
+    }
+
+    public long totalInteresesCentavos() {
+        long total = 0;
+        for (long interes : interesCentavos) {
+            total += interes;
+        }
+        return total;
+    }
+
+    public long totalPagadoCentavos() {
+        long total = 0;
+        for (long cuota : cuotaCentavos) {
+            total += cuota;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,214 @@
+package pe.banco.prestamos.amortizacion;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import pe.banco.prestamos.model.Cuota;
+import pe.banco.prestamos.model.Prestamo;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Motor de amortización: calcula el cronograma completo de un préstamo.
+ *
+ * ARITMÉTICA EN CENTAVOS (long):
+ * - monto    → centavos       (10,000.00  → 1,000,000)
+ * - tasa     → puntos básicos (15.50%     → 1,550)
+ * - interés mensual = saldo × pb / 120,000, redondeo HALF_UP
+ *   (120,000 = 12 meses × 100 por ciento × 100 centésimos)
+ *
+ * Sin BigDecimal dentro del bucle: una hipoteca de 360 meses se calcula con
+ * multiplicaciones y divisiones enteras sobre arreglos (ver {@link Cronograma}).
+ *
+ * CONCILIACIÓN EN LA ÚLTIMA CUOTA:
+ * Redondear cada mes deja "centavos sueltos". La última cuota amortiza
+ * exactamente el saldo restante, así que la suma del capital siempre es el
+ * monto desembolsado y el saldo final es 0, sin importar el sistema.
+ *
+ * Analogía: como repartir una cuenta de restaurante entre amigos, todos pagan
+ * lo mismo redondeado y el último paga lo que falte para cuadrar la caja.
+ *
+ * El motor no tiene estado: es seguro compartirlo entre hilos.
+ */
+@ApplicationScoped
+public class MotorAmortizacion {
+
+    /**
+     * 12 meses × 100 (porcentaje) × 100 (la tasa tiene 2 decimales).
+     */
+    static final long DIVISOR_TASA_MENSUAL = 120_000L;
+
+    /**
+     * Calcula el cronograma en centavos.
+     *
+     * @param tipo sistema de amortización
+     * @param monto monto desembolsado (se redondea a centavos)
+     * @param tasaAnual tasa anual en porcentaje (15.50 = 15.50%)
+     * @param plazoMeses número de cuotas
+     * @param fechaDesembolso la cuota N vence N meses después
+     * @throws IllegalArgumentException si monto, tasa o plazo no son válidos
+     */
+    public Cronograma calcular(TipoAmortizacion tipo, BigDecimal monto, BigDecimal tasaAnual,
+                               int plazoMeses, LocalDate fechaDesembolso) {
+        if (monto == null || monto.signum() <= 0) {
+            throw new IllegalArgumentException("El monto debe ser mayor a cero");
+        }
+        if (tasaAnual == null || tasaAnual.signum() < 0) {
+            throw new IllegalArgumentException("La tasa de interés no puede ser negativa");
+        }
+        if (plazoMeses <= 0) {
+            throw new IllegalArgumentException("El plazo debe ser de al menos 1 mes");
+        }
+
+        long montoCentavos = monto.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        long tasaPuntosBasicos = tasaAnual.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+
+        Cronograma cronograma = new Cronograma(tipo, plazoMeses);
+        switch (tipo) {
+            case FRANCES -> frances(cronograma, montoCentavos, tasaPuntosBasicos);
+            case ALEMAN -> aleman(cronograma, montoCentavos, tasaPuntosBasicos);
+            case PLANO -> plano(cronograma, montoCentavos, tasaPuntosBasicos);
+        }
+        calcularVencimientos(cronograma, fechaDesembolso);
+        return cronograma;
+    }
+
+    /**
+     * Convierte el cronograma en entidades Cuota listas para persistir por cascade.
+     *
+     * Los INSERT se agrupan en batches JDBC
+     * (quarkus.hibernate-orm.jdbc.statement-batch-size en application.properties).
+     */
+    public List<Cuota> generarCuotas(Prestamo prestamo, Cronograma cronograma) {
+        List<Cuota> cuotas = new ArrayList<>(cronograma.plazo);
+        BigDecimal monto = null;
+        BigDecimal capital = null;
+        BigDecimal interes = null;
+        for (int i = 0; i < cronograma.plazo; i++) {
+            // BigDecimal es inmutable: cuotas con el mismo importe comparten la instancia
+            monto = reutilizar(monto, cronograma.cuotaCentavos, i);
+            capital = reutilizar(capital, cronograma.capitalCentavos, i);
+            interes = reutilizar(interes, cronograma.interesCentavos, i);
+
+            Cuota cuota = new Cuota(prestamo, i + 1, monto, cronograma.fechasVencimiento[i]);
+            cuota.capital = capital;
+            cuota.interes = interes;
+            cuotas.add(cuota);
+        }
+        return cuotas;
+    }
+
+    /**
+     * Sistema francés: cuota fija C = P × i / (1 - (1 + i)^-n).
+     *
+     * C se calcula una sola vez en double y se redondea al centavo; el desvío
+     * de ese redondeo lo absorbe la última cuota.
+     */
+    private void frances(Cronograma cronograma, long montoCentavos, long tasaPuntosBasicos) {
+        int plazo = cronograma.plazo;
+        long cuotaFija;
+        if (tasaPuntosBasicos == 0) {
+            cuotaFija = ceilDiv(montoCentavos, plazo);
+        } else {
+            double i = (double) tasaPuntosBasicos / DIVISOR_TASA_MENSUAL;
+            cuotaFija = Math.round(montoCentavos * i / (1 - Math.pow(1 + i, -plazo)));
+        }
+
+        long saldo = montoCentavos;
+        for (int k = 0; k < plazo; k++) {
+            long interes = interesMensual(saldo, tasaPuntosBasicos);
+            long capital = k == plazo - 1 ? saldo : Math.min(cuotaFija - interes, saldo);
+            saldo -= capital;
+            registrar(cronograma, k, capital, interes, saldo);
+        }
+    }
+
+    /**
+     * Sistema alemán: capital fijo P / n, interés sobre saldo.
+     */
+    private void aleman(Cronograma cronograma, long montoCentavos, long tasaPuntosBasicos) {
+        int plazo = cronograma.plazo;
+        long capitalFijo = montoCentavos / plazo;
+
+        long saldo = montoCentavos;
+        for (int k = 0; k < plazo; k++) {
+            long interes = interesMensual(saldo, tasaPuntosBasicos);
+            long capital = k == plazo - 1 ? saldo : capitalFijo;
+            saldo -= capital;
+            registrar(cronograma, k, capital, interes, saldo);
+        }
+    }
+
+    /**
+     * Interés plano: interés total = P × tasa mensual × n; cuota fija = (P + interés) / n.
+     * Cada cuota amortiza P / n; la última cuota cobra lo que falte de ambos totales.
+     */
+    private void plano(Cronograma cronograma, long montoCentavos, long tasaPuntosBasicos) {
+        int plazo = cronograma.plazo;
+        long interesTotal = Math.multiplyExact(Math.multiplyExact(montoCentavos, tasaPuntosBasicos), plazo);
+        interesTotal = (interesTotal + DIVISOR_TASA_MENSUAL / 2) / DIVISOR_TASA_MENSUAL;
+
+        long totalRestante = montoCentavos + interesTotal;
+        long cuotaFija = totalRestante / plazo;
+        long capitalFijo = montoCentavos / plazo;
+
+        long saldo = montoCentavos;
+        for (int k = 0; k < plazo; k++) {
+            boolean ultima = k == plazo - 1;
+            long cuota = ultima ? totalRestante : cuotaFija;
+            long capital = ultima ? saldo : capitalFijo;
+            saldo -= capital;
+            totalRestante -= cuota;
+            registrar(cronograma, k, capital, cuota - capital, saldo);
+        }
+    }
+
+    /**
+     * Interés de un mes sobre el saldo, redondeado HALF_UP al centavo.
+     * saldo (hasta 10^12) × pb (hasta 10^5) cabe holgado en un long.
+     */
+    static long interesMensual(long saldoCentavos, long tasaPuntosBasicos) {
+        return (saldoCentavos * tasaPuntosBasicos + DIVISOR_TASA_MENSUAL / 2) / DIVISOR_TASA_MENSUAL;
+    }
+
+    private static void registrar(Cronograma cronograma, int k, long capital, long interes, long saldo) {
+        cronograma.capitalCentavos[k] = capital;
+        cronograma.interesCentavos[k] = interes;
+        cronograma.cuotaCentavos[k] = capital + interes;
+        cronograma.saldoCentavos[k] = saldo;
+    }
+
+    /**
+     * Vencimientos mensuales con el mismo resultado que fechaDesembolso.plusMonths(n):
+     * el día se ajusta al último día del mes cuando no existe
+     * (desembolso el 31 → vence el 30 o el 28/29).
+     *
+     * Avanza año/mes como enteros: una sola LocalDate por cuota, sin los
+     * objetos intermedios de plusMonths() ni YearMonth.
+     */
+    private static void calcularVencimientos(Cronograma cronograma, LocalDate fechaDesembolso) {
+        int dia = fechaDesembolso.getDayOfMonth();
+        int anio = fechaDesembolso.getYear();
+        int mes = fechaDesembolso.getMonthValue();
+        for (int k = 0; k < cronograma.plazo; k++) {
+            if (++mes > 12) {
+                mes = 1;
+                anio++;
+            }
+            int diaVencimiento = dia <= 28 ? dia : Math.min(dia, Month.of(mes).length(Year.isLeap(anio)));
+            cronograma.fechasVencimiento[k] = LocalDate.of(anio, mes, diaVencimiento);
+        }
+    }
+
+    private static BigDecimal reutilizar(BigDecimal anterior, long[] columna, int i) {
+        return i > 0 && columna[i] == columna[i - 1] ? anterior : BigDecimal.valueOf(columna[i], 2);
+    }
+
+    private static long ceilDiv(long dividendo, long divisor) {
+        return (dividendo + divisor - 1) / divisor;
+    }
+}
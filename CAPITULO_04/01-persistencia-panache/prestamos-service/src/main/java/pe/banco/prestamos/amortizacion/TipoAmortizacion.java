@@ -0,0 +1,42 @@
+package pe.banco.prestamos.amortizacion;
+
+/**
+ * Sistemas de amortización soportados por {@link MotorAmortizacion}.
+ *
+ * Ejemplo: $10,000 a 12 meses al 15.50% anual
+ * ┌──────────┬──────────────────────────────┬───────────────────────────┐
+ * │ Sistema  │ Cuota                        │ Intereses totales         │
+ * ├──────────┼──────────────────────────────┼───────────────────────────┤
+ * │ FRANCES  │ fija: 904.94                 │ 859.34                    │
+ * │ ALEMAN   │ decreciente: 962.50 → 844.13 │ 839.59                    │
+ * │ PLANO    │ fija: 962.50                 │ 1,550.00                  │
+ * └──────────┴──────────────────────────────┴───────────────────────────┘
+ *
+ * Analogía: tres formas de devolver una escalera de deuda. El francés sube
+ * siempre el mismo escalón, el alemán baja la misma cantidad de deuda cada mes
+ * y el plano cobra el interés como si nunca hubieras bajado ningún escalón.
+ */
+public enum TipoAmortizacion {
+
+    /**
+     * Cuota constante. Al inicio casi todo es interés; al final, capital.
+     * Es el sistema estándar de créditos de consumo e hipotecarios.
+     */
+    FRANCES,
+
+    /**
+     * Amortización de capital constante. La cuota baja mes a mes porque el
+     * interés se calcula sobre un saldo cada vez menor.
+     */
+    ALEMAN,
+
+    /**
+     * Interés simple sobre el monto original, repartido en cuotas iguales.
+     * Es el default y sigue la fórmula que el servicio usaba originalmente,
+     * pero no siempre da los mismos centavos: el cálculo anterior redondeaba
+     * la tasa mensual a 6 decimales y la cuota HALF_UP, sin conciliar.
+     * Aquí el interés total usa la tasa exacta y la última cuota cuadra el total
+     * ($350,000 a 12 meses al 8.75%: antes 31,718.87; ahora 31,718.75).
+     */
+    PLANO
+}
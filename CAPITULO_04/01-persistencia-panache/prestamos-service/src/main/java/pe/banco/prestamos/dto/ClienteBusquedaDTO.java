@@ -0,0 +1,16 @@
+package pe.banco.prestamos.dto;
+
+/**
+ * Resultado de GET /clientes/buscar.
+ *
+ * @param relevancia 0..1 (word_similarity de pg_trgm contra el nombre;
+ *                   1.0 en búsquedas por prefijo de DNI)
+ */
+public record ClienteBusquedaDTO(
+        Long id,
+        String nombre,
+        String dni,
+        String email,
+        String telefono,
+        Double relevancia) {
+}
@@ -0,0 +1,20 @@
+package pe.banco.prestamos.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Cuota para GET /prestamos/{id}/cuotas (proyección de Cuota).
+ *
+ * Los nombres coinciden con los campos de la entidad: Panache arma el
+ * SELECT solo con estas columnas vía .project(CuotaDTO.class).
+ */
+public record CuotaDTO(
+        Integer numeroCuota,
+        BigDecimal monto,
+        BigDecimal capital,
+        BigDecimal interes,
+        LocalDate fechaVencimiento,
+        LocalDate fechaPago,
+        Boolean pagada) {
+}
@@ -0,0 +1,34 @@
+package pe.banco.prestamos.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de resultados con paginación por cursor (keyset).
+ *
+ * En lugar de OFFSET (que obliga a la BD a leer y descartar todas las
+ * filas anteriores), el cliente envía el último valor que vio:
+ *
+ *   GET /prestamos?limite=50                  → items + siguienteCursor=9951
+ *   GET /prestamos?cursor=9951&limite=50      → WHERE id < 9951 ...
+ *
+ * La página 1 y la página 10,000 cuestan lo mismo: un index scan de
+ * "limite" filas.
+ *
+ * @param items elementos de la página
+ * @param siguienteCursor valor a enviar como ?cursor= para la página
+ *                        siguiente; null si es la última
+ */
+public record PaginaDTO<T>(List<T> items, Long siguienteCursor) {
+
+    /**
+     * @param filas resultado de una consulta con limite + 1 filas
+     */
+    public static <T> PaginaDTO<T> de(List<T> filas, int limite, Function<T, Long> cursor) {
+        if (filas.size() <= limite) {
+            return new PaginaDTO<>(filas, null);
+        }
+        List<T> pagina = filas.subList(0, limite);
+        return new PaginaDTO<>(pagina, cursor.apply(pagina.get(limite - 1)));
+    }
+}
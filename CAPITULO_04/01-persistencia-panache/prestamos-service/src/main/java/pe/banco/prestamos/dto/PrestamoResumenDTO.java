@@ -0,0 +1,34 @@
+package pe.banco.prestamos.dto;
+
+import pe.banco.prestamos.amortizacion.TipoAmortizacion;
+import pe.banco.prestamos.model.Prestamo.EstadoPrestamo;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Resumen de un préstamo para listados (proyección, no entidad).
+ *
+ * Se arma directo en el SELECT (SELECT new ...), así que:
+ * - no se cargan las cuotas (se piden aparte, paginadas)
+ * - del cliente solo viajan id y nombre, no la entidad completa
+ * - saldoPendiente, cuotasPagadas y proximoVencimiento se leen de las
+ *   columnas desnormalizadas de prestamos (sin recorrer cuotas)
+ *
+ * Entidad completa (12 cuotas) ≈ 2.5 KB en JSON; este resumen ≈ 250 bytes,
+ * y no crece con el plazo del préstamo.
+ */
+public record PrestamoResumenDTO(
+        Long id,
+        Long clienteId,
+        String clienteNombre,
+        BigDecimal monto,
+        Integer plazoMeses,
+        BigDecimal tasaInteres,
+        LocalDate fechaDesembolso,
+        EstadoPrestamo estado,
+        TipoAmortizacion tipoAmortizacion,
+        BigDecimal saldoPendiente,
+        Integer cuotasPagadas,
+        LocalDate proximoVencimiento) {
+}
@@ -0,0 +1,63 @@
+package pe.banco.prestamos.exportacion;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import pe.banco.prestamos.replica.SoloLectura;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Exportación completa de la cartera para reportes regulatorios.
+ *
+ * ENDPOINTS:
+ * GET /prestamos/export/prestamos.csv   → un préstamo por fila
+ * GET /prestamos/export/cuotas.csv      → una cuota por fila
+ *
+ * Ejemplo:
+ * curl -o cuotas.csv http://localhost:8080/prestamos/export/cuotas.csv
+ *
+ * La respuesta se escribe mientras se lee la BD (Transfer-Encoding:
+ * chunked): el primer byte sale de inmediato y la memoria del servicio
+ * no depende de cuántos préstamos haya. Ver ExportadorCartera.
+ *
+ * @SoloLectura: el volcado corre contra la réplica y no compite con la
+ * originación de préstamos en el primario.
+ */
+@Path("/prestamos/export")
+@SoloLectura
+public class ExportacionResource {
+
+    public static final String TEXT_CSV = "text/csv";
+
+    @Inject
+    ExportadorCartera exportador;
+
+    @GET
+    @Path("/prestamos.csv")
+    @Produces(TEXT_CSV)
+    public Response prestamos() {
+        return csv("prestamos", exportador::exportarPrestamos);
+    }
+
+    @GET
+    @Path("/cuotas.csv")
+    @Produces(TEXT_CSV)
+    public Response cuotas() {
+        return csv("cuotas", exportador::exportarCuotas);
+    }
+
+    private Response csv(String nombre, ToLongFunction<OutputStream> exportacion) {
+        StreamingOutput cuerpo = exportacion::applyAsLong;
+        return Response.ok(cuerpo)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + nombre + "-" + LocalDate.now() + ".csv\"")
+                .build();
+    }
+}
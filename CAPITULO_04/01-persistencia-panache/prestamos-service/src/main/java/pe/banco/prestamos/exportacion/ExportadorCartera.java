@@ -0,0 +1,161 @@
+package pe.banco.prestamos.exportacion;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Vuelca la cartera completa (préstamos o cuotas) como CSV a un stream.
+ *
+ * MEMORIA CONSTANTE, sin importar el tamaño de la cartera:
+ *
+ * ┌──────────────┐  fetchSize filas  ┌────────────────┐  64 KB   ┌──────────┐
+ * │ PostgreSQL   │ ────────────────→ │ ScrollableRes. │ ───────→ │ response │
+ * │ (cursor del  │   por round-trip  │ (fila a fila,  │  buffer  │ chunked  │
+ * │  servidor)   │                   │  Object[])     │          │          │
+ * └──────────────┘                   └────────────────┘          └──────────┘
+ *
+ * - El driver de PostgreSQL solo usa cursor de servidor con autocommit
+ *   desactivado y fetchSize > 0: por eso cada export corre en su propia
+ *   transacción (de solo lectura, con timeout largo).
+ * - La consulta proyecta columnas (no entidades): nada queda en el
+ *   contexto de persistencia mientras se recorre.
+ * - Una sola consulta = una foto consistente de la cartera.
+ */
+@ApplicationScoped
+public class ExportadorCartera {
+
+    private static final Logger LOG = Logger.getLogger(ExportadorCartera.class);
+
+    static final String CABECERA_PRESTAMOS = "id,cliente_id,cliente_dni,monto,plazo_meses,tasa_interes,"
+            + "tipo_amortizacion,fecha_desembolso,estado,saldo_pendiente,cuotas_pagadas,"
+            + "proximo_vencimiento,dias_mora,tramo_mora";
+
+    private static final String HQL_PRESTAMOS = """
+            SELECT p.id, c.id, c.dni, p.monto, p.plazoMeses, p.tasaInteres,
+                   p.tipoAmortizacion, p.fechaDesembolso, p.estado, p.saldoPendiente, p.cuotasPagadas,
+                   p.proximoVencimiento, p.diasMora, p.tramoMora
+            FROM Prestamo p JOIN p.cliente c
+            ORDER BY p.id
+            """;
+
+    static final String CABECERA_CUOTAS = "prestamo_id,numero_cuota,monto,capital,interes,"
+            + "fecha_vencimiento,fecha_pago,pagada";
+
+    // Recorre uk_cuotas_prestamo_numero en orden: sin sort en la BD
+    private static final String HQL_CUOTAS = """
+            SELECT q.prestamo.id, q.numeroCuota, q.monto, q.capital, q.interes,
+                   q.fechaVencimiento, q.fechaPago, q.pagada
+            FROM Cuota q
+            ORDER BY q.prestamo.id, q.numeroCuota
+            """;
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    @Inject
+    EntityManager em;
+
+    // Filas por round-trip al cursor del servidor
+    @ConfigProperty(name = "prestamos.exportacion.fetch-size", defaultValue = "5000")
+    int fetchSize;
+
+    @ConfigProperty(name = "prestamos.exportacion.timeout-segundos", defaultValue = "3600")
+    int timeoutSegundos;
+
+    public long exportarPrestamos(OutputStream salida) {
+        return exportar("prestamos", HQL_PRESTAMOS, CABECERA_PRESTAMOS, salida);
+    }
+
+    public long exportarCuotas(OutputStream salida) {
+        return exportar("cuotas", HQL_CUOTAS, CABECERA_CUOTAS, salida);
+    }
+
+    private long exportar(String nombre, String hql, String cabecera, OutputStream salida) {
+        long inicio = System.currentTimeMillis();
+        long filas = QuarkusTransaction.requiringNew().timeout(timeoutSegundos).call(() -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), BUFFER_BYTES);
+            try (ScrollableResults<Object[]> cursor = em.unwrap(Session.class)
+                    .createSelectionQuery(hql, Object[].class)
+                    .setFetchSize(fetchSize)
+                    .setReadOnly(true)
+                    .setCacheMode(CacheMode.IGNORE)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                writer.write(cabecera);
+                writer.write('\n');
+                long escritas = 0;
+                while (cursor.next()) {
+                    escribirFila(writer, cursor.get());
+                    escritas++;
+                }
+                writer.flush();
+                return escritas;
+            } catch (IOException e) {
+                // Típicamente el cliente cortó la descarga
+                LOG.warnf("⚠️ Exportación de %s interrumpida: %s", nombre, e.getMessage());
+                throw new UncheckedIOException(e);
+            }
+        });
+        LOG.infof("📤 Exportación de %s: %d filas en %d ms", nombre, filas, System.currentTimeMillis() - inicio);
+        return filas;
+    }
+
+    static void escribirFila(Writer writer, Object[] fila) throws IOException {
+        for (int i = 0; i < fila.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            escribirValor(writer, fila[i]);
+        }
+        writer.write('\n');
+    }
+
+    private static void escribirValor(Writer writer, Object valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        if (valor instanceof BigDecimal decimal) {
+            writer.write(decimal.toPlainString());
+        } else if (valor instanceof Enum<?> enumerado) {
+            writer.write(enumerado.name());
+        } else if (valor instanceof String texto) {
+            escribirTexto(writer, texto);
+        } else {
+            // Long, Integer, Boolean, LocalDate: toString ya es ISO / sin separadores
+            writer.write(valor.toString());
+        }
+    }
+
+    /**
+     * RFC 4180: comillas solo si el texto tiene coma, comilla o salto de línea.
+     */
+    private static void escribirTexto(Writer writer, String texto) throws IOException {
+        boolean requiereComillas = false;
+        for (int i = 0; i < texto.length() && !requiereComillas; i++) {
+            char c = texto.charAt(i);
+            requiereComillas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!requiereComillas) {
+            writer.write(texto);
+            return;
+        }
+        writer.write('"');
+        writer.write(texto.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
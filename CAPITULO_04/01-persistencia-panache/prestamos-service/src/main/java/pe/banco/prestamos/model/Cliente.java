@@ -2,6 +2,10 @@ package pe.banco.prestamos.model;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.util.List;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
@@ -87,8 +91,34 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
  *         @Index(name = "idx_dni", columnList = "dni")
  *     }
  * )
+ *
+ * RESTRICCIONES CON NOMBRE: uk_clientes_dni y uk_clientes_email son la
+ * única validación de duplicados. ClienteResource.crear hace el INSERT
+ * directamente y traduce la violación (por nombre de constraint) a 409.
  */
-@Table(name = "clientes")
+@Table(name = "clientes", uniqueConstraints = {
+        @UniqueConstraint(name = Cliente.UK_DNI, columnNames = "dni"),
+        @UniqueConstraint(name = Cliente.UK_EMAIL, columnNames = "email")
+})
+
+/**
+ * CACHE DE SEGUNDO NIVEL (Caffeine, incluido en Quarkus):
+ *
+ * ┌──────────────────────────────┬────────────────────────────────────┐
+ * │ Búsqueda                     │ Región                             │
+ * ├──────────────────────────────┼────────────────────────────────────┤
+ * │ findById(id)                 │ entidad Cliente                    │
+ * │ findByDni(dni)               │ natural id (dni → id) + entidad    │
+ * │ findByEmail(email)           │ query cache + entidad              │
+ * └──────────────────────────────┴────────────────────────────────────┘
+ *
+ * Hibernate invalida las regiones en el commit de cada UPDATE/DELETE
+ * (actualizar, eliminar), así que nunca se lee un cliente obsoleto
+ * dentro de esta instancia. READ_WRITE usa locks suaves por entrada.
+ */
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 
 /**
  * extends PanacheEntity
@@ -144,6 +174,9 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
  * buscarse y eliminarse sin ayuda externa.
  */
 public class Cliente extends PanacheEntity {
+
+    public static final String UK_DNI = "uk_clientes_dni";
+    public static final String UK_EMAIL = "uk_clientes_email";
     
     // ============================================
     // CAMPOS DE LA ENTIDAD (DATOS DEL CLIENTE)
@@ -176,43 +209,40 @@ public class Cliente extends PanacheEntity {
     /**
      * Documento Nacional de Identidad (DNI).
      * 
-     * @Column(nullable = false, unique = true, length = 8)
+     * @NaturalId @Column(nullable = false, length = 8)
      * 
      * RESTRICCIONES:
      * - nullable = false → Obligatorio
-     * - unique = true → UNIQUE constraint en BD
+     * - UNIQUE constraint uk_clientes_dni (ver @Table)
      * - length = 8 → VARCHAR(8) (DNI peruano)
      * 
      * Hibernate genera SQL:
      * CREATE TABLE clientes (
      *     ...
      *     dni VARCHAR(8) NOT NULL,
-     *     CONSTRAINT uk_dni UNIQUE (dni)
+     *     CONSTRAINT uk_clientes_dni UNIQUE (dni)
      * );
      * 
-     * VALIDACIÓN EN APLICACIÓN (ClienteResource):
-     * - Antes de persist(), verificamos con Repository.existsByDni()
-     * - Evita intentar INSERT duplicado (más rápido que catch exception)
+     * VALIDACIÓN (ClienteResource.crear):
+     * - Sin SELECT previo: el INSERT choca con uk_clientes_dni
+     * - org.hibernate.exception.ConstraintViolationException
+     *   (constraintName = "uk_clientes_dni") → HTTP 409 Conflict
      * 
-     * Si intentas INSERT duplicado:
-     * org.hibernate.exception.ConstraintViolationException:
-     * could not execute statement... UNIQUE constraint
-     * 
-     * Best Practice:
-     * - Validar duplicados en capa de servicio ANTES de persist()
-     * - Retornar HTTP 409 Conflict al cliente
+     * @NaturalId: el DNI es inmutable e identifica al cliente;
+     * findByDni() se resuelve desde el cache (dni → id → entidad).
      * 
      * Analogía: Como el número de cédula - único por persona,
      * no puede haber dos clientes con el mismo DNI.
      */
-    @Column(nullable = false, unique = true, length = 8)
+    @NaturalId
+    @Column(nullable = false, length = 8)
     public String dni;
     
     /**
      * Correo electrónico del cliente.
      * 
-     * @Column(nullable = false, unique = true)
-     * - unique = true → No puede repetirse
+     * @Column(nullable = false)
+     * - UNIQUE constraint uk_clientes_email (ver @Table) → No puede repetirse
      * - Usado para notificaciones, login (futuro)
      * 
      * Sin especificar length:
@@ -233,7 +263,7 @@ public class Cliente extends PanacheEntity {
      * Mapeo SQL:
      * email VARCHAR(255) UNIQUE NOT NULL
      */
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     public String email;
     
     /**
@@ -5,6 +5,9 @@ import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import pe.banco.prestamos.dto.CuotaDTO;
+import pe.banco.prestamos.dto.PaginaDTO;
+import java.util.List;
 
 /**
  * Entidad JPA que representa una cuota de pago de un préstamo.
@@ -30,6 +33,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
  * │ - prestamo: Prestamo (FK)            │
  * │ - numeroCuota: Integer (1, 2, 3...)  │
  * │ - monto: BigDecimal                  │
+ * │ - capital: BigDecimal (nullable)     │
+ * │ - interes: BigDecimal (nullable)     │
  * │ - fechaVencimiento: LocalDate        │
  * │ - fechaPago: LocalDate (nullable)    │
  * │ - pagada: Boolean                    │
@@ -42,6 +47,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
  * │ - prestamo_id BIGINT NOT NULL (FK)   │
  * │ - numero_cuota INTEGER NOT NULL      │
  * │ - monto DECIMAL(10,2) NOT NULL       │
+ * │ - capital DECIMAL(10,2) NULL         │
+ * │ - interes DECIMAL(10,2) NULL         │
  * │ - fecha_vencimiento DATE NOT NULL    │
  * │ - fecha_pago DATE NULL               │
  * │ - pagada BOOLEAN NOT NULL            │
@@ -102,7 +109,16 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
  *     FOREIGN KEY (prestamo_id) REFERENCES prestamos(id)
  * );
  */
-@Table(name = "cuotas")
+@Table(name = "cuotas", uniqueConstraints = {
+    // Una cuota por número dentro del préstamo. El índice de la constraint
+    // también sirve al cursor de GET /prestamos/{id}/cuotas
+    // (WHERE prestamo_id = ? AND numero_cuota > ? ORDER BY numero_cuota)
+    @UniqueConstraint(name = "uk_cuotas_prestamo_numero", columnNames = {"prestamo_id", "numero_cuota"})
+}, indexes = {
+    // Corrida de mora: WHERE pagada = false AND fecha_vencimiento < :corte
+    // (prestamo_id al final: el GROUP BY se resuelve solo con el índice)
+    @Index(name = "idx_cuotas_pagada_vencimiento", columnList = "pagada, fecha_vencimiento, prestamo_id")
+})
 
 /**
  * extends PanacheEntity
@@ -301,6 +317,21 @@ public class Cuota extends PanacheEntity {
     @Column(nullable = false, precision = 10, scale = 2)
     public BigDecimal monto;
     
+    /**
+     * Parte de la cuota que amortiza capital (reduce la deuda).
+     * 
+     * Calculado por MotorAmortizacion: monto = capital + interes.
+     * Nullable: cuotas generadas antes del motor no tienen desglose.
+     */
+    @Column(precision = 10, scale = 2)
+    public BigDecimal capital;
+    
+    /**
+     * Parte de la cuota que corresponde a intereses del período.
+     */
+    @Column(precision = 10, scale = 2)
+    public BigDecimal interes;
+    
     /**
      * Fecha límite para pagar esta cuota.
      * 
@@ -478,6 +509,16 @@ public class Cuota extends PanacheEntity {
     @Column(nullable = false)
     public Boolean pagada;
     
+    /**
+     * Lo abonado a esta cuota hasta ahora (pagos parciales).
+     * 
+     * Lo mantiene pagos.MotorAplicacionPagos: cada pago cubre primero el
+     * interés y luego el capital. Nullable: null = nada abonado (o, si
+     * pagada = true, la cuota completa).
+     */
+    @Column(name = "monto_pagado", precision = 10, scale = 2)
+    public BigDecimal montoPagado;
+    
     // ============================================
     // CONSTRUCTORES
     // ============================================
@@ -587,6 +628,30 @@ public class Cuota extends PanacheEntity {
         this.fechaPago = null;    // Sin fecha de pago aún
     }
     
+    // ============================================
+    // CONSULTAS
+    // ============================================
+    
+    /**
+     * Cuotas de un préstamo paginadas por número de cuota (keyset).
+     * 
+     * SELECT numero_cuota, monto, capital, interes, fecha_vencimiento, fecha_pago, pagada
+     * FROM cuotas
+     * WHERE prestamo_id = ? AND numero_cuota > ?
+     * ORDER BY numero_cuota
+     * LIMIT :limite + 1
+     * 
+     * @param desdeNumero último numeroCuota ya recibido (0 = desde la primera)
+     */
+    public static PaginaDTO<CuotaDTO> pagina(Long prestamoId, int desdeNumero, int limite) {
+        List<CuotaDTO> filas = Cuota.find("prestamo.id = ?1 and numeroCuota > ?2 order by numeroCuota",
+                    prestamoId, desdeNumero)
+                .project(CuotaDTO.class)
+                .range(0, limite)
+                .list();
+        return PaginaDTO.de(filas, limite, cuota -> cuota.numeroCuota().longValue());
+    }
+    
     // ============================================
     // MÉTODOS ÚTILES (Opcionales)
     // ============================================
@@ -598,6 +663,17 @@ public class Cuota extends PanacheEntity {
     public void marcarComoPagada() {
         this.pagada = true;
         this.fechaPago = LocalDate.now();
+        this.montoPagado = this.monto;
+    }
+    
+    /**
+     * Lo que falta pagar de esta cuota (monto menos abonos parciales).
+     */
+    public BigDecimal saldo() {
+        if (this.pagada) {
+            return BigDecimal.ZERO;
+        }
+        return this.montoPagado == null ? this.monto : this.monto.subtract(this.montoPagado);
     }
     
     /**
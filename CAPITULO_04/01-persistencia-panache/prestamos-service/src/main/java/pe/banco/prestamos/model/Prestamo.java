@@ -2,6 +2,9 @@ package pe.banco.prestamos.model;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
 import jakarta.persistence.*;
+import pe.banco.prestamos.amortizacion.TipoAmortizacion;
+import pe.banco.prestamos.dto.PaginaDTO;
+import pe.banco.prestamos.dto.PrestamoResumenDTO;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
@@ -104,7 +107,12 @@ import java.util.List;
  *     FOREIGN KEY (cliente_id) REFERENCES clientes(id)
  * );
  */
-@Table(name = "prestamos")
+@Table(name = "prestamos", indexes = {
+    // Listado por cliente con cursor: WHERE cliente_id = ? AND id < ? ORDER BY id DESC
+    @Index(name = "idx_prestamos_cliente_id", columnList = "cliente_id, id"),
+    // Regularización de la corrida de mora: WHERE estado = 'VENCIDO' AND id > ? ORDER BY id
+    @Index(name = "idx_prestamos_estado", columnList = "estado, id")
+})
 
 /**
  * extends PanacheEntity
@@ -634,6 +642,71 @@ public class Prestamo extends PanacheEntity {
     @Column(nullable = false, length = 20)
     public EstadoPrestamo estado;
     
+    /**
+     * Sistema con el que se generó el cronograma (FRANCES, ALEMAN, PLANO).
+     * 
+     * Nullable: préstamos creados antes del motor de amortización
+     * usaron el cálculo plano.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    public TipoAmortizacion tipoAmortizacion;
+    
+    // ============================================
+    // RESUMEN DE PAGOS (desnormalizado)
+    // ============================================
+    
+    /**
+     * Suma de los montos de cuotas NO pagadas.
+     * 
+     * DESNORMALIZACIÓN:
+     * Se mantiene en la misma transacción de cada pago (registrarPago)
+     * en lugar de recorrer todas las cuotas en cada consulta:
+     * 
+     * Antes:  saldo = cuotas.stream().filter(!pagada).sum()  → O(plazo)
+     * Ahora:  saldo = prestamo.saldoPendiente                 → O(1)
+     * 
+     * Analogía: la libreta de ahorros anota el saldo en cada movimiento;
+     * nadie suma todos los movimientos cada vez que pregunta el saldo.
+     * 
+     * Nullable: préstamos creados antes de este campo se completan
+     * la primera vez que reciben un pago (ver asegurarResumen).
+     */
+    @Column(precision = 12, scale = 2)
+    public BigDecimal saldoPendiente;
+    
+    /**
+     * Cantidad de cuotas pagadas. El préstamo está pagado cuando llega a plazoMeses.
+     */
+    public Integer cuotasPagadas;
+    
+    /**
+     * Vencimiento de la primera cuota impaga (null si no queda ninguna).
+     * 
+     * Si ya pasó, el préstamo tiene cuotas vencidas: las cuotas vencen en
+     * orden, así que la más antigua impaga es la que más mora acumula.
+     */
+    public LocalDate proximoVencimiento;
+    
+    // ============================================
+    // MORA (calculada por la corrida nocturna)
+    // ============================================
+    
+    /**
+     * Días de atraso de la cuota impaga más antigua a la fecha de corte
+     * de la última corrida de mora (0 = al día).
+     * 
+     * Lo escribe CorridaMoraJob con SQL set-based; no se recalcula en Java.
+     */
+    public Integer diasMora;
+    
+    /**
+     * Tramo de mora para provisiones y cobranza (ver TramoMora).
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(length = 15)
+    public TramoMora tramoMora;
+    
     // ============================================
     // RELACIÓN CON CUOTAS
     // ============================================
@@ -913,14 +986,165 @@ public class Prestamo extends PanacheEntity {
         CANCELADO
     }
     
+    /**
+     * Tramos de mora (días de atraso de la cuota impaga más antigua).
+     * 
+     * ┌──────────────┬───────────┬──────────────────────────────┐
+     * │ Tramo        │ Días      │ Gestión típica               │
+     * ├──────────────┼───────────┼──────────────────────────────┤
+     * │ AL_DIA       │ 0         │ -                            │
+     * │ TRAMO_1_30   │ 1 - 30    │ Recordatorio (SMS, email)    │
+     * │ TRAMO_31_60  │ 31 - 60   │ Llamada de cobranza          │
+     * │ TRAMO_61_90  │ 61 - 90   │ Cobranza especializada       │
+     * │ MAS_DE_90    │ > 90      │ Cartera pesada / judicial    │
+     * └──────────────┴───────────┴──────────────────────────────┘
+     */
+    public enum TramoMora {
+        AL_DIA,
+        TRAMO_1_30,
+        TRAMO_31_60,
+        TRAMO_61_90,
+        MAS_DE_90
+    }
+    
+    // ============================================
+    // CONSULTAS DE LISTADO (proyecciones)
+    // ============================================
+    
+    private static final String SELECT_RESUMEN = """
+            SELECT new pe.banco.prestamos.dto.PrestamoResumenDTO(
+                p.id, c.id, c.nombre, p.monto, p.plazoMeses, p.tasaInteres,
+                p.fechaDesembolso, p.estado, p.tipoAmortizacion,
+                COALESCE(p.saldoPendiente,
+                         (SELECT COALESCE(SUM(q.monto - COALESCE(q.montoPagado, 0BD)), 0BD) FROM Cuota q
+                          WHERE q.prestamo = p AND q.pagada = false)),
+                p.cuotasPagadas, p.proximoVencimiento)
+            FROM Prestamo p JOIN p.cliente c
+            """;
+    
+    /**
+     * Resúmenes de préstamos, del más reciente al más antiguo, paginados por id.
+     * 
+     * UNA sola consulta por página, sin importar cuántos préstamos o cuotas haya:
+     * 
+     * SELECT p.id, c.id, c.nombre, p.monto, ..., p.saldo_pendiente, ...
+     * (la suma sobre cuotas solo se evalúa para préstamos antiguos
+     *  con saldo_pendiente NULL: COALESCE no evalúa el segundo argumento)
+     * FROM prestamos p JOIN clientes c ON c.id = p.cliente_id
+     * WHERE p.id < :cursor            ← keyset (usa la PK)
+     * ORDER BY p.id DESC
+     * LIMIT :limite + 1               ← +1 para saber si hay página siguiente
+     * 
+     * @param clienteId filtra por cliente (null = todos)
+     * @param cursor último id de la página anterior (null = primera página)
+     * @param limite tamaño de página
+     */
+    public static PaginaDTO<PrestamoResumenDTO> listarResumen(Long clienteId, Long cursor, int limite) {
+        StringBuilder hql = new StringBuilder(SELECT_RESUMEN).append(" WHERE 1 = 1");
+        if (clienteId != null) {
+            hql.append(" AND c.id = :clienteId");
+        }
+        if (cursor != null) {
+            hql.append(" AND p.id < :cursor");
+        }
+        hql.append(" ORDER BY p.id DESC");
+        
+        TypedQuery<PrestamoResumenDTO> query = Prestamo.getEntityManager()
+                .createQuery(hql.toString(), PrestamoResumenDTO.class)
+                .setMaxResults(limite + 1);
+        if (clienteId != null) {
+            query.setParameter("clienteId", clienteId);
+        }
+        if (cursor != null) {
+            query.setParameter("cursor", cursor);
+        }
+        return PaginaDTO.de(query.getResultList(), limite, PrestamoResumenDTO::id);
+    }
+    
     // ============================================
     // MÉTODOS ÚTILES (Opcionales)
     // ============================================
     
+    /**
+     * Asigna el cronograma recién generado e inicializa el resumen de pagos.
+     * Único recorrido completo de las cuotas en la vida del préstamo.
+     */
+    public void asignarCuotas(List<Cuota> cuotas) {
+        this.cuotas = cuotas;
+        this.cuotasPagadas = 0;
+        this.saldoPendiente = cuotas.stream()
+            .map(c -> c.monto)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        this.proximoVencimiento = cuotas.isEmpty() ? null : cuotas.get(0).fechaVencimiento;
+    }
+    
+    /**
+     * Registra el pago de una cuota y actualiza el resumen en O(1).
+     * 
+     * Debe llamarse dentro de la transacción del pago, con el préstamo
+     * bloqueado (findById con PESSIMISTIC_WRITE) para que dos pagos
+     * simultáneos no pisen los contadores.
+     * 
+     * Solo si se paga la cuota de proximoVencimiento se busca la siguiente
+     * impaga, con una consulta al índice (prestamo_id, numero_cuota):
+     * 
+     * SELECT fecha_vencimiento FROM cuotas
+     * WHERE prestamo_id = ? AND numero_cuota > ? AND NOT pagada
+     * ORDER BY numero_cuota LIMIT 1
+     * 
+     * @param cuota cuota impaga de este préstamo
+     */
+    public void registrarPago(Cuota cuota) {
+        asegurarResumen();
+        
+        // saldo() descuenta abonos parciales previos
+        this.saldoPendiente = this.saldoPendiente.subtract(cuota.saldo());
+        cuota.marcarComoPagada();
+        this.cuotasPagadas++;
+        
+        if (this.cuotasPagadas >= this.plazoMeses) {
+            this.proximoVencimiento = null;
+            this.estado = EstadoPrestamo.PAGADO;
+        } else if (cuota.fechaVencimiento.equals(this.proximoVencimiento)) {
+            this.proximoVencimiento = Cuota.find(
+                    "select c.fechaVencimiento from Cuota c " +
+                    "where c.prestamo.id = ?1 and c.numeroCuota > ?2 and c.pagada = false " +
+                    "order by c.numeroCuota", this.id, cuota.numeroCuota)
+                .project(LocalDate.class)
+                .firstResult();
+        }
+    }
+    
+    /**
+     * Completa el resumen de préstamos creados antes de que existiera
+     * (una sola vez: a partir de ahí se mantiene en cada pago).
+     */
+    private void asegurarResumen() {
+        if (this.saldoPendiente != null && this.cuotasPagadas != null) {
+            return;
+        }
+        this.saldoPendiente = BigDecimal.ZERO;
+        this.cuotasPagadas = 0;
+        this.proximoVencimiento = null;
+        for (Cuota c : this.cuotas) {
+            if (c.pagada) {
+                this.cuotasPagadas++;
+            } else {
+                this.saldoPendiente = this.saldoPendiente.add(c.saldo());
+                if (this.proximoVencimiento == null || c.fechaVencimiento.isBefore(this.proximoVencimiento)) {
+                    this.proximoVencimiento = c.fechaVencimiento;
+                }
+            }
+        }
+    }
+    
     /**
      * Verifica si el préstamo está completamente pagado.
      */
     public boolean estaPagado() {
+        if (this.cuotasPagadas != null) {
+            return this.cuotasPagadas >= this.plazoMeses;
+        }
         return this.cuotas != null && 
                this.cuotas.stream().allMatch(c -> c.pagada);
     }
@@ -929,19 +1153,24 @@ public class Prestamo extends PanacheEntity {
      * Verifica si tiene cuotas vencidas.
      */
     public boolean tieneVencidas() {
+        if (this.saldoPendiente != null) {
+            return this.proximoVencimiento != null && LocalDate.now().isAfter(this.proximoVencimiento);
+        }
         return this.cuotas != null &&
                this.cuotas.stream().anyMatch(c -> c.estaVencida());
     }
     
     /**
-     * Calcula el saldo pendiente (cuotas sin pagar).
+     * Saldo pendiente (cuotas sin pagar).
      */
     public BigDecimal calcularSaldoPendiente() {
+        if (this.saldoPendiente != null) {
+            return this.saldoPendiente;
+        }
         if (this.cuotas == null) return BigDecimal.ZERO;
         
         return this.cuotas.stream()
-            .filter(c -> !c.pagada)
-            .map(c -> c.monto)
+            .map(Cuota::saldo)
             .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
     
@@ -0,0 +1,76 @@
+package pe.banco.prestamos.mora;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import io.quarkus.panache.common.Sort;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint de la corrida nocturna de mora (una fila por fecha de corte).
+ *
+ * Cada bloque procesado actualiza "fase" y "ultimoPrestamoId" en la MISMA
+ * transacción que sus UPDATE: si el proceso se cae, la corrida se reanuda
+ * justo después del último bloque confirmado, sin repetir ni saltar filas.
+ *
+ * Analogía: el marcapáginas de un libro. Si te interrumpen, no vuelves a
+ * leer desde la primera página.
+ */
+@Entity
+@Table(name = "corridas_mora")
+public class CorridaMora extends PanacheEntity {
+
+    public enum Fase {
+        /**
+         * Pendiente de calcular qué préstamos tienen cuotas vencidas.
+         */
+        IDENTIFICANDO,
+        /**
+         * Marcando préstamos vencidos (estado, días y tramo de mora).
+         */
+        MARCANDO,
+        /**
+         * Devolviendo a ACTIVO los préstamos que se pusieron al día.
+         */
+        REGULARIZANDO,
+        COMPLETADA
+    }
+
+    @Column(nullable = false, unique = true)
+    public LocalDate fechaCorte;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 15)
+    public Fase fase;
+
+    /**
+     * Último id de préstamo procesado en la fase actual (0 = ninguno).
+     */
+    @Column(nullable = false)
+    public Long ultimoPrestamoId;
+
+    public long prestamosVencidos;
+    public long prestamosRegularizados;
+
+    @Column(nullable = false)
+    public LocalDateTime inicio;
+
+    public LocalDateTime fin;
+
+    public static CorridaMora deFecha(LocalDate fechaCorte) {
+        return find("fechaCorte", fechaCorte).firstResult();
+    }
+
+    /**
+     * Corrida con la fecha de corte más reciente (null = nunca hubo una).
+     */
+    public static CorridaMora ultima() {
+        return findAll(Sort.descending("fechaCorte")).firstResult();
+    }
+
+    void avanzar(Fase fase) {
+        this.fase = fase;
+        this.ultimoPrestamoId = 0L;
+    }
+}
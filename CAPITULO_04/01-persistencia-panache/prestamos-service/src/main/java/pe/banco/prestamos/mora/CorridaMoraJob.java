@@ -0,0 +1,270 @@
+package pe.banco.prestamos.mora;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.query.NativeQuery;
+import org.jboss.logging.Logger;
+import pe.banco.prestamos.model.Prestamo;
+import pe.banco.prestamos.mora.CorridaMora.Fase;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Corrida nocturna de mora: marca préstamos VENCIDO, calcula días y tramo
+ * de mora, y devuelve a ACTIVO los que se pusieron al día.
+ *
+ * TODO EN SQL (set-based): ninguna cuota ni préstamo se carga en memoria.
+ *
+ * ┌─────────────────┬──────────────────────────────────────────────────────┐
+ * │ Fase            │ SQL (una transacción por bloque)                     │
+ * ├─────────────────┼──────────────────────────────────────────────────────┤
+ * │ IDENTIFICANDO   │ INSERT INTO mora_prestamos_vencidos                  │
+ * │ (1 sentencia)   │ SELECT prestamo_id, MIN(fecha_vencimiento)           │
+ * │                 │ FROM cuotas WHERE NOT pagada AND fecha_venc < corte  │
+ * │                 │ GROUP BY prestamo_id   ← idx_cuotas_pagada_venc..    │
+ * ├─────────────────┼──────────────────────────────────────────────────────┤
+ * │ MARCANDO        │ UPDATE prestamos SET estado='VENCIDO', dias_mora,    │
+ * │ (bloques)       │ tramo_mora FROM mora_prestamos_vencidos JOIN cuotas  │
+ * │                 │ (aún impagas) WHERE id entre (checkpoint, hasta]     │
+ * ├─────────────────┼──────────────────────────────────────────────────────┤
+ * │ REGULARIZANDO   │ UPDATE prestamos SET estado='ACTIVO' ...             │
+ * │ (bloques)       │ WHERE estado='VENCIDO' AND NOT EXISTS (vencida)      │
+ * └─────────────────┴──────────────────────────────────────────────────────┘
+ *
+ * REANUDACIÓN: CorridaMora guarda fase y último id confirmado. Si el
+ * proceso se reinicia o se agota la ventana, la siguiente ejecución
+ * continúa desde ahí (los UPDATE son idempotentes), aunque ya sea otro
+ * día. Solo se reanuda la corrida más reciente: una más antigua ya quedó
+ * superada por la de una fecha de corte posterior.
+ *
+ * Solo toca préstamos ACTIVO o VENCIDO: PAGADO y CANCELADO no cambian.
+ */
+@ApplicationScoped
+public class CorridaMoraJob {
+
+    private static final Logger LOG = Logger.getLogger(CorridaMoraJob.class);
+
+    private static final String TRAMO = """
+            CASE WHEN CAST(:corte AS date) - v.vencimiento_mas_antiguo <= 30 THEN 'TRAMO_1_30'
+                 WHEN CAST(:corte AS date) - v.vencimiento_mas_antiguo <= 60 THEN 'TRAMO_31_60'
+                 WHEN CAST(:corte AS date) - v.vencimiento_mas_antiguo <= 90 THEN 'TRAMO_61_90'
+                 ELSE 'MAS_DE_90' END
+            """;
+
+    @Inject
+    EntityManager em;
+
+    @ConfigProperty(name = "prestamos.mora.chunk-size", defaultValue = "5000")
+    int chunkSize;
+
+    /**
+     * Tiempo máximo de cada ejecución (o reanudación) desde que arranca. Al
+     * agotarse, el job se detiene en el último checkpoint y la siguiente
+     * ejecución continúa con una ventana nueva.
+     */
+    @ConfigProperty(name = "prestamos.mora.ventana", defaultValue = "PT3H")
+    Duration ventana;
+
+    private final AtomicBoolean enEjecucion = new AtomicBoolean();
+
+    /**
+     * Corrida diaria (por defecto 02:00).
+     */
+    @Scheduled(identity = "corrida-mora", cron = "{prestamos.mora.cron}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void corridaNocturna() {
+        ejecutar(LocalDate.now());
+    }
+
+    /**
+     * Reanuda la última corrida si quedó a medias (reinicio del servicio o
+     * ventana agotada), aunque sea de un día anterior. No hace nada si no
+     * hay corridas o si la última ya terminó.
+     */
+    @Scheduled(identity = "corrida-mora-reanudar", every = "{prestamos.mora.reanudar-cada}",
+            delayed = "{prestamos.mora.reanudar-cada}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void reanudarSiInterrumpida() {
+        CorridaMora corrida = QuarkusTransaction.requiringNew().call(CorridaMora::ultima);
+        if (corrida != null && corrida.fase != Fase.COMPLETADA) {
+            ejecutar(corrida.fechaCorte);
+        }
+    }
+
+    /**
+     * Ejecuta (o reanuda) la corrida de una fecha de corte.
+     *
+     * @return la corrida con su fase y contadores al terminar o detenerse
+     */
+    public CorridaMora ejecutar(LocalDate fechaCorte) {
+        if (!enEjecucion.compareAndSet(false, true)) {
+            LOG.warn("⏳ Corrida de mora ya en ejecución, se omite");
+            return null;
+        }
+        try {
+            Long corridaId = QuarkusTransaction.requiringNew().call(() -> iniciarOReanudar(fechaCorte));
+            LocalDateTime limite = LocalDateTime.now().plus(ventana);
+
+            boolean continuar = true;
+            while (continuar) {
+                if (LocalDateTime.now().isAfter(limite)) {
+                    LOG.warnf("⏰ Corrida de mora %s: ventana agotada, se reanudará desde el checkpoint", fechaCorte);
+                    break;
+                }
+                continuar = QuarkusTransaction.requiringNew().call(() -> procesarBloque(corridaId));
+            }
+
+            CorridaMora corrida = QuarkusTransaction.requiringNew().call(() -> CorridaMora.findById(corridaId));
+            if (corrida.fase == Fase.COMPLETADA) {
+                LOG.infof("✅ Corrida de mora %s: %d préstamos vencidos, %d regularizados en %s",
+                        fechaCorte, corrida.prestamosVencidos, corrida.prestamosRegularizados,
+                        Duration.between(corrida.inicio, corrida.fin));
+            }
+            return corrida;
+        } finally {
+            enEjecucion.set(false);
+        }
+    }
+
+    private Long iniciarOReanudar(LocalDate fechaCorte) {
+        CorridaMora corrida = CorridaMora.deFecha(fechaCorte);
+        if (corrida == null) {
+            corrida = new CorridaMora();
+            corrida.fechaCorte = fechaCorte;
+            corrida.fase = Fase.IDENTIFICANDO;
+            corrida.ultimoPrestamoId = 0L;
+            corrida.inicio = LocalDateTime.now();
+            corrida.persist();
+            LOG.infof("🌙 Corrida de mora %s iniciada", fechaCorte);
+        } else if (corrida.fase != Fase.COMPLETADA) {
+            LOG.infof("🔁 Corrida de mora %s reanudada en %s desde el préstamo %d",
+                    fechaCorte, corrida.fase, corrida.ultimoPrestamoId);
+        }
+        return corrida.id;
+    }
+
+    /**
+     * Ejecuta un paso de la fase actual dentro de la transacción del llamador,
+     * incluyendo la actualización del checkpoint.
+     *
+     * @return true si queda trabajo pendiente
+     */
+    private boolean procesarBloque(Long corridaId) {
+        CorridaMora corrida = CorridaMora.findById(corridaId);
+        switch (corrida.fase) {
+            case IDENTIFICANDO -> identificar(corrida);
+            case MARCANDO -> marcar(corrida);
+            case REGULARIZANDO -> regularizar(corrida);
+            case COMPLETADA -> {
+                return false;
+            }
+        }
+        return corrida.fase != Fase.COMPLETADA;
+    }
+
+    private void identificar(CorridaMora corrida) {
+        sentencia("TRUNCATE mora_prestamos_vencidos", PrestamoVencido.class).executeUpdate();
+        int vencidos = sentencia("""
+                INSERT INTO mora_prestamos_vencidos (prestamo_id, vencimiento_mas_antiguo)
+                SELECT prestamo_id, MIN(fecha_vencimiento)
+                FROM cuotas
+                WHERE pagada = false AND fecha_vencimiento < :corte
+                GROUP BY prestamo_id
+                """, PrestamoVencido.class)
+                .setParameter("corte", corrida.fechaCorte)
+                .executeUpdate();
+        LOG.infof("🔎 Corrida de mora %s: %d préstamos con cuotas vencidas", corrida.fechaCorte, vencidos);
+        corrida.avanzar(Fase.MARCANDO);
+    }
+
+    private void marcar(CorridaMora corrida) {
+        Long hasta = finDeBloque("""
+                SELECT MAX(prestamo_id) FROM (
+                    SELECT prestamo_id FROM mora_prestamos_vencidos
+                    WHERE prestamo_id > :desde ORDER BY prestamo_id LIMIT :n) b
+                """, corrida.ultimoPrestamoId);
+        if (hasta == null) {
+            corrida.avanzar(Fase.REGULARIZANDO);
+            return;
+        }
+        // La lista se armó en IDENTIFICANDO; un pago confirmado desde entonces no
+        // debe terminar en VENCIDO. El JOIN con cuotas vuelve a exigir que EXISTA
+        // una cuota impaga vencida y recalcula la más antigua (el pago imputa
+        // primero la cuota más vieja, así que la de la tabla puede estar pagada).
+        int marcados = sentencia("""
+                UPDATE prestamos p
+                SET estado = 'VENCIDO',
+                    dias_mora = CAST(:corte AS date) - v.vencimiento_mas_antiguo,
+                    tramo_mora = """ + TRAMO + """
+                FROM (SELECT c.prestamo_id, MIN(c.fecha_vencimiento) AS vencimiento_mas_antiguo
+                      FROM mora_prestamos_vencidos m
+                      JOIN cuotas c ON c.prestamo_id = m.prestamo_id
+                      WHERE m.prestamo_id > :desde AND m.prestamo_id <= :hasta
+                        AND c.pagada = false AND c.fecha_vencimiento < :corte
+                      GROUP BY c.prestamo_id) v
+                WHERE p.id = v.prestamo_id
+                  AND p.estado IN ('ACTIVO', 'VENCIDO')
+                """, Prestamo.class)
+                .setParameter("corte", corrida.fechaCorte)
+                .setParameter("desde", corrida.ultimoPrestamoId)
+                .setParameter("hasta", hasta)
+                .executeUpdate();
+        corrida.prestamosVencidos += marcados;
+        corrida.ultimoPrestamoId = hasta;
+    }
+
+    private void regularizar(CorridaMora corrida) {
+        Long hasta = finDeBloque("""
+                SELECT MAX(id) FROM (
+                    SELECT id FROM prestamos
+                    WHERE estado = 'VENCIDO' AND id > :desde ORDER BY id LIMIT :n) b
+                """, corrida.ultimoPrestamoId);
+        if (hasta == null) {
+            corrida.avanzar(Fase.COMPLETADA);
+            corrida.fin = LocalDateTime.now();
+            return;
+        }
+        int regularizados = sentencia("""
+                UPDATE prestamos p
+                SET estado = 'ACTIVO', dias_mora = 0, tramo_mora = 'AL_DIA'
+                WHERE p.estado = 'VENCIDO' AND p.id > :desde AND p.id <= :hasta
+                  AND NOT EXISTS (SELECT 1 FROM mora_prestamos_vencidos v WHERE v.prestamo_id = p.id)
+                """, Prestamo.class)
+                .setParameter("desde", corrida.ultimoPrestamoId)
+                .setParameter("hasta", hasta)
+                .executeUpdate();
+        corrida.prestamosRegularizados += regularizados;
+        corrida.ultimoPrestamoId = hasta;
+    }
+
+    /**
+     * Sentencia nativa que declara qué tabla modifica.
+     *
+     * Sin query space, Hibernate no sabe qué toca un UPDATE nativo y, por
+     * seguridad, vacía TODO el cache de segundo nivel (clientes incluidos)
+     * en cada bloque. Declarando la entidad solo se invalida su región.
+     */
+    private NativeQuery<?> sentencia(String sql, Class<?> tabla) {
+        return em.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(tabla);
+    }
+
+    /**
+     * Último id del siguiente bloque de chunkSize filas (null = no quedan).
+     */
+    private Long finDeBloque(String sql, Long desde) {
+        Number hasta = (Number) em.createNativeQuery(sql)
+                .setParameter("desde", desde)
+                .setParameter("n", chunkSize)
+                .getSingleResult();
+        return hasta != null ? hasta.longValue() : null;
+    }
+}
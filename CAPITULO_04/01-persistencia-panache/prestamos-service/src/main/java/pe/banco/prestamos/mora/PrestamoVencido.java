@@ -0,0 +1,26 @@
+package pe.banco.prestamos.mora;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Tabla de trabajo de la corrida de mora: un préstamo con cuotas vencidas
+ * y el vencimiento impago más antiguo a la fecha de corte.
+ *
+ * Se llena con UN solo INSERT ... SELECT ... GROUP BY sobre cuotas (fase
+ * IDENTIFICANDO) y después se recorre por bloques de prestamo_id. Así el
+ * barrido de millones de cuotas ocurre una vez y no una vez por bloque.
+ */
+@Entity
+@Table(name = "mora_prestamos_vencidos")
+public class PrestamoVencido extends PanacheEntityBase {
+
+    @Id
+    @Column(name = "prestamo_id")
+    public Long prestamoId;
+
+    @Column(name = "vencimiento_mas_antiguo", nullable = false)
+    public LocalDate vencimientoMasAntiguo;
+}
@@ -0,0 +1,106 @@
+package pe.banco.prestamos.originacion;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector CSV (RFC 4180) registro por registro, sin cargar el archivo en memoria.
+ *
+ * split(",") se rompe con cualquier CSV exportado de una planilla que traiga
+ * una columna de texto (las columnas no reconocidas se ignoran al importar):
+ *
+ *   1,"Préstamo ""A"", sede 1",12
+ *     split → [1] ["Préstamo ""A""] [ sede 1"] [12]   ❌
+ *     aquí  → [1] [Préstamo "A", sede 1] [12]          ✅
+ *
+ * Soporta:
+ * - Campos entre comillas con comas y saltos de línea adentro
+ * - Comillas escapadas duplicándolas: "dijo ""hola"""  → dijo "hola"
+ * - Fin de línea \n, \r\n o \r
+ *
+ * Una comilla en medio de un campo sin comillas se toma literal (como Excel).
+ */
+final class LectorCsv {
+
+    private static final int SIN_LEER = -2;
+
+    private final Reader entrada;
+    private int pendiente = SIN_LEER;
+    private int linea = 1;
+    private int lineaRegistro;
+
+    LectorCsv(Reader entrada) {
+        this.entrada = entrada;
+    }
+
+    /**
+     * @return los campos del siguiente registro, o null al final del archivo
+     * @throws IllegalArgumentException si un campo abre comillas y el archivo termina sin cerrarlas
+     */
+    List<String> leer() throws IOException {
+        int c = leerCaracter();
+        if (c == -1) {
+            return null;
+        }
+        lineaRegistro = linea;
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        while (true) {
+            if (entreComillas) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("comillas sin cerrar");
+                }
+                if (c == '"') {
+                    int siguiente = leerCaracter();
+                    if (siguiente != '"') {
+                        entreComillas = false;
+                        c = siguiente;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    linea++;
+                }
+                campo.append((char) c);
+            } else if (c == '"' && campo.isEmpty()) {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    int siguiente = leerCaracter();
+                    if (siguiente != '\n') {
+                        pendiente = siguiente;
+                    }
+                }
+                if (c != -1) {
+                    linea++;
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else {
+                campo.append((char) c);
+            }
+            c = leerCaracter();
+        }
+    }
+
+    /**
+     * Línea del archivo donde empieza el último registro leído (para reportar errores).
+     */
+    int lineaRegistro() {
+        return lineaRegistro;
+    }
+
+    private int leerCaracter() throws IOException {
+        if (pendiente != SIN_LEER) {
+            int c = pendiente;
+            pendiente = SIN_LEER;
+            return c;
+        }
+        return entrada.read();
+    }
+}
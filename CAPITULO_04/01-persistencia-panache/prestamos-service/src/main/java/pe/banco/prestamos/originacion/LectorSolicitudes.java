@@ -0,0 +1,168 @@
+package pe.banco.prestamos.originacion;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import pe.banco.prestamos.amortizacion.TipoAmortizacion;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lee un lote NDJSON o CSV fila por fila.
+ *
+ * Nada se acumula aquí: cada solicitud válida y cada error se entregan al
+ * Destino apenas se leen, y el Destino decide cuándo armar un bloque.
+ *
+ * Una línea mal formada NO aborta la lectura: se registra como error de
+ * esa fila y se sigue con la siguiente.
+ */
+@ApplicationScoped
+public class LectorSolicitudes {
+
+    static final String[] COLUMNAS_CSV = {
+        "clienteId", "monto", "plazoMeses", "tasaInteres", "tipoAmortizacion", "fechaDesembolso"
+    };
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    /**
+     * Recibe las filas a medida que se leen.
+     */
+    public interface Destino {
+
+        void solicitud(SolicitudPrestamo solicitud) throws IOException;
+
+        void error(int fila, String mensaje) throws IOException;
+    }
+
+    /**
+     * Una solicitud JSON por línea; las líneas vacías se ignoran.
+     */
+    public void leerNdjson(InputStream entrada, Destino destino) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(SolicitudPrestamo.class);
+        try (BufferedReader lineas = abrir(entrada)) {
+            String linea;
+            int fila = 0;
+            while ((linea = lineas.readLine()) != null) {
+                fila++;
+                if (linea.isBlank()) {
+                    continue;
+                }
+                try {
+                    SolicitudPrestamo solicitud = reader.readValue(linea);
+                    entregar(destino, solicitud, fila);
+                } catch (JsonProcessingException e) {
+                    destino.error(fila, "JSON inválido: " + e.getOriginalMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * CSV separado por comas con cabecera (RFC 4180, ver LectorCsv). Columnas
+     * reconocidas (sin importar mayúsculas ni orden): clienteId, monto,
+     * plazoMeses, tasaInteres y, opcionales, tipoAmortizacion y fechaDesembolso.
+     *
+     * La fila reportada en los errores es la línea del archivo donde empieza
+     * el registro (un campo entre comillas puede ocupar varias líneas).
+     */
+    public void leerCsv(InputStream entrada, Destino destino) throws IOException {
+        try (BufferedReader lineas = abrir(entrada)) {
+            LectorCsv csv = new LectorCsv(lineas);
+            List<String> cabecera = csv.leer();
+            if (cabecera == null) {
+                return;
+            }
+            int[] posiciones = posicionesColumnas(cabecera);
+
+            while (true) {
+                List<String> campos;
+                try {
+                    campos = csv.leer();
+                } catch (IllegalArgumentException e) {
+                    // El resto del archivo quedó dentro de las comillas: no se puede seguir
+                    destino.error(csv.lineaRegistro(), "CSV inválido: " + e.getMessage());
+                    return;
+                }
+                if (campos == null) {
+                    return;
+                }
+                int fila = csv.lineaRegistro();
+                if (campos.size() == 1 && campos.get(0).isBlank()) {
+                    continue;
+                }
+                SolicitudPrestamo solicitud;
+                try {
+                    solicitud = parsearCsv(campos, posiciones);
+                } catch (RuntimeException e) {
+                    destino.error(fila, "Valor inválido: " + e.getMessage());
+                    continue;
+                }
+                entregar(destino, solicitud, fila);
+            }
+        }
+    }
+
+    private static void entregar(Destino destino, SolicitudPrestamo solicitud, int fila) throws IOException {
+        solicitud.fila = fila;
+        String error = solicitud.validar();
+        if (error != null) {
+            destino.error(fila, error);
+        } else {
+            destino.solicitud(solicitud);
+        }
+    }
+
+    private static int[] posicionesColumnas(List<String> cabecera) {
+        Map<String, Integer> indice = new HashMap<>();
+        for (int i = 0; i < cabecera.size(); i++) {
+            // Excel antepone un BOM al exportar "CSV UTF-8"
+            String nombre = cabecera.get(i).replace("\uFEFF", "").strip();
+            indice.put(nombre.toLowerCase(Locale.ROOT), i);
+        }
+        int[] posiciones = new int[COLUMNAS_CSV.length];
+        for (int c = 0; c < COLUMNAS_CSV.length; c++) {
+            posiciones[c] = indice.getOrDefault(COLUMNAS_CSV[c].toLowerCase(Locale.ROOT), -1);
+        }
+        return posiciones;
+    }
+
+    private static SolicitudPrestamo parsearCsv(List<String> valores, int[] posiciones) {
+        SolicitudPrestamo s = new SolicitudPrestamo();
+        String valor;
+        if ((valor = valor(valores, posiciones[0])) != null) s.clienteId = Long.valueOf(valor);
+        if ((valor = valor(valores, posiciones[1])) != null) s.monto = new BigDecimal(valor);
+        if ((valor = valor(valores, posiciones[2])) != null) s.plazoMeses = Integer.valueOf(valor);
+        if ((valor = valor(valores, posiciones[3])) != null) s.tasaInteres = new BigDecimal(valor);
+        if ((valor = valor(valores, posiciones[4])) != null) {
+            s.tipoAmortizacion = TipoAmortizacion.valueOf(valor.toUpperCase(Locale.ROOT));
+        }
+        if ((valor = valor(valores, posiciones[5])) != null) s.fechaDesembolso = LocalDate.parse(valor);
+        return s;
+    }
+
+    private static String valor(List<String> valores, int posicion) {
+        if (posicion < 0 || posicion >= valores.size()) {
+            return null;
+        }
+        String valor = valores.get(posicion).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private static BufferedReader abrir(InputStream entrada) {
+        return new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8), 64 * 1024);
+    }
+}
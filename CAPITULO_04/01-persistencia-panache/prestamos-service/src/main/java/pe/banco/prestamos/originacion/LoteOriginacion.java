@@ -0,0 +1,87 @@
+package pe.banco.prestamos.originacion;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Estado y progreso de un lote de originación masiva.
+ *
+ * Los contadores los escribe un solo hilo (el del proceso), salvo totalFilas,
+ * que crece en la request mientras se lee el archivo. Lo lee
+ * GET /prestamos/lotes/{id} en cualquier momento: los contadores son volatile
+ * y los errores una cola concurrente, así la consulta de progreso nunca
+ * bloquea al proceso.
+ *
+ * Ejemplo (en proceso):
+ * {
+ *   "id": "5b0c...",
+ *   "estado": "EN_PROCESO",
+ *   "totalFilas": 200000,
+ *   "procesadas": 48000,
+ *   "creados": 47991,
+ *   "fallidos": 9,
+ *   "porcentaje": 24.0,
+ *   "errores": [ { "fila": 1337, "mensaje": "Cliente 99 no encontrado" }, ... ]
+ * }
+ */
+public class LoteOriginacion {
+
+    public enum Estado {
+        EN_PROCESO,
+        COMPLETADO,
+        /**
+         * Error inesperado (p. ej. base de datos caída): los bloques ya
+         * confirmados quedan persistidos, el resto no se procesó.
+         */
+        INTERRUMPIDO
+    }
+
+    /**
+     * Error de una fila puntual. El resto del lote sigue procesándose.
+     */
+    public record ErrorFila(int fila, String mensaje) {
+    }
+
+    public final String id = UUID.randomUUID().toString();
+    public final Instant inicio = Instant.now();
+    private final int maxErroresReportados;
+
+    public volatile Estado estado = Estado.EN_PROCESO;
+    public volatile Instant fin;
+    public volatile int totalFilas;
+    public volatile int procesadas;
+    public volatile int creados;
+    public volatile int fallidos;
+
+    /**
+     * Solo los primeros maxErroresReportados; "fallidos" cuenta todos.
+     */
+    public final Queue<ErrorFila> errores = new ConcurrentLinkedQueue<>();
+
+    public LoteOriginacion(int maxErroresReportados) {
+        this.maxErroresReportados = maxErroresReportados;
+    }
+
+    @JsonProperty
+    public double porcentaje() {
+        int total = totalFilas;
+        return total == 0 ? 100.0 : Math.round(procesadas * 1000.0 / total) / 10.0;
+    }
+
+    void registrarError(int fila, String mensaje) {
+        fallidos++;
+        procesadas++;
+        if (fallidos <= maxErroresReportados) {
+            errores.add(new ErrorFila(fila, mensaje));
+        }
+    }
+
+    void registrarCreados(int cantidad) {
+        creados += cantidad;
+        procesadas += cantidad;
+    }
+}
@@ -0,0 +1,81 @@
+package pe.banco.prestamos.originacion;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+/**
+ * Originación masiva de préstamos desde archivos NDJSON o CSV.
+ *
+ * ENDPOINTS:
+ * POST /prestamos/lotes   (application/x-ndjson | text/csv) → 202 + lote
+ * GET  /prestamos/lotes/{id}                                 → progreso
+ *
+ * Ejemplo:
+ * curl -X POST http://localhost:8080/prestamos/lotes?chunkSize=500 \
+ *      -H "Content-Type: text/csv" --data-binary @cartera.csv
+ *
+ * → 202 Accepted
+ *   Location: /prestamos/lotes/5b0c...
+ *   { "id": "5b0c...", "estado": "EN_PROCESO", "totalFilas": 200000, ... }
+ *
+ * El archivo se lee en streaming durante la request y sus bloques se van
+ * procesando en segundo plano mientras tanto: en memoria hay unos pocos
+ * bloques, no el archivo. El 202 llega al terminar la subida; la creación
+ * de préstamos puede seguir después.
+ *
+ * CSV: RFC 4180 (campos entre comillas con comas o saltos de línea,
+ * comillas escapadas con ""). Ver LectorCsv.
+ */
+@Path("/prestamos/lotes")
+@Produces(MediaType.APPLICATION_JSON)
+public class LoteOriginacionResource {
+
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+    public static final String TEXT_CSV = "text/csv";
+
+    @Inject
+    OriginacionMasivaService originacionService;
+
+    @Inject
+    LectorSolicitudes lector;
+
+    @POST
+    @Consumes(APPLICATION_NDJSON)
+    public Response crearDesdeNdjson(InputStream entrada, @QueryParam("chunkSize") Integer chunkSize)
+            throws IOException {
+        LoteOriginacion lote = originacionService.nuevoLote();
+        originacionService.procesar(lote, chunkSize, destino -> lector.leerNdjson(entrada, destino));
+        return aceptado(lote);
+    }
+
+    @POST
+    @Consumes(TEXT_CSV)
+    public Response crearDesdeCsv(InputStream entrada, @QueryParam("chunkSize") Integer chunkSize)
+            throws IOException {
+        LoteOriginacion lote = originacionService.nuevoLote();
+        originacionService.procesar(lote, chunkSize, destino -> lector.leerCsv(entrada, destino));
+        return aceptado(lote);
+    }
+
+    @GET
+    @Path("/{id}")
+    public Response obtener(@PathParam("id") String id) {
+        LoteOriginacion lote = originacionService.buscarLote(id);
+        if (lote == null) {
+            return Response.status(404).entity("Lote no encontrado").build();
+        }
+        return Response.ok(lote).build();
+    }
+
+    private static Response aceptado(LoteOriginacion lote) {
+        return Response.accepted(lote)
+                .location(URI.create("/prestamos/lotes/" + lote.id))
+                .build();
+    }
+}
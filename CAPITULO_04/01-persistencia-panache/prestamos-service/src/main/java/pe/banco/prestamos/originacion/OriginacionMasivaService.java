@@ -0,0 +1,380 @@
+package pe.banco.prestamos.originacion;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.smallrye.context.api.ManagedExecutorConfig;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.eclipse.microprofile.context.ThreadContext;
+import org.jboss.logging.Logger;
+import pe.banco.prestamos.amortizacion.Cronograma;
+import pe.banco.prestamos.amortizacion.MotorAmortizacion;
+import pe.banco.prestamos.amortizacion.TipoAmortizacion;
+import pe.banco.prestamos.model.Cliente;
+import pe.banco.prestamos.model.Prestamo;
+import pe.banco.prestamos.repository.ClienteRepository;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Originación masiva de préstamos (migraciones de cartera).
+ *
+ * FLUJO POR BLOQUE (chunk-size préstamos):
+ * ┌──────────────────────────────────────────────────────────────┐
+ * │ 1. Cronogramas en paralelo (CPU, sin transacción)            │
+ * │ 2. Transacción nueva:                                        │
+ * │    - SELECT * FROM clientes WHERE id IN (...)  ← 1 query     │
+ * │    - persist() de préstamos + cuotas (batches JDBC)          │
+ * │    - COMMIT                                                  │
+ * │ 3. Si el bloque falla: se reintenta fila por fila para       │
+ * │    aislar las filas con error y confirmar el resto           │
+ * └──────────────────────────────────────────────────────────────┘
+ *
+ * ¿Por qué bloques y no una sola transacción?
+ * - 200,000 préstamos × 12 cuotas en un solo contexto de persistencia
+ *   son millones de entidades en memoria y un rollback de horas.
+ * - Con bloques, cada COMMIT libera memoria y el avance es visible
+ *   (y sobrevive a un fallo a mitad de camino).
+ *
+ * El IN es por bloque: PostgreSQL admite hasta 32,767 parámetros por
+ * sentencia, así que un IN con todos los clientes del archivo no escala.
+ *
+ * LECTURA EN STREAMING:
+ *
+ *   request HTTP                         cola (2 bloques)        executor
+ *   LectorSolicitudes ── bloque 1 ──▶  [ b2 ][ b3 ]  ──▶  procesarBloque(b1)
+ *   (sigue leyendo el archivo)
+ *
+ * La request lee el archivo y entrega bloques; el executor los procesa a
+ * medida que llegan. En memoria hay como máximo unos pocos bloques, no el
+ * archivo completo. Si la BD va más lenta que la subida, la request espera
+ * a que haya lugar en la cola (la subida se frena, la memoria no crece).
+ *
+ * Analogía: como descargar un camión con carretillas. Cada viaje
+ * (bloque) se entrega completo; si una caja está rota, se aparta y el
+ * resto del viaje se entrega igual.
+ */
+@ApplicationScoped
+public class OriginacionMasivaService {
+
+    private static final Logger LOG = Logger.getLogger(OriginacionMasivaService.class);
+
+    /**
+     * Máximo de lotes guardados en memoria para consultar su progreso.
+     */
+    private static final int LOTES_RETENIDOS = 50;
+
+    /**
+     * Bloques leídos que pueden esperar a ser procesados.
+     */
+    private static final int BLOQUES_EN_ESPERA = 2;
+
+    // Marcas de fin en la cola (se comparan por identidad)
+    private static final Bloque FIN = new Bloque(List.of(), List.of());
+    private static final Bloque LECTURA_CORTADA = new Bloque(List.of(), List.of());
+
+    @Inject
+    ClienteRepository clienteRepository;
+
+    @Inject
+    MotorAmortizacion motorAmortizacion;
+
+    /**
+     * Sin propagar contextos: el lote sigue corriendo cuando la request
+     * HTTP que lo creó ya terminó.
+     */
+    @Inject
+    @ManagedExecutorConfig(propagated = {}, cleared = ThreadContext.ALL_REMAINING)
+    ManagedExecutor executor;
+
+    @ConfigProperty(name = "prestamos.originacion.chunk-size", defaultValue = "1000")
+    int chunkSizeDefault;
+
+    @ConfigProperty(name = "prestamos.originacion.max-errores-reportados", defaultValue = "1000")
+    int maxErroresReportados;
+
+    private final Map<String, LoteOriginacion> lotes = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, LoteOriginacion> eldest) {
+            return size() > LOTES_RETENIDOS;
+        }
+    };
+
+    public LoteOriginacion nuevoLote() {
+        LoteOriginacion lote = new LoteOriginacion(maxErroresReportados);
+        synchronized (lotes) {
+            lotes.put(lote.id, lote);
+        }
+        return lote;
+    }
+
+    public LoteOriginacion buscarLote(String id) {
+        synchronized (lotes) {
+            return lotes.get(id);
+        }
+    }
+
+    /**
+     * Lee el archivo entregando cada fila a un destino (ver LectorSolicitudes).
+     */
+    @FunctionalInterface
+    public interface Lectura {
+        void leer(LectorSolicitudes.Destino destino) throws IOException;
+    }
+
+    /**
+     * Lee el archivo en el hilo actual y procesa sus bloques en segundo plano
+     * mientras tanto; el progreso se consulta en el lote.
+     *
+     * Vuelve cuando terminó la lectura; el procesamiento puede seguir.
+     *
+     * @param chunkSize préstamos por transacción (null = prestamos.originacion.chunk-size)
+     * @throws IOException si la lectura se corta: lo ya leído se procesa y el
+     *                     lote termina INTERRUMPIDO
+     */
+    public void procesar(LoteOriginacion lote, Integer chunkSize, Lectura lectura) throws IOException {
+        int tamano = chunkSize != null && chunkSize > 0 ? chunkSize : chunkSizeDefault;
+        BlockingQueue<Bloque> cola = new ArrayBlockingQueue<>(BLOQUES_EN_ESPERA);
+        executor.runAsync(() -> ejecutar(lote, cola, tamano));
+
+        Bloque marcaFinal = LECTURA_CORTADA;
+        try {
+            Acumulador acumulador = new Acumulador(lote, cola, tamano);
+            lectura.leer(acumulador);
+            acumulador.enviar();
+            marcaFinal = FIN;
+        } finally {
+            encolar(lote, cola, marcaFinal);
+        }
+    }
+
+    private void ejecutar(LoteOriginacion lote, BlockingQueue<Bloque> cola, int chunkSize) {
+        LOG.infof("📦 Lote %s: bloques de %d", lote.id, chunkSize);
+        LocalDate hoy = LocalDate.now();
+        try {
+            Bloque bloque;
+            while ((bloque = cola.take()) != FIN && bloque != LECTURA_CORTADA) {
+                if (lote.estado == LoteOriginacion.Estado.INTERRUMPIDO) {
+                    // Se sigue vaciando la cola para no dejar a la request esperando
+                    continue;
+                }
+                try {
+                    bloque.errores().forEach(e -> lote.registrarError(e.fila(), e.mensaje()));
+                    if (!bloque.solicitudes().isEmpty()) {
+                        procesarBloque(lote, bloque.solicitudes(), hoy);
+                    }
+                    LOG.debugf("📦 Lote %s: %d/%d filas (%d creados, %d con error)",
+                            lote.id, lote.procesadas, lote.totalFilas, lote.creados, lote.fallidos);
+                } catch (RuntimeException e) {
+                    LOG.errorf(e, "❌ Lote %s interrumpido en la fila %d", lote.id, lote.procesadas);
+                    lote.estado = LoteOriginacion.Estado.INTERRUMPIDO;
+                }
+            }
+            if (bloque == LECTURA_CORTADA) {
+                LOG.warnf("⚠️ Lote %s: la lectura del archivo se cortó en la fila %d", lote.id, lote.totalFilas);
+                lote.estado = LoteOriginacion.Estado.INTERRUMPIDO;
+            } else if (lote.estado == LoteOriginacion.Estado.EN_PROCESO) {
+                lote.estado = LoteOriginacion.Estado.COMPLETADO;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            lote.estado = LoteOriginacion.Estado.INTERRUMPIDO;
+        } finally {
+            lote.fin = Instant.now();
+            LOG.infof("✅ Lote %s %s: %d creados, %d con error",
+                    lote.id, lote.estado, lote.creados, lote.fallidos);
+        }
+    }
+
+    /**
+     * Espera lugar en la cola; si el proceso ya terminó (interrumpido) no hay
+     * nadie que la vacíe y el bloque se descarta.
+     */
+    private static void encolar(LoteOriginacion lote, BlockingQueue<Bloque> cola, Bloque bloque)
+            throws IOException {
+        try {
+            while (!cola.offer(bloque, 1, TimeUnit.SECONDS)) {
+                if (lote.fin != null) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Lectura del lote " + lote.id + " interrumpida");
+        }
+    }
+
+    private void procesarBloque(LoteOriginacion lote, List<SolicitudPrestamo> bloque, LocalDate hoy) {
+        // 1. Cronogramas en paralelo: el motor no tiene estado y no toca la BD
+        Object[] resultados = new Object[bloque.size()];
+        IntStream.range(0, bloque.size()).parallel().forEach(i -> {
+            SolicitudPrestamo s = bloque.get(i);
+            try {
+                resultados[i] = motorAmortizacion.calcular(tipo(s), s.monto, s.tasaInteres, s.plazoMeses,
+                        s.fechaDesembolso != null ? s.fechaDesembolso : hoy);
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                resultados[i] = e.getMessage();
+            }
+        });
+
+        List<Integer> validas = new ArrayList<>(bloque.size());
+        for (int i = 0; i < resultados.length; i++) {
+            if (resultados[i] instanceof String error) {
+                lote.registrarError(bloque.get(i).fila, error);
+            } else {
+                validas.add(i);
+            }
+        }
+
+        // 2. Bloque completo en una transacción
+        List<Integer> sinCliente = new ArrayList<>();
+        try {
+            int creados = QuarkusTransaction.requiringNew().call(
+                    () -> persistir(bloque, resultados, validas, hoy, sinCliente));
+            registrarSinCliente(lote, bloque, sinCliente);
+            lote.registrarCreados(creados);
+            return;
+        } catch (RuntimeException e) {
+            LOG.warnf("⚠️ Lote %s: bloque desde la fila %d falló (%s), reintentando fila por fila",
+                    lote.id, bloque.get(0).fila, e.getMessage());
+        }
+
+        // 3. Reintento fila por fila: solo se pierden las filas que fallan
+        for (int i : validas) {
+            List<Integer> fila = List.of(i);
+            List<Integer> sinClienteFila = new ArrayList<>();
+            try {
+                int creados = QuarkusTransaction.requiringNew().call(
+                        () -> persistir(bloque, resultados, fila, hoy, sinClienteFila));
+                registrarSinCliente(lote, bloque, sinClienteFila);
+                lote.registrarCreados(creados);
+            } catch (RuntimeException e) {
+                lote.registrarError(bloque.get(i).fila, "Error al guardar: " + causaRaiz(e));
+            }
+        }
+    }
+
+    /**
+     * Debe ejecutarse dentro de una transacción.
+     *
+     * @return cantidad de préstamos persistidos
+     */
+    private int persistir(List<SolicitudPrestamo> bloque, Object[] cronogramas, List<Integer> indices,
+                          LocalDate hoy, List<Integer> sinCliente) {
+        sinCliente.clear();
+
+        Set<Long> ids = new HashSet<>();
+        for (int i : indices) {
+            ids.add(bloque.get(i).clienteId);
+        }
+        Map<Long, Cliente> clientes = new HashMap<>();
+        for (Cliente cliente : clienteRepository.list("id in ?1", ids)) {
+            clientes.put(cliente.id, cliente);
+        }
+
+        int creados = 0;
+        for (int i : indices) {
+            SolicitudPrestamo s = bloque.get(i);
+            Cliente cliente = clientes.get(s.clienteId);
+            if (cliente == null) {
+                sinCliente.add(i);
+                continue;
+            }
+            Prestamo prestamo = new Prestamo(cliente, s.monto, s.plazoMeses, s.tasaInteres,
+                    s.fechaDesembolso != null ? s.fechaDesembolso : hoy);
+            prestamo.tipoAmortizacion = tipo(s);
+            prestamo.asignarCuotas(motorAmortizacion.generarCuotas(prestamo, (Cronograma) cronogramas[i]));
+            prestamo.persist();
+            creados++;
+        }
+        return creados;
+    }
+
+    private static void registrarSinCliente(LoteOriginacion lote, List<SolicitudPrestamo> bloque,
+                                            List<Integer> sinCliente) {
+        for (int i : sinCliente) {
+            SolicitudPrestamo s = bloque.get(i);
+            lote.registrarError(s.fila, "Cliente " + s.clienteId + " no encontrado");
+        }
+    }
+
+    private static TipoAmortizacion tipo(SolicitudPrestamo s) {
+        return s.tipoAmortizacion != null ? s.tipoAmortizacion : TipoAmortizacion.PLANO;
+    }
+
+    private static String causaRaiz(Throwable e) {
+        Throwable causa = e;
+        while (causa.getCause() != null && causa.getCause() != causa) {
+            causa = causa.getCause();
+        }
+        return causa.getMessage();
+    }
+
+    /**
+     * Lo leído del archivo para un bloque: solicitudes válidas y errores de formato.
+     * Los errores viajan con el bloque para que los contadores del lote los
+     * siga escribiendo un solo hilo (el del proceso).
+     */
+    private record Bloque(List<SolicitudPrestamo> solicitudes, List<LoteOriginacion.ErrorFila> errores) {
+    }
+
+    /**
+     * Arma los bloques durante la lectura y los entrega a la cola cuando se llenan.
+     */
+    private static final class Acumulador implements LectorSolicitudes.Destino {
+
+        private final LoteOriginacion lote;
+        private final BlockingQueue<Bloque> cola;
+        private final int tamano;
+        private List<SolicitudPrestamo> solicitudes = new ArrayList<>();
+        private List<LoteOriginacion.ErrorFila> errores = new ArrayList<>();
+
+        Acumulador(LoteOriginacion lote, BlockingQueue<Bloque> cola, int tamano) {
+            this.lote = lote;
+            this.cola = cola;
+            this.tamano = tamano;
+        }
+
+        @Override
+        public void solicitud(SolicitudPrestamo solicitud) throws IOException {
+            solicitudes.add(solicitud);
+            lote.totalFilas++;
+            if (solicitudes.size() >= tamano) {
+                enviar();
+            }
+        }
+
+        @Override
+        public void error(int fila, String mensaje) throws IOException {
+            errores.add(new LoteOriginacion.ErrorFila(fila, mensaje));
+            lote.totalFilas++;
+            if (errores.size() >= tamano) {
+                enviar();
+            }
+        }
+
+        void enviar() throws IOException {
+            if (solicitudes.isEmpty() && errores.isEmpty()) {
+                return;
+            }
+            encolar(lote, cola, new Bloque(solicitudes, errores));
+            solicitudes = new ArrayList<>();
+            errores = new ArrayList<>();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package pe.banco.prestamos.originacion;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import pe.banco.prestamos.amortizacion.TipoAmortizacion;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Una fila de un lote de originación (una línea NDJSON o CSV).
+ *
+ * Mismos campos que PrestamoResource.PrestamoRequest, más fechaDesembolso:
+ * en una migración de cartera los préstamos ya fueron desembolsados en el
+ * sistema anterior y el cronograma debe respetar esa fecha.
+ *
+ * NDJSON (una línea por préstamo):
+ * {"clienteId":1,"monto":10000,"plazoMeses":12,"tasaInteres":15.5,"tipoAmortizacion":"FRANCES","fechaDesembolso":"2024-03-15"}
+ *
+ * CSV (cabecera obligatoria, columnas en cualquier orden):
+ * clienteId,monto,plazoMeses,tasaInteres,tipoAmortizacion,fechaDesembolso
+ * 1,10000,12,15.5,FRANCES,2024-03-15
+ */
+public class SolicitudPrestamo {
+
+    /**
+     * Número de línea en el archivo original (para reportar errores).
+     */
+    @JsonIgnore
+    public int fila;
+
+    public Long clienteId;
+    public BigDecimal monto;
+    public Integer plazoMeses;
+    public BigDecimal tasaInteres;
+
+    /**
+     * Opcional (default PLANO).
+     */
+    public TipoAmortizacion tipoAmortizacion;
+
+    /**
+     * Opcional (default: fecha de procesamiento).
+     */
+    public LocalDate fechaDesembolso;
+
+    /**
+     * @return mensaje de error, o null si la fila tiene los campos obligatorios
+     */
+    String validar() {
+        if (clienteId == null || monto == null || plazoMeses == null || tasaInteres == null) {
+            return "clienteId, monto, plazoMeses y tasaInteres son obligatorios";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,424 @@
+package pe.banco.prestamos.pagos;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.smallrye.context.api.ManagedExecutorConfig;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.eclipse.microprofile.context.ThreadContext;
+import org.hibernate.Session;
+import org.jboss.logging.Logger;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Aplica pagos a préstamos: individuales o archivos del banco por bloques.
+ *
+ * UN BLOQUE DE PAGOS = UNA TRANSACCIÓN con un número fijo de sentencias,
+ * sin importar cuántos pagos, préstamos o cuotas involucre:
+ *
+ * ┌───┬──────────────────────────────────────────────────────────────────┐
+ * │ 1 │ SELECT referencia FROM pagos WHERE referencia = ANY(?)  (dupl.)  │
+ * │ 2 │ SELECT id, estado FROM prestamos WHERE id = ANY(?)               │
+ * │   │ ORDER BY id FOR UPDATE           ← orden fijo: sin deadlocks     │
+ * │ 3 │ SELECT ... FROM cuotas WHERE prestamo_id = ANY(?)                │
+ * │   │ AND pagada = false ORDER BY prestamo_id, fecha_vencimiento       │
+ * ├───┼──────────────────────────────────────────────────────────────────┤
+ * │   │ MotorAplicacionPagos reparte cada pago en memoria (centavos)     │
+ * ├───┼──────────────────────────────────────────────────────────────────┤
+ * │ 4 │ UPDATE cuotas    ... FROM unnest(ids[], pagado[], ...)           │
+ * │ 5 │ UPDATE prestamos ... FROM unnest(ids[], saldo[], ...)            │
+ * │ 6 │ INSERT INTO pagos SELECT ... FROM unnest(...)                    │
+ * └───┴──────────────────────────────────────────────────────────────────┘
+ *
+ * ¿Por qué JDBC y no entidades? Con entidades, Hibernate compara cada
+ * Cuota cargada contra su snapshot en el flush (dirty checking) y emite
+ * un UPDATE por fila. Aquí cada tabla recibe UNA sentencia con arrays.
+ *
+ * Varios pagos del mismo préstamo en un bloque se aplican en el orden
+ * del archivo sobre el mismo estado en memoria.
+ */
+@ApplicationScoped
+public class AplicacionPagosService {
+
+    private static final Logger LOG = Logger.getLogger(AplicacionPagosService.class);
+
+    private static final int LOTES_RETENIDOS = 50;
+
+    @Inject
+    EntityManager em;
+
+    @Inject
+    MotorAplicacionPagos motor;
+
+    @Inject
+    @ManagedExecutorConfig(propagated = {}, cleared = ThreadContext.ALL_REMAINING)
+    ManagedExecutor executor;
+
+    @ConfigProperty(name = "prestamos.pagos.chunk-size", defaultValue = "2000")
+    int chunkSize;
+
+    @ConfigProperty(name = "prestamos.pagos.max-errores-reportados", defaultValue = "1000")
+    int maxErroresReportados;
+
+    private final Map<String, LotePagos> lotes = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, LotePagos> eldest) {
+            return size() > LOTES_RETENIDOS;
+        }
+    };
+
+    // ============================================
+    // LOTES (archivos del banco)
+    // ============================================
+
+    public LotePagos nuevoLote() {
+        LotePagos lote = new LotePagos(maxErroresReportados);
+        synchronized (lotes) {
+            lotes.put(lote.id, lote);
+        }
+        return lote;
+    }
+
+    public LotePagos buscarLote(String id) {
+        synchronized (lotes) {
+            return lotes.get(id);
+        }
+    }
+
+    public void procesar(LotePagos lote, List<PagoEntrante> pagos) {
+        lote.totalFilas = lote.procesadas + pagos.size();
+        executor.runAsync(() -> ejecutar(lote, pagos));
+    }
+
+    private void ejecutar(LotePagos lote, List<PagoEntrante> pagos) {
+        LOG.infof("💰 Lote de pagos %s: %d pagos, bloques de %d", lote.id, pagos.size(), chunkSize);
+        try {
+            for (int desde = 0; desde < pagos.size(); desde += chunkSize) {
+                procesarBloque(lote, pagos.subList(desde, Math.min(desde + chunkSize, pagos.size())));
+            }
+            lote.estado = LotePagos.Estado.COMPLETADO;
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "❌ Lote de pagos %s interrumpido en la fila %d", lote.id, lote.procesadas);
+            lote.estado = LotePagos.Estado.INTERRUMPIDO;
+        } finally {
+            lote.fin = Instant.now();
+            LOG.infof("✅ Lote de pagos %s %s: %d aplicados, %d duplicados, %d con error",
+                    lote.id, lote.estado, lote.aplicados, lote.duplicados, lote.fallidos);
+        }
+    }
+
+    private void procesarBloque(LotePagos lote, List<PagoEntrante> bloque) {
+        try {
+            lote.registrar(QuarkusTransaction.requiringNew().call(() -> aplicar(bloque)));
+            return;
+        } catch (RuntimeException e) {
+            LOG.warnf("⚠️ Lote de pagos %s: bloque desde la fila %d falló (%s), reintentando pago por pago",
+                    lote.id, bloque.get(0).fila, e.getMessage());
+        }
+        for (PagoEntrante pago : bloque) {
+            try {
+                lote.registrar(QuarkusTransaction.requiringNew().call(() -> aplicar(List.of(pago))));
+            } catch (RuntimeException e) {
+                lote.registrarError(pago.fila, "Error al aplicar: " + e.getMessage());
+            }
+        }
+    }
+
+    // ============================================
+    // APLICACIÓN (dentro de la transacción del llamador)
+    // ============================================
+
+    /**
+     * Aplica los pagos en orden. Debe llamarse dentro de una transacción:
+     * los préstamos quedan bloqueados hasta el commit.
+     *
+     * @return un resultado por pago, en el mismo orden
+     */
+    public List<ResultadoPago> aplicar(List<PagoEntrante> pagos) {
+        return em.unwrap(Session.class).doReturningWork(conexion -> aplicar(conexion, pagos));
+    }
+
+    private List<ResultadoPago> aplicar(Connection conexion, List<PagoEntrante> pagos) throws SQLException {
+        LocalDate hoy = LocalDate.now();
+
+        Set<String> referencias = new HashSet<>();
+        Set<Long> prestamoIds = new TreeSet<>();
+        for (PagoEntrante pago : pagos) {
+            if (pago.referencia != null) {
+                referencias.add(pago.referencia);
+            }
+            prestamoIds.add(pago.prestamoId);
+        }
+
+        Set<String> registradas = referenciasRegistradas(conexion, referencias);
+        Map<Long, String> estados = bloquearPrestamos(conexion, prestamoIds);
+        Map<Long, CuotasPendientes> cartera = cargarCuotasPendientes(conexion, estados);
+
+        List<ResultadoPago> resultados = new ArrayList<>(pagos.size());
+        Set<String> vistas = new HashSet<>();
+        for (PagoEntrante pago : pagos) {
+            resultados.add(imputar(pago, registradas, vistas, estados, cartera, hoy));
+        }
+
+        List<CuotasPendientes> modificados = cartera.values().stream().filter(c -> c.modificado).toList();
+        if (!modificados.isEmpty()) {
+            actualizarCuotas(conexion, modificados);
+            actualizarPrestamos(conexion, modificados, hoy);
+            registrarPagos(conexion, pagos, resultados, hoy);
+        }
+        return resultados;
+    }
+
+    private ResultadoPago imputar(PagoEntrante pago, Set<String> registradas, Set<String> vistas,
+                                  Map<Long, String> estados, Map<Long, CuotasPendientes> cartera, LocalDate hoy) {
+        if (pago.referencia != null && (registradas.contains(pago.referencia) || !vistas.add(pago.referencia))) {
+            return ResultadoPago.rechazado(pago, ResultadoPago.Estado.DUPLICADO,
+                    "Referencia " + pago.referencia + " ya registrada");
+        }
+        String estado = estados.get(pago.prestamoId);
+        if (estado == null) {
+            return ResultadoPago.rechazado(pago, ResultadoPago.Estado.PRESTAMO_NO_ENCONTRADO,
+                    "Préstamo " + pago.prestamoId + " no encontrado");
+        }
+        CuotasPendientes pendientes = cartera.get(pago.prestamoId);
+        if (pendientes == null) {
+            return ResultadoPago.rechazado(pago, ResultadoPago.Estado.PRESTAMO_CERRADO,
+                    "Préstamo " + pago.prestamoId + " en estado " + estado);
+        }
+
+        Imputacion imputacion = motor.imputar(pendientes, centavos(pago.monto),
+                pago.fechaPago != null ? pago.fechaPago : hoy);
+        return new ResultadoPago(pago.fila, pago.prestamoId, pago.referencia, ResultadoPago.Estado.APLICADO,
+                soles(imputacion.aplicadoCentavos()),
+                soles(imputacion.interesCentavos()),
+                soles(imputacion.capitalCentavos()),
+                soles(imputacion.sobranteCentavos()),
+                imputacion.cuotasCanceladas(),
+                soles(pendientes.saldoCentavos()),
+                pendientes.proximoVencimiento(),
+                null);
+    }
+
+    private static Set<String> referenciasRegistradas(Connection conexion, Set<String> referencias)
+            throws SQLException {
+        Set<String> registradas = new HashSet<>();
+        if (referencias.isEmpty()) {
+            return registradas;
+        }
+        try (PreparedStatement ps = conexion.prepareStatement(
+                "SELECT referencia FROM pagos WHERE referencia = ANY(?)")) {
+            ps.setArray(1, conexion.createArrayOf("text", referencias.toArray(new String[0])));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    registradas.add(rs.getString(1));
+                }
+            }
+        }
+        return registradas;
+    }
+
+    /**
+     * Bloquea los préstamos en orden de id (dos bloques concurrentes nunca
+     * se esperan mutuamente en ciclo).
+     *
+     * @return estado de cada préstamo existente
+     */
+    private static Map<Long, String> bloquearPrestamos(Connection conexion, Set<Long> ids) throws SQLException {
+        Map<Long, String> estados = new HashMap<>();
+        try (PreparedStatement ps = conexion.prepareStatement(
+                "SELECT id, estado FROM prestamos WHERE id = ANY(?) ORDER BY id FOR UPDATE")) {
+            ps.setArray(1, conexion.createArrayOf("int8", ids.toArray(new Long[0])));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    estados.put(rs.getLong(1), rs.getString(2));
+                }
+            }
+        }
+        return estados;
+    }
+
+    /**
+     * Cuotas sin pagar de los préstamos ACTIVO o VENCIDO (los únicos que
+     * reciben pagos), en orden de vencimiento.
+     */
+    private static Map<Long, CuotasPendientes> cargarCuotasPendientes(Connection conexion, Map<Long, String> estados)
+            throws SQLException {
+        Map<Long, CuotasPendientes> cartera = new HashMap<>();
+        for (Map.Entry<Long, String> e : estados.entrySet()) {
+            if ("ACTIVO".equals(e.getValue()) || "VENCIDO".equals(e.getValue())) {
+                cartera.put(e.getKey(), new CuotasPendientes(e.getKey()));
+            }
+        }
+        if (cartera.isEmpty()) {
+            return cartera;
+        }
+        try (PreparedStatement ps = conexion.prepareStatement("""
+                SELECT prestamo_id, id, fecha_vencimiento, monto, interes, monto_pagado
+                FROM cuotas
+                WHERE prestamo_id = ANY(?) AND pagada = false
+                ORDER BY prestamo_id, fecha_vencimiento, numero_cuota
+                """)) {
+            ps.setArray(1, conexion.createArrayOf("int8", cartera.keySet().toArray(new Long[0])));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    cartera.get(rs.getLong(1)).cuotas.add(new CuotasPendientes.Cuota(
+                            rs.getLong(2),
+                            rs.getObject(3, LocalDate.class),
+                            centavos(rs.getBigDecimal(4)),
+                            centavos(rs.getBigDecimal(5)),
+                            centavos(rs.getBigDecimal(6))));
+                }
+            }
+        }
+        return cartera;
+    }
+
+    private static void actualizarCuotas(Connection conexion, List<CuotasPendientes> modificados)
+            throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        List<String> pagado = new ArrayList<>();
+        List<Boolean> pagada = new ArrayList<>();
+        List<String> fechaPago = new ArrayList<>();
+        for (CuotasPendientes pendientes : modificados) {
+            for (CuotasPendientes.Cuota cuota : pendientes.cuotas) {
+                if (cuota.modificada) {
+                    ids.add(cuota.id);
+                    pagado.add(soles(cuota.pagadoCentavos).toPlainString());
+                    pagada.add(cuota.cancelada());
+                    fechaPago.add(cuota.fechaPago != null ? cuota.fechaPago.toString() : null);
+                }
+            }
+        }
+        try (PreparedStatement ps = conexion.prepareStatement("""
+                UPDATE cuotas c
+                SET monto_pagado = v.pagado,
+                    pagada = v.pagada,
+                    fecha_pago = COALESCE(v.fecha_pago, c.fecha_pago)
+                FROM unnest(?::int8[], ?::text[]::numeric[], ?::bool[], ?::text[]::date[])
+                     AS v(id, pagado, pagada, fecha_pago)
+                WHERE c.id = v.id
+                """)) {
+            ps.setArray(1, conexion.createArrayOf("int8", ids.toArray(new Long[0])));
+            ps.setArray(2, conexion.createArrayOf("text", pagado.toArray(new String[0])));
+            ps.setArray(3, conexion.createArrayOf("bool", pagada.toArray(new Boolean[0])));
+            ps.setArray(4, conexion.createArrayOf("text", fechaPago.toArray(new String[0])));
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Resumen del préstamo (ver Prestamo.saldoPendiente). Si ya no quedan
+     * vencidas, vuelve a ACTIVO / AL_DIA sin esperar la corrida de mora.
+     */
+    private static void actualizarPrestamos(Connection conexion, List<CuotasPendientes> modificados, LocalDate hoy)
+            throws SQLException {
+        int n = modificados.size();
+        Long[] ids = new Long[n];
+        String[] saldo = new String[n];
+        Integer[] canceladas = new Integer[n];
+        Integer[] pendientes = new Integer[n];
+        String[] proximo = new String[n];
+        Boolean[] alDia = new Boolean[n];
+        for (int i = 0; i < n; i++) {
+            CuotasPendientes p = modificados.get(i);
+            LocalDate proximoVencimiento = p.proximoVencimiento();
+            ids[i] = p.prestamoId;
+            saldo[i] = soles(p.saldoCentavos()).toPlainString();
+            canceladas[i] = p.canceladas;
+            pendientes[i] = p.pendientes();
+            proximo[i] = proximoVencimiento != null ? proximoVencimiento.toString() : null;
+            alDia[i] = proximoVencimiento == null || !proximoVencimiento.isBefore(hoy);
+        }
+        try (PreparedStatement ps = conexion.prepareStatement("""
+                UPDATE prestamos p
+                SET saldo_pendiente = v.saldo,
+                    cuotas_pagadas = COALESCE(p.cuotas_pagadas + v.canceladas, p.plazo_meses - v.pendientes),
+                    proximo_vencimiento = v.proximo,
+                    estado = CASE WHEN v.pendientes = 0 THEN 'PAGADO'
+                                  WHEN v.al_dia AND p.estado = 'VENCIDO' THEN 'ACTIVO'
+                                  ELSE p.estado END,
+                    dias_mora = CASE WHEN v.al_dia THEN 0 ELSE p.dias_mora END,
+                    tramo_mora = CASE WHEN v.al_dia THEN 'AL_DIA' ELSE p.tramo_mora END
+                FROM unnest(?::int8[], ?::text[]::numeric[], ?::int4[], ?::int4[], ?::text[]::date[], ?::bool[])
+                     AS v(id, saldo, canceladas, pendientes, proximo, al_dia)
+                WHERE p.id = v.id
+                """)) {
+            ps.setArray(1, conexion.createArrayOf("int8", ids));
+            ps.setArray(2, conexion.createArrayOf("text", saldo));
+            ps.setArray(3, conexion.createArrayOf("int4", canceladas));
+            ps.setArray(4, conexion.createArrayOf("int4", pendientes));
+            ps.setArray(5, conexion.createArrayOf("text", proximo));
+            ps.setArray(6, conexion.createArrayOf("bool", alDia));
+            ps.executeUpdate();
+        }
+    }
+
+    private static void registrarPagos(Connection conexion, List<PagoEntrante> pagos,
+                                       List<ResultadoPago> resultados, LocalDate hoy) throws SQLException {
+        List<Long> prestamo = new ArrayList<>();
+        List<String> monto = new ArrayList<>();
+        List<String> aplicado = new ArrayList<>();
+        List<String> sobrante = new ArrayList<>();
+        List<String> fecha = new ArrayList<>();
+        List<String> referencia = new ArrayList<>();
+        for (int i = 0; i < pagos.size(); i++) {
+            ResultadoPago resultado = resultados.get(i);
+            if (!resultado.esAplicado()) {
+                continue;
+            }
+            PagoEntrante pago = pagos.get(i);
+            prestamo.add(pago.prestamoId);
+            monto.add(pago.monto.toPlainString());
+            aplicado.add(resultado.aplicado().toPlainString());
+            sobrante.add(resultado.sobrante().toPlainString());
+            fecha.add((pago.fechaPago != null ? pago.fechaPago : hoy).toString());
+            referencia.add(pago.referencia);
+        }
+        try (PreparedStatement ps = conexion.prepareStatement("""
+                INSERT INTO pagos (prestamo_id, monto, monto_aplicado, sobrante, fecha_pago, referencia, registrado)
+                SELECT v.prestamo_id, v.monto, v.aplicado, v.sobrante, v.fecha_pago, v.referencia, now()
+                FROM unnest(?::int8[], ?::text[]::numeric[], ?::text[]::numeric[], ?::text[]::numeric[],
+                            ?::text[]::date[], ?::text[])
+                     AS v(prestamo_id, monto, aplicado, sobrante, fecha_pago, referencia)
+                """)) {
+            Array[] columnas = {
+                    conexion.createArrayOf("int8", prestamo.toArray(new Long[0])),
+                    conexion.createArrayOf("text", monto.toArray(new String[0])),
+                    conexion.createArrayOf("text", aplicado.toArray(new String[0])),
+                    conexion.createArrayOf("text", sobrante.toArray(new String[0])),
+                    conexion.createArrayOf("text", fecha.toArray(new String[0])),
+                    conexion.createArrayOf("text", referencia.toArray(new String[0]))
+            };
+            for (int i = 0; i < columnas.length; i++) {
+                ps.setArray(i + 1, columnas[i]);
+            }
+            ps.executeUpdate();
+        }
+    }
+
+    private static long centavos(BigDecimal monto) {
+        return monto == null ? 0 : monto.movePointRight(2).longValueExact();
+    }
+
+    private static BigDecimal soles(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+}
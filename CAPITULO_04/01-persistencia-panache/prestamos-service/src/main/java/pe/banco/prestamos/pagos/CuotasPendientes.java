@@ -0,0 +1,69 @@
+package pe.banco.prestamos.pagos;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cuotas sin pagar de UN préstamo, en centavos y por fecha de vencimiento.
+ *
+ * Se carga una vez por bloque de pagos (con el préstamo bloqueado) y los
+ * pagos del bloque la van modificando en memoria; al final se escriben
+ * solo las cuotas tocadas, todas juntas.
+ */
+final class CuotasPendientes {
+
+    static final class Cuota {
+        final long id;
+        final LocalDate vencimiento;
+        final long montoCentavos;
+        final long interesCentavos;
+        long pagadoCentavos;
+        LocalDate fechaPago;
+        boolean modificada;
+
+        Cuota(long id, LocalDate vencimiento, long montoCentavos, long interesCentavos, long pagadoCentavos) {
+            this.id = id;
+            this.vencimiento = vencimiento;
+            this.montoCentavos = montoCentavos;
+            this.interesCentavos = interesCentavos;
+            this.pagadoCentavos = pagadoCentavos;
+        }
+
+        boolean cancelada() {
+            return pagadoCentavos >= montoCentavos;
+        }
+    }
+
+    final long prestamoId;
+    final List<Cuota> cuotas = new ArrayList<>();
+
+    /**
+     * Índice de la primera cuota aún no cancelada.
+     */
+    int primera;
+
+    int canceladas;
+    boolean modificado;
+
+    CuotasPendientes(long prestamoId) {
+        this.prestamoId = prestamoId;
+    }
+
+    int pendientes() {
+        return cuotas.size() - primera;
+    }
+
+    long saldoCentavos() {
+        long saldo = 0;
+        for (int i = primera; i < cuotas.size(); i++) {
+            Cuota c = cuotas.get(i);
+            saldo += c.montoCentavos - c.pagadoCentavos;
+        }
+        return saldo;
+    }
+
+    LocalDate proximoVencimiento() {
+        return primera < cuotas.size() ? cuotas.get(primera).vencimiento : null;
+    }
+}
@@ -0,0 +1,14 @@
+package pe.banco.prestamos.pagos;
+
+/**
+ * Cómo se repartió un pago entre las cuotas de un préstamo (centavos).
+ *
+ * @param sobranteCentavos lo que excede la deuda total del préstamo
+ * @param cuotasCanceladas cuotas que quedaron pagadas por completo
+ */
+record Imputacion(long interesCentavos, long capitalCentavos, long sobranteCentavos, int cuotasCanceladas) {
+
+    long aplicadoCentavos() {
+        return interesCentavos + capitalCentavos;
+    }
+}
@@ -0,0 +1,99 @@
+package pe.banco.prestamos.pagos;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lee un archivo de pagos del banco (CSV con cabecera).
+ *
+ * Columnas (sin importar mayúsculas ni orden): prestamoId, monto y,
+ * opcionales, fechaPago (yyyy-MM-dd) y referencia.
+ *
+ *   prestamoId,monto,fechaPago,referencia
+ *   42,1500.00,2025-11-20,BCP-000912345
+ *   43,904.94,2025-11-20,BCP-000912346
+ *
+ * Una línea inválida se registra como error de esa fila y se sigue.
+ */
+@ApplicationScoped
+public class LectorPagos {
+
+    static final String[] COLUMNAS_CSV = {"prestamoId", "monto", "fechaPago", "referencia"};
+
+    public List<PagoEntrante> leerCsv(InputStream entrada, LotePagos lote) throws IOException {
+        List<PagoEntrante> pagos = new ArrayList<>();
+        try (BufferedReader lineas = new BufferedReader(
+                new InputStreamReader(entrada, StandardCharsets.UTF_8), 64 * 1024)) {
+            String cabecera = lineas.readLine();
+            if (cabecera == null) {
+                return pagos;
+            }
+            int[] posiciones = posicionesColumnas(cabecera);
+
+            String linea;
+            int fila = 1;
+            while ((linea = lineas.readLine()) != null) {
+                fila++;
+                if (linea.isBlank()) {
+                    continue;
+                }
+                try {
+                    PagoEntrante pago = parsear(linea.split(",", -1), posiciones);
+                    pago.fila = fila;
+                    String error = pago.validar();
+                    if (error != null) {
+                        lote.registrarError(fila, error);
+                    } else {
+                        pagos.add(pago);
+                    }
+                } catch (RuntimeException e) {
+                    lote.registrarError(fila, "Valor inválido: " + e.getMessage());
+                }
+            }
+        }
+        return pagos;
+    }
+
+    private static int[] posicionesColumnas(String cabecera) {
+        Map<String, Integer> indice = new HashMap<>();
+        String[] nombres = cabecera.split(",", -1);
+        for (int i = 0; i < nombres.length; i++) {
+            indice.put(nombres[i].trim().toLowerCase(Locale.ROOT), i);
+        }
+        int[] posiciones = new int[COLUMNAS_CSV.length];
+        for (int c = 0; c < COLUMNAS_CSV.length; c++) {
+            posiciones[c] = indice.getOrDefault(COLUMNAS_CSV[c].toLowerCase(Locale.ROOT), -1);
+        }
+        return posiciones;
+    }
+
+    private static PagoEntrante parsear(String[] valores, int[] posiciones) {
+        PagoEntrante p = new PagoEntrante();
+        String valor;
+        if ((valor = valor(valores, posiciones[0])) != null) p.prestamoId = Long.valueOf(valor);
+        if ((valor = valor(valores, posiciones[1])) != null) p.monto = new BigDecimal(valor);
+        if ((valor = valor(valores, posiciones[2])) != null) p.fechaPago = LocalDate.parse(valor);
+        p.referencia = valor(valores, posiciones[3]);
+        return p;
+    }
+
+    private static String valor(String[] valores, int posicion) {
+        if (posicion < 0 || posicion >= valores.length) {
+            return null;
+        }
+        String valor = valores[posicion].trim();
+        return valor.isEmpty() ? null : valor;
+    }
+}
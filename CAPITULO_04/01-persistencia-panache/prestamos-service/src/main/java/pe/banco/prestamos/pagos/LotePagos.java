@@ -0,0 +1,107 @@
+package pe.banco.prestamos.pagos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Estado y progreso de un archivo de pagos (mismo esquema que
+ * originacion.LoteOriginacion: un hilo escribe, GET lo lee sin bloquear).
+ *
+ * Ejemplo:
+ * {
+ *   "id": "9e1f...",
+ *   "estado": "EN_PROCESO",
+ *   "totalFilas": 120000,
+ *   "procesadas": 64000,
+ *   "aplicados": 63870,
+ *   "duplicados": 120,
+ *   "fallidos": 10,
+ *   "montoAplicado": 48210333.17,
+ *   "sobrante": 1520.00,
+ *   "porcentaje": 53.3,
+ *   "errores": [ { "fila": 877, "mensaje": "Préstamo 991 en estado PAGADO" }, ... ]
+ * }
+ */
+public class LotePagos {
+
+    public enum Estado {
+        EN_PROCESO,
+        COMPLETADO,
+        INTERRUMPIDO
+    }
+
+    public record ErrorFila(int fila, String mensaje) {
+    }
+
+    public final String id = UUID.randomUUID().toString();
+    public final Instant inicio = Instant.now();
+    private final int maxErroresReportados;
+
+    public volatile Estado estado = Estado.EN_PROCESO;
+    public volatile Instant fin;
+    public volatile int totalFilas;
+    public volatile int procesadas;
+    public volatile int aplicados;
+    public volatile int duplicados;
+    public volatile int fallidos;
+
+    private volatile long aplicadoCentavos;
+    private volatile long sobranteCentavos;
+
+    /**
+     * Solo los primeros maxErroresReportados; "fallidos" cuenta todos.
+     */
+    public final Queue<ErrorFila> errores = new ConcurrentLinkedQueue<>();
+
+    public LotePagos(int maxErroresReportados) {
+        this.maxErroresReportados = maxErroresReportados;
+    }
+
+    @JsonProperty
+    public BigDecimal montoAplicado() {
+        return BigDecimal.valueOf(aplicadoCentavos, 2);
+    }
+
+    @JsonProperty
+    public BigDecimal sobrante() {
+        return BigDecimal.valueOf(sobranteCentavos, 2);
+    }
+
+    @JsonProperty
+    public double porcentaje() {
+        int total = totalFilas;
+        return total == 0 ? 100.0 : Math.round(procesadas * 1000.0 / total) / 10.0;
+    }
+
+    void registrarError(int fila, String mensaje) {
+        fallidos++;
+        procesadas++;
+        if (fallidos <= maxErroresReportados) {
+            errores.add(new ErrorFila(fila, mensaje));
+        }
+    }
+
+    void registrar(List<ResultadoPago> resultados) {
+        for (ResultadoPago resultado : resultados) {
+            switch (resultado.estado()) {
+                case APLICADO -> {
+                    aplicados++;
+                    procesadas++;
+                    aplicadoCentavos += resultado.aplicado().unscaledValue().longValueExact();
+                    sobranteCentavos += resultado.sobrante().unscaledValue().longValueExact();
+                }
+                case DUPLICADO -> {
+                    duplicados++;
+                    procesadas++;
+                }
+                default -> registrarError(resultado.fila(), resultado.mensaje());
+            }
+        }
+    }
+}
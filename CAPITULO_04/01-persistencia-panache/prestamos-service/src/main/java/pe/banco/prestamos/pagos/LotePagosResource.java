@@ -0,0 +1,57 @@
+package pe.banco.prestamos.pagos;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+/**
+ * Ingesta de archivos de pagos del banco.
+ *
+ * ENDPOINTS:
+ * POST /prestamos/pagos/lotes   (text/csv) → 202 + lote
+ * GET  /prestamos/pagos/lotes/{id}         → progreso
+ *
+ * Ejemplo:
+ * curl -X POST http://localhost:8080/prestamos/pagos/lotes \
+ *      -H "Content-Type: text/csv" --data-binary @recaudacion-20251120.csv
+ *
+ * Reenviar el mismo archivo es seguro: los pagos con referencia ya
+ * registrada se cuentan como "duplicados" y no se vuelven a aplicar.
+ */
+@Path("/prestamos/pagos/lotes")
+@Produces(MediaType.APPLICATION_JSON)
+public class LotePagosResource {
+
+    public static final String TEXT_CSV = "text/csv";
+
+    @Inject
+    AplicacionPagosService aplicacionPagos;
+
+    @Inject
+    LectorPagos lector;
+
+    @POST
+    @Consumes(TEXT_CSV)
+    public Response crearDesdeCsv(InputStream entrada) throws IOException {
+        LotePagos lote = aplicacionPagos.nuevoLote();
+        aplicacionPagos.procesar(lote, lector.leerCsv(entrada, lote));
+        return Response.accepted(lote)
+                .location(URI.create("/prestamos/pagos/lotes/" + lote.id))
+                .build();
+    }
+
+    @GET
+    @Path("/{id}")
+    public Response obtener(@PathParam("id") String id) {
+        LotePagos lote = aplicacionPagos.buscarLote(id);
+        if (lote == null) {
+            return Response.status(404).entity("Lote no encontrado").build();
+        }
+        return Response.ok(lote).build();
+    }
+}
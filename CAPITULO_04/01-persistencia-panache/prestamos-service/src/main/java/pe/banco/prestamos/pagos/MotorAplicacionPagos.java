@@ -0,0 +1,58 @@
+package pe.banco.prestamos.pagos;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.LocalDate;
+
+/**
+ * Reparte un monto entre las cuotas pendientes de un préstamo.
+ *
+ * REGLAS (prelación de pagos):
+ *
+ *   Pago S/ 1,500 ─┬─→ Cuota 3 (vence 10/09)  interés 120 → capital 784.94  ✅ cancelada
+ *                  ├─→ Cuota 4 (vence 10/10)  interés 108 → capital 487.06  ⏳ parcial
+ *                  └─→ (sobrante 0)
+ *
+ * 1. Cuotas en orden de vencimiento: primero la más atrasada.
+ * 2. Dentro de cada cuota, primero el interés y luego el capital.
+ * 3. Una cuota queda pagada cuando se cubre su monto completo; si no,
+ *    acumula el abono parcial (Cuota.montoPagado).
+ * 4. Lo que excede la deuda total es sobrante (no se aplica).
+ *
+ * Todo en centavos (long): sin BigDecimal ni redondeos en el bucle.
+ * Sin estado y sin BD: la persistencia es de AplicacionPagosService.
+ */
+@ApplicationScoped
+public class MotorAplicacionPagos {
+
+    Imputacion imputar(CuotasPendientes pendientes, long montoCentavos, LocalDate fechaPago) {
+        long resto = montoCentavos;
+        long interes = 0;
+        long capital = 0;
+        int canceladas = 0;
+
+        while (resto > 0 && pendientes.primera < pendientes.cuotas.size()) {
+            CuotasPendientes.Cuota cuota = pendientes.cuotas.get(pendientes.primera);
+
+            long abono = Math.min(resto, cuota.montoCentavos - cuota.pagadoCentavos);
+            long interesPendiente = Math.max(0, cuota.interesCentavos - cuota.pagadoCentavos);
+            long aInteres = Math.min(abono, interesPendiente);
+
+            interes += aInteres;
+            capital += abono - aInteres;
+            resto -= abono;
+            cuota.pagadoCentavos += abono;
+            cuota.modificada = true;
+
+            if (cuota.cancelada()) {
+                cuota.fechaPago = fechaPago;
+                pendientes.primera++;
+                canceladas++;
+            }
+        }
+
+        pendientes.canceladas += canceladas;
+        pendientes.modificado = true;
+        return new Imputacion(interes, capital, resto, canceladas);
+    }
+}
@@ -0,0 +1,60 @@
+package pe.banco.prestamos.pagos;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Pago aplicado a un préstamo (histórico de recaudación).
+ *
+ * Lo inserta AplicacionPagosService con un solo INSERT ... SELECT unnest(...)
+ * por bloque, fuera de Hibernate: por eso el id es IDENTITY (lo asigna la
+ * BD) y no una secuencia con pooled optimizer como PanacheEntity, que
+ * chocaría con ids tomados directamente de la secuencia.
+ *
+ * prestamo_id es una columna simple (no @ManyToOne): el histórico se
+ * consulta por préstamo y nunca necesita cargar la entidad.
+ */
+@Entity
+@Table(name = "pagos",
+        uniqueConstraints = @UniqueConstraint(name = "uk_pagos_referencia", columnNames = "referencia"),
+        indexes = @Index(name = "idx_pagos_prestamo", columnList = "prestamo_id"))
+public class Pago extends PanacheEntityBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
+
+    @Column(name = "prestamo_id", nullable = false)
+    public Long prestamoId;
+
+    /**
+     * Monto recibido.
+     */
+    @Column(nullable = false, precision = 12, scale = 2)
+    public BigDecimal monto;
+
+    /**
+     * Parte imputada a cuotas (interés + capital).
+     */
+    @Column(name = "monto_aplicado", nullable = false, precision = 12, scale = 2)
+    public BigDecimal montoAplicado;
+
+    /**
+     * Excedente sobre la deuda total (queda a favor del cliente).
+     */
+    @Column(nullable = false, precision = 12, scale = 2)
+    public BigDecimal sobrante;
+
+    @Column(name = "fecha_pago", nullable = false)
+    public LocalDate fechaPago;
+
+    @Column(length = 64)
+    public String referencia;
+
+    @Column(nullable = false)
+    public LocalDateTime registrado;
+}
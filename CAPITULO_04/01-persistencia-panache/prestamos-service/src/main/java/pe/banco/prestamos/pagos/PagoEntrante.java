@@ -0,0 +1,52 @@
+package pe.banco.prestamos.pagos;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Un pago recibido: por POST /prestamos/{id}/pagos (JSON) o como fila de
+ * un archivo del banco (POST /prestamos/pagos/lotes).
+ *
+ * Ejemplo JSON:
+ * {
+ *   "monto": 1500.00,
+ *   "fechaPago": "2025-11-20",      ← opcional (default: hoy)
+ *   "referencia": "BCP-000912345"   ← opcional; si viene, evita duplicados
+ * }
+ */
+public class PagoEntrante {
+
+    /**
+     * Número de línea en el archivo (0 en pagos individuales).
+     */
+    @JsonIgnore
+    public int fila;
+
+    public Long prestamoId;
+    public BigDecimal monto;
+    public LocalDate fechaPago;
+
+    /**
+     * Identificador del pago en el banco. Un pago con una referencia ya
+     * registrada no se vuelve a aplicar (archivos reenviados).
+     */
+    public String referencia;
+
+    /**
+     * @return mensaje de error, o null si el pago es válido
+     */
+    public String validar() {
+        if (prestamoId == null || monto == null) {
+            return "prestamoId y monto son obligatorios";
+        }
+        if (monto.signum() <= 0) {
+            return "El monto debe ser mayor a cero";
+        }
+        if (monto.stripTrailingZeros().scale() > 2) {
+            return "El monto no puede tener más de 2 decimales";
+        }
+        return null;
+    }
+}
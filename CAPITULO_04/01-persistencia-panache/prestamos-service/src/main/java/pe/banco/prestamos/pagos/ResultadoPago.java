@@ -0,0 +1,57 @@
+package pe.banco.prestamos.pagos;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Resultado de aplicar un pago.
+ *
+ * Ejemplo (POST /prestamos/42/pagos):
+ * {
+ *   "prestamoId": 42,
+ *   "estado": "APLICADO",
+ *   "aplicado": 1500.00,
+ *   "interes": 228.00,
+ *   "capital": 1272.00,
+ *   "sobrante": 0.00,
+ *   "cuotasCanceladas": 1,
+ *   "saldoPendiente": 7358.12,
+ *   "proximoVencimiento": "2025-10-10"
+ * }
+ */
+public record ResultadoPago(
+        int fila,
+        Long prestamoId,
+        String referencia,
+        Estado estado,
+        BigDecimal aplicado,
+        BigDecimal interes,
+        BigDecimal capital,
+        BigDecimal sobrante,
+        int cuotasCanceladas,
+        BigDecimal saldoPendiente,
+        LocalDate proximoVencimiento,
+        String mensaje) {
+
+    public enum Estado {
+        APLICADO,
+        /**
+         * La referencia ya estaba registrada (o se repite en el archivo).
+         */
+        DUPLICADO,
+        PRESTAMO_NO_ENCONTRADO,
+        /**
+         * Préstamo PAGADO o CANCELADO.
+         */
+        PRESTAMO_CERRADO
+    }
+
+    static ResultadoPago rechazado(PagoEntrante pago, Estado estado, String mensaje) {
+        return new ResultadoPago(pago.fila, pago.prestamoId, pago.referencia, estado,
+                null, null, null, null, 0, null, null, mensaje);
+    }
+
+    boolean esAplicado() {
+        return estado == Estado.APLICADO;
+    }
+}
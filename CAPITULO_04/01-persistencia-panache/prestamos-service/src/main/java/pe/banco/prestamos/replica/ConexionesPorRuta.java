@@ -0,0 +1,33 @@
+package pe.banco.prestamos.replica;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.agroal.DataSource;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.hibernate.orm.runtime.customized.QuarkusConnectionProvider;
+import io.quarkus.hibernate.orm.runtime.tenant.TenantConnectionResolver;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+
+/**
+ * Pool de conexiones para cada ruta (ver ResolvedorRuta).
+ *
+ * Quarkus guarda el ConnectionProvider de cada tenant: resolve() se
+ * llama una vez por ruta, no por request.
+ */
+@ApplicationScoped
+@PersistenceUnitExtension
+public class ConexionesPorRuta implements TenantConnectionResolver {
+
+    @Inject
+    AgroalDataSource primario;
+
+    @Inject
+    @DataSource(ResolvedorRuta.REPLICA)
+    AgroalDataSource replica;
+
+    @Override
+    public ConnectionProvider resolve(String tenantId) {
+        return new QuarkusConnectionProvider(ResolvedorRuta.REPLICA.equals(tenantId) ? replica : primario);
+    }
+}
@@ -0,0 +1,60 @@
+package pe.banco.prestamos.replica;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.hibernate.orm.runtime.tenant.TenantResolver;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Elige el datasource de cada sesión de Hibernate.
+ *
+ * Usa la multitenencia por base de datos de Hibernate con dos "tenants"
+ * fijos que en realidad son la misma base:
+ *
+ * ┌────────────┬──────────────────────────────┬─────────────────────────┐
+ * │ Tenant     │ Datasource                   │ Cuándo                  │
+ * ├────────────┼──────────────────────────────┼─────────────────────────┤
+ * │ "primario" │ default (quarkus.datasource) │ siempre, salvo ↓        │
+ * │ "replica"  │ quarkus.datasource."replica" │ request @SoloLectura    │
+ * │            │                              │ sin escritura reciente  │
+ * └────────────┴──────────────────────────────┴─────────────────────────┘
+ *
+ * El cache L2 usa claves sin tenant (hibernate.cache.keys_factory=simple)
+ * para que la réplica aproveche lo que cargó el primario; a cambio, las
+ * sesiones de réplica son CacheMode.GET (ver SoloLecturaInterceptor) y
+ * solo el primario escribe en el cache.
+ *
+ * Fuera de una request HTTP (jobs, lotes en segundo plano) no hay
+ * RutaDatasource activa: siempre primario.
+ */
+@ApplicationScoped
+@PersistenceUnitExtension
+public class ResolvedorRuta implements TenantResolver {
+
+    static final String PRIMARIO = "primario";
+    static final String REPLICA = "replica";
+
+    /**
+     * false = todo al primario (p. ej. entornos sin réplica).
+     */
+    @ConfigProperty(name = "prestamos.replica.habilitada", defaultValue = "true")
+    boolean replicaHabilitada;
+
+    @Inject
+    RutaDatasource ruta;
+
+    @Override
+    public String getDefaultTenantId() {
+        return PRIMARIO;
+    }
+
+    @Override
+    public String resolveTenantId() {
+        if (!replicaHabilitada || !Arc.container().requestContext().isActive()) {
+            return PRIMARIO;
+        }
+        return ruta.esReplica() ? REPLICA : PRIMARIO;
+    }
+}
@@ -0,0 +1,29 @@
+package pe.banco.prestamos.replica;
+
+import jakarta.enterprise.context.RequestScoped;
+
+/**
+ * A qué base va la request actual: primario (default) o réplica.
+ *
+ * Lo deciden SoloLecturaInterceptor (endpoint marcado @SoloLectura) y
+ * VentanaEscrituraFilter (el cliente escribió hace poco → primario).
+ */
+@RequestScoped
+public class RutaDatasource {
+
+    private boolean replica;
+    private boolean escrituraReciente;
+
+    void usarReplica() {
+        this.replica = !escrituraReciente;
+    }
+
+    void marcarEscrituraReciente() {
+        this.escrituraReciente = true;
+        this.replica = false;
+    }
+
+    boolean esReplica() {
+        return replica;
+    }
+}
@@ -0,0 +1,25 @@
+package pe.banco.prestamos.replica;
+
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca un endpoint (o una clase entera) como de solo lectura: sus
+ * consultas van a la réplica (datasource "replica").
+ *
+ *   @GET
+ *   @SoloLectura
+ *   public PaginaDTO<PrestamoResumenDTO> listar(...)
+ *
+ * Solo para métodos que NO escriben: la sesión de Hibernate queda en modo
+ * read-only y la conexión de la réplica rechaza cualquier INSERT/UPDATE.
+ */
+@InterceptorBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SoloLectura {
+}
@@ -0,0 +1,55 @@
+package pe.banco.prestamos.replica;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+
+/**
+ * Enruta los métodos @SoloLectura a la réplica.
+ *
+ * Corre ANTES de que el método toque la BD: la sesión de Hibernate de la
+ * request se abre recién con la primera consulta, y en ese momento
+ * ResolvedorRuta elige el datasource. Además la sesión queda read-only:
+ * Hibernate no guarda snapshots para dirty checking.
+ *
+ * Las sesiones que van a la réplica usan CacheMode.GET: leen del cache L2
+ * lo que cargó el primario, pero nunca lo llenan con filas de una réplica
+ * que puede venir atrasada (entidades, natural-id y query cache).
+ */
+@SoloLectura
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE)
+public class SoloLecturaInterceptor {
+
+    @Inject
+    RutaDatasource ruta;
+
+    /**
+     * Se lee aquí y no de ResolvedorRuta: ese bean lleva el calificador
+     * @PersistenceUnitExtension y solo lo consume Hibernate.
+     */
+    @ConfigProperty(name = "prestamos.replica.habilitada", defaultValue = "true")
+    boolean replicaHabilitada;
+
+    @Inject
+    EntityManager em;
+
+    @AroundInvoke
+    Object enrutar(InvocationContext contexto) throws Exception {
+        if (replicaHabilitada) {
+            ruta.usarReplica();
+        }
+        Session sesion = em.unwrap(Session.class);
+        sesion.setDefaultReadOnly(true);
+        if (ruta.esReplica()) {
+            sesion.setCacheMode(CacheMode.GET);
+        }
+        return contexto.proceed();
+    }
+}
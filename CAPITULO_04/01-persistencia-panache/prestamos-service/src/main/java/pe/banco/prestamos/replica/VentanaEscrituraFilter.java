@@ -0,0 +1,64 @@
+package pe.banco.prestamos.replica;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.NewCookie;
+import jakarta.ws.rs.ext.Provider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.Set;
+
+/**
+ * Read-your-writes: quien acaba de escribir lee del primario un rato.
+ *
+ * La réplica va unos milisegundos (o segundos) atrasada. Sin esto:
+ *
+ *   POST /prestamos           → 201 (primario)
+ *   GET  /prestamos/cliente/7 → réplica aún sin el préstamo ❌
+ *
+ * Cada escritura exitosa deja una cookie que expira a los
+ * prestamos.replica.ventana-lectura-propia-segundos; mientras el cliente
+ * la envíe, sus lecturas van al primario aunque sean @SoloLectura.
+ */
+@Provider
+public class VentanaEscrituraFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    static final String COOKIE = "prestamos-escritura";
+
+    private static final Set<String> LECTURAS = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS);
+
+    /**
+     * 0 = sin ventana (las lecturas siempre pueden ir a la réplica).
+     */
+    @ConfigProperty(name = "prestamos.replica.ventana-lectura-propia-segundos", defaultValue = "5")
+    int ventanaSegundos;
+
+    @Inject
+    RutaDatasource ruta;
+
+    @Override
+    public void filter(ContainerRequestContext request) {
+        if (request.getCookies().containsKey(COOKIE)) {
+            ruta.marcarEscrituraReciente();
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        if (ventanaSegundos <= 0 || LECTURAS.contains(request.getMethod()) || response.getStatus() >= 400) {
+            return;
+        }
+        NewCookie cookie = new NewCookie.Builder(COOKIE)
+                .value("1")
+                .path("/")
+                .maxAge(ventanaSegundos)
+                .httpOnly(true)
+                .build();
+        response.getHeaders().add(HttpHeaders.SET_COOKIE, cookie);
+    }
+}
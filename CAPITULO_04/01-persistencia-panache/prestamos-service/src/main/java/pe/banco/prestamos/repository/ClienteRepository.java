@@ -2,8 +2,16 @@ package pe.banco.prestamos.repository;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.Query;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.jpa.HibernateHints;
+import pe.banco.prestamos.dto.ClienteBusquedaDTO;
 import pe.banco.prestamos.model.Cliente;
 
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 /**
@@ -57,7 +65,7 @@ import java.util.Optional;
  *    // Fácil mockear en tests
  * 
  * 3. QUERIES COMPLEJAS:
- *    - findByDni(), existsByEmail() centralizados
+ *    - findByDni(), registrar() centralizados
  *    - Fácil agregar nuevas búsquedas
  * 
  * 4. DOMAIN-DRIVEN DESIGN (DDD):
@@ -219,7 +227,7 @@ import java.util.Optional;
  * MÉTODOS CUSTOM:
  * Solo agregas los métodos específicos que necesites:
  * - findByDni()
- * - existsByEmail()
+ * - registrar()
  * - etc.
  * 
  * Los métodos CRUD ya vienen incluidos.
@@ -282,9 +290,9 @@ public class ClienteRepository implements PanacheRepository<Cliente> {
      * WHERE c.dni = ?
      * 
      * PERFORMANCE:
-     * - Índice UNIQUE en columna dni (creado por JPA)
-     * - Búsqueda O(1) por índice
-     * - Muy rápido
+     * - Índice UNIQUE uk_clientes_dni
+     * - Cache L2: natural id (dni → id) + entidad, sin SQL en un HIT
+     * - Hibernate invalida ambas regiones al actualizar/eliminar
      * 
      * USO EN SERVICIO:
      * Optional<Cliente> opt = clienteRepository.findByDni("12345678");
@@ -310,7 +318,10 @@ public class ClienteRepository implements PanacheRepository<Cliente> {
      * @return Optional con cliente si existe, empty si no
      */
     public Optional<Cliente> findByDni(String dni) {
-        return find("dni", dni).firstResultOptional();
+        // dni es @NaturalId: se resuelve dni → id → entidad desde el cache L2
+        return getEntityManager().unwrap(Session.class)
+                .bySimpleNaturalId(Cliente.class)
+                .loadOptional(dni);
     }
     
     /**
@@ -348,8 +359,9 @@ public class ClienteRepository implements PanacheRepository<Cliente> {
      * find("email", email.toLowerCase())
      * 
      * PERFORMANCE:
-     * - Índice UNIQUE en email
-     * - Búsqueda rápida O(1)
+     * - Índice UNIQUE uk_clientes_email
+     * - Query cache (email → id) + cache L2 de la entidad
+     * - Cualquier INSERT/UPDATE/DELETE en clientes invalida la query cache
      * 
      * VALIDACIÓN (recomendada):
      * if (!email.contains("@")) {
@@ -377,166 +389,140 @@ public class ClienteRepository implements PanacheRepository<Cliente> {
      * @return Optional con cliente si existe, empty si no
      */
     public Optional<Cliente> findByEmail(String email) {
-        return find("email", email).firstResultOptional();
+        // Query cache: Hibernate lo invalida en cada escritura sobre "clientes"
+        return find("email", email)
+                .withHint(HibernateHints.HINT_CACHEABLE, true)
+                .firstResultOptional();
     }
     
     /**
-     * Verifica si existe un cliente con el DNI dado.
-     * 
-     * MÉTODO DE VALIDACIÓN
-     * Usado ANTES de crear cliente para evitar duplicados.
-     * 
-     * RETORNO: boolean
-     * - true: DNI ya registrado
-     * - false: DNI disponible
-     * 
-     * ¿Por qué no Optional?
-     * - Solo nos interesa existencia (sí/no)
-     * - No necesitamos el objeto Cliente
-     * - Más eficiente que findByDni()
-     * 
-     * IMPLEMENTACIÓN:
-     * 
-     * count("dni", dni)
-     * - Método heredado de PanacheRepository
-     * - Genera: SELECT COUNT(c) FROM Cliente c WHERE c.dni = ?1
-     * - Retorna long (cantidad de coincidencias)
-     * 
-     * > 0
-     * - Convierte long a boolean
-     * - count >= 1 → true (existe)
-     * - count == 0 → false (no existe)
-     * 
-     * SQL generado:
-     * SELECT COUNT(c.id)
-     * FROM clientes c
-     * WHERE c.dni = ?
-     * 
-     * PERFORMANCE:
-     * - COUNT es más rápido que SELECT *
-     * - Solo cuenta, no trae datos
-     * - Usa índice UNIQUE en dni
-     * - Óptimo para validaciones
-     * 
-     * ALTERNATIVAS:
-     * 
-     * Opción 1 (actual - más eficiente):
-     * return count("dni", dni) > 0;
-     * 
-     * Opción 2 (menos eficiente):
-     * return findByDni(dni).isPresent();
-     * // Trae objeto completo solo para verificar existencia
-     * 
-     * Opción 3 (JPA puro):
-     * return em.createQuery("SELECT COUNT(c) FROM Cliente c WHERE c.dni = ?1", Long.class)
-     *          .setParameter(1, dni)
-     *          .getSingleResult() > 0;
-     * 
-     * USO EN RESOURCE:
-     * @POST
-     * @Transactional
-     * public Response crear(Cliente cliente) {
-     *     // Validar DNI duplicado
-     *     if (clienteRepository.existsByDni(cliente.dni)) {
-     *         return Response.status(409)
-     *             .entity("DNI ya registrado")
-     *             .build();
-     *     }
-     *     
-     *     clienteRepository.persist(cliente);
-     *     return Response.status(201).entity(cliente).build();
-     * }
-     * 
-     * VENTAJAS de validar ANTES de persist():
-     * - Evita intentar INSERT duplicado
-     * - Más rápido que catch exception
-     * - Control explícito del error
-     * - Mejor UX (mensaje claro al usuario)
-     * 
-     * Sin validación previa:
-     * try {
-     *     repo.persist(cliente);  // Falla si DNI duplicado
-     * } catch (PersistenceException e) {
-     *     // Manejar error de constraint
-     * }
-     * 
-     * Con validación (mejor):
-     * if (repo.existsByDni(dni)) {
-     *     return 409 Conflict;
-     * }
-     * repo.persist(cliente);  // Safe
-     * 
-     * @param dni Documento Nacional de Identidad a verificar
-     * @return true si DNI ya existe, false si está disponible
+     * Búsqueda de clientes para call center: nombre parcial o DNI.
+     * 
+     * ┌──────────────────┬────────────────────────────────────────────┐
+     * │ Término          │ Consulta (índice)                          │
+     * ├──────────────────┼────────────────────────────────────────────┤
+     * │ solo dígitos     │ dni LIKE '4512%' ORDER BY dni              │
+     * │ "4512"           │ (idx_clientes_dni_prefijo)                 │
+     * ├──────────────────┼────────────────────────────────────────────┤
+     * │ texto            │ nombre ILIKE '%per%' OR 'per' <% nombre    │
+     * │ "perez", "jaun"  │ ORDER BY word_similarity DESC              │
+     * │                  │ (idx_clientes_nombre_trgm, GIN pg_trgm)    │
+     * └──────────────────┴────────────────────────────────────────────┘
+     * 
+     * ILIKE encuentra subcadenas ("rez" → "Ana Pérez"); <% tolera
+     * errores de tipeo ("jaun" → "Juan"). Ambos usan el índice GIN, sin
+     * seq scan. Las tildes cuentan (no se usa unaccent).
+     * 
+     * RANKING: word_similarity(término, nombre) = qué tan bien calza el
+     * término con alguna palabra del nombre. Empates por nombre e id.
+     * 
+     * PAGINACIÓN: por desplazamiento (el orden es por relevancia, no hay
+     * clave estable para keyset). El recurso limita cuánto se puede
+     * avanzar: en un call center nadie pasa de la página 3.
+     * 
+     * @param termino nombre parcial o prefijo de DNI (ya normalizado)
+     * @param desde filas a saltar
+     * @param filas filas a devolver (el llamador pide limite + 1)
      */
-    public boolean existsByDni(String dni) {
-        return count("dni", dni) > 0;
+    public List<ClienteBusquedaDTO> buscar(String termino, int desde, int filas) {
+        Query consulta;
+        if (termino.chars().allMatch(Character::isDigit)) {
+            consulta = getEntityManager().createNativeQuery("""
+                    SELECT id, nombre, dni, email, telefono, 1.0
+                    FROM clientes
+                    WHERE dni LIKE :prefijo
+                    ORDER BY dni
+                    """)
+                    .setParameter("prefijo", termino + "%");
+        } else {
+            consulta = getEntityManager().createNativeQuery("""
+                    SELECT id, nombre, dni, email, telefono,
+                           word_similarity(:termino, nombre) AS relevancia
+                    FROM clientes
+                    WHERE nombre ILIKE :contiene OR :termino <% nombre
+                    ORDER BY relevancia DESC, nombre, id
+                    """)
+                    .setParameter("termino", termino)
+                    .setParameter("contiene", TextoBusqueda.contiene(termino));
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> resultado = consulta
+                .setFirstResult(desde)
+                .setMaxResults(filas)
+                .getResultList();
+        return resultado.stream()
+                .map(fila -> new ClienteBusquedaDTO(
+                        ((Number) fila[0]).longValue(),
+                        (String) fila[1],
+                        (String) fila[2],
+                        (String) fila[3],
+                        (String) fila[4],
+                        ((Number) fila[5]).doubleValue()))
+                .toList();
     }
     
     /**
-     * Verifica si existe un cliente con el email dado.
-     * 
-     * MÉTODO DE VALIDACIÓN
-     * Mismo patrón que existsByDni() para consistencia.
-     * 
-     * RETORNO: boolean
-     * - true: email ya registrado
-     * - false: email disponible
-     * 
-     * IMPLEMENTACIÓN:
-     * count("email", email) > 0
-     * - SELECT COUNT(c) FROM Cliente c WHERE c.email = ?1
-     * - Retorna true si count >= 1
-     * 
-     * SQL generado:
-     * SELECT COUNT(c.id)
-     * FROM clientes c
-     * WHERE c.email = ?
-     * 
-     * PERFORMANCE:
-     * - COUNT sobre índice UNIQUE
-     * - No trae datos, solo cuenta
-     * - Muy eficiente
-     * 
-     * CASE SENSITIVITY:
-     * Para case-insensitive:
-     * return count("LOWER(email) = LOWER(?1)", email) > 0;
-     * 
-     * USO EN VALIDACIÓN:
-     * @POST
-     * public Response crear(Cliente cliente) {
-     *     if (repo.existsByDni(cliente.dni)) {
-     *         return Response.status(409)
-     *             .entity("DNI ya registrado")
-     *             .build();
-     *     }
-     *     
-     *     if (repo.existsByEmail(cliente.email)) {
-     *         return Response.status(409)
-     *             .entity("Email ya registrado")
-     *             .build();
-     *     }
-     *     
-     *     repo.persist(cliente);
-     *     return Response.status(201).entity(cliente).build();
-     * }
-     * 
-     * MEJORA FUTURA:
-     * Validar ambos en una sola query:
-     * return count("dni = ?1 OR email = ?2", dni, email) > 0;
+     * Inserta un cliente nuevo en UN solo round-trip (INSERT + flush).
+     * 
+     * SIN VALIDACIÓN PREVIA:
+     * Antes se hacían dos COUNT (existsByDni, existsByEmail) y luego el
+     * INSERT: 3 viajes a la BD y aun así carrera entre dos requests
+     * concurrentes con el mismo DNI. Ahora el índice UNIQUE decide:
+     * 
+     * ┌────────────────────────────┬─────────────────────────────────┐
+     * │ Resultado del INSERT       │ Retorno                         │
+     * ├────────────────────────────┼─────────────────────────────────┤
+     * │ OK                         │ Optional.empty()                │
+     * │ viola uk_clientes_dni      │ Optional.of(Cliente.UK_DNI)     │
+     * │ viola uk_clientes_email    │ Optional.of(Cliente.UK_EMAIL)   │
+     * │ otro error                 │ se propaga la excepción         │
+     * └────────────────────────────┴─────────────────────────────────┘
+     * 
+     * IMPORTANTE: tras una violación la transacción queda marcada
+     * rollback-only; el llamador solo debe construir la respuesta.
+     * 
+     * @param cliente Cliente nuevo (sin id)
+     * @return restricción única violada, o vacío si se insertó
+     */
+    public Optional<String> registrar(Cliente cliente) {
+        try {
+            persistAndFlush(cliente);
+            return Optional.empty();
+        } catch (PersistenceException e) {
+            String restriccion = restriccionUnicaViolada(e);
+            if (restriccion == null) {
+                throw e;
+            }
+            return Optional.of(restriccion);
+        }
+    }
+    
+    /**
+     * Traduce una violación de UNIQUE a Cliente.UK_DNI / UK_EMAIL.
      * 
-     * O retornar qué campo está duplicado:
-     * public String validarDuplicados(String dni, String email) {
-     *     if (existsByDni(dni)) return "DNI duplicado";
-     *     if (existsByEmail(email)) return "Email duplicado";
-     *     return null;  // OK
-     * }
+     * Bases creadas antes de nombrar las restricciones tienen nombres
+     * generados por Hibernate (ukxxxx...): en ese caso se reconoce la
+     * columna en el detalle de PostgreSQL "Key (dni)=(...) already exists".
      * 
-     * @param email Correo electrónico a verificar
-     * @return true si email ya existe, false si está disponible
+     * @return nombre de la restricción, o null si no es UNIQUE de clientes
      */
-    public boolean existsByEmail(String email) {
-        return count("email", email) > 0;
+    static String restriccionUnicaViolada(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException violacion
+                    && violacion.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE) {
+                String nombre = violacion.getConstraintName() != null
+                        ? violacion.getConstraintName().toLowerCase(Locale.ROOT) : "";
+                String detalle = String.valueOf(violacion.getSQLException().getMessage());
+                if (nombre.equals(Cliente.UK_DNI) || detalle.contains("(dni)")) {
+                    return Cliente.UK_DNI;
+                }
+                if (nombre.equals(Cliente.UK_EMAIL) || detalle.contains("(email)")) {
+                    return Cliente.UK_EMAIL;
+                }
+                return null;
+            }
+        }
+        return null;
     }
     
     // ============================================
@@ -544,13 +530,9 @@ public class ClienteRepository implements PanacheRepository<Cliente> {
     // ============================================
     
     /**
-     * Ejemplo: Buscar clientes por nombre (like)
+     * Búsqueda por nombre: ver buscar() (LIKE '%x%' sin índice trigram
+     * recorre toda la tabla).
      */
-    /*
-    public List<Cliente> findByNombreLike(String nombre) {
-        return find("LOWER(nombre) LIKE LOWER(?1)", "%" + nombre + "%").list();
-    }
-    */
     
     /**
      * Ejemplo: Listar clientes con préstamos activos
@@ -668,8 +650,8 @@ public class ClienteRepository implements PanacheRepository<Cliente> {
  *     @Test
  *     void testCrearClienteDniDuplicado() {
  *         // Mock: simular que DNI ya existe
- *         when(clienteRepository.existsByDni("12345678"))
- *             .thenReturn(true);
+ *         when(clienteRepository.registrar(any()))
+ *             .thenReturn(Optional.of(Cliente.UK_DNI));
  *         
  *         Cliente cliente = new Cliente();
  *         cliente.dni = "12345678";
@@ -687,7 +669,7 @@ public class ClienteRepository implements PanacheRepository<Cliente> {
  *         assertTrue(response.body().asString().contains("DNI ya registrado"));
  *         
  *         // Verificar que se llamó el método
- *         verify(clienteRepository).existsByDni("12345678");
+ *         verify(clienteRepository).registrar(any());
  *     }
  * }
  * 
@@ -0,0 +1,115 @@
+package pe.banco.prestamos.repository;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Crea los índices que usa ClienteRepository.buscar() al arrancar.
+ *
+ * Hibernate (database.generation=update) no sabe crear extensiones ni
+ * índices con operator class, así que se crean aquí con IF NOT EXISTS:
+ *
+ * ┌──────────────────────────────┬─────────────────────────────────────┐
+ * │ Índice                       │ Sirve para                          │
+ * ├──────────────────────────────┼─────────────────────────────────────┤
+ * │ idx_clientes_nombre_trgm     │ nombre ILIKE '%per%'  (GIN trigram) │
+ * │ (gin_trgm_ops)               │ 'jaun' <% nombre      (con typos)   │
+ * ├──────────────────────────────┼─────────────────────────────────────┤
+ * │ idx_clientes_dni_prefijo     │ dni LIKE '4512%'  (B-tree, sin      │
+ * │ (text_pattern_ops)           │ depender del collation de la BD)    │
+ * └──────────────────────────────┴─────────────────────────────────────┘
+ *
+ * CONCURRENTLY: con un millón de clientes el índice GIN tarda; así no se
+ * bloquean los INSERT/UPDATE mientras se construye. Requiere autocommit,
+ * por eso se usa una conexión JDBC directa y no una transacción JTA.
+ * Si un arranque anterior se cortó a mitad del build, el índice quedó
+ * INVALID (pg_index.indisvalid = false): se borra y se vuelve a crear.
+ *
+ * Si el usuario de BD no puede crear extensiones, desactivar con
+ * prestamos.busqueda.crear-indices=false y que el DBA ejecute el SQL.
+ */
+@ApplicationScoped
+public class IndicesBusquedaClientes {
+
+    private static final Logger LOG = Logger.getLogger(IndicesBusquedaClientes.class);
+
+    static final String EXTENSION = "CREATE EXTENSION IF NOT EXISTS pg_trgm";
+
+    static final List<Indice> INDICES = List.of(
+            new Indice("idx_clientes_nombre_trgm",
+                    "ON clientes USING gin (nombre gin_trgm_ops)"),
+            new Indice("idx_clientes_dni_prefijo",
+                    "ON clientes (dni text_pattern_ops)"));
+
+    /**
+     * Un CREATE INDEX CONCURRENTLY que falla a medias (cancelado, timeout, la app
+     * se cae) deja el índice creado pero INVALID: no se usa en las consultas e
+     * IF NOT EXISTS lo saltaría en cada arranque. Si está así, se borra y se recrea.
+     */
+    static final String INVALIDO =
+            "SELECT 1 FROM pg_index WHERE indexrelid = to_regclass(?) AND NOT indisvalid";
+
+    @Inject
+    DataSource dataSource;
+
+    @ConfigProperty(name = "prestamos.busqueda.crear-indices", defaultValue = "true")
+    boolean crearIndices;
+
+    void alIniciar(@Observes StartupEvent evento) {
+        if (!crearIndices) {
+            return;
+        }
+        try (Connection conexion = dataSource.getConnection();
+             Statement sentencia = conexion.createStatement()) {
+            conexion.setAutoCommit(true);
+            sentencia.execute(EXTENSION);
+            for (Indice indice : INDICES) {
+                if (esInvalido(conexion, indice.nombre())) {
+                    LOG.warnf("🧹 Índice %s inválido (quedó de un build interrumpido): se recrea", indice.nombre());
+                    sentencia.execute(indice.borrar());
+                }
+                sentencia.execute(indice.crear());
+            }
+            LOG.info("🔎 Índices de búsqueda de clientes listos (pg_trgm)");
+        } catch (SQLException e) {
+            // La app funciona igual; la búsqueda por nombre será un seq scan
+            LOG.warnf("⚠️ No se pudieron crear los índices de búsqueda: %s", e.getMessage());
+        }
+    }
+
+    private static boolean esInvalido(Connection conexion, String nombre) throws SQLException {
+        try (PreparedStatement consulta = conexion.prepareStatement(INVALIDO)) {
+            consulta.setString(1, nombre);
+            try (ResultSet fila = consulta.executeQuery()) {
+                return fila.next();
+            }
+        }
+    }
+
+    /**
+     * Un índice de búsqueda: nombre y lo que va después de
+     * {@code CREATE INDEX CONCURRENTLY IF NOT EXISTS <nombre>}.
+     */
+    record Indice(String nombre, String definicion) {
+
+        String crear() {
+            return "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + nombre + " " + definicion;
+        }
+
+        String borrar() {
+            return "DROP INDEX CONCURRENTLY IF EXISTS " + nombre;
+        }
+    }
+}
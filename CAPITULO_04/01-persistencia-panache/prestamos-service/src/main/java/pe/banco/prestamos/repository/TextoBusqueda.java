@@ -0,0 +1,23 @@
+package pe.banco.prestamos.repository;
+
+/**
+ * Convierte lo que escribe el usuario en patrones LIKE para las búsquedas de
+ * {@link ClienteRepository}.
+ *
+ * <pre>
+ * contiene("50%")   →  '%50\%%'     nombre ILIKE ...  (GIN trigram)
+ * contiene("a_b")   →  '%a\_b%'     el "_" del usuario es literal
+ * </pre>
+ *
+ * <p>Los comodines se escapan con el escape por defecto de PostgreSQL ({@code \}):
+ * "50%" no debe coincidir con todo lo que empieza con "50".</p>
+ */
+final class TextoBusqueda {
+
+    private TextoBusqueda() {
+    }
+
+    static String contiene(String texto) {
+        return "%" + texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
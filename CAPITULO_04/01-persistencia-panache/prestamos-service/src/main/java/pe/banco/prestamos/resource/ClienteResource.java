@@ -5,10 +5,15 @@ import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import pe.banco.prestamos.dto.ClienteBusquedaDTO;
+import pe.banco.prestamos.dto.PaginaDTO;
 import pe.banco.prestamos.model.Cliente;
+import pe.banco.prestamos.replica.SoloLectura;
 import pe.banco.prestamos.repository.ClienteRepository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * REST Resource (Controlador) para gestión de clientes bancarios.
@@ -38,6 +43,7 @@ import java.util.List;
  * 
  * Endpoints expuestos:
  * GET    /clientes           → Listar todos
+ * GET    /clientes/buscar?q  → Buscar por nombre o DNI (paginado)
  * GET    /clientes/{id}      → Obtener uno
  * POST   /clientes           → Crear nuevo
  * PUT    /clientes/{id}      → Actualizar
@@ -212,6 +218,22 @@ public class ClienteResource {
     @Inject
     ClienteRepository clienteRepository;
     
+    /**
+     * Tope de ?limite= (compartido con los listados de préstamos).
+     */
+    @ConfigProperty(name = "prestamos.paginacion.limite-maximo", defaultValue = "100")
+    int limiteMaximo;
+    
+    /**
+     * Cuántos resultados como máximo se pueden recorrer en una búsqueda
+     * (la paginación es por desplazamiento: más allá no vale la pena).
+     */
+    @ConfigProperty(name = "prestamos.busqueda.max-resultados", defaultValue = "200")
+    int maxResultadosBusqueda;
+    
+    private static final int LIMITE_DEFAULT = 20;
+    private static final int LARGO_MINIMO_BUSQUEDA = 3;
+    
     // ============================================
     // ENDPOINTS REST - CRUD COMPLETO
     // ============================================
@@ -280,10 +302,68 @@ public class ClienteResource {
      * @return Lista de todos los clientes (nunca null, puede estar vacía)
      */
     @GET
+    @SoloLectura
     public List<Cliente> listar() {
         return clienteRepository.listAll();
     }
     
+    /**
+     * GET /clientes/buscar?q={texto}&cursor={n}&limite={n}
+     * Busca clientes por nombre parcial o prefijo de DNI, por relevancia.
+     * 
+     * Request HTTP:
+     * GET http://localhost:8080/clientes/buscar?q=perez&limite=2
+     * 
+     * Response 200 OK:
+     * {
+     *   "items": [
+     *     { "id": 8, "nombre": "Luis Perez", "dni": "45123456", ...,
+     *       "relevancia": 1.0 },
+     *     { "id": 3, "nombre": "Ana Pereza", ..., "relevancia": 0.83 }
+     *   ],
+     *   "siguienteCursor": 2
+     * }
+     * 
+     * q = solo dígitos → búsqueda por prefijo de DNI ("4512" → 4512xxxx)
+     * q = texto        → nombre con pg_trgm (subcadena o parecido)
+     * 
+     * El cursor es el número de resultados ya vistos; se corta en
+     * prestamos.busqueda.max-resultados.
+     * 
+     * Response 400: q ausente o de menos de 3 caracteres (con menos no
+     * hay trigramas y el índice no sirve).
+     * 
+     * @param q término de búsqueda
+     * @param cursor siguienteCursor de la página anterior
+     * @param limite tamaño de página
+     */
+    @GET
+    @SoloLectura
+    @Path("/buscar")
+    public Response buscar(@QueryParam("q") String q,
+                           @QueryParam("cursor") Integer cursor,
+                           @QueryParam("limite") Integer limite) {
+        String termino = q != null ? q.trim() : "";
+        if (termino.length() < LARGO_MINIMO_BUSQUEDA) {
+            return Response.status(400)
+                    .entity("El término de búsqueda debe tener al menos " + LARGO_MINIMO_BUSQUEDA + " caracteres")
+                    .build();
+        }
+        
+        int desde = cursor != null ? Math.max(cursor, 0) : 0;
+        int tamanio = Math.min(limite(limite), maxResultadosBusqueda - desde);
+        if (tamanio <= 0) {
+            return Response.ok(new PaginaDTO<>(List.of(), null)).build();
+        }
+        
+        // limite + 1 filas: la extra solo indica si hay página siguiente
+        List<ClienteBusquedaDTO> filas = clienteRepository.buscar(termino, desde, tamanio + 1);
+        PaginaDTO<ClienteBusquedaDTO> pagina = filas.size() > tamanio
+                ? new PaginaDTO<>(filas.subList(0, tamanio), (long) (desde + tamanio))
+                : new PaginaDTO<>(filas, null);
+        return Response.ok(pagina).build();
+    }
+    
     /**
      * GET /clientes/{id}
      * Obtiene un cliente específico por ID.
@@ -357,6 +437,7 @@ public class ClienteResource {
      * @return Response con cliente (200) o error (404)
      */
     @GET
+    @SoloLectura
     @Path("/{id}")
     public Response obtener(@PathParam("id") Long id) {
         return clienteRepository.findByIdOptional(id)
@@ -409,28 +490,16 @@ public class ClienteResource {
      * - Commit automático al terminar
      * - Rollback automático si hay exception
      * 
-     * VALIDACIONES:
+     * VALIDACIONES (DNI y email duplicados):
      * 
-     * 1. DNI duplicado:
-     * if (clienteRepository.existsByDni(cliente.dni)) {
-     *     return 409 Conflict;
-     * }
-     * 
-     * ¿Por qué validar ANTES de persist()?
-     * - Evita intentar INSERT duplicado
-     * - Más rápido que catch exception
-     * - Control explícito del error
-     * - Mensaje claro al usuario
-     * 
-     * Sin validación:
-     * try {
-     *     repo.persist(cliente);
-     * } catch (PersistenceException e) {
-     *     // Maneja constraint violation
-     * }
+     * Sin SELECT previo. clienteRepository.registrar() hace el INSERT y,
+     * si choca con uk_clientes_dni / uk_clientes_email, devuelve qué
+     * restricción se violó → 409 con el mensaje correspondiente.
      * 
-     * 2. Email duplicado:
-     * Similar a DNI, verifica unicidad.
+     * ¿Por qué no validar ANTES de persist()?
+     * - Dos COUNT extra por cada alta (3 round-trips en vez de 1)
+     * - Carrera: dos requests con el mismo DNI pasan ambos el COUNT
+     * - El índice UNIQUE ya garantiza la regla de forma atómica
      * 
      * DESERIALIZACIÓN JSON → Objeto:
      * Jackson automáticamente:
@@ -452,14 +521,7 @@ public class ClienteResource {
      * - Body: cliente con ID asignado
      * - Header Location (opcional): /clientes/3
      * 
-     * SQL ejecutado:
-     * -- Validación DNI
-     * SELECT COUNT(c.id) FROM clientes c WHERE c.dni = ?
-     * 
-     * -- Validación Email
-     * SELECT COUNT(c.id) FROM clientes c WHERE c.email = ?
-     * 
-     * -- Inserción
+     * SQL ejecutado (único round-trip):
      * INSERT INTO clientes (nombre, dni, email, telefono)
      * VALUES (?, ?, ?, ?)
      * 
@@ -473,19 +535,15 @@ public class ClienteResource {
     @POST
     @Transactional
     public Response crear(Cliente cliente) {
-        // Validar DNI duplicado
-        if (clienteRepository.existsByDni(cliente.dni)) {
-            return Response.status(409).entity("DNI ya registrado").build();
-        }
-        
-        // Validar email duplicado
-        if (clienteRepository.existsByEmail(cliente.email)) {
-            return Response.status(409).entity("Email ya registrado").build();
+        // INSERT directo: los índices UNIQUE detectan DNI/email duplicados
+        Optional<String> violada = clienteRepository.registrar(cliente);
+        if (violada.isPresent()) {
+            String mensaje = Cliente.UK_DNI.equals(violada.get())
+                    ? "DNI ya registrado"
+                    : "Email ya registrado";
+            return Response.status(409).entity(mensaje).build();
         }
         
-        // Persistir
-        clienteRepository.persist(cliente);
-        
         // Retornar 201 Created con cliente (ahora tiene ID)
         return Response.status(201).entity(cliente).build();
     }
@@ -570,6 +628,10 @@ public class ClienteResource {
      * SET nombre = ?, telefono = ?
      * WHERE id = ?
      * 
+     * CACHE L2: la búsqueda se sirve del cache si el cliente ya estaba;
+     * al commit del UPDATE Hibernate reemplaza la entrada (READ_WRITE) e
+     * invalida la query cache de findByEmail. No hay invalidación manual.
+     * 
      * PUT vs PATCH:
      * - PUT: Reemplazo completo (todos los campos)
      * - PATCH: Actualización parcial (solo campos enviados)
@@ -661,6 +723,9 @@ public class ClienteResource {
      * - Recuperación posible
      * - Historial preservado
      * 
+     * CACHE L2: deleteById() carga la entidad y hace em.remove(), así que
+     * Hibernate desaloja la entidad y su natural id (dni) al commit.
+     * 
      * VALIDACIÓN ADICIONAL (futura):
      * if (cliente.prestamos.stream().anyMatch(p -> p.estado == ACTIVO)) {
      *     return Response.status(409)
@@ -683,6 +748,16 @@ public class ClienteResource {
         
         return Response.status(204).build();
     }
+    
+    /**
+     * Tamaño de página solicitado, acotado a [1, limiteMaximo].
+     */
+    private int limite(Integer solicitado) {
+        if (solicitado == null || solicitado < 1) {
+            return LIMITE_DEFAULT;
+        }
+        return Math.min(solicitado, limiteMaximo);
+    }
 }
 
 /**
@@ -747,26 +822,17 @@ public class ClienteResource {
  * 
  * 5. MÉTODO crear() EJECUTA:
  * 
- *   a. Validar DNI:
- *      existsByDni("12345678")
- *      → SELECT COUNT(*) FROM clientes WHERE dni = '12345678'
- *      → count = 0 (no existe) ✅
- * 
- *   b. Validar Email:
- *      existsByEmail("juan@example.com")
- *      → SELECT COUNT(*) FROM clientes WHERE email = '...'
- *      → count = 0 (no existe) ✅
- * 
- *   c. Persistir:
- *      persist(cliente)
+ *   a. Registrar (sin validación previa):
+ *      registrar(cliente)
  *      → INSERT INTO clientes (nombre, dni, email, telefono)
  *        VALUES ('Juan Pérez', '12345678', 'juan@...', '987654321')
+ *      → UNIQUE uk_clientes_dni / uk_clientes_email OK ✅
  *      → cliente.id = 1 (generado por BD)
  * 
- *   d. @Transactional commit:
+ *   b. @Transactional commit:
  *      → Cambios confirmados en BD
  * 
- *   e. Response:
+ *   c. Response:
  *      Response.status(201).entity(cliente)
  * 
  * 6. JAX-RS SERIALIZA RESPONSE:
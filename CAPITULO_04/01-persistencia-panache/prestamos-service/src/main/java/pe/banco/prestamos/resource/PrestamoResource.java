@@ -1,19 +1,29 @@
 package pe.banco.prestamos.resource;
 
 import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import pe.banco.prestamos.amortizacion.Cronograma;
+import pe.banco.prestamos.amortizacion.MotorAmortizacion;
+import pe.banco.prestamos.amortizacion.TipoAmortizacion;
+import pe.banco.prestamos.dto.CuotaDTO;
+import pe.banco.prestamos.dto.PaginaDTO;
+import pe.banco.prestamos.dto.PrestamoResumenDTO;
 import pe.banco.prestamos.model.Cliente;
 import pe.banco.prestamos.model.Cuota;
 import pe.banco.prestamos.model.Prestamo;
+import pe.banco.prestamos.pagos.AplicacionPagosService;
+import pe.banco.prestamos.pagos.PagoEntrante;
+import pe.banco.prestamos.pagos.ResultadoPago;
+import pe.banco.prestamos.replica.SoloLectura;
 import pe.banco.prestamos.repository.ClienteRepository;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -46,11 +56,17 @@ import java.util.List;
  * - Ambos patrones conviven bien
  * 
  * ENDPOINTS:
- * GET    /prestamos                    → Listar todos
+ * GET    /prestamos?cursor&limite      → Listar (resúmenes paginados)
  * GET    /prestamos/{id}               → Obtener uno
+ * GET    /prestamos/{id}/cuotas        → Cuotas paginadas
  * POST   /prestamos                    → Crear (con cuotas)
  * PUT    /prestamos/{id}/pagar-cuota/{n} → Pagar cuota
- * GET    /prestamos/cliente/{id}       → Por cliente
+ * POST   /prestamos/{id}/pagos         → Pago por monto (parcial o varias cuotas)
+ * POST   /prestamos/pagos/lotes        → Archivo de pagos del banco
+ *                                         (ver pagos.LotePagosResource)
+ * GET    /prestamos/cliente/{id}       → Por cliente (paginado)
+ * POST   /prestamos/lotes              → Originación masiva NDJSON/CSV
+ *                                         (ver originacion.LoteOriginacionResource)
  * 
  * Analogía: Como la ventanilla de préstamos del banco.
  * - Recibe solicitudes
@@ -88,57 +104,75 @@ public class PrestamoResource {
     @Inject
     ClienteRepository clienteRepository;
     
+    /**
+     * Calcula cronogramas (francés, alemán o plano) en centavos.
+     * Ver pe.banco.prestamos.amortizacion.MotorAmortizacion
+     */
+    @Inject
+    MotorAmortizacion motorAmortizacion;
+    
+    /**
+     * Pagos por monto (parciales o de varias cuotas).
+     * Ver pe.banco.prestamos.pagos.AplicacionPagosService
+     */
+    @Inject
+    AplicacionPagosService aplicacionPagos;
+    
+    /**
+     * Tope de ?limite= en los listados paginados.
+     */
+    @ConfigProperty(name = "prestamos.paginacion.limite-maximo", defaultValue = "100")
+    int limiteMaximo;
+    
+    private static final int LIMITE_DEFAULT = 20;
+    
     // ============================================
     // ENDPOINTS REST
     // ============================================
     
     /**
-     * GET /prestamos
-     * Lista todos los préstamos.
+     * GET /prestamos?cursor={id}&limite={n}
+     * Lista préstamos paginados, del más reciente al más antiguo.
      * 
-     * ACTIVE RECORD:
-     * Prestamo.listAll() - método estático heredado
-     * 
-     * No necesita repository porque Prestamo extends PanacheEntity.
+     * PROYECCIÓN + KEYSET (ver Prestamo.listarResumen):
+     * - Una sola consulta por página (antes: 1 + N para clientes + N para cuotas)
+     * - Sin cuotas: se piden en GET /prestamos/{id}/cuotas
+     * - saldoPendiente calculado por la BD
      * 
      * Request:
-     * GET http://localhost:8080/prestamos
+     * GET http://localhost:8080/prestamos?limite=2
      * 
      * Response 200 OK:
-     * [
-     *   {
-     *     "id": 1,
-     *     "cliente": { ... },
-     *     "monto": 10000.00,
-     *     "plazoMeses": 12,
-     *     "tasaInteres": 15.50,
-     *     "fechaDesembolso": "2025-10-12",
-     *     "estado": "ACTIVO",
-     *     "cuotas": [
-     *       { "id": 1, "numeroCuota": 1, "monto": 962.50, ... },
-     *       { "id": 2, "numeroCuota": 2, ... }
-     *     ]
-     *   }
-     * ]
-     * 
-     * NOTA: cuotas NO tienen 'prestamo' por @JsonIgnore
-     * (evita loop infinito Prestamo → Cuota → Prestamo)
-     * 
-     * SQL:
-     * SELECT * FROM prestamos
-     * SELECT * FROM clientes WHERE id IN (...)  -- EAGER fetch
-     * SELECT * FROM cuotas WHERE prestamo_id IN (...) -- LAZY fetch on access
-     * 
-     * MEJORA FUTURA (evitar N+1):
-     * return Prestamo.find(
-     *     "SELECT p FROM Prestamo p " +
-     *     "LEFT JOIN FETCH p.cuotas " +
-     *     "LEFT JOIN FETCH p.cliente"
-     * ).list();
+     * {
+     *   "items": [
+     *     {
+     *       "id": 42,
+     *       "clienteId": 1,
+     *       "clienteNombre": "María González",
+     *       "monto": 10000.00,
+     *       "plazoMeses": 12,
+     *       "tasaInteres": 15.50,
+     *       "fechaDesembolso": "2025-10-12",
+     *       "estado": "ACTIVO",
+     *       "tipoAmortizacion": "FRANCES",
+     *       "saldoPendiente": 10859.34
+     *     },
+     *     { "id": 41, ... }
+     *   ],
+     *   "siguienteCursor": 41
+     * }
+     * 
+     * Página siguiente: GET /prestamos?cursor=41&limite=2
+     * Última página: "siguienteCursor": null
+     * 
+     * @param cursor último id recibido (omitir en la primera página)
+     * @param limite tamaño de página (default 20, máximo prestamos.paginacion.limite-maximo)
      */
     @GET
-    public List<Prestamo> listar() {
-        return Prestamo.listAll();
+    @SoloLectura
+    public PaginaDTO<PrestamoResumenDTO> listar(@QueryParam("cursor") Long cursor,
+                                               @QueryParam("limite") Integer limite) {
+        return Prestamo.listarResumen(null, cursor, limite(limite));
     }
     
     /**
@@ -183,6 +217,7 @@ public class PrestamoResource {
      * → Si Optional vacío, crea Response 404
      */
     @GET
+    @SoloLectura
     @Path("/{id}")
     public Response obtener(@PathParam("id") Long id) {
         return Prestamo.findByIdOptional(id)
@@ -209,7 +244,8 @@ public class PrestamoResource {
      *   "clienteId": 1,
      *   "monto": 10000.00,
      *   "plazoMeses": 12,
-     *   "tasaInteres": 15.50
+     *   "tasaInteres": 15.50,
+     *   "tipoAmortizacion": "PLANO"   ← opcional: FRANCES | ALEMAN | PLANO (default)
      * }
      * 
      * Response 201 Created:
@@ -226,6 +262,8 @@ public class PrestamoResource {
      *       "id": 1,
      *       "numeroCuota": 1,
      *       "monto": 962.50,
+     *       "capital": 833.33,
+     *       "interes": 129.17,
      *       "fechaVencimiento": "2025-11-12",
      *       "fechaPago": null,
      *       "pagada": false
@@ -237,6 +275,9 @@ public class PrestamoResource {
      * Response 404 Not Found:
      * "Cliente no encontrado"
      * 
+     * Response 400 Bad Request:
+     * monto/plazo/tasa faltantes o inválidos
+     * 
      * @Transactional CRÍTICO:
      * - Inserta préstamo
      * - Inserta 12 cuotas (cascade)
@@ -263,9 +304,9 @@ public class PrestamoResource {
      * - cuotas aún null (se asignan después)
      * 
      * GENERACIÓN DE CUOTAS:
-     * generarCuotas(prestamo)
-     * - Calcula monto de cuota
-     * - Crea N cuotas (1 por mes)
+     * generarCuotas(prestamo, tipo)
+     * - MotorAmortizacion calcula el cronograma en centavos
+     * - Crea N cuotas (1 por mes) con desglose capital/interés
      * - Fechas vencimiento: +1, +2, +3... meses
      * - Todas con pagada=false
      * 
@@ -285,7 +326,7 @@ public class PrestamoResource {
      *                        tasa_interes, fecha_desembolso, estado)
      * VALUES (1, 10000, 12, 15.50, '2025-10-12', 'ACTIVO')
      * 
-     * -- Insertar cuotas (12 INSERTs)
+     * -- Insertar cuotas (12 filas, enviadas en un batch JDBC)
      * INSERT INTO cuotas (prestamo_id, numero_cuota, monto, 
      *                     fecha_vencimiento, pagada)
      * VALUES (1, 1, 962.50, '2025-11-12', false);
@@ -293,7 +334,7 @@ public class PrestamoResource {
      * ... (10 más)
      * 
      * @param request DTO con datos del préstamo a crear
-     * @return Response 201 con préstamo creado, o 404 si cliente no existe
+     * @return Response 201 con préstamo creado, 404 si cliente no existe, 400 si datos inválidos
      */
     @POST
     @Transactional
@@ -304,7 +345,15 @@ public class PrestamoResource {
             return Response.status(404).entity("Cliente no encontrado").build();
         }
         
-        // 2. CREAR PRÉSTAMO
+        // 2. VALIDAR DATOS FINANCIEROS
+        if (request.monto == null || request.tasaInteres == null || request.plazoMeses == null) {
+            return Response.status(400).entity("monto, plazoMeses y tasaInteres son obligatorios").build();
+        }
+        TipoAmortizacion tipo = request.tipoAmortizacion != null
+            ? request.tipoAmortizacion
+            : TipoAmortizacion.PLANO;
+        
+        // 3. CREAR PRÉSTAMO
         Prestamo prestamo = new Prestamo(
             cliente,
             request.monto,
@@ -313,15 +362,19 @@ public class PrestamoResource {
             LocalDate.now()  // Fecha desembolso: hoy
         );
         // Constructor setea: estado = ACTIVO
+        prestamo.tipoAmortizacion = tipo;
         
-        // 3. GENERAR CUOTAS
-        List<Cuota> cuotas = generarCuotas(prestamo);
-        prestamo.cuotas = cuotas;
+        // 4. GENERAR CUOTAS (inicializa saldo, contador y próximo vencimiento)
+        try {
+            prestamo.asignarCuotas(generarCuotas(prestamo, tipo));
+        } catch (IllegalArgumentException e) {
+            return Response.status(400).entity(e.getMessage()).build();
+        }
         
-        // 4. PERSISTIR (cascade guarda cuotas)
+        // 5. PERSISTIR (cascade guarda cuotas en batches JDBC)
         prestamo.persist();
         
-        // 5. RETORNAR
+        // 6. RETORNAR
         return Response.status(201).entity(prestamo).build();
     }
     
@@ -330,12 +383,14 @@ public class PrestamoResource {
      * Marca una cuota como pagada.
      * 
      * LÓGICA DE NEGOCIO:
-     * 1. Buscar préstamo por ID
-     * 2. Buscar cuota por número
+     * 1. Buscar préstamo por ID (bloqueado para escritura)
+     * 2. Buscar cuota por número (una fila, no toda la colección)
      * 3. Validar que no esté pagada
-     * 4. Marcar como pagada (fechaPago = hoy)
-     * 5. Si todas pagadas → préstamo.estado = PAGADO
-     * 6. Retornar cuota actualizada
+     * 4. prestamo.registrarPago(cuota):
+     *    - cuota pagada (fechaPago = hoy)
+     *    - saldoPendiente -= monto, cuotasPagadas++
+     *    - si era la última → préstamo.estado = PAGADO
+     * 5. Retornar cuota actualizada
      * 
      * Request:
      * PUT http://localhost:8080/prestamos/1/pagar-cuota/1
@@ -360,87 +415,30 @@ public class PrestamoResource {
      * Response 409 Conflict (ya pagada):
      * "Cuota ya pagada"
      * 
-     * @Transactional:
-     * - Actualiza cuota
-     * - Actualiza préstamo si aplica
-     * - Commit automático
-     * 
-     * DOS @PathParam:
-     * @PathParam("id") Long prestamoId
-     * @PathParam("numeroCuota") Integer numeroCuota
-     * 
-     * URL: /prestamos/1/pagar-cuota/5
-     *                  ↑              ↑
-     *             prestamoId=1   numeroCuota=5
-     * 
-     * BUSCAR PRÉSTAMO:
-     * Prestamo.findById(prestamoId)
-     * - Active Record, método estático
-     * - Retorna Prestamo o null
-     * 
-     * BUSCAR CUOTA:
-     * prestamo.cuotas.stream()
-     *     .filter(c -> c.numeroCuota.equals(numeroCuota))
-     *     .findFirst()
-     *     .orElse(null)
-     * 
-     * Stream API:
-     * - Filtra cuotas por número
-     * - findFirst() → Optional<Cuota>
-     * - orElse(null) → Cuota o null
-     * 
-     * Alternativa con loop:
-     * for (Cuota c : prestamo.cuotas) {
-     *     if (c.numeroCuota.equals(numeroCuota)) {
-     *         cuota = c;
-     *         break;
-     *     }
-     * }
-     * 
-     * VALIDACIÓN YA PAGADA:
-     * if (cuota.pagada) {
-     *     return 409 Conflict;
-     * }
-     * 
-     * Evita doble pago.
+     * COSTO CONSTANTE:
+     * Antes se cargaban TODAS las cuotas y se recorrían con allMatch()
+     * para saber si el préstamo quedó pagado: 360 filas por pago en una
+     * hipoteca. Ahora el préstamo lleva la cuenta (cuotasPagadas) y
+     * el costo no depende del plazo.
      * 
-     * MARCAR COMO PAGADA:
-     * cuota.pagada = true;
-     * cuota.fechaPago = LocalDate.now();
+     * BLOQUEO PESIMISTA:
+     * Prestamo.findById(id, LockModeType.PESSIMISTIC_WRITE)
+     * → SELECT ... FROM prestamos WHERE id = ? FOR UPDATE
      * 
-     * Hibernate detecta cambio (dirty checking):
-     * → UPDATE cuotas SET pagada=true, fecha_pago=? WHERE id=?
-     * 
-     * VERIFICAR PRÉSTAMO COMPLETO:
-     * boolean todasPagadas = prestamo.cuotas.stream()
-     *     .allMatch(c -> c.pagada);
-     * 
-     * .allMatch():
-     * - true si TODAS las cuotas cumplen condición
-     * - false si al menos una no cumple
-     * 
-     * if (todasPagadas) {
-     *     prestamo.estado = EstadoPrestamo.PAGADO;
-     * }
-     * 
-     * Transición de estado:
-     * ACTIVO → PAGADO (cuando última cuota se paga)
+     * Dos pagos simultáneos del mismo préstamo se ejecutan uno detrás
+     * del otro; sin el bloqueo, ambos leerían saldoPendiente=1000 y el
+     * segundo UPDATE pisaría al primero.
      * 
      * SQL ejecutado:
-     * -- Buscar préstamo (con cuotas LAZY)
-     * SELECT * FROM prestamos WHERE id = ?
-     * SELECT * FROM clientes WHERE id = ?  -- EAGER cliente
-     * SELECT * FROM cuotas WHERE prestamo_id = ? -- Acceso a cuotas
-     * 
-     * -- Actualizar cuota
-     * UPDATE cuotas 
-     * SET pagada = true, fecha_pago = '2025-10-12'
-     * WHERE id = ?
-     * 
-     * -- Si todas pagadas, actualizar préstamo
-     * UPDATE prestamos
-     * SET estado = 'PAGADO'
-     * WHERE id = ?
+     * SELECT * FROM prestamos WHERE id = ? FOR UPDATE
+     * SELECT * FROM cuotas WHERE prestamo_id = ? AND numero_cuota = ?
+     * -- solo si se pagó la cuota de proximoVencimiento:
+     * SELECT fecha_vencimiento FROM cuotas
+     *   WHERE prestamo_id = ? AND numero_cuota > ? AND NOT pagada
+     *   ORDER BY numero_cuota LIMIT 1
+     * UPDATE cuotas SET pagada = true, fecha_pago = ? WHERE id = ?
+     * UPDATE prestamos SET saldo_pendiente = ?, cuotas_pagadas = ?,
+     *   proximo_vencimiento = ?, estado = ? WHERE id = ?
      * 
      * @param prestamoId ID del préstamo (de URL)
      * @param numeroCuota Número de cuota a pagar (de URL)
@@ -453,17 +451,15 @@ public class PrestamoResource {
             @PathParam("id") Long prestamoId, 
             @PathParam("numeroCuota") Integer numeroCuota) {
         
-        // 1. BUSCAR PRÉSTAMO
-        Prestamo prestamo = Prestamo.findById(prestamoId);
+        // 1. BUSCAR PRÉSTAMO (FOR UPDATE: serializa pagos del mismo préstamo)
+        Prestamo prestamo = Prestamo.findById(prestamoId, LockModeType.PESSIMISTIC_WRITE);
         if (prestamo == null) {
             return Response.status(404).entity("Préstamo no encontrado").build();
         }
         
-        // 2. BUSCAR CUOTA
-        Cuota cuota = prestamo.cuotas.stream()
-                .filter(c -> c.numeroCuota.equals(numeroCuota))
-                .findFirst()
-                .orElse(null);
+        // 2. BUSCAR CUOTA (índice único prestamo_id + numero_cuota)
+        Cuota cuota = Cuota.find("prestamo.id = ?1 and numeroCuota = ?2", prestamoId, numeroCuota)
+                .firstResult();
         
         if (cuota == null) {
             return Response.status(404).entity("Cuota no encontrada").build();
@@ -474,101 +470,133 @@ public class PrestamoResource {
             return Response.status(409).entity("Cuota ya pagada").build();
         }
         
-        // 4. MARCAR COMO PAGADA
-        cuota.pagada = true;
-        cuota.fechaPago = LocalDate.now();
+        // 4. REGISTRAR PAGO (actualiza saldo, contador y estado en O(1))
+        prestamo.registrarPago(cuota);
         
-        // 5. VERIFICAR SI PRÉSTAMO COMPLETADO
-        boolean todasPagadas = prestamo.cuotas.stream().allMatch(c -> c.pagada);
-        if (todasPagadas) {
-            prestamo.estado = Prestamo.EstadoPrestamo.PAGADO;
-        }
-        
-        // 6. RETORNAR CUOTA ACTUALIZADA
+        // 5. RETORNAR CUOTA ACTUALIZADA
         return Response.ok(cuota).build();
     }
     
     /**
-     * GET /prestamos/cliente/{clienteId}
-     * Lista préstamos de un cliente específico.
+     * POST /prestamos/{id}/pagos
+     * Aplica un monto cualquiera: cubre cuotas de la más atrasada a la más
+     * nueva, interés antes que capital (ver pagos.MotorAplicacionPagos).
      * 
-     * QUERY PERSONALIZADA con Active Record:
-     * Prestamo.find("cliente.id", clienteId).list()
+     * Request:
+     * { "monto": 1500.00, "fechaPago": "2025-11-20", "referencia": "BCP-000912345" }
      * 
-     * Genera HQL:
-     * SELECT p FROM Prestamo p WHERE p.cliente.id = ?1
+     * Response 200: pagos.ResultadoPago (cuánto fue a interés, a capital,
+     * cuotas canceladas, sobrante y nuevo saldo)
      * 
-     * "cliente.id":
-     * - Navega relación @ManyToOne
-     * - p.cliente → JOIN con tabla clientes
-     * - .id → filtra por ID
+     * Response 400: monto ausente, ≤ 0 o con más de 2 decimales
+     * Response 404: préstamo no existe
+     * Response 409: préstamo PAGADO/CANCELADO o referencia ya registrada
+     */
+    @POST
+    @Path("/{id}/pagos")
+    @Transactional
+    public Response registrarPago(@PathParam("id") Long prestamoId, PagoEntrante pago) {
+        if (pago == null) {
+            return Response.status(400).entity("Body requerido").build();
+        }
+        pago.prestamoId = prestamoId;
+        String error = pago.validar();
+        if (error != null) {
+            return Response.status(400).entity(error).build();
+        }
+        
+        ResultadoPago resultado = aplicacionPagos.aplicar(List.of(pago)).get(0);
+        return switch (resultado.estado()) {
+            case APLICADO -> Response.ok(resultado).build();
+            case PRESTAMO_NO_ENCONTRADO -> Response.status(404).entity(resultado.mensaje()).build();
+            case DUPLICADO, PRESTAMO_CERRADO -> Response.status(409).entity(resultado.mensaje()).build();
+        };
+    }
+    
+    /**
+     * GET /prestamos/cliente/{clienteId}?cursor={id}&limite={n}
+     * Lista préstamos de un cliente, paginados igual que GET /prestamos.
      * 
-     * Request:
-     * GET http://localhost:8080/prestamos/cliente/1
+     * SQL (una consulta por página):
+     * SELECT ... FROM prestamos p JOIN clientes c ON c.id = p.cliente_id
+     * WHERE c.id = ? AND p.id < ?
+     * ORDER BY p.id DESC
+     * LIMIT ?
      * 
-     * Response 200 OK:
-     * [
-     *   {
-     *     "id": 1,
-     *     "cliente": { ... },
-     *     "monto": 10000.00,
-     *     ...
-     *   },
-     *   {
-     *     "id": 5,
-     *     ...
-     *   }
-     * ]
+     * Índice idx_prestamos_cliente_id (cliente_id, id): la BD lee solo las
+     * filas de la página, aunque el cliente tenga miles de préstamos.
      * 
      * Si cliente no tiene préstamos:
-     * → [] (lista vacía, no 404)
-     * 
-     * SQL generado:
-     * SELECT p.* 
-     * FROM prestamos p
-     * JOIN clientes c ON p.cliente_id = c.id
-     * WHERE c.id = ?
-     * 
-     * MEJORA (verificar cliente existe):
-     * Cliente cliente = clienteRepository.findById(clienteId);
-     * if (cliente == null) {
-     *     return Response.status(404)
-     *         .entity("Cliente no encontrado")
-     *         .build();
-     * }
-     * List<Prestamo> prestamos = Prestamo.find("cliente", cliente).list();
-     * return Response.ok(prestamos).build();
-     * 
-     * Alternativa con Repository Pattern:
-     * Si tuviéramos PrestamoRepository:
-     * return prestamoRepository.findByClienteId(clienteId);
+     * → { "items": [], "siguienteCursor": null } (no 404)
      * 
      * @param clienteId ID del cliente
-     * @return Response con lista de préstamos del cliente
+     * @param cursor último id recibido (omitir en la primera página)
+     * @param limite tamaño de página
+     * @return Página de resúmenes de préstamos del cliente
      */
     @GET
+    @SoloLectura
     @Path("/cliente/{clienteId}")
-    public Response listarPorCliente(@PathParam("clienteId") Long clienteId) {
-        List<Prestamo> prestamos = Prestamo.find("cliente.id", clienteId).list();
-        return Response.ok(prestamos).build();
+    public PaginaDTO<PrestamoResumenDTO> listarPorCliente(@PathParam("clienteId") Long clienteId,
+                                                         @QueryParam("cursor") Long cursor,
+                                                         @QueryParam("limite") Integer limite) {
+        return Prestamo.listarResumen(clienteId, cursor, limite(limite));
+    }
+    
+    /**
+     * GET /prestamos/{id}/cuotas?cursor={numeroCuota}&limite={n}
+     * Cuotas de un préstamo, paginadas por número de cuota.
+     * 
+     * Una hipoteca a 30 años tiene 360 cuotas: el cliente pide solo las
+     * que muestra (p. ej. las próximas 12).
+     * 
+     * Response 200 OK:
+     * {
+     *   "items": [
+     *     { "numeroCuota": 1, "monto": 904.94, "capital": 775.77, "interes": 129.17,
+     *       "fechaVencimiento": "2025-11-12", "fechaPago": null, "pagada": false },
+     *     ...
+     *   ],
+     *   "siguienteCursor": 12
+     * }
+     * 
+     * Response 404 Not Found:
+     * "Préstamo no encontrado"
+     */
+    @GET
+    @SoloLectura
+    @Path("/{id}/cuotas")
+    public Response listarCuotas(@PathParam("id") Long prestamoId,
+                                 @QueryParam("cursor") Integer cursor,
+                                 @QueryParam("limite") Integer limite) {
+        PaginaDTO<CuotaDTO> pagina = Cuota.pagina(prestamoId, cursor != null ? cursor : 0, limite(limite));
+        if (pagina.items().isEmpty() && Prestamo.count("id", prestamoId) == 0) {
+            return Response.status(404).entity("Préstamo no encontrado").build();
+        }
+        return Response.ok(pagina).build();
     }
     
     // ============================================
     // MÉTODOS AUXILIARES PRIVADOS
     // ============================================
     
+    /**
+     * Tamaño de página solicitado, acotado a [1, limiteMaximo].
+     */
+    private int limite(Integer solicitado) {
+        if (solicitado == null || solicitado < 1) {
+            return LIMITE_DEFAULT;
+        }
+        return Math.min(solicitado, limiteMaximo);
+    }
+    
     /**
      * Genera la lista de cuotas para un préstamo.
      * 
-     * ALGORITMO:
-     * 1. Calcular monto de cada cuota
-     * 2. Para cada mes del plazo:
-     *    - Crear cuota con número secuencial
-     *    - Fecha vencimiento = desembolso + N meses
-     *    - Estado inicial: no pagada
-     * 3. Retornar lista completa
+     * El cálculo lo hace MotorAmortizacion en centavos (long) y en formato
+     * columnar; aquí solo se convierte el cronograma a entidades Cuota.
      * 
-     * Ejemplo:
+     * Ejemplo (PLANO, el sistema por defecto):
      * Préstamo $10,000 a 12 meses, 15.5% anual
      * Desembolso: 2025-10-12
      * 
@@ -578,156 +606,28 @@ public class PrestamoResource {
      * ...
      * Cuota 12: $962.50, vence 2026-10-12, no pagada
      * 
-     * CÁLCULO DE MONTO:
-     * calcularMontoCuota(monto, tasa, plazo)
-     * - Fórmula financiera simplificada
-     * - Divide monto + intereses entre plazo
-     * 
-     * LOOP:
-     * for (int i = 1; i <= prestamo.plazoMeses; i++)
-     * - i = número de cuota (1, 2, 3...)
-     * - Crea cuota por cada mes
-     * 
-     * FECHA VENCIMIENTO:
-     * prestamo.fechaDesembolso.plusMonths(i)
-     * - LocalDate inmutable
-     * - Suma i meses a fecha desembolso
-     * - Ejemplo: 2025-10-12 + 3 meses = 2026-01-12
-     * 
-     * CONSTRUCTOR CUOTA:
-     * new Cuota(prestamo, i, montoCuota, fechaVencimiento)
-     * - prestamo: relación @ManyToOne
-     * - i: número de cuota
-     * - montoCuota: monto a pagar
-     * - fechaVencimiento: fecha límite
-     * - Constructor setea: pagada=false, fechaPago=null
-     * 
-     * RETORNO:
-     * Lista con N cuotas (N = plazoMeses)
-     * 
-     * Esta lista se asigna a:
-     * prestamo.cuotas = generarCuotas(prestamo);
+     * Cada cuota trae además su desglose capital + interés, y la última
+     * cuota absorbe los centavos de redondeo (la suma del capital es
+     * exactamente el monto desembolsado).
      * 
      * Al hacer prestamo.persist():
      * - cascade=ALL persiste todas las cuotas
+     * - Hibernate agrupa los INSERT en batches JDBC
+     *   (quarkus.hibernate-orm.jdbc.statement-batch-size)
      * 
      * @param prestamo Préstamo para el cual generar cuotas
+     * @param tipo Sistema de amortización
      * @return Lista de cuotas generadas (N cuotas)
      */
-    private List<Cuota> generarCuotas(Prestamo prestamo) {
-        List<Cuota> cuotas = new ArrayList<>();
-        
-        // Calcular monto de cada cuota
-        BigDecimal montoCuota = calcularMontoCuota(
-            prestamo.monto, 
-            prestamo.tasaInteres, 
-            prestamo.plazoMeses
-        );
-        
-        // Generar una cuota por cada mes
-        for (int i = 1; i <= prestamo.plazoMeses; i++) {
-            LocalDate fechaVencimiento = prestamo.fechaDesembolso.plusMonths(i);
-            Cuota cuota = new Cuota(prestamo, i, montoCuota, fechaVencimiento);
-            cuotas.add(cuota);
-        }
-        
-        return cuotas;
-    }
-    
-    /**
-     * Calcula el monto de cada cuota.
-     * 
-     * FÓRMULA SIMPLIFICADA:
-     * monto * (1 + tasa_mensual * plazo) / plazo
-     * 
-     * Esta es una aproximación. En producción usar:
-     * - Fórmula de cuota francesa (sistema francés)
-     * - Tabla de amortización
-     * - Librerías financieras
-     * 
-     * PASOS:
-     * 
-     * 1. CALCULAR TASA MENSUAL:
-     * tasaInteres = 15.50 (%)
-     * tasaInteres / 100 = 0.155 (decimal)
-     * 0.155 / 12 = 0.01291... (mensual)
-     * 
-     * BigDecimal tasaMensual = tasaInteres
-     *     .divide(BigDecimal.valueOf(100 * 12), 6, HALF_UP);
-     * 
-     * Precisión 6 decimales para exactitud.
-     * HALF_UP: redondeo comercial.
-     * 
-     * 2. CALCULAR FACTOR:
-     * 1 + (tasa_mensual * plazo)
-     * 
-     * BigDecimal factor = BigDecimal.ONE.add(
-     *     tasaMensual.multiply(BigDecimal.valueOf(plazoMeses))
-     * );
-     * 
-     * Ejemplo:
-     * 1 + (0.01291 * 12) = 1.155
-     * 
-     * 3. CALCULAR CUOTA:
-     * (monto * factor) / plazo
-     * 
-     * return monto.multiply(factor)
-     *            .divide(BigDecimal.valueOf(plazoMeses), 2, HALF_UP);
-     * 
-     * Ejemplo:
-     * (10000 * 1.155) / 12 = 962.50
-     * 
-     * PRECISIÓN:
-     * - 6 decimales en tasa (0.012916)
-     * - 2 decimales en cuota (962.50)
-     * - RoundingMode.HALF_UP (comercial)
-     * 
-     * FÓRMULA REAL (sistema francés):
-     * C = P * [i * (1+i)^n] / [(1+i)^n - 1]
-     * 
-     * Donde:
-     * P = monto préstamo
-     * i = tasa mensual
-     * n = plazo en meses
-     * C = cuota
-     * 
-     * Implementación real:
-     * BigDecimal i = tasaMensual;
-     * BigDecimal uno_mas_i = BigDecimal.ONE.add(i);
-     * BigDecimal uno_mas_i_n = uno_mas_i.pow(plazoMeses);
-     * 
-     * BigDecimal numerador = monto.multiply(i)
-     *                             .multiply(uno_mas_i_n);
-     * BigDecimal denominador = uno_mas_i_n.subtract(BigDecimal.ONE);
-     * 
-     * BigDecimal cuota = numerador.divide(denominador, 2, HALF_UP);
-     * 
-     * Para este ejercicio, la fórmula simplificada es suficiente.
-     * 
-     * @param monto Monto total del préstamo
-     * @param tasaInteres Tasa de interés anual (%)
-     * @param plazoMeses Plazo en meses
-     * @return Monto de cada cuota
-     */
-    private BigDecimal calcularMontoCuota(BigDecimal monto, BigDecimal tasaInteres, Integer plazoMeses) {
-        // Tasa mensual (anual / 100 / 12)
-        BigDecimal tasaMensual = tasaInteres.divide(
-            BigDecimal.valueOf(100 * 12), 
-            6,  // 6 decimales de precisión
-            RoundingMode.HALF_UP  
-        );
-        
-        // Factor: 1 + (tasa * plazo)
-        BigDecimal factor = BigDecimal.ONE.add(
-            tasaMensual.multiply(BigDecimal.valueOf(plazoMeses))
-        );
-        
-        // Cuota: (monto * factor) / plazo
-        return monto.multiply(factor).divide(
-            BigDecimal.valueOf(plazoMeses), 
-            2,  // 2 decimales (centavos)
-            RoundingMode.HALF_UP  
+    private List<Cuota> generarCuotas(Prestamo prestamo, TipoAmortizacion tipo) {
+        Cronograma cronograma = motorAmortizacion.calcular(
+            tipo,
+            prestamo.monto,
+            prestamo.tasaInteres,
+            prestamo.plazoMeses,
+            prestamo.fechaDesembolso
         );
+        return motorAmortizacion.generarCuotas(prestamo, cronograma);
     }
     
     // ============================================
@@ -813,6 +713,11 @@ public class PrestamoResource {
         public BigDecimal monto;
         public Integer plazoMeses;
         public BigDecimal tasaInteres;
+        
+        /**
+         * Opcional: FRANCES, ALEMAN o PLANO (default PLANO).
+         */
+        public TipoAmortizacion tipoAmortizacion;
     }
 }
 
@@ -0,0 +1,127 @@
+package pe.banco.prestamos.amortizacion;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Conciliación al centavo de MotorAmortizacion, sin Quarkus ni BD.
+ *
+ * Para cualquier sistema, monto, tasa y plazo:
+ * - sum(capital) == monto desembolsado
+ * - cuota[i] == capital[i] + interes[i]
+ * - saldo[plazo - 1] == 0
+ * y los centavos sueltos del redondeo los absorbe la última cuota.
+ */
+class MotorAmortizacionTest {
+
+    private static final LocalDate DESEMBOLSO = LocalDate.of(2025, 1, 31);
+
+    private final MotorAmortizacion motor = new MotorAmortizacion();
+
+    private Cronograma calcular(TipoAmortizacion tipo, String monto, String tasa, int plazo) {
+        return motor.calcular(tipo, new BigDecimal(monto), new BigDecimal(tasa), plazo, DESEMBOLSO);
+    }
+
+    private static void assertConciliado(Cronograma cronograma, long montoCentavos) {
+        String caso = cronograma.tipo + " a " + cronograma.plazo + " meses";
+        assertEquals(montoCentavos, Arrays.stream(cronograma.capitalCentavos).sum(), caso);
+        assertEquals(0, cronograma.saldoCentavos[cronograma.plazo - 1], caso);
+        for (int i = 0; i < cronograma.plazo; i++) {
+            assertEquals(cronograma.capitalCentavos[i] + cronograma.interesCentavos[i],
+                    cronograma.cuotaCentavos[i], caso + ", cuota " + (i + 1));
+        }
+        assertEquals(montoCentavos + cronograma.totalInteresesCentavos(), cronograma.totalPagadoCentavos(), caso);
+    }
+
+    @Test
+    void deberiaSumarElMontoExactoEnCapitalParaTodoSistemaYPlazo() {
+        String[][] prestamos = {
+                {"10000.00", "15.50"},
+                {"10000.01", "15.50"},
+                {"350000.00", "8.75"},
+                {"999.99", "33.33"},
+                {"100.00", "0.00"}
+        };
+        int[] plazos = {1, 3, 7, 12, 37, 360};
+
+        for (TipoAmortizacion tipo : TipoAmortizacion.values()) {
+            for (String[] prestamo : prestamos) {
+                long montoCentavos = new BigDecimal(prestamo[0]).movePointRight(2).longValueExact();
+                for (int plazo : plazos) {
+                    assertConciliado(calcular(tipo, prestamo[0], prestamo[1], plazo), montoCentavos);
+                }
+            }
+        }
+    }
+
+    @Test
+    void deberiaCargarElRestoDeCapitalEnLaUltimaCuotaAleman() {
+        // 10,000 centavos / 3 = 3,333 y sobra 1
+        Cronograma cronograma = calcular(TipoAmortizacion.ALEMAN, "100.00", "12.00", 3);
+
+        assertArrayEquals(new long[]{3_333, 3_333, 3_334}, cronograma.capitalCentavos);
+        assertArrayEquals(new long[]{6_667, 3_334, 0}, cronograma.saldoCentavos);
+    }
+
+    @Test
+    void deberiaCargarElRestoDeCapitalEInteresEnLaUltimaCuotaPlano() {
+        // Interés total = 10,000 × 1% × 3 = 300; total 10,300 / 3 = 3,433 y sobra 1
+        Cronograma cronograma = calcular(TipoAmortizacion.PLANO, "100.00", "12.00", 3);
+
+        assertArrayEquals(new long[]{3_433, 3_433, 3_434}, cronograma.cuotaCentavos);
+        assertArrayEquals(new long[]{3_333, 3_333, 3_334}, cronograma.capitalCentavos);
+        assertEquals(300, cronograma.totalInteresesCentavos());
+    }
+
+    @Test
+    void deberiaAjustarLaUltimaCuotaFrancesCuandoLaCuotaFijaSeRedondeaHaciaArriba() {
+        // Sin interés la cuota fija es ceil(10,000 / 3) = 3,334: la última solo paga lo que queda
+        Cronograma cronograma = calcular(TipoAmortizacion.FRANCES, "100.00", "0.00", 3);
+
+        assertArrayEquals(new long[]{3_334, 3_334, 3_332}, cronograma.cuotaCentavos);
+        assertArrayEquals(new long[]{6_666, 3_332, 0}, cronograma.saldoCentavos);
+    }
+
+    @Test
+    void deberiaReproducirElEjemploDeTipoAmortizacion() {
+        // $10,000 a 12 meses al 15.50% anual
+        Cronograma frances = calcular(TipoAmortizacion.FRANCES, "10000.00", "15.50", 12);
+        assertEquals(90_494, frances.cuotaCentavos[0]);
+        assertEquals(12_917, frances.interesCentavos[0]);
+        assertEquals(77_577, frances.capitalCentavos[0]);
+        assertEquals(85_934, frances.totalInteresesCentavos());
+
+        Cronograma aleman = calcular(TipoAmortizacion.ALEMAN, "10000.00", "15.50", 12);
+        assertEquals(96_250, aleman.cuotaCentavos[0]);
+        assertEquals(84_413, aleman.cuotaCentavos[11]);
+        assertEquals(83_959, aleman.totalInteresesCentavos());
+
+        Cronograma plano = calcular(TipoAmortizacion.PLANO, "10000.00", "15.50", 12);
+        assertTrue(Arrays.stream(plano.cuotaCentavos).allMatch(cuota -> cuota == 96_250));
+        assertEquals(155_000, plano.totalInteresesCentavos());
+    }
+
+    @Test
+    void deberiaCalcularPlanoConLaTasaExactaYNoConLaRedondeadaASeisDecimales() {
+        // El cálculo anterior usaba 8.75 / 1200 = 0.007292 y daba 31,718.87 por cuota
+        Cronograma cronograma = calcular(TipoAmortizacion.PLANO, "350000.00", "8.75", 12);
+
+        assertEquals(3_171_875, cronograma.cuotaCentavos[0]);
+        assertEquals(3_062_500, cronograma.totalInteresesCentavos());
+    }
+
+    @Test
+    void deberiaRechazarMontoTasaOPlazoInvalidos() {
+        assertThrows(IllegalArgumentException.class,
+                () -> calcular(TipoAmortizacion.FRANCES, "0.00", "10.00", 12));
+        assertThrows(IllegalArgumentException.class,
+                () -> calcular(TipoAmortizacion.FRANCES, "1000.00", "-1.00", 12));
+        assertThrows(IllegalArgumentException.class,
+                () -> calcular(TipoAmortizacion.FRANCES, "1000.00", "10.00", 0));
+    }
+}
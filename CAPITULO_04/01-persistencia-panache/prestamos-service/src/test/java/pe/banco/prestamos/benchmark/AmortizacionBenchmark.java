@@ -0,0 +1,123 @@
+package pe.banco.prestamos.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pe.banco.prestamos.amortizacion.Cronograma;
+import pe.banco.prestamos.amortizacion.MotorAmortizacion;
+import pe.banco.prestamos.amortizacion.TipoAmortizacion;
+import pe.banco.prestamos.model.Cuota;
+import pe.banco.prestamos.model.Prestamo;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generación de cronogramas: cálculo anterior (BigDecimal + plusMonths por cuota)
+ * vs MotorAmortizacion (centavos en arreglos).
+ *
+ * - legacy / motor*: un préstamo de {plazo} meses (360 = hipoteca a 30 años)
+ * - cartera*: 10,000 préstamos con plazos de 12 a 360 meses (originación masiva)
+ *
+ * El motor usa PLANO, la misma fórmula que el cálculo anterior, para comparar
+ * el mismo trabajo. Los importes pueden diferir en centavos: el anterior
+ * redondeaba la tasa mensual a 6 decimales y la cuota HALF_UP (ver
+ * TipoAmortizacion.PLANO). FRANCES y ALEMAN cuestan igual (un bucle de
+ * enteros por cuota).
+ *
+ * Solo mide CPU; la inserción en PostgreSQL se mide en InsercionCuotasBenchmark.
+ *
+ * Ejecutar:
+ *   ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark=AmortizacionBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AmortizacionBenchmark {
+
+    static final int PRESTAMOS_CARTERA = 10_000;
+
+    @Param({"12", "360"})
+    int plazo;
+
+    MotorAmortizacion motor;
+    Prestamo prestamo;
+    Prestamo[] cartera;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        motor = new MotorAmortizacion();
+        prestamo = new Prestamo(null, new BigDecimal("350000.00"), plazo,
+                new BigDecimal("8.75"), LocalDate.of(2025, 1, 31));
+
+        int[] plazos = {12, 24, 36, 60, 120, 240, 360};
+        cartera = new Prestamo[PRESTAMOS_CARTERA];
+        for (int i = 0; i < cartera.length; i++) {
+            cartera[i] = new Prestamo(null, BigDecimal.valueOf(5_000 + i * 37L),
+                    plazos[i % plazos.length], new BigDecimal("15.50"), LocalDate.of(2025, 1, 1 + i % 28));
+        }
+    }
+
+    @Benchmark
+    public List<Cuota> legacy() {
+        return generarCuotasLegacy(prestamo);
+    }
+
+    @Benchmark
+    public Cronograma motorColumnar() {
+        return motor.calcular(TipoAmortizacion.PLANO, prestamo.monto, prestamo.tasaInteres,
+                prestamo.plazoMeses, prestamo.fechaDesembolso);
+    }
+
+    @Benchmark
+    public List<Cuota> motorConEntidades() {
+        return motor.generarCuotas(prestamo, motorColumnar());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    public long carteraLegacy() {
+        long cuotas = 0;
+        for (Prestamo p : cartera) {
+            cuotas += generarCuotasLegacy(p).size();
+        }
+        return cuotas;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    public long carteraMotor() {
+        long cuotas = 0;
+        for (Prestamo p : cartera) {
+            cuotas += motor.generarCuotas(p, motor.calcular(TipoAmortizacion.PLANO, p.monto,
+                    p.tasaInteres, p.plazoMeses, p.fechaDesembolso)).size();
+        }
+        return cuotas;
+    }
+
+    /**
+     * Copia del cálculo que tenía PrestamoResource antes del motor.
+     */
+    static List<Cuota> generarCuotasLegacy(Prestamo prestamo) {
+        List<Cuota> cuotas = new ArrayList<>();
+        BigDecimal tasaMensual = prestamo.tasaInteres.divide(BigDecimal.valueOf(100 * 12), 6, RoundingMode.HALF_UP);
+        BigDecimal factor = BigDecimal.ONE.add(tasaMensual.multiply(BigDecimal.valueOf(prestamo.plazoMeses)));
+        BigDecimal montoCuota = prestamo.monto.multiply(factor)
+                .divide(BigDecimal.valueOf(prestamo.plazoMeses), 2, RoundingMode.HALF_UP);
+        for (int i = 1; i <= prestamo.plazoMeses; i++) {
+            cuotas.add(new Cuota(prestamo, i, montoCuota, prestamo.fechaDesembolso.plusMonths(i)));
+        }
+        return cuotas;
+    }
+}
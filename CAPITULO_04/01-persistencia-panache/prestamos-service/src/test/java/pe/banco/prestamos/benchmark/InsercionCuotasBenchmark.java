@@ -0,0 +1,123 @@
+package pe.banco.prestamos.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pe.banco.prestamos.amortizacion.Cronograma;
+import pe.banco.prestamos.amortizacion.MotorAmortizacion;
+import pe.banco.prestamos.amortizacion.TipoAmortizacion;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserción de las cuotas de 10,000 préstamos a 12 meses (120,000 filas) en PostgreSQL.
+ *
+ * - fila-a-fila: un executeUpdate() por cuota (lo que hacía el cascade sin batching)
+ * - batch:       addBatch() + executeBatch() cada {batchSize} filas
+ *                (lo que hace Hibernate con quarkus.hibernate-orm.jdbc.statement-batch-size)
+ *
+ * Cada modo se corre con y sin reWriteBatchedInserts del driver.
+ * Escribe en una tabla temporal (desaparece al cerrar la conexión).
+ *
+ * Requiere PostgreSQL (misma URL/usuario que application.properties, sobreescribible):
+ *   ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark=InsercionCuotasBenchmark \
+ *       -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/postgres -Dbench.jdbc.user=postgres
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InsercionCuotasBenchmark {
+
+    static final int PRESTAMOS = 10_000;
+    static final String INSERT = "INSERT INTO cuotas_bench "
+            + "(prestamo_id, numero_cuota, monto, capital, interes, fecha_vencimiento, pagada) "
+            + "VALUES (?, ?, ?, ?, ?, ?, false)";
+
+    @Param({"1", "100"})
+    int batchSize;
+
+    @Param({"false", "true"})
+    boolean reWriteBatchedInserts;
+
+    Connection connection;
+    Cronograma[] cronogramas;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        Properties props = new Properties();
+        props.setProperty("user", System.getProperty("bench.jdbc.user", "rodrigosilva"));
+        props.setProperty("password", System.getProperty("bench.jdbc.password", ""));
+        props.setProperty("reWriteBatchedInserts", String.valueOf(reWriteBatchedInserts));
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/postgres"), props);
+        connection.setAutoCommit(false);
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE TEMP TABLE cuotas_bench (id BIGSERIAL PRIMARY KEY, prestamo_id BIGINT NOT NULL, "
+                    + "numero_cuota INTEGER NOT NULL, monto DECIMAL(10,2) NOT NULL, capital DECIMAL(10,2), "
+                    + "interes DECIMAL(10,2), fecha_vencimiento DATE NOT NULL, pagada BOOLEAN NOT NULL)");
+        }
+        connection.commit();
+
+        MotorAmortizacion motor = new MotorAmortizacion();
+        cronogramas = new Cronograma[PRESTAMOS];
+        for (int i = 0; i < PRESTAMOS; i++) {
+            cronogramas[i] = motor.calcular(TipoAmortizacion.FRANCES, BigDecimal.valueOf(5_000 + i),
+                    new BigDecimal("15.50"), 12, LocalDate.of(2025, 1, 1 + i % 28));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void vaciar() throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("TRUNCATE cuotas_bench");
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int insertar() throws SQLException {
+        int filas = 0;
+        try (PreparedStatement ps = connection.prepareStatement(INSERT)) {
+            for (int p = 0; p < cronogramas.length; p++) {
+                Cronograma c = cronogramas[p];
+                for (int i = 0; i < c.plazo; i++) {
+                    ps.setLong(1, p + 1);
+                    ps.setInt(2, i + 1);
+                    ps.setBigDecimal(3, c.cuota(i));
+                    ps.setBigDecimal(4, c.capital(i));
+                    ps.setBigDecimal(5, c.interes(i));
+                    ps.setDate(6, Date.valueOf(c.fechasVencimiento[i]));
+                    filas++;
+                    if (batchSize == 1) {
+                        ps.executeUpdate();
+                    } else {
+                        ps.addBatch();
+                        if (filas % batchSize == 0) {
+                            ps.executeBatch();
+                        }
+                    }
+                }
+            }
+            if (batchSize > 1) {
+                ps.executeBatch();
+            }
+        }
+        connection.commit();
+        return filas;
+    }
+}
@@ -0,0 +1,91 @@
+package pe.banco.prestamos.originacion;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Parser RFC 4180 de LectorCsv: comillas, fines de línea y línea de inicio
+ * de cada registro.
+ */
+class LectorCsvTest {
+
+    private static LectorCsv lector(String csv) {
+        return new LectorCsv(new StringReader(csv));
+    }
+
+    @Test
+    void deberiaSepararCamposSimples() throws IOException {
+        LectorCsv csv = lector("clienteId,monto,plazoMeses\n1,10000.00,12\n");
+
+        assertEquals(List.of("clienteId", "monto", "plazoMeses"), csv.leer());
+        assertEquals(List.of("1", "10000.00", "12"), csv.leer());
+        assertNull(csv.leer());
+    }
+
+    @Test
+    void deberiaRespetarComasEntreComillas() throws IOException {
+        LectorCsv csv = lector("1,\"Lima, sede 1\",12\n");
+
+        assertEquals(List.of("1", "Lima, sede 1", "12"), csv.leer());
+    }
+
+    @Test
+    void deberiaConvertirComillasDuplicadasEnUnaSola() throws IOException {
+        LectorCsv csv = lector("1,\"Préstamo \"\"A\"\", sede 1\",\"\"\"\"\n");
+
+        assertEquals(List.of("1", "Préstamo \"A\", sede 1", "\""), csv.leer());
+    }
+
+    @Test
+    void deberiaAceptarFinDeLineaCrLfYCr() throws IOException {
+        LectorCsv csv = lector("a,b\r\nc,d\re,f");
+
+        assertEquals(List.of("a", "b"), csv.leer());
+        assertEquals(List.of("c", "d"), csv.leer());
+        assertEquals(List.of("e", "f"), csv.leer());
+        assertNull(csv.leer());
+    }
+
+    @Test
+    void deberiaConservarSaltosDeLineaEntreComillasYReportarLaLineaDeInicio() throws IOException {
+        LectorCsv csv = lector("cabecera,nota\r\n1,\"primera\r\nsegunda\nfin\"\r\n2,ok\r\n");
+
+        csv.leer();
+        assertEquals(1, csv.lineaRegistro());
+
+        assertEquals(List.of("1", "primera\r\nsegunda\nfin"), csv.leer());
+        assertEquals(2, csv.lineaRegistro());
+
+        assertEquals(List.of("2", "ok"), csv.leer());
+        assertEquals(5, csv.lineaRegistro());
+    }
+
+    @Test
+    void deberiaTomarLiteralUnaComillaEnMedioDeUnCampoSinComillas() throws IOException {
+        LectorCsv csv = lector("12\" pulgadas,x\n");
+
+        assertEquals(List.of("12\" pulgadas", "x"), csv.leer());
+    }
+
+    @Test
+    void deberiaDevolverCamposVaciosEntreComas() throws IOException {
+        LectorCsv csv = lector(",,\n");
+
+        assertEquals(List.of("", "", ""), csv.leer());
+    }
+
+    @Test
+    void deberiaRechazarComillasSinCerrar() throws IOException {
+        LectorCsv csv = lector("1,ok\n2,\"sin cerrar\n3,x\n");
+
+        assertEquals(List.of("1", "ok"), csv.leer());
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, csv::leer);
+        assertEquals("comillas sin cerrar", error.getMessage());
+        assertEquals(2, csv.lineaRegistro());
+    }
+}
@@ -0,0 +1,46 @@
+package pe.banco.prestamos.pagos;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Saldo y próxima cuota de CuotasPendientes a medida que avanza {@code primera}.
+ */
+class CuotasPendientesTest {
+
+    @Test
+    void deberiaSumarSoloLoQueFaltaPagarDesdeLaPrimeraPendiente() {
+        CuotasPendientes pendientes = new CuotasPendientes(1L);
+        pendientes.cuotas.add(new CuotasPendientes.Cuota(1, LocalDate.of(2025, 1, 10), 1_000, 200, 1_000));
+        pendientes.cuotas.add(new CuotasPendientes.Cuota(2, LocalDate.of(2025, 2, 10), 1_000, 150, 300));
+        pendientes.cuotas.add(new CuotasPendientes.Cuota(3, LocalDate.of(2025, 3, 10), 1_000, 100, 0));
+        pendientes.primera = 1;
+
+        assertEquals(2, pendientes.pendientes());
+        assertEquals(1_700, pendientes.saldoCentavos());
+        assertEquals(LocalDate.of(2025, 2, 10), pendientes.proximoVencimiento());
+    }
+
+    @Test
+    void deberiaQuedarSinSaldoNiVencimientoCuandoTodoEstaPagado() {
+        CuotasPendientes pendientes = new CuotasPendientes(1L);
+        pendientes.cuotas.add(new CuotasPendientes.Cuota(1, LocalDate.of(2025, 1, 10), 1_000, 200, 1_000));
+        pendientes.primera = 1;
+
+        assertEquals(0, pendientes.pendientes());
+        assertEquals(0, pendientes.saldoCentavos());
+        assertNull(pendientes.proximoVencimiento());
+    }
+
+    @Test
+    void deberiaCancelarLaCuotaSoloAlCubrirElMontoCompleto() {
+        CuotasPendientes.Cuota cuota = new CuotasPendientes.Cuota(1, LocalDate.of(2025, 1, 10), 1_000, 200, 999);
+        assertFalse(cuota.cancelada());
+
+        cuota.pagadoCentavos = 1_000;
+        assertTrue(cuota.cancelada());
+    }
+}
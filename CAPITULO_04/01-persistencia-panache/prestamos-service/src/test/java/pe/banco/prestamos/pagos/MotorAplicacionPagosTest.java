@@ -0,0 +1,133 @@
+package pe.banco.prestamos.pagos;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prelación de pagos de MotorAplicacionPagos, sin Quarkus ni BD.
+ *
+ * Préstamo de prueba (centavos):
+ *
+ *   Cuota 1  vence 10/01  monto 1,000  interés 200
+ *   Cuota 2  vence 10/02  monto 1,000  interés 150
+ *   Cuota 3  vence 10/03  monto 1,000  interés 100
+ */
+class MotorAplicacionPagosTest {
+
+    private static final LocalDate FECHA_PAGO = LocalDate.of(2025, 3, 15);
+
+    private final MotorAplicacionPagos motor = new MotorAplicacionPagos();
+
+    private static CuotasPendientes prestamo() {
+        CuotasPendientes pendientes = new CuotasPendientes(1L);
+        pendientes.cuotas.add(new CuotasPendientes.Cuota(11, LocalDate.of(2025, 1, 10), 1_000, 200, 0));
+        pendientes.cuotas.add(new CuotasPendientes.Cuota(12, LocalDate.of(2025, 2, 10), 1_000, 150, 0));
+        pendientes.cuotas.add(new CuotasPendientes.Cuota(13, LocalDate.of(2025, 3, 10), 1_000, 100, 0));
+        return pendientes;
+    }
+
+    @Test
+    void deberiaCancelarPrimeroLaCuotaMasAtrasada() {
+        CuotasPendientes pendientes = prestamo();
+
+        Imputacion imputacion = motor.imputar(pendientes, 1_000, FECHA_PAGO);
+
+        assertEquals(1, imputacion.cuotasCanceladas());
+        assertTrue(pendientes.cuotas.get(0).cancelada());
+        assertEquals(FECHA_PAGO, pendientes.cuotas.get(0).fechaPago);
+        assertEquals(0, pendientes.cuotas.get(1).pagadoCentavos);
+        assertFalse(pendientes.cuotas.get(1).modificada);
+        assertEquals(1, pendientes.primera);
+        assertEquals(LocalDate.of(2025, 2, 10), pendientes.proximoVencimiento());
+    }
+
+    @Test
+    void deberiaAplicarInteresAntesQueCapital() {
+        CuotasPendientes pendientes = prestamo();
+
+        // 150 no alcanza a cubrir el interés (200) de la cuota 1
+        Imputacion soloInteres = motor.imputar(pendientes, 150, FECHA_PAGO);
+        assertEquals(150, soloInteres.interesCentavos());
+        assertEquals(0, soloInteres.capitalCentavos());
+
+        // Del siguiente abono, 50 completan el interés y el resto va a capital
+        Imputacion mixto = motor.imputar(pendientes, 300, FECHA_PAGO);
+        assertEquals(50, mixto.interesCentavos());
+        assertEquals(250, mixto.capitalCentavos());
+    }
+
+    @Test
+    void deberiaAcumularPagoParcialSinCancelarLaCuota() {
+        CuotasPendientes pendientes = prestamo();
+
+        Imputacion imputacion = motor.imputar(pendientes, 1_400, FECHA_PAGO);
+
+        // Cuota 1 completa (200 + 800); cuota 2 recibe 400: 150 de interés y 250 de capital
+        assertEquals(1, imputacion.cuotasCanceladas());
+        assertEquals(350, imputacion.interesCentavos());
+        assertEquals(1_050, imputacion.capitalCentavos());
+        assertEquals(0, imputacion.sobranteCentavos());
+
+        CuotasPendientes.Cuota parcial = pendientes.cuotas.get(1);
+        assertEquals(400, parcial.pagadoCentavos);
+        assertFalse(parcial.cancelada());
+        assertNull(parcial.fechaPago);
+        assertTrue(parcial.modificada);
+        assertEquals(1_600, pendientes.saldoCentavos());
+        assertEquals(2, pendientes.pendientes());
+    }
+
+    @Test
+    void deberiaDevolverComoSobranteLoQueExcedeLaDeuda() {
+        CuotasPendientes pendientes = prestamo();
+
+        Imputacion imputacion = motor.imputar(pendientes, 3_500, FECHA_PAGO);
+
+        assertEquals(3, imputacion.cuotasCanceladas());
+        assertEquals(450, imputacion.interesCentavos());
+        assertEquals(2_550, imputacion.capitalCentavos());
+        assertEquals(3_000, imputacion.aplicadoCentavos());
+        assertEquals(500, imputacion.sobranteCentavos());
+        assertEquals(0, pendientes.saldoCentavos());
+        assertNull(pendientes.proximoVencimiento());
+    }
+
+    @Test
+    void deberiaContinuarDondeQuedoSiElPrestamoSePagaDosVecesEnElBloque() {
+        CuotasPendientes pendientes = prestamo();
+
+        Imputacion primero = motor.imputar(pendientes, 600, FECHA_PAGO);
+        Imputacion segundo = motor.imputar(pendientes, 1_000, FECHA_PAGO.plusDays(1));
+
+        // El primer pago deja la cuota 1 en 600; el segundo la termina (400) y abona 600 a la 2
+        assertEquals(0, primero.cuotasCanceladas());
+        assertEquals(200, primero.interesCentavos());
+        assertEquals(400, primero.capitalCentavos());
+
+        assertEquals(1, segundo.cuotasCanceladas());
+        assertEquals(150, segundo.interesCentavos());
+        assertEquals(850, segundo.capitalCentavos());
+
+        assertEquals(FECHA_PAGO.plusDays(1), pendientes.cuotas.get(0).fechaPago);
+        assertEquals(600, pendientes.cuotas.get(1).pagadoCentavos);
+        assertEquals(1, pendientes.canceladas);
+        assertEquals(1_400, pendientes.saldoCentavos());
+        assertTrue(pendientes.modificado);
+    }
+
+    @Test
+    void deberiaRetomarUnaCuotaConAbonoPrevioDeOtroBloque() {
+        // La cuota 1 ya tenía 250 pagados: el interés (200) está cubierto
+        CuotasPendientes pendientes = new CuotasPendientes(2L);
+        pendientes.cuotas.add(new CuotasPendientes.Cuota(21, LocalDate.of(2025, 1, 10), 1_000, 200, 250));
+
+        Imputacion imputacion = motor.imputar(pendientes, 100, FECHA_PAGO);
+
+        assertEquals(0, imputacion.interesCentavos());
+        assertEquals(100, imputacion.capitalCentavos());
+        assertEquals(350, pendientes.cuotas.get(0).pagadoCentavos);
+    }
+}
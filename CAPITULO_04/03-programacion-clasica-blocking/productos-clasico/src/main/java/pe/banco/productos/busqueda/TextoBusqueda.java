@@ -0,0 +1,59 @@
+package pe.banco.productos.busqueda;
+
+import java.util.Locale;
+
+/**
+ * Convierte lo que escribe el usuario en parámetros para las consultas por
+ * nombre, de forma que PostgreSQL pueda usar los índices de
+ * {@link IndicesBusquedaProductos}.
+ *
+ * <pre>
+ * contiene("50%")  →  '%50\%%'              lower(nombre) LIKE ... (GIN trigram)
+ * desde("Lap")     →  'lap'   ┐             lower(nombre) COLLATE "C" &gt;= 'lap'
+ * hasta("Lap")     →  'laq'   ┘ rango       lower(nombre) COLLATE "C" &lt;  'laq'
+ * </pre>
+ *
+ * <p>El prefijo viaja como rango y no como {@code LIKE 'lap%'}: con un parámetro
+ * el plan genérico de una sentencia preparada no puede convertir el patrón en
+ * límites de índice, con dos límites explícitos siempre recorre el B-tree.</p>
+ */
+public final class TextoBusqueda {
+
+    private TextoBusqueda() {
+    }
+
+    /**
+     * Patrón LIKE "contiene" con los comodines del usuario escapados
+     * ({@code escape '\'}): "50%" no debe coincidir con todo lo que empieza con "50".
+     */
+    public static String contiene(String texto) {
+        return "%" + texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    /**
+     * Límite inferior (inclusivo) del rango de un prefijo: el prefijo en minúsculas.
+     */
+    public static String desde(String prefijo) {
+        return prefijo.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Límite superior (exclusivo): el primer texto, en orden {@code "C"} (código
+     * Unicode), que ya no empieza con el prefijo. Se incrementa el último carácter.
+     *
+     * @return el límite, o null si no existe (prefijo vacío o solo U+10FFFF)
+     */
+    public static String hasta(String prefijo) {
+        int[] caracteres = desde(prefijo).codePoints().toArray();
+        for (int i = caracteres.length - 1; i >= 0; i--) {
+            if (caracteres[i] < Character.MAX_CODE_POINT) {
+                int siguiente = caracteres[i] + 1;
+                if (siguiente == Character.MIN_SURROGATE) {
+                    siguiente = Character.MAX_SURROGATE + 1;
+                }
+                return new String(caracteres, 0, i) + Character.toString(siguiente);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,22 @@
+package pe.banco.productos.dto;
+
+/**
+ * Ajuste relativo del stock de un producto: unidades a sumar (positivo) o a
+ * descontar (negativo).
+ *
+ * <p><strong>Ejemplo de uso en JSON:</strong></p>
+ * <pre>{@code
+ * { "delta": -2 }     // venta de 2 unidades
+ * { "delta": 50 }     // reposición
+ * }</pre>
+ *
+ * @author Curso Quarkus
+ * @version 1.0
+ */
+public class AjusteStockRequest {
+
+    /**
+     * Unidades a sumar al stock actual (distinto de 0).
+     */
+    public Integer delta;
+}
@@ -0,0 +1,55 @@
+package pe.banco.productos.dto;
+
+/**
+ * Resultado de un ajuste de stock.
+ *
+ * <p><strong>Ejemplo de respuesta:</strong></p>
+ * <pre>{@code
+ * {
+ *   "id": 7,
+ *   "estado": "APLICADO",
+ *   "stock": 118,
+ *   "version": 42
+ * }
+ * }</pre>
+ *
+ * @author Curso Quarkus
+ * @version 1.0
+ */
+public class AjusteStockResponse {
+
+    public enum Estado {
+        APLICADO,
+        /** El stock quedaría negativo: el ajuste no se aplicó */
+        STOCK_INSUFICIENTE
+    }
+
+    public final Long id;
+
+    public final Estado estado;
+
+    /**
+     * Stock después del UPDATE (null si no se aplicó).
+     */
+    public final Integer stock;
+
+    /**
+     * Versión del producto después del UPDATE (null si no se aplicó).
+     */
+    public final Long version;
+
+    private AjusteStockResponse(Long id, Estado estado, Integer stock, Long version) {
+        this.id = id;
+        this.estado = estado;
+        this.stock = stock;
+        this.version = version;
+    }
+
+    public static AjusteStockResponse aplicado(Long id, Integer stock, Long version) {
+        return new AjusteStockResponse(id, Estado.APLICADO, stock, version);
+    }
+
+    public static AjusteStockResponse rechazado(Long id, Estado estado) {
+        return new AjusteStockResponse(id, estado, null, null);
+    }
+}
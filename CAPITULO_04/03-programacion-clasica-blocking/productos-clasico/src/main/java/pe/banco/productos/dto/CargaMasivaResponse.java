@@ -0,0 +1,52 @@
+package pe.banco.productos.dto;
+
+/**
+ * Resultado de una carga masiva de productos.
+ * <p>
+ * Además del total insertado informa el rendimiento obtenido, útil para
+ * comparar tamaños de bloque y el enfoque clásico contra el reactivo.
+ * </p>
+ *
+ * <p><strong>Ejemplo de respuesta:</strong></p>
+ * <pre>{@code
+ * {
+ *   "mensaje": "1000000 productos creados exitosamente",
+ *   "insertados": 1000000,
+ *   "bloques": 200,
+ *   "milisegundos": 41250,
+ *   "filasPorSegundo": 24242
+ * }
+ * }</pre>
+ *
+ * @author Curso Quarkus
+ * @version 1.0
+ */
+public class CargaMasivaResponse {
+
+    public String mensaje;
+
+    /**
+     * Productos insertados (todos los bloques confirmados).
+     */
+    public long insertados;
+
+    /**
+     * Transacciones usadas: una por bloque.
+     */
+    public int bloques;
+
+    public long milisegundos;
+
+    public long filasPorSegundo;
+
+    public CargaMasivaResponse() {
+    }
+
+    public CargaMasivaResponse(long insertados, int bloques, long nanos) {
+        this.mensaje = insertados + " productos creados exitosamente";
+        this.insertados = insertados;
+        this.bloques = bloques;
+        this.milisegundos = nanos / 1_000_000;
+        this.filasPorSegundo = nanos == 0 ? insertados : insertados * 1_000_000_000L / nanos;
+    }
+}
@@ -0,0 +1,27 @@
+package pe.banco.productos.dto;
+
+/**
+ * Vista mínima de un producto para reposición de inventario: ID, nombre y stock.
+ * <p>
+ * Se usa como proyección ({@code project(StockProductoDTO.class)}): la query trae
+ * solo estas columnas en lugar de la entidad completa y no deja entidades
+ * administradas en el contexto de persistencia.
+ * </p>
+ *
+ * @author Curso Quarkus
+ * @version 1.0
+ */
+public class StockProductoDTO {
+
+    public final Long id;
+
+    public final String nombre;
+
+    public final Integer stock;
+
+    public StockProductoDTO(Long id, String nombre, Integer stock) {
+        this.id = id;
+        this.nombre = nombre;
+        this.stock = stock;
+    }
+}
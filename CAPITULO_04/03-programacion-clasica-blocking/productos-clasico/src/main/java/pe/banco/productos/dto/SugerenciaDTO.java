@@ -0,0 +1,19 @@
+package pe.banco.productos.dto;
+
+/**
+ * Sugerencia de autocompletado: lo mínimo para mostrar en un desplegable.
+ *
+ * @author Curso Quarkus
+ * @version 1.0
+ */
+public class SugerenciaDTO {
+
+    public final Long id;
+
+    public final String nombre;
+
+    public SugerenciaDTO(Long id, String nombre) {
+        this.id = id;
+        this.nombre = nombre;
+    }
+}
@@ -3,6 +3,9 @@ package pe.banco.productos.entity;
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Column;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 /**
  * Entidad JPA que representa un producto en el sistema.
@@ -18,11 +21,16 @@ import jakarta.persistence.Column;
  *   <li>stock: Cantidad disponible (debe ser no negativo)</li>
  * </ul>
  * 
+ * <p><strong>Índices:</strong> {@code idx_producto_stock (stock, id)} para las
+ * consultas de stock bajo ({@code stock < ?}): PostgreSQL recorre solo el rango
+ * del índice, ya ordenado, en lugar de leer toda la tabla.</p>
+ *
  * @author Curso Quarkus
  * @version 1.0
  * @see PanacheEntity
  */
 @Entity
+@Table(indexes = @Index(name = "idx_producto_stock", columnList = "stock, id"))
 public class Producto extends PanacheEntity {
 
     /**
@@ -63,6 +71,18 @@ public class Producto extends PanacheEntity {
     @Column(nullable = false)
     public Integer stock;
 
+    /**
+     * Versión del producto (control de concurrencia optimista).
+     * <p>
+     * Hibernate la pone en 0 al insertar y la incrementa en cada UPDATE que
+     * modifica el producto. Si la versión no cambió, la representación JSON
+     * tampoco: de ella salen los ETag de los GET.
+     * </p>
+     */
+    @Version
+    @Column(nullable = false)
+    public Long version;
+
     /**
      * Constructor por defecto requerido por JPA.
      * <p>
@@ -1,9 +1,17 @@
 package pe.banco.productos.repository;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.transaction.Transactional;
+import pe.banco.productos.busqueda.TextoBusqueda;
 import pe.banco.productos.entity.Producto;
+import pe.banco.productos.dto.StockProductoDTO;
+import pe.banco.productos.dto.SugerenciaDTO;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Repositorio clásico (bloqueante) para gestionar operaciones de persistencia de {@link Producto}.
@@ -34,6 +42,20 @@ import java.util.List;
 @ApplicationScoped
 public class ProductoRepository implements PanacheRepositoryBase<Producto, Long> {
 
+    /**
+     * Prefijo como rango [desde, hasta) sobre lower(nombre) con collation "C":
+     * coincide con el índice idx_producto_nombre_prefijo, que resuelve el filtro
+     * Y el orden; con LIMIT PostgreSQL lee solo las primeras filas del rango.
+     * Los límites los calcula TextoBusqueda.
+     */
+    private static final String AUTOCOMPLETAR = """
+            SELECT id, nombre FROM Producto
+            WHERE lower(nombre) COLLATE "C" >= :desde
+              AND lower(nombre) COLLATE "C" < :hasta
+            ORDER BY lower(nombre) COLLATE "C", id
+            LIMIT :limite
+            """;
+
     /**
      * Busca productos con stock por debajo de un umbral especificado.
      * <p>
@@ -62,6 +84,58 @@ public class ProductoRepository implements PanacheRepositoryBase<Producto, Long>
         return list("stock < ?1", umbral);
     }
 
+    /**
+     * Variante liviana de {@link #findConStockBajo(int)}: solo ID, nombre y stock.
+     * <p>
+     * La proyección evita traer descripción y precio y no crea entidades en la
+     * sesión. Con el índice {@code (stock, id)} PostgreSQL resuelve el filtro y
+     * el orden recorriendo únicamente el rango {@code stock < umbral}.
+     * </p>
+     *
+     * @param umbral Stock límite (exclusivo)
+     * @return Productos ordenados por stock ascendente (y luego por ID)
+     */
+    public List<StockProductoDTO> findResumenStockBajo(int umbral) {
+        return find("stock < ?1", Sort.by("stock").and("id"), umbral)
+                .project(StockProductoDTO.class)
+                .list();
+    }
+
+    /**
+     * Versión actual de un producto, sin cargar la entidad.
+     * <p>
+     * Lee una sola columna por clave primaria: es lo único que hace falta para
+     * responder {@code 304 Not Modified} a un GET condicional.
+     * </p>
+     *
+     * @param id ID del producto
+     * @return la versión, o null si el producto no existe
+     */
+    public Long versionDe(Long id) {
+        return getEntityManager()
+                .createQuery("select p.version from Producto p where p.id = ?1", Long.class)
+                .setParameter(1, id)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Versión del catálogo completo: cambia con cada alta, baja o modificación.
+     * <p>
+     * Lee el contador que mantiene el trigger de {@link VersionCatalogo} (16 filas,
+     * sin importar cuántos productos haya): permite responder
+     * {@code 304 Not Modified} al listado sin traer ni serializar los productos.
+     * </p>
+     *
+     * @return la versión actual del catálogo
+     */
+    public long versionCatalogo() {
+        return ((Number) getEntityManager()
+                .createNativeQuery(VersionCatalogo.CONSULTA)
+                .getSingleResult()).longValue();
+    }
+
     /**
      * Busca productos cuyo nombre contenga el texto especificado (búsqueda parcial, case-insensitive).
      * <p>
@@ -90,40 +164,132 @@ public class ProductoRepository implements PanacheRepositoryBase<Producto, Long>
      * @throws NullPointerException si nombre es null
      */
     public List<Producto> buscarPorNombre(String nombre) {
-        return list("LOWER(nombre) LIKE LOWER(?1)", "%" + nombre + "%");
+        return list("lower(nombre) like lower(?1) escape '\\'", TextoBusqueda.contiene(nombre));
     }
 
     /**
-     * Persiste múltiples productos en una única operación (batch insert).
+     * Búsqueda paginada por texto contenido en el nombre (case-insensitive).
      * <p>
-     * Esta operación es más eficiente que persistir productos individualmente
-     * cuando se necesita guardar grandes cantidades de datos.
+     * El filtro {@code lower(nombre) LIKE '%texto%'} lo resuelve el índice GIN
+     * trigram {@code idx_producto_nombre_trgm} (ver {@code IndicesBusquedaProductos}):
+     * en lugar de leer todo el catálogo, PostgreSQL busca los trigramas del texto
+     * ("lap" → "  l", " la", "lap") y revisa solo las filas candidatas.
      * </p>
-     * 
-     * <p><strong>Operación bloqueante:</strong> Bloquea el thread actual hasta
-     * que todos los productos han sido persistidos.</p>
-     * 
-     * <p><strong>Transaccionalidad:</strong> Esta operación debe ejecutarse dentro
-     * de un contexto transaccional (típicamente con {@code @Transactional}).</p>
-     * 
+     *
+     * <p><strong>Ejemplo:</strong> {@code buscarPorNombre("dell", 0, 20)} → primeros
+     * 20 productos cuyo nombre contiene "dell", ordenados por nombre.</p>
+     *
+     * @param texto Texto a buscar (3 caracteres o más para aprovechar el índice)
+     * @param pagina Número de página (desde 0)
+     * @param tamano Productos por página
+     * @return productos de la página, ordenados por nombre e ID
+     */
+    public List<Producto> buscarPorNombre(String texto, int pagina, int tamano) {
+        return find("lower(nombre) like lower(?1) escape '\\'", Sort.by("nombre").and("id"),
+                TextoBusqueda.contiene(texto))
+                .page(pagina, tamano)
+                .list();
+    }
+
+    /**
+     * Autocompletado: productos cuyo nombre empieza con el prefijo (case-insensitive).
+     * <p>
+     * Un recorrido de rango en el índice B-tree {@code idx_producto_nombre_prefijo}
+     * que se detiene al llegar a {@code limite} filas: el costo no depende del tamaño
+     * del catálogo (milisegundos con un millón de productos).
+     * </p>
+     *
+     * <p><strong>Operación bloqueante:</strong> SQL nativo (HQL no expresa el
+     * {@code COLLATE "C"} que necesita el índice).</p>
+     *
+     * @param prefijo Inicio del nombre tal como lo escribe el usuario
+     * @param limite Máximo de sugerencias
+     * @return sugerencias ordenadas alfabéticamente
+     */
+    public List<SugerenciaDTO> autocompletar(String prefijo, int limite) {
+        String hasta = TextoBusqueda.hasta(prefijo);
+        if (hasta == null) {
+            return List.of();
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> filas = getEntityManager().createNativeQuery(AUTOCOMPLETAR)
+                .setParameter("desde", TextoBusqueda.desde(prefijo))
+                .setParameter("hasta", hasta)
+                .setParameter("limite", limite)
+                .getResultList();
+        return filas.stream()
+                .map(fila -> new SugerenciaDTO(((Number) fila[0]).longValue(), (String) fila[1]))
+                .toList();
+    }
+
+    /**
+     * Inserta un bloque de productos en su propia transacción.
+     * <p>
+     * Pensado para cargas masivas: el llamador parte la carga en bloques y cada
+     * uno se confirma por separado ({@code REQUIRES_NEW}). Al hacer COMMIT el
+     * contexto de persistencia del bloque se descarta, así que la memoria usada
+     * no crece con el total a cargar.
+     * </p>
+     *
+     * <p><strong>Batching JDBC:</strong> con {@code statement-batch-size} los INSERT
+     * se envían en grupos, y {@code reWriteBatchedInserts} del driver convierte
+     * cada grupo en un único {@code INSERT ... VALUES (...), (...), ...}.</p>
+     *
      * <p><strong>Ejemplo de uso:</strong></p>
      * <pre>{@code
-     * List<Producto> productos = Arrays.asList(
-     *     new Producto("Laptop", "HP Pavilion", 850.0, 10),
-     *     new Producto("Mouse", "Logitech MX Master", 99.0, 50)
-     * );
-     * 
-     * repository.persistirLote(productos);
-     * System.out.println("Productos guardados: " + productos.size());
+     * for (List<Producto> bloque : bloques) {
+     *     repository.insertarBloque(bloque);   // COMMIT por bloque
+     * }
      * }</pre>
-     * 
-     * @param productos Lista de productos a persistir (no debe ser null ni vacía).
-     *                  Cada producto debe tener sus campos obligatorios inicializados.
-     * @throws NullPointerException si la lista de productos es null
-     * @throws IllegalArgumentException si la lista está vacía
-     * @throws jakarta.persistence.PersistenceException si hay errores de validación o BD
+     *
+     * @param productos Productos del bloque (nuevos, sin ID)
+     * @throws jakarta.persistence.PersistenceException si falla el bloque
+     *         (los bloques anteriores ya quedaron confirmados)
      */
-    public void persistirLote(List<Producto> productos) {
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void insertarBloque(List<Producto> productos) {
         persist(productos);
     }
+
+    /**
+     * Modifica un producto en su propia transacción, con control de versión optimista.
+     * <p>
+     * Lee el producto, verifica la precondición sobre su versión, aplica los cambios
+     * y hace flush dentro de la transacción. El UPDATE lleva
+     * {@code WHERE id = ? AND version = ?}: si otra transacción confirmó antes,
+     * no modifica ninguna fila y Hibernate lanza {@link OptimisticLockException}.
+     * Nadie bloquea filas mientras el usuario piensa (a diferencia de
+     * {@code SELECT ... FOR UPDATE}).
+     * </p>
+     *
+     * <pre>{@code
+     * Producto p = repository.modificar(id,
+     *         version -> version.equals(versionQueLeyoElCliente),
+     *         producto -> producto.stock = 30);
+     * // p.version ya es la nueva (el flush ocurrió)
+     * }</pre>
+     *
+     * <p>Al ser una transacción por llamada, el llamador puede reintentarla
+     * completa (volviendo a leer) si hubo conflicto.</p>
+     *
+     * @param id ID del producto
+     * @param precondicion Recibe la versión actual; false = rechazar el cambio
+     * @param cambios Modificaciones a aplicar sobre la entidad administrada
+     * @return el producto con su versión nueva, o null si no existe
+     * @throws OptimisticLockException si la precondición falla o si otra
+     *         transacción modificó el producto primero
+     */
+    @Transactional
+    public Producto modificar(Long id, Predicate<Long> precondicion, Consumer<Producto> cambios) {
+        Producto producto = findById(id);
+        if (producto == null) {
+            return null;
+        }
+        if (!precondicion.test(producto.version)) {
+            throw new OptimisticLockException("Versión " + producto.version + " no coincide", null, producto);
+        }
+        cambios.accept(producto);
+        getEntityManager().flush();
+        return producto;
+    }
 }
@@ -0,0 +1,107 @@
+package pe.banco.productos.resource;
+
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import pe.banco.productos.entity.Producto;
+
+/**
+ * ETag de los productos (columna {@code version}) y del catálogo (contador de cambios).
+ * <p>
+ * Un cliente que ya tiene la respuesta la vuelve a pedir con
+ * {@code If-None-Match: "<etag>"}; si nada cambió recibe {@code 304 Not Modified}
+ * sin cuerpo. Para decidirlo basta con leer la versión (una columna), sin cargar
+ * ni serializar los productos.
+ * </p>
+ *
+ * <pre>
+ * GET /productos/1                      → 200 + ETag: "3"  (JSON completo)
+ * GET /productos/1  If-None-Match: "3"  → 304              (solo SELECT version)
+ * PUT /productos/1  ...                 → version = 4
+ * GET /productos/1  If-None-Match: "3"  → 200 + ETag: "4"
+ * </pre>
+ *
+ * <p>Son ETag fuertes: misma versión = mismo JSON byte a byte (el listado se
+ * ordena por ID para que también el orden sea estable).</p>
+ *
+ * <p>En sentido inverso, un PUT con {@code If-Match: "<etag>"} solo se aplica si
+ * el producto sigue en esa versión; si no, {@code 412 Precondition Failed}.</p>
+ */
+final class EtagProducto {
+
+    /**
+     * Los CDN y navegadores pueden guardar la respuesta, pero deben revalidarla
+     * (con el ETag) antes de reutilizarla.
+     */
+    static final CacheControl REVALIDAR = CacheControl.valueOf("no-cache");
+
+    private EtagProducto() {
+    }
+
+    static EntityTag de(Producto producto) {
+        return deVersion(producto.version);
+    }
+
+    static EntityTag deVersion(long version) {
+        return new EntityTag(Long.toString(version));
+    }
+
+    /**
+     * ETag del listado: la versión del catálogo ({@code ProductoRepository#versionCatalogo()}).
+     * <p>
+     * Se lee ANTES de cargar los productos. Si alguien confirma un cambio entre
+     * ambas lecturas, la respuesta sale con la versión vieja y datos nuevos: el
+     * próximo If-None-Match no coincide y el cliente solo repite un GET. Al revés
+     * (versión nueva con datos viejos) el cliente se quedaría con un 304 desactualizado.
+     * </p>
+     */
+    static EntityTag deCatalogo(long version) {
+        return new EntityTag("catalogo-" + version);
+    }
+
+    /**
+     * Evalúa {@code If-None-Match} contra el ETag actual.
+     *
+     * @return 304 si el cliente ya tiene esta versión; null si hay que enviar el recurso
+     */
+    static Response noModificado(Request request, EntityTag actual) {
+        Response.ResponseBuilder respuesta = request.evaluatePreconditions(actual);
+        return respuesta != null ? respuesta.cacheControl(REVALIDAR).build() : null;
+    }
+
+    /**
+     * Evalúa {@code If-Match} (e {@code If-None-Match}) de un PUT contra la versión
+     * actual del producto.
+     *
+     * @return true si el cliente modificó la versión vigente (o no puso condición)
+     */
+    static boolean cumplePrecondiciones(Request request, long versionActual) {
+        return request.evaluatePreconditions(deVersion(versionActual)) == null;
+    }
+
+    /**
+     * 412: el producto cambió desde que el cliente lo leyó; debe volver a hacer GET
+     * y aplicar su cambio sobre la versión nueva.
+     */
+    static Response versionDesactualizada() {
+        return Response.status(Response.Status.PRECONDITION_FAILED)
+                .entity("{\"error\": \"El producto fue modificado por otra petición. Vuelva a leerlo y reintente con el nuevo ETag\"}")
+                .build();
+    }
+
+    /**
+     * 409: un PUT sin {@code If-Match} chocó con otra escritura confirmada entre
+     * la lectura y el UPDATE. No se reintenta: el reemplazo completo pisaría ese
+     * cambio sin que nadie lo viera.
+     */
+    static Response modificacionSimultanea() {
+        return Response.status(Response.Status.CONFLICT)
+                .entity("{\"error\": \"El producto fue modificado por otra petición. Vuelva a leerlo y reintente con If-Match\"}")
+                .build();
+    }
+
+    static Response ok(Object entidad, EntityTag etag) {
+        return Response.ok(entidad).tag(etag).cacheControl(REVALIDAR).build();
+    }
+}
@@ -1,12 +1,25 @@
 package pe.banco.productos.resource;
 
+import io.quarkus.panache.common.Sort;
 import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import pe.banco.productos.dto.AjusteStockRequest;
+import pe.banco.productos.dto.AjusteStockResponse;
+import pe.banco.productos.dto.CargaMasivaResponse;
 import pe.banco.productos.dto.ProductoRequest;
+import pe.banco.productos.dto.StockProductoDTO;
+import pe.banco.productos.dto.SugerenciaDTO;
 import pe.banco.productos.entity.Producto;
 import pe.banco.productos.repository.ProductoRepository;
 
@@ -62,9 +75,35 @@ import java.util.stream.IntStream;
 @Produces(MediaType.APPLICATION_JSON)
 public class ProductoClasicoResource {
 
+    private static final Logger LOG = Logger.getLogger(ProductoClasicoResource.class);
+
     @Inject
     ProductoRepository repository;
 
+    /**
+     * Productos por transacción en la carga masiva.
+     */
+    @ConfigProperty(name = "productos.carga-masiva.tamano-bloque", defaultValue = "5000")
+    int tamanoBloque;
+
+    /**
+     * Máximo de resultados por request en /buscar y /autocompletar.
+     */
+    @ConfigProperty(name = "productos.busqueda.tamano-maximo", defaultValue = "100")
+    int tamanoMaximoBusqueda;
+
+    /**
+     * Reintentos de un ajuste de stock cuando otra escritura gana la carrera.
+     */
+    @ConfigProperty(name = "productos.stock.reintentos", defaultValue = "5")
+    int reintentosStock;
+
+    /**
+     * Máximo |delta| de un ajuste de stock.
+     */
+    @ConfigProperty(name = "productos.stock.delta-maximo", defaultValue = "1000000")
+    int deltaMaximo;
+
     /**
      * Lista todos los productos disponibles en el sistema.
      * <p>
@@ -96,11 +135,23 @@ public class ProductoClasicoResource {
      * Durante los pasos 2-3, el thread NO puede hacer nada más.
      * }</pre>
      * 
-     * @return Lista de todos los productos
+     * <p><strong>GET condicional:</strong> La respuesta lleva un {@code ETag} con la
+     * versión del catálogo (contador de cambios). Si el cliente lo reenvía en
+     * {@code If-None-Match} y nada cambió, responde {@code 304 Not Modified} tras
+     * leer solo ese contador, sin cargar ni serializar los productos.</p>
+     *
+     * @return {@link Response} 200 con todos los productos ordenados por ID, o 304
      */
     @GET
-    public List<Producto> listarTodos() {
-        return repository.listAll();
+    public Response listarTodos(@Context Request request) {
+        // La versión se lee antes que los productos (ver EtagProducto.deCatalogo)
+        EntityTag etag = EtagProducto.deCatalogo(repository.versionCatalogo());
+        Response noModificado = EtagProducto.noModificado(request, etag);
+        if (noModificado != null) {
+            return noModificado;
+        }
+        List<Producto> productos = repository.listAll(Sort.by("id"));
+        return EtagProducto.ok(productos, etag);
     }
 
     /**
@@ -115,14 +166,20 @@ public class ProductoClasicoResource {
      * 
      * <p><strong>Códigos de respuesta:</strong></p>
      * <ul>
-     *   <li><strong>200 OK:</strong> Producto encontrado</li>
+     *   <li><strong>200 OK:</strong> Producto encontrado (con {@code ETag: "<version>"})</li>
+     *   <li><strong>304 NOT MODIFIED:</strong> {@code If-None-Match} coincide con la versión actual</li>
      *   <li><strong>404 NOT FOUND:</strong> Producto no existe con ese ID</li>
      * </ul>
      * 
      * <p><strong>Ejemplo de uso:</strong></p>
      * <pre>{@code
      * curl -X GET http://localhost:8080/api/v1/productos/clasico/1
+     * curl -H 'If-None-Match: "0"' http://localhost:8080/api/v1/productos/clasico/1   // 304
      * }</pre>
+     *
+     * <p>Con {@code If-None-Match} primero se lee solo la versión
+     * ({@link ProductoRepository#versionDe(Long)}); la entidad se carga únicamente
+     * si cambió.</p>
      * 
      * <p><strong>Flujo tradicional:</strong></p>
      * <pre>{@code
@@ -139,10 +196,21 @@ public class ProductoClasicoResource {
      */
     @GET
     @Path("/{id}")
-    public Response buscarPorId(@PathParam("id") Long id) {
+    public Response buscarPorId(@PathParam("id") Long id,
+                                @Context Request request,
+                                @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Long version = repository.versionDe(id);
+            Response noModificado = version != null
+                    ? EtagProducto.noModificado(request, EtagProducto.deVersion(version))
+                    : null;
+            if (noModificado != null) {
+                return noModificado;
+            }
+        }
         Producto producto = repository.findById(id);
         if (producto != null) {
-            return Response.ok(producto).build();
+            return EtagProducto.ok(producto, EtagProducto.de(producto));
         } else {
             return Response.status(Response.Status.NOT_FOUND).build();
         }
@@ -235,15 +303,20 @@ public class ProductoClasicoResource {
      * 
      * <p><strong>Códigos de respuesta:</strong></p>
      * <ul>
-     *   <li><strong>200 OK:</strong> Producto actualizado exitosamente</li>
+     *   <li><strong>200 OK:</strong> Producto actualizado exitosamente (con el nuevo {@code ETag})</li>
      *   <li><strong>404 NOT FOUND:</strong> Producto no existe con ese ID</li>
      *   <li><strong>400 BAD REQUEST:</strong> Datos inválidos en el request</li>
+     *   <li><strong>412 PRECONDITION FAILED:</strong> {@code If-Match} no coincide con la
+     *       versión actual (otro usuario lo modificó después de que lo leíste)</li>
+     *   <li><strong>409 CONFLICT:</strong> Sin {@code If-Match}, se agotaron los reintentos
+     *       por escrituras concurrentes</li>
      * </ul>
      * 
      * <p><strong>Ejemplo de uso:</strong></p>
      * <pre>{@code
      * curl -X PUT http://localhost:8080/api/v1/productos/clasico/1 \
      *   -H "Content-Type: application/json" \
+     *   -H 'If-Match: "0"' \
      *   -d '{
      *     "nombre": "Mouse Logitech MX Master",
      *     "descripcion": "Mouse profesional actualizado",
@@ -256,25 +329,35 @@ public class ProductoClasicoResource {
      * <pre>{@code
      * 1. Buscar producto por ID (BLOQUEA)
      * 2. Si no existe → return 404
-     * 3. Modificar campos
-     * 4. Persistir cambios (BLOQUEA)
-     * 5. Return 200 OK
+     * 3. Si hay If-Match y la versión no coincide → return 412
+     * 4. Modificar campos
+     * 5. UPDATE ... WHERE id = ? AND version = ? (BLOQUEA)
+     * 6. Return 200 OK + ETag nuevo
      * 
      * Cada paso espera que el anterior complete.
      * }</pre>
+     *
+     * <p><strong>Concurrencia optimista:</strong> dos PUT simultáneos ya no se pisan
+     * en silencio. Con {@code If-Match} el perdedor recibe 412 y decide el cliente.
+     * Sin {@code If-Match} el PUT es "el último gana" y no se reintenta: reaplicar el
+     * reemplazo completo borraría el cambio que acaba de confirmar el otro escritor,
+     * así que el choque responde 409. Para sumar o descontar stock usar
+     * {@code POST /{id}/stock}, que sí se reintenta en el servidor.</p>
      * 
      * <p><strong>Nota:</strong> Esta operación reemplaza TODOS los campos del producto.
      * Para actualizaciones parciales (PATCH), implementar endpoint separado.</p>
      * 
      * @param id Identificador único del producto a actualizar
      * @param request DTO con los nuevos datos del producto (validado automáticamente)
-     * @return {@link Response} con status 200 (OK) o 404 (NOT FOUND)
+     * @param ifMatch ETag que el cliente leyó (opcional)
+     * @return {@link Response} con status 200, 404, 412 o 409
      */
     @PUT
     @Path("/{id}")
     @Consumes(MediaType.APPLICATION_JSON)
-    @Transactional
-    public Response actualizar(@PathParam("id") Long id, @Valid ProductoRequest request) {
+    public Response actualizar(@PathParam("id") Long id, @Valid ProductoRequest request,
+                               @Context Request httpRequest,
+                               @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
         if (request.precio != null && request.precio <= 0) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("{\"error\": \"El precio debe ser mayor a 0\"}")
@@ -287,20 +370,95 @@ public class ProductoClasicoResource {
                     .build();
         }
         
-        Producto producto = repository.findById(id);
-        
-        if (producto == null) {
-            return Response.status(Response.Status.NOT_FOUND).build();
+        try {
+            Producto producto = repository.modificar(id,
+                    version -> EtagProducto.cumplePrecondiciones(httpRequest, version),
+                    p -> {
+                        p.nombre = request.nombre;
+                        p.descripcion = request.descripcion;
+                        p.precio = request.precio;
+                        p.stock = request.stock;
+                    });
+
+            if (producto == null) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            }
+            return EtagProducto.ok(producto, EtagProducto.de(producto));
+        } catch (OptimisticLockException e) {
+            return ifMatch != null
+                    ? EtagProducto.versionDesactualizada()
+                    : EtagProducto.modificacionSimultanea();
+        }
+    }
+
+    /**
+     * Suma o descuenta unidades del stock: {@code {"delta": -2}}.
+     * <p>
+     * A diferencia del PUT, el valor nuevo lo calcula el servidor sobre la versión
+     * vigente (leer, sumar, guardar con {@code WHERE version = ?}). Si otra escritura
+     * gana la carrera, repetir la operación es seguro: se vuelve a leer y el delta se
+     * suma sobre el stock nuevo, así que ningún ajuste se pierde
+     * ({@code productos.stock.reintentos}; agotados, 409).
+     * </p>
+     *
+     * <pre>{@code
+     * curl -X POST http://localhost:8080/api/v1/productos/clasico/1/stock \
+     *   -H "Content-Type: application/json" -d '{"delta": -2}'
+     * }</pre>
+     *
+     * <p>200 con el stock resultante · 400 si el delta es 0 o supera
+     * {@code productos.stock.delta-maximo} · 404 si no existe · 409 si no alcanza
+     * el stock o si los conflictos agotan los reintentos.</p>
+     *
+     * @param id Identificador único del producto
+     * @param request Unidades a sumar (negativo para descontar)
+     * @return {@link Response} con status 200, 400, 404 o 409
+     */
+    @POST
+    @Path("/{id}/stock")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response ajustarStock(@PathParam("id") Long id, AjusteStockRequest request) {
+        if (request == null || request.delta == null || request.delta == 0) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"El delta debe ser distinto de 0\"}")
+                    .build();
+        }
+        if (Math.abs((long) request.delta) > deltaMaximo) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"El delta no puede superar " + deltaMaximo + " unidades\"}")
+                    .build();
+        }
+
+        for (int intento = 1; ; intento++) {
+            try {
+                boolean[] insuficiente = {false};
+                Producto producto = repository.modificar(id, version -> true, p -> {
+                    if (p.stock + (long) request.delta < 0) {
+                        insuficiente[0] = true;
+                    } else {
+                        p.stock += request.delta;
+                    }
+                });
+
+                if (producto == null) {
+                    return Response.status(Response.Status.NOT_FOUND).build();
+                }
+                if (insuficiente[0]) {
+                    return Response.status(Response.Status.CONFLICT)
+                            .entity(AjusteStockResponse.rechazado(id, AjusteStockResponse.Estado.STOCK_INSUFICIENTE))
+                            .build();
+                }
+                return Response.ok(AjusteStockResponse.aplicado(id, producto.stock, producto.version)).build();
+            } catch (OptimisticLockException e) {
+                if (intento > reintentosStock) {
+                    LOG.warnf("⚠️ Producto %d: conflicto de versión tras %d intentos", id, intento);
+                    return Response.status(Response.Status.CONFLICT)
+                            .entity("{\"error\": \"Demasiadas modificaciones simultáneas, reintente\"}")
+                            .build();
+                }
+                LOG.debugf("🔁 Producto %d: conflicto de versión, reintento %d", id, Integer.valueOf(intento));
+            }
         }
-        
-        producto.nombre = request.nombre;
-        producto.descripcion = request.descripcion;
-        producto.precio = request.precio;
-        producto.stock = request.stock;
-        
-        repository.persist(producto);
-        
-        return Response.ok(producto).build();
     }
 
     /**
@@ -375,63 +533,169 @@ public class ProductoClasicoResource {
     }
 
     /**
-     * Crea múltiples productos de forma masiva (batch insert).
+     * Stock bajo para reposición: solo ID, nombre y stock, ordenado por stock.
      * <p>
-     * <strong>Operación bloqueante de lote:</strong> Genera y persiste múltiples productos
-     * en una única transacción. El thread permanece bloqueado durante toda la operación batch.
+     * <strong>Operación bloqueante:</strong> query proyectada que se resuelve con el
+     * índice {@code (stock, id)} de la tabla, sin cargar entidades completas.
      * </p>
-     * 
+     *
+     * <p><strong>HTTP:</strong> {@code GET /api/v1/productos/clasico/stock-bajo/{umbral}/resumen}</p>
+     *
+     * @param umbral Stock límite (exclusivo)
+     * @return Productos con stock bajo el umbral, de menor a mayor stock
+     */
+    @GET
+    @Path("/stock-bajo/{umbral}/resumen")
+    public List<StockProductoDTO> stockBajoResumen(@PathParam("umbral") int umbral) {
+        return repository.findResumenStockBajo(umbral);
+    }
+
+    /**
+     * Busca productos cuyo nombre contiene un texto, con paginación.
+     * <p>
+     * <strong>Operación bloqueante:</strong> El filtro {@code lower(nombre) LIKE '%texto%'}
+     * se resuelve con el índice GIN trigram de {@code nombre}, así que el costo depende
+     * de cuántos productos coinciden y no del tamaño del catálogo.
+     * </p>
+     *
+     * <p><strong>HTTP:</strong> {@code GET /api/v1/productos/clasico/buscar?q=...&pagina=0&tamano=20}</p>
+     *
+     * <p><strong>Códigos de respuesta:</strong></p>
+     * <ul>
+     *   <li><strong>200 OK:</strong> Página de productos ordenados por nombre (puede estar vacía)</li>
+     *   <li><strong>400 BAD REQUEST:</strong> Texto con menos de 3 caracteres (sin trigramas
+     *       útiles la búsqueda recorrería toda la tabla)</li>
+     * </ul>
+     *
+     * <p><strong>Ejemplo de uso:</strong></p>
+     * <pre>{@code
+     * curl "http://localhost:8080/api/v1/productos/clasico/buscar?q=dell&pagina=0&tamano=20"
+     * }</pre>
+     *
+     * @param q Texto a buscar (sin distinguir mayúsculas)
+     * @param pagina Número de página (desde 0)
+     * @param tamano Productos por página (máximo {@code productos.busqueda.tamano-maximo})
+     * @return {@link Response} con la página de productos
+     */
+    @GET
+    @Path("/buscar")
+    public Response buscar(@QueryParam("q") String q,
+                           @QueryParam("pagina") @DefaultValue("0") int pagina,
+                           @QueryParam("tamano") @DefaultValue("20") int tamano) {
+        if (q == null || q.isBlank() || q.strip().length() < 3) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"El texto a buscar debe tener al menos 3 caracteres\"}")
+                    .build();
+        }
+        return Response.ok(repository.buscarPorNombre(q.strip(), Math.max(pagina, 0), limitarTamano(tamano)))
+                .build();
+    }
+
+    /**
+     * Sugerencias de autocompletado por prefijo del nombre.
+     * <p>
+     * <strong>Operación bloqueante:</strong> Un recorrido corto del índice
+     * {@code (lower(nombre) COLLATE "C", id)} que se detiene al juntar {@code limite}
+     * filas; pensado para llamarse en cada tecla.
+     * </p>
+     *
+     * <p><strong>HTTP:</strong> {@code GET /api/v1/productos/clasico/autocompletar?prefijo=...&limite=10}</p>
+     *
+     * <p><strong>Ejemplo de uso:</strong></p>
+     * <pre>{@code
+     * curl "http://localhost:8080/api/v1/productos/clasico/autocompletar?prefijo=lap"
+     * // [{"id": 12, "nombre": "Laptop Dell XPS"}, {"id": 40, "nombre": "Laptop HP"}]
+     * }</pre>
+     *
+     * @param prefijo Inicio del nombre (sin distinguir mayúsculas)
+     * @param limite Máximo de sugerencias
+     * @return ID y nombre de los productos, en orden alfabético
+     */
+    @GET
+    @Path("/autocompletar")
+    public List<SugerenciaDTO> autocompletar(@QueryParam("prefijo") String prefijo,
+                                             @QueryParam("limite") @DefaultValue("10") int limite) {
+        if (prefijo == null || prefijo.isBlank()) {
+            return List.of();
+        }
+        return repository.autocompletar(prefijo.strip(), limitarTamano(limite));
+    }
+
+    private int limitarTamano(int solicitado) {
+        return Math.min(Math.max(solicitado, 1), tamanoMaximoBusqueda);
+    }
+
+    /**
+     * Crea múltiples productos de forma masiva (carga por bloques).
+     * <p>
+     * <strong>Operación bloqueante por bloques:</strong> Genera los productos de a
+     * {@code productos.carga-masiva.tamano-bloque} y confirma cada bloque en su
+     * propia transacción. Nunca existe la lista completa en memoria ni una
+     * transacción gigante en el log de PostgreSQL: cargar 1.000.000 de productos
+     * usa la misma memoria que cargar un bloque.
+     * </p>
+     *
      * <p><strong>HTTP:</strong> {@code POST /api/v1/productos/clasico/carga-masiva/{cantidad}}</p>
-     * 
+     *
      * <p><strong>Códigos de respuesta:</strong></p>
      * <ul>
      *   <li><strong>200 OK:</strong> Productos creados exitosamente</li>
      *   <li><strong>400 BAD REQUEST:</strong> Cantidad inválida (menor a 1)</li>
      * </ul>
-     * 
+     *
      * <p><strong>Ejemplo de uso:</strong></p>
      * <pre>{@code
-     * // Crear 1000 productos de prueba
-     * curl -X POST http://localhost:8080/api/v1/productos/clasico/carga-masiva/1000
+     * // Crear 1.000.000 de productos de prueba
+     * curl -X POST http://localhost:8080/api/v1/productos/clasico/carga-masiva/1000000
      * }</pre>
-     * 
-     * <p><strong>Respuesta esperada:</strong></p>
+     *
+     * <p><strong>Respuesta esperada:</strong> ver {@link CargaMasivaResponse}
+     * (insertados, bloques, milisegundos y filas por segundo).</p>
+     *
+     * <p><strong>Flujo por bloque:</strong></p>
      * <pre>{@code
-     * {
-     *   "mensaje": "1000 productos creados exitosamente"
-     * }
+     * 1. Generar N productos (solo este bloque en memoria)
+     * 2. BEGIN → INSERT en batches JDBC (multi-fila) → COMMIT
+     * 3. Descartar el bloque y seguir con el siguiente
+     *
+     * Si un bloque falla, los anteriores ya están confirmados.
      * }</pre>
-     * 
-     * <p><strong>Características técnicas:</strong></p>
-     * <ul>
-     *   <li>Genera productos con datos aleatorios (nombre, precio, stock)</li>
-     *   <li>Usa batch insert para optimizar I/O de base de datos</li>
-     *   <li>Operación transaccional bloqueante (thread ocupado todo el tiempo)</li>
-     *   <li>Ideal para testing de performance y comparación con enfoque reactivo</li>
-     * </ul>
-     * 
+     *
      * <p><strong>Comparación con enfoque reactivo:</strong></p>
      * <ul>
-     *   <li>Enfoque clásico: Thread bloqueado durante toda la inserción batch</li>
-     *   <li>Enfoque reactivo: Thread liberado, puede atender otros requests mientras BD procesa</li>
-     *   <li>Bajo alta concurrencia, el enfoque reactivo muestra ventajas significativas</li>
+     *   <li>Enfoque clásico: Thread bloqueado durante toda la carga</li>
+     *   <li>Enfoque reactivo: Thread liberado entre bloques, puede atender otros requests</li>
      * </ul>
-     * 
-     * <p><strong>⚠️ Advertencia:</strong> No usar en producción sin validaciones adicionales.
-     * Cantidades muy grandes (>10,000) pueden causar timeouts o alta carga en BD.</p>
-     * 
-     * <p><strong>Benchmark típico:</strong> 1000 productos en ~300-700ms (depende del hardware).
-     * Compara con el enfoque reactivo para ver diferencias bajo carga.</p>
-     * 
+     *
      * @param cantidad Número de productos a crear (debe ser mayor a 0)
-     * @return {@link Response} con status 200 y mensaje de confirmación
+     * @return {@link Response} con status 200 y el rendimiento de la carga
      */
     @POST
     @Path("/carga-masiva/{cantidad}")
     @Consumes(MediaType.APPLICATION_JSON)
-    @Transactional
     public Response cargaMasiva(@PathParam("cantidad") int cantidad) {
-        List<Producto> productos = IntStream.range(1, cantidad + 1)
+        if (cantidad < 1) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"La cantidad debe ser mayor a 0\"}")
+                    .build();
+        }
+
+        long inicio = System.nanoTime();
+        int bloques = 0;
+        for (int desde = 1; desde <= cantidad; desde += tamanoBloque) {
+            int hasta = Math.min(desde + tamanoBloque - 1, cantidad);
+            repository.insertarBloque(generarProductos(desde, hasta));
+            bloques++;
+        }
+
+        CargaMasivaResponse resultado = new CargaMasivaResponse(cantidad, bloques, System.nanoTime() - inicio);
+        LOG.infof("📦 Carga masiva: %d productos en %d ms (%d filas/s)",
+                resultado.insertados, resultado.milisegundos, resultado.filasPorSegundo);
+        return Response.ok(resultado).build();
+    }
+
+    private static List<Producto> generarProductos(int desde, int hasta) {
+        return IntStream.rangeClosed(desde, hasta)
                 .mapToObj(i -> new Producto(
                         "Producto Masivo " + i,
                         "Generado automáticamente",
@@ -439,11 +703,5 @@ public class ProductoClasicoResource {
                         (int) (Math.random() * 100)
                 ))
                 .collect(Collectors.toList());
-
-        repository.persistirLote(productos);
-        
-        return Response.ok()
-                .entity("{\"mensaje\": \"" + cantidad + " productos creados exitosamente\"}")
-                .build();
     }
-}
\ No newline at end of file
+}
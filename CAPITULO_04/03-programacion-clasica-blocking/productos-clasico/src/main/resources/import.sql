@@ -1,4 +1,4 @@
-INSERT INTO Producto (id, nombre, descripcion, precio, stock) VALUES (1, 'Laptop Dell XPS', 'Laptop de alto rendimiento', 1500.00, 10);
-INSERT INTO Producto (id, nombre, descripcion, precio, stock) VALUES (2, 'Mouse Logitech', 'Mouse inalámbrico', 25.50, 50);
-INSERT INTO Producto (id, nombre, descripcion, precio, stock) VALUES (3, 'Teclado Mecánico', 'Teclado RGB', 89.99, 30);
+INSERT INTO Producto (id, nombre, descripcion, precio, stock, version) VALUES (1, 'Laptop Dell XPS', 'Laptop de alto rendimiento', 1500.00, 10, 0);
+INSERT INTO Producto (id, nombre, descripcion, precio, stock, version) VALUES (2, 'Mouse Logitech', 'Mouse inalámbrico', 25.50, 50, 0);
+INSERT INTO Producto (id, nombre, descripcion, precio, stock, version) VALUES (3, 'Teclado Mecánico', 'Teclado RGB', 89.99, 30, 0);
 ALTER SEQUENCE Producto_SEQ RESTART WITH 4;
@@ -0,0 +1,316 @@
+#!/bin/bash
+
+# ============================================================================
+# BARRIDO DEL POOL REACTIVO - ¿DÓNDE SE SATURA EL CLIENTE PG DE VERT.X?
+# ============================================================================
+# Para cada combinación de
+#
+#   max-size (conexiones del pool) × pipelining-limit
+#
+# ejecuta la misma carga (escenarios.js) a varias concurrencias. El servicio
+# se levanta de nuevo en cada escenario, con el esquema recreado y SEMILLA
+# productos: todas las combinaciones miden sobre los mismos datos.
+#
+# Además de throughput y latencia, lee de /q/metrics cuánto esperaron los
+# requests por una conexión libre y cuántas conexiones se usaron:
+#
+#   espera_pool_ms   promedio de sql_pool_queue_delay durante la medición
+#   activas_max      máximo de sql_pool_active (muestreado cada segundo)
+#   cola_max         máximo de sql_pool_queue_size (requests esperando conexión)
+#
+# Cómo leer el resultado: el pool está saturado cuando activas_max = max-size
+# y la espera crece; el punto óptimo es el max-size más chico a partir del
+# cual req/s deja de subir. Si req/s no sube aunque la espera sea ~0, el
+# límite ya no es el pool sino PostgreSQL (o la CPU del servicio).
+#
+# REQUISITOS: los de benchmark.sh (JDK 21, k6, curl, PostgreSQL local o Docker)
+#
+# USO:
+#   ./barrido-pool.sh                       # PostgreSQL local
+#   ./barrido-pool.sh --postgres docker     # PostgreSQL descartable en Docker
+#   ./barrido-pool.sh --sin-build           # reutiliza el jar ya compilado
+#
+# CONFIGURACIÓN (variables de entorno, con sus valores por defecto):
+#   MAX_SIZES="4 8 16 32 64"          conexiones del pool a probar
+#   PIPELINING="1 256"                pipelining-limit a probar
+#   CONCURRENCIAS="50 200 500"        VUs
+#   ESCENARIOS="buscar-por-id crear autocompletar"
+#   DURACION=30s   CALENTAMIENTO=10s  SEMILLA=10000
+#   JAVA_OPTS="-Xms512m -Xmx512m"
+#   REACTIVO_DIR=../../07-productos-reactive-multi/productos-reactive
+#   DB_HOST=localhost DB_PORT=5432 DB_NAME=postgres DB_USER=$USER DB_PASS=
+#
+# ⚠️ max_connections de PostgreSQL (default 100) debe ser mayor que el
+#    max-size más grande del barrido.
+# ============================================================================
+
+set -e
+
+# Colores para output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+BLUE='\033[0;34m'
+CYAN='\033[0;36m'
+NC='\033[0m'
+
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+
+# ----------------------------------------------------------------------------
+# CONFIGURACIÓN
+# ----------------------------------------------------------------------------
+
+POSTGRES_MODO="local"
+BUILD=true
+while [ $# -gt 0 ]; do
+    case "$1" in
+        --postgres)
+            if [ -z "$2" ]; then
+                echo -e "${RED}❌ --postgres requiere un valor: local | docker${NC}"
+                echo "Uso: $0 [--postgres local|docker] [--sin-build]"
+                exit 1
+            fi
+            POSTGRES_MODO="$2"; shift 2 ;;
+        --sin-build) BUILD=false; shift ;;
+        *) echo -e "${RED}❌ Opción desconocida: $1${NC}"; exit 1 ;;
+    esac
+done
+
+MAX_SIZES=${MAX_SIZES:-"4 8 16 32 64"}
+PIPELINING=${PIPELINING:-"1 256"}
+CONCURRENCIAS=${CONCURRENCIAS:-"50 200 500"}
+ESCENARIOS=${ESCENARIOS:-"buscar-por-id crear autocompletar"}
+DURACION=${DURACION:-30s}
+CALENTAMIENTO=${CALENTAMIENTO:-10s}
+SEMILLA=${SEMILLA:-10000}
+JAVA_OPTS=${JAVA_OPTS:-"-Xms512m -Xmx512m"}
+REACTIVO_DIR=${REACTIVO_DIR:-"$SCRIPT_DIR/../../07-productos-reactive-multi/productos-reactive"}
+
+DB_HOST=${DB_HOST:-localhost}
+DB_PORT=${DB_PORT:-5432}
+DB_NAME=${DB_NAME:-postgres}
+DB_USER=${DB_USER:-$USER}
+DB_PASS=${DB_PASS:-}
+
+PUERTO=8080
+BASE_URL="http://localhost:${PUERTO}/api/v1/productos/reactivo"
+METRICAS_URL="http://localhost:${PUERTO}/q/metrics"
+TIMESTAMP=$(date +"%Y%m%d_%H%M%S")
+RESULTADOS_DIR="$SCRIPT_DIR/resultados-pool-${TIMESTAMP}"
+CSV="$RESULTADOS_DIR/barrido-pool.csv"
+DOCKER_CONTAINER="benchmark-pool-postgres-${TIMESTAMP}"
+
+mkdir -p "$RESULTADOS_DIR"
+echo "escenario,max_size,pipelining,vus,requests,rps,avg_ms,p50_ms,p95_ms,p99_ms,errores_pct,espera_pool_ms,activas_max,cola_max" > "$CSV"
+
+echo -e "${CYAN}╔════════════════════════════════════════════════════════════════╗${NC}"
+echo -e "${CYAN}║  BARRIDO DEL POOL REACTIVO (max-size × pipelining-limit)       ║${NC}"
+echo -e "${CYAN}╚════════════════════════════════════════════════════════════════╝${NC}"
+echo ""
+
+for cmd in java k6 curl; do
+    if ! command -v "$cmd" &> /dev/null; then
+        echo -e "${RED}❌ ERROR: '$cmd' no está instalado o no está en el PATH${NC}"
+        exit 1
+    fi
+done
+
+# ----------------------------------------------------------------------------
+# POSTGRESQL
+# ----------------------------------------------------------------------------
+
+limpiar() {
+    [ -n "$APP_PID" ] && kill "$APP_PID" 2>/dev/null || true
+    if [ "$POSTGRES_MODO" = "docker" ]; then
+        docker rm -f "$DOCKER_CONTAINER" > /dev/null 2>&1 || true
+    fi
+}
+trap limpiar EXIT
+
+if [ "$POSTGRES_MODO" = "docker" ]; then
+    echo -e "${YELLOW}🐘 Levantando PostgreSQL descartable en Docker...${NC}"
+    DB_PORT=55433; DB_USER=postgres; DB_PASS=postgres; DB_NAME=postgres; DB_HOST=localhost
+    docker run -d --name "$DOCKER_CONTAINER" -p ${DB_PORT}:5432 \
+        -e POSTGRES_PASSWORD=$DB_PASS postgres:16-alpine -c max_connections=200 > /dev/null
+    for i in $(seq 1 30); do
+        docker exec "$DOCKER_CONTAINER" pg_isready -U postgres > /dev/null 2>&1 && break
+        sleep 1
+    done
+elif [ "$POSTGRES_MODO" != "local" ]; then
+    echo -e "${RED}❌ --postgres debe ser 'local' o 'docker'${NC}"
+    exit 1
+fi
+echo -e "${GREEN}✅ PostgreSQL: ${DB_USER}@${DB_HOST}:${DB_PORT}/${DB_NAME}${NC}"
+echo ""
+
+# Mismas propiedades que benchmark.sh; el índice de stock en memoria se
+# desactiva para que su carga no compita con la medición
+PROPS="-Dquarkus.http.port=${PUERTO} \
+ -Dquarkus.datasource.reactive.url=postgresql://${DB_HOST}:${DB_PORT}/${DB_NAME} \
+ -Dquarkus.datasource.username=${DB_USER} \
+ -Dquarkus.datasource.password=${DB_PASS} \
+ -Dquarkus.hibernate-orm.log.sql=false \
+ -Dquarkus.hibernate-orm.database.generation=drop-and-create \
+ -Dquarkus.hibernate-orm.sql-load-script=no-file \
+ -Dproductos.stock-bajo.indice-memoria=false"
+
+if [ "$BUILD" = true ]; then
+    echo -e "${YELLOW}🔨 Compilando productos-reactive...${NC}"
+    (cd "$REACTIVO_DIR" && ./mvnw -q package -DskipTests) > "$RESULTADOS_DIR/build.log" 2>&1
+fi
+
+# ----------------------------------------------------------------------------
+# MÉTRICAS DEL POOL
+# ----------------------------------------------------------------------------
+
+# Suma de todas las series de una métrica Prometheus (ej. sql_pool_active)
+metrica() {
+    curl -s "$METRICAS_URL" | awk -v m="$1" '
+        index($1, m) == 1 && (substr($1, length(m) + 1, 1) == "{" || length($1) == length(m)) { s += $NF }
+        END { printf "%.6f", s }'
+}
+
+# Cada segundo: conexiones en uso y requests en cola. Se guarda el máximo
+muestrear_pool() {
+    local archivo=$1
+    while true; do
+        echo "$(metrica sql_pool_active) $(metrica sql_pool_queue_size)" >> "$archivo"
+        sleep 1
+    done
+}
+
+# ----------------------------------------------------------------------------
+# BARRIDO
+# ----------------------------------------------------------------------------
+
+correr_k6() {
+    local etiqueta=$1 escenario=$2 vus=$3 duracion=$4 salida=$5
+    BASE_URL="$BASE_URL" SERVICIO="$etiqueta" ESCENARIO="$escenario" VUS="$vus" \
+    DURACION="$duracion" LOTE=1000 SALIDA="$salida" \
+        k6 run --quiet "$SCRIPT_DIR/escenarios.js"
+}
+
+for max_size in $MAX_SIZES; do
+    for pipelining in $PIPELINING; do
+        etiqueta="pool-${max_size}-${pipelining}"
+        echo -e "${BLUE}━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━${NC}"
+        echo -e "${CYAN}🔌 max-size=${max_size}  pipelining-limit=${pipelining}${NC}"
+        echo -e "${BLUE}━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━${NC}"
+
+        for escenario in $ESCENARIOS; do
+            # Reinicio con esquema recreado y semilla nueva en cada escenario:
+            # lo que inserta "crear" no cambia los datos del siguiente
+            # shellcheck disable=SC2086
+            java $JAVA_OPTS $PROPS \
+                -Dquarkus.datasource.reactive.max-size=${max_size} \
+                -Dquarkus.datasource.reactive.postgresql.pipelining-limit=${pipelining} \
+                -jar "$REACTIVO_DIR/target/quarkus-app/quarkus-run.jar" \
+                > "$RESULTADOS_DIR/app-${etiqueta}-${escenario}.log" 2>&1 &
+            APP_PID=$!
+
+            log="$RESULTADOS_DIR/app-${etiqueta}-${escenario}.log"
+            listo=false
+            for i in $(seq 1 60); do
+                if [ "$(curl -s -o /dev/null -w '%{http_code}' "$BASE_URL/stock-bajo/0")" = "200" ]; then
+                    listo=true
+                    break
+                fi
+                if ! kill -0 "$APP_PID" 2>/dev/null; then
+                    echo -e "${RED}❌ El servicio no arrancó. Ver $log${NC}"
+                    exit 1
+                fi
+                sleep 1
+            done
+            if [ "$listo" != true ]; then
+                echo -e "${RED}❌ El servicio no respondió en 60 s. Ver $log${NC}"
+                exit 1
+            fi
+
+            codigo=$(curl -s -o /dev/null -w '%{http_code}' -X POST "$BASE_URL/carga-masiva/${SEMILLA}")
+            if [ "$codigo" != "200" ]; then
+                echo -e "${RED}❌ La semilla de ${SEMILLA} productos respondió HTTP ${codigo}. Ver $log${NC}"
+                exit 1
+            fi
+
+            echo -e "${CYAN}📊 ${escenario}${NC} (${SEMILLA} productos, warm-up ${CALENTAMIENTO})"
+            correr_k6 "$etiqueta" "$escenario" 10 "$CALENTAMIENTO" /dev/null > /dev/null
+
+            for vus in $CONCURRENCIAS; do
+                muestras="$RESULTADOS_DIR/muestras-${etiqueta}-${escenario}-${vus}.txt"
+                fila="$RESULTADOS_DIR/fila.csv"
+                : > "$muestras"
+
+                espera_suma=$(metrica sql_pool_queue_delay_seconds_sum)
+                espera_cuenta=$(metrica sql_pool_queue_delay_seconds_count)
+                muestrear_pool "$muestras" &
+                muestreo_pid=$!
+
+                correr_k6 "$etiqueta" "$escenario" "$vus" "$DURACION" "$fila"
+
+                kill "$muestreo_pid" 2>/dev/null || true
+                wait "$muestreo_pid" 2>/dev/null || true
+
+                espera_ms=$(awk -v s0="$espera_suma" -v c0="$espera_cuenta" \
+                    -v s1="$(metrica sql_pool_queue_delay_seconds_sum)" \
+                    -v c1="$(metrica sql_pool_queue_delay_seconds_count)" \
+                    'BEGIN { printf "%.3f", (c1 > c0) ? (s1 - s0) * 1000 / (c1 - c0) : 0 }')
+                maximos=$(awk 'BEGIN {a=0; q=0} {if ($1>a) a=$1; if ($2>q) q=$2} END {printf "%.0f,%.0f", a, q}' "$muestras")
+
+                # fila de escenarios.js: servicio,escenario,vus,requests,rps,avg,p50,p95,p99,errores
+                awk -F, -v OFS=, -v m="$max_size" -v p="$pipelining" -v e="$espera_ms" -v x="$maximos" \
+                    '{ print $2, m, p, $3, $4, $5, $6, $7, $8, $9, $10, e, x }' "$fila" >> "$CSV"
+                echo "     espera en el pool ${espera_ms} ms · activas/cola máx ${maximos/,/ \/ }"
+            done
+
+            kill "$APP_PID" 2>/dev/null || true
+            wait "$APP_PID" 2>/dev/null || true
+            APP_PID=""
+        done
+        echo ""
+    done
+done
+
+# ----------------------------------------------------------------------------
+# REPORTE
+# ----------------------------------------------------------------------------
+# Una tabla por escenario y concurrencia: una fila por combinación del pool
+
+rm -f "$RESULTADOS_DIR/fila.csv"
+REPORTE="$RESULTADOS_DIR/reporte-pool.md"
+{
+    echo "# 🔌 Barrido del pool reactivo (Vert.x PG client)"
+    echo ""
+    echo "> Generado: $(date '+%Y-%m-%d %H:%M:%S') · Datos: \`$(basename "$CSV")\`"
+    echo ""
+    echo "- **Espera pool**: promedio de \`sql_pool_queue_delay\` (tiempo esperando una conexión libre)"
+    echo "- **Activas máx / Cola máx**: máximos de \`sql_pool_active\` y \`sql_pool_queue_size\`"
+    echo "- Saturado = activas máx igual a max-size y la espera creciendo"
+    echo ""
+    awk -F, '
+        NR == 1 { next }
+        {
+            clave = $1 " @ " $4 " VUs"
+            if (!(clave in visto)) { visto[clave] = 1; orden[++n] = clave }
+            filas[clave] = filas[clave] sprintf("| %s | %s | %s | %s | %s | %s / %s | %s | %s |\n",
+                $2, $3, $6, $10, $12, $13, $2, $14, $11)
+        }
+        END {
+            for (i = 1; i <= n; i++) {
+                print "## " orden[i]
+                print ""
+                print "| max-size | pipelining | req/s | p99 (ms) | Espera pool (ms) | Activas máx / max-size | Cola máx | Errores % |"
+                print "|---------:|-----------:|------:|---------:|-----------------:|-----------------------:|---------:|----------:|"
+                printf "%s", filas[orden[i]]
+                print ""
+            }
+        }
+    ' "$CSV"
+} > "$REPORTE"
+
+echo -e "${CYAN}╔════════════════════════════════════════════════════════════════╗${NC}"
+echo -e "${CYAN}║  BARRIDO COMPLETADO                                            ║${NC}"
+echo -e "${CYAN}╚════════════════════════════════════════════════════════════════╝${NC}"
+echo ""
+echo -e "${GREEN}📄 Datos:   ${CSV}${NC}"
+echo -e "${GREEN}📄 Reporte: ${REPORTE}${NC}"
+echo ""
@@ -0,0 +1,295 @@
+#!/bin/bash
+
+# ============================================================================
+# BENCHMARK REPRODUCIBLE - REACTIVO VS CLÁSICO
+# ============================================================================
+# Ejecuta EXACTAMENTE la misma carga contra productos-clasico y
+# productos-reactive, barriendo la concurrencia, y mide por corrida:
+#
+#   throughput (req/s) · latencia avg/p50/p95/p99 · % errores
+#   threads vivos (máximo) · heap usado (máximo)
+#
+# Cada servicio se compila y se levanta con las MISMAS opciones de JVM, contra
+# la MISMA base de datos, uno a la vez (nunca compiten por CPU). Antes de cada
+# escenario el servicio se reinicia con el esquema recreado y SEMILLA productos
+# sembrados: lo que insertó el escenario anterior no cambia el siguiente. Al final genera el reporte Markdown comparativo.
+#
+# REQUISITOS:
+#   - JDK 21 (java, jcmd, jstat en el PATH)
+#   - k6:    Mac: brew install k6 | Windows: https://dl.k6.io/msi/k6-latest-amd64.msi
+#   - PostgreSQL local (por defecto) o Docker (--postgres docker)
+#
+# USO:
+#   ./benchmark.sh                          # PostgreSQL local, barrido completo
+#   ./benchmark.sh --postgres docker        # PostgreSQL descartable en Docker
+#   ./benchmark.sh --sin-build              # reutiliza los jar ya compilados
+#
+# CONFIGURACIÓN (variables de entorno, con sus valores por defecto):
+#   CONCURRENCIAS="10 50 100 200"     VUs para los escenarios HTTP
+#   CONCURRENCIAS_CARGA="1 4 8"       VUs para carga-masiva (requests pesados)
+#   DURACION=30s   CALENTAMIENTO=10s  medición y warm-up por corrida
+#   SEMILLA=1000                      productos sembrados antes de medir
+#   LOTE=1000                         productos por request en carga-masiva
+#   JAVA_OPTS="-Xms512m -Xmx512m"     mismas opciones de JVM para ambos
+#   ESCENARIOS="buscar-por-id listar crear stock-bajo carga-masiva"
+#   REACTIVO_DIR=../../07-productos-reactive-multi/productos-reactive
+#   CLASICO_DIR=../../03-programacion-clasica-blocking/productos-clasico
+#   DB_HOST=localhost DB_PORT=5432 DB_NAME=postgres DB_USER=$USER DB_PASS=
+# ============================================================================
+
+set -e
+
+# Colores para output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+BLUE='\033[0;34m'
+CYAN='\033[0;36m'
+NC='\033[0m'
+
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+
+# ----------------------------------------------------------------------------
+# CONFIGURACIÓN
+# ----------------------------------------------------------------------------
+
+POSTGRES_MODO="local"
+BUILD=true
+while [ $# -gt 0 ]; do
+    case "$1" in
+        --postgres)
+            if [ -z "$2" ]; then
+                echo -e "${RED}❌ --postgres requiere un valor: local | docker${NC}"
+                echo "Uso: $0 [--postgres local|docker] [--sin-build]"
+                exit 1
+            fi
+            POSTGRES_MODO="$2"; shift 2 ;;
+        --sin-build) BUILD=false; shift ;;
+        *) echo -e "${RED}❌ Opción desconocida: $1${NC}"; exit 1 ;;
+    esac
+done
+
+CONCURRENCIAS=${CONCURRENCIAS:-"10 50 100 200"}
+CONCURRENCIAS_CARGA=${CONCURRENCIAS_CARGA:-"1 4 8"}
+DURACION=${DURACION:-30s}
+CALENTAMIENTO=${CALENTAMIENTO:-10s}
+SEMILLA=${SEMILLA:-1000}
+LOTE=${LOTE:-1000}
+JAVA_OPTS=${JAVA_OPTS:-"-Xms512m -Xmx512m"}
+ESCENARIOS=${ESCENARIOS:-"buscar-por-id listar crear stock-bajo carga-masiva"}
+REACTIVO_DIR=${REACTIVO_DIR:-"$SCRIPT_DIR/../../07-productos-reactive-multi/productos-reactive"}
+CLASICO_DIR=${CLASICO_DIR:-"$SCRIPT_DIR/../../03-programacion-clasica-blocking/productos-clasico"}
+
+DB_HOST=${DB_HOST:-localhost}
+DB_PORT=${DB_PORT:-5432}
+DB_NAME=${DB_NAME:-postgres}
+DB_USER=${DB_USER:-$USER}
+DB_PASS=${DB_PASS:-}
+
+PUERTO=8080
+TIMESTAMP=$(date +"%Y%m%d_%H%M%S")
+RESULTADOS_DIR="$SCRIPT_DIR/resultados-${TIMESTAMP}"
+CSV="$RESULTADOS_DIR/resultados.csv"
+DOCKER_CONTAINER="benchmark-postgres-${TIMESTAMP}"
+
+mkdir -p "$RESULTADOS_DIR"
+echo "servicio,escenario,vus,requests,rps,avg_ms,p50_ms,p95_ms,p99_ms,errores_pct,threads_max,heap_max_mb" > "$CSV"
+
+# ----------------------------------------------------------------------------
+# VERIFICACIONES
+# ----------------------------------------------------------------------------
+
+echo -e "${CYAN}╔════════════════════════════════════════════════════════════════╗${NC}"
+echo -e "${CYAN}║  BENCHMARK REPRODUCIBLE - REACTIVO VS CLÁSICO                  ║${NC}"
+echo -e "${CYAN}╚════════════════════════════════════════════════════════════════╝${NC}"
+echo ""
+
+for cmd in java jcmd jstat k6 curl; do
+    if ! command -v "$cmd" &> /dev/null; then
+        echo -e "${RED}❌ ERROR: '$cmd' no está instalado o no está en el PATH${NC}"
+        exit 1
+    fi
+done
+echo -e "${GREEN}✅ Herramientas OK ($(k6 version 2>&1 | head -1))${NC}"
+
+# ----------------------------------------------------------------------------
+# POSTGRESQL
+# ----------------------------------------------------------------------------
+
+limpiar() {
+    [ -n "$APP_PID" ] && kill "$APP_PID" 2>/dev/null || true
+    if [ "$POSTGRES_MODO" = "docker" ]; then
+        docker rm -f "$DOCKER_CONTAINER" > /dev/null 2>&1 || true
+    fi
+}
+trap limpiar EXIT
+
+if [ "$POSTGRES_MODO" = "docker" ]; then
+    echo -e "${YELLOW}🐘 Levantando PostgreSQL descartable en Docker...${NC}"
+    DB_PORT=55432; DB_USER=postgres; DB_PASS=postgres; DB_NAME=postgres; DB_HOST=localhost
+    docker run -d --name "$DOCKER_CONTAINER" -p ${DB_PORT}:5432 \
+        -e POSTGRES_PASSWORD=$DB_PASS postgres:16-alpine > /dev/null
+    for i in $(seq 1 30); do
+        docker exec "$DOCKER_CONTAINER" pg_isready -U postgres > /dev/null 2>&1 && break
+        sleep 1
+    done
+elif [ "$POSTGRES_MODO" != "local" ]; then
+    echo -e "${RED}❌ --postgres debe ser 'local' o 'docker'${NC}"
+    exit 1
+fi
+echo -e "${GREEN}✅ PostgreSQL: ${DB_USER}@${DB_HOST}:${DB_PORT}/${DB_NAME}${NC}"
+echo ""
+
+# Mismas propiedades para ambos: sin log de SQL (distorsiona la medición),
+# esquema recreado en cada arranque y sin script de datos (se siembra por API)
+PROPS_COMUNES="-Dquarkus.http.port=${PUERTO} \
+ -Dquarkus.datasource.username=${DB_USER} \
+ -Dquarkus.datasource.password=${DB_PASS} \
+ -Dquarkus.hibernate-orm.log.sql=false \
+ -Dquarkus.hibernate-orm.database.generation=drop-and-create \
+ -Dquarkus.hibernate-orm.sql-load-script=no-file"
+PROPS_CLASICO="-Dquarkus.datasource.jdbc.url=jdbc:postgresql://${DB_HOST}:${DB_PORT}/${DB_NAME}"
+# Sin el índice de stock bajo en memoria: el clásico no lo tiene y
+# "stock-bajo" debe comparar la misma query contra PostgreSQL en ambos
+PROPS_REACTIVO="-Dquarkus.datasource.reactive.url=postgresql://${DB_HOST}:${DB_PORT}/${DB_NAME} \
+ -Dproductos.stock-bajo.indice-memoria=false"
+
+# ----------------------------------------------------------------------------
+# MUESTREO DE THREADS Y HEAP
+# ----------------------------------------------------------------------------
+# Cada segundo, mientras corre k6: threads vivos (PerfCounter) y heap usado
+# (suma de S0U+S1U+EU+OU de jstat, en KB). Se guarda el máximo.
+
+muestrear() {
+    local pid=$1 archivo=$2
+    while kill -0 "$pid" 2>/dev/null; do
+        local threads heap
+        threads=$(jcmd "$pid" PerfCounter.print 2>/dev/null | grep "java.threads.live=" | cut -d= -f2)
+        heap=$(jstat -gc "$pid" 2>/dev/null | awk 'NR==2 {printf "%.0f", ($3+$4+$6+$8)/1024}')
+        echo "${threads:-0} ${heap:-0}" >> "$archivo"
+        sleep 1
+    done
+}
+
+maximos() {
+    awk 'BEGIN {t=0; h=0} {if ($1>t) t=$1; if ($2>h) h=$2} END {print t "," h}' "$1"
+}
+
+# ----------------------------------------------------------------------------
+# EJECUCIÓN POR SERVICIO
+# ----------------------------------------------------------------------------
+
+correr_k6() {
+    local base_url=$1 servicio=$2 escenario=$3 vus=$4 duracion=$5 salida=$6
+    BASE_URL="$base_url" SERVICIO="$servicio" ESCENARIO="$escenario" VUS="$vus" \
+    DURACION="$duracion" LOTE="$LOTE" SALIDA="$salida" \
+        k6 run --quiet "$SCRIPT_DIR/escenarios.js"
+}
+
+# Levanta el servicio con el esquema recién creado (drop-and-create) y siembra
+# SEMILLA productos. Se llama antes de CADA escenario: lo que insertan "crear"
+# o "carga-masiva" no llega al siguiente, y ambos servicios miden cada
+# escenario sobre el mismo volumen de datos
+levantar_servicio() {
+    local servicio=$1 dir=$2 base_url=$3 props=$4 escenario=$5
+
+    # shellcheck disable=SC2086
+    java $JAVA_OPTS $PROPS_COMUNES $props -jar "$dir/target/quarkus-app/quarkus-run.jar" \
+        > "$RESULTADOS_DIR/app-${servicio}-${escenario}.log" 2>&1 &
+    APP_PID=$!
+
+    local log="$RESULTADOS_DIR/app-${servicio}-${escenario}.log"
+    local listo=false
+    for i in $(seq 1 60); do
+        if [ "$(curl -s -o /dev/null -w '%{http_code}' "$base_url/stock-bajo/0")" = "200" ]; then
+            listo=true
+            break
+        fi
+        if ! kill -0 "$APP_PID" 2>/dev/null; then
+            echo -e "${RED}❌ El servicio no arrancó. Ver $log${NC}"
+            exit 1
+        fi
+        sleep 1
+    done
+    if [ "$listo" != true ]; then
+        echo -e "${RED}❌ ${servicio} no respondió en 60 s. Ver $log${NC}"
+        exit 1
+    fi
+
+    # Sin semilla completa los números no son comparables: se corta la corrida
+    local codigo
+    codigo=$(curl -s -o /dev/null -w '%{http_code}' -X POST -H "Content-Type: application/json" \
+        "$base_url/carga-masiva/${SEMILLA}")
+    if [ "$codigo" != "200" ]; then
+        echo -e "${RED}❌ La semilla de ${SEMILLA} productos respondió HTTP ${codigo}. Ver $log${NC}"
+        exit 1
+    fi
+}
+
+detener_servicio() {
+    kill "$APP_PID" 2>/dev/null || true
+    wait "$APP_PID" 2>/dev/null || true
+    APP_PID=""
+}
+
+benchmark_servicio() {
+    local servicio=$1 dir=$2 ruta=$3 props=$4
+    local base_url="http://localhost:${PUERTO}${ruta}"
+
+    echo -e "${BLUE}━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━${NC}"
+    echo -e "${CYAN}📦 SERVICIO: ${servicio}${NC}  (${dir})"
+    echo -e "${BLUE}━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━${NC}"
+
+    if [ "$BUILD" = true ]; then
+        echo -e "${YELLOW}🔨 Compilando...${NC}"
+        (cd "$dir" && ./mvnw -q package -DskipTests) > "$RESULTADOS_DIR/build-${servicio}.log" 2>&1
+    fi
+
+    for escenario in $ESCENARIOS; do
+        local concurrencias=$CONCURRENCIAS
+        [ "$escenario" = "carga-masiva" ] && concurrencias=$CONCURRENCIAS_CARGA
+
+        echo -e "${YELLOW}🚀 Levantando (${JAVA_OPTS}) y sembrando ${SEMILLA} productos...${NC}"
+        levantar_servicio "$servicio" "$dir" "$base_url" "$props" "$escenario"
+
+        echo -e "${CYAN}📊 ${escenario}${NC} (warm-up ${CALENTAMIENTO})"
+        correr_k6 "$base_url" "$servicio" "$escenario" 10 "$CALENTAMIENTO" /dev/null > /dev/null
+
+        for vus in $concurrencias; do
+            local muestras="$RESULTADOS_DIR/muestras-${servicio}-${escenario}-${vus}.txt"
+            local fila="$RESULTADOS_DIR/fila.csv"
+            : > "$muestras"
+            muestrear "$APP_PID" "$muestras" &
+            local muestreo_pid=$!
+
+            correr_k6 "$base_url" "$servicio" "$escenario" "$vus" "$DURACION" "$fila"
+
+            kill "$muestreo_pid" 2>/dev/null || true
+            wait "$muestreo_pid" 2>/dev/null || true
+            echo "$(tr -d '\n' < "$fila"),$(maximos "$muestras")" >> "$CSV"
+        done
+
+        detener_servicio
+    done
+
+    echo -e "${GREEN}✅ ${servicio} completado${NC}"
+    echo ""
+}
+
+benchmark_servicio "clasico" "$CLASICO_DIR" "/api/v1/productos/clasico" "$PROPS_CLASICO"
+benchmark_servicio "reactivo" "$REACTIVO_DIR" "/api/v1/productos/reactivo" "$PROPS_REACTIVO"
+
+# ----------------------------------------------------------------------------
+# REPORTE
+# ----------------------------------------------------------------------------
+
+rm -f "$RESULTADOS_DIR/fila.csv"
+"$SCRIPT_DIR/generar-reporte.sh" "$CSV" "$RESULTADOS_DIR/reporte.md"
+
+echo -e "${CYAN}╔════════════════════════════════════════════════════════════════╗${NC}"
+echo -e "${CYAN}║  BENCHMARK COMPLETADO                                          ║${NC}"
+echo -e "${CYAN}╚════════════════════════════════════════════════════════════════╝${NC}"
+echo ""
+echo -e "${GREEN}📄 Datos:   ${CSV}${NC}"
+echo -e "${GREEN}📄 Reporte: ${RESULTADOS_DIR}/reporte.md${NC}"
+echo ""
@@ -0,0 +1,120 @@
+// ============================================================================
+// CONTENCIÓN - N ESCRITORES EN PARALELO SOBRE EL MISMO PRODUCTO
+// ============================================================================
+// Cada iteración suma 1 al stock del mismo producto. Al final compara cuántas
+// escrituras respondieron 200 con el stock final:
+//
+//   MODO=if-match      GET + PUT con If-Match. El que pierde la carrera recibe
+//                      412, vuelve a leer y reintenta: NINGÚN incremento se pierde.
+//   MODO=sin-if-match  GET + PUT sin condición: el último en escribir gana. El
+//                      stock lo calculó el cliente sobre un dato que pudo quedar
+//                      viejo: incrementos perdidos = PUT 200 - stock final. Un
+//                      choque en el mismo instante responde 409 (sin reintento).
+//   MODO=delta         POST /{id}/stock {"delta": 1}, sin leer antes. El servidor
+//                      suma sobre el valor vigente: NINGÚN incremento se pierde
+//                      y el cliente no reintenta.
+//
+// USO (con el servicio levantado):
+//   k6 run -e BASE_URL=http://localhost:8080/api/v1/productos/reactivo contencion.js
+//   k6 run -e BASE_URL=http://localhost:8080/api/v1/productos/clasico \
+//          -e MODO=sin-if-match -e VUS=100 -e ITERACIONES=2000 contencion.js
+//   k6 run -e BASE_URL=http://localhost:8080/api/v1/productos/reactivo -e MODO=delta contencion.js
+// ============================================================================
+
+import http from 'k6/http';
+import { Counter, Gauge } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL;
+const MODO = __ENV.MODO || 'if-match';
+const INTENTOS_MAXIMOS = 50;
+const JSON_HEADERS = { 'Content-Type': 'application/json', 'Accept': 'application/json' };
+
+const putOk = new Counter('put_200');
+const put412 = new Counter('put_412');
+const put409 = new Counter('put_409');
+const incrementosFallidos = new Counter('incrementos_fallidos');
+const stockFinal = new Gauge('stock_final');
+
+export const options = {
+    vus: Number(__ENV.VUS || 100),
+    iterations: Number(__ENV.ITERACIONES || 1000),
+    summaryTrendStats: ['avg', 'med', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    const body = JSON.stringify({ nombre: 'Contención', descripcion: 'Producto disputado', precio: 10, stock: 0 });
+    const res = http.post(BASE_URL, body, { headers: JSON_HEADERS });
+    if (res.status !== 201) {
+        throw new Error(`No se pudo crear el producto (${res.status}) en ${BASE_URL}`);
+    }
+    return { id: res.json().id };
+}
+
+export default function (datos) {
+    const url = `${BASE_URL}/${datos.id}`;
+    if (MODO === 'delta') {
+        const res = http.post(`${url}/stock`, JSON.stringify({ delta: 1 }), {
+            headers: JSON_HEADERS,
+            responseCallback: http.expectedStatuses(200, 409),
+        });
+        if (res.status === 200) {
+            putOk.add(1);
+            return;
+        }
+        put409.add(1);
+        incrementosFallidos.add(1);
+        return;
+    }
+    for (let intento = 1; intento <= INTENTOS_MAXIMOS; intento++) {
+        const leido = http.get(url, { headers: JSON_HEADERS });
+        const producto = leido.json();
+        producto.stock += 1;
+
+        const headers = Object.assign({}, JSON_HEADERS);
+        if (MODO === 'if-match') {
+            headers['If-Match'] = leido.headers['Etag'];
+        }
+        const res = http.put(url, JSON.stringify(producto), {
+            headers: headers,
+            responseCallback: http.expectedStatuses(200, 409, 412),
+        });
+
+        if (res.status === 200) {
+            putOk.add(1);
+            return;
+        }
+        if (res.status === 412) {
+            put412.add(1);
+        } else if (res.status === 409) {
+            put409.add(1);
+        }
+        if (MODO !== 'if-match') {
+            break;
+        }
+    }
+    incrementosFallidos.add(1);
+}
+
+export function teardown(datos) {
+    stockFinal.add(http.get(`${BASE_URL}/${datos.id}`, { headers: JSON_HEADERS }).json().stock);
+}
+
+export function handleSummary(data) {
+    const valor = (nombre, campo) => (data.metrics[nombre] ? data.metrics[nombre].values[campo] : 0);
+    const exitosos = valor('put_200', 'count');
+    const stock = valor('stock_final', 'value');
+    const duracion = data.metrics.http_req_duration.values;
+    const texto = [
+        '',
+        `  Modo: ${MODO} · ${options.vus} escritores · ${options.iterations} incrementos`,
+        `  Escrituras 200:        ${exitosos}`,
+        `  412 (If-Match):        ${valor('put_412', 'count')}`,
+        `  409 (conflicto):       ${valor('put_409', 'count')}`,
+        `  Incrementos fallidos:  ${valor('incrementos_fallidos', 'count')}`,
+        `  Stock final:           ${stock}`,
+        `  Incrementos perdidos:  ${exitosos - stock}`,
+        `  Latencia p95 / p99:    ${duracion['p(95)'].toFixed(1)} / ${duracion['p(99)'].toFixed(1)} ms`,
+        '',
+    ].join('\n');
+    return { stdout: texto };
+}
@@ -0,0 +1,92 @@
+// ============================================================================
+// ESCENARIOS k6 - MISMA CARGA PARA productos-clasico Y productos-reactive
+// ============================================================================
+// Lo ejecutan benchmark.sh y barrido-pool.sh (no se usa solo). Variables de entorno:
+//
+//   BASE_URL   http://localhost:8080/api/v1/productos/clasico | .../reactivo
+//   ESCENARIO  buscar-por-id | listar | crear | stock-bajo | carga-masiva | autocompletar
+//   SERVICIO   clasico | reactivo | ... (solo para la fila de resultados)
+//   VUS        usuarios virtuales concurrentes
+//   DURACION   duración de la medición (ej. 30s)
+//   LOTE       productos por request en carga-masiva
+//   SALIDA     archivo donde se escribe la fila CSV del resultado
+// ============================================================================
+
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL;
+const ESCENARIO = __ENV.ESCENARIO;
+const LOTE = __ENV.LOTE || '1000';
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json', 'Accept': 'application/json' } };
+
+export const options = {
+    vus: Number(__ENV.VUS || 10),
+    duration: __ENV.DURACION || '30s',
+    summaryTrendStats: ['avg', 'med', 'p(95)', 'p(99)', 'max'],
+    // carga-masiva puede tardar varios segundos por request
+    setupTimeout: '120s',
+};
+
+// IDs reales de la tabla: los dos servicios se siembran igual, pero los IDs
+// dependen de la secuencia, así que se leen en lugar de suponerlos
+export function setup() {
+    if (ESCENARIO !== 'buscar-por-id') {
+        return { ids: [] };
+    }
+    const res = http.get(BASE_URL, JSON_HEADERS);
+    const ids = res.json().map(p => p.id);
+    if (ids.length === 0) {
+        throw new Error('No hay productos sembrados en ' + BASE_URL);
+    }
+    return { ids: ids };
+}
+
+const ESCENARIOS = {
+    'buscar-por-id': (datos) => {
+        const id = datos.ids[Math.floor(Math.random() * datos.ids.length)];
+        return [http.get(`${BASE_URL}/${id}`, JSON_HEADERS), 200];
+    },
+    'listar': () => [http.get(BASE_URL, JSON_HEADERS), 200],
+    'crear': () => {
+        const body = JSON.stringify({
+            nombre: `Benchmark ${__VU}-${__ITER}`,
+            descripcion: 'Creado por el benchmark',
+            precio: 10 + Math.random() * 990,
+            stock: Math.floor(Math.random() * 100),
+        });
+        return [http.post(BASE_URL, body, JSON_HEADERS), 201];
+    },
+    'stock-bajo': () => [http.get(`${BASE_URL}/stock-bajo/10`, JSON_HEADERS), 200],
+    'carga-masiva': () => [http.post(`${BASE_URL}/carga-masiva/${LOTE}`, null, JSON_HEADERS), 200],
+    // Query directa al pool (sin sesión de Hibernate): la que aprovecha el pipelining
+    'autocompletar': () => [http.get(`${BASE_URL}/autocompletar?prefijo=producto%20masivo%20${__ITER % 10}`, JSON_HEADERS), 200],
+};
+
+export default function (datos) {
+    const [res, esperado] = ESCENARIOS[ESCENARIO](datos);
+    check(res, { [`status ${esperado}`]: (r) => r.status === esperado });
+}
+
+// Una fila CSV por corrida:
+// servicio,escenario,vus,requests,rps,avg_ms,p50_ms,p95_ms,p99_ms,errores_pct
+export function handleSummary(data) {
+    const m = data.metrics;
+    const d = m.http_req_duration.values;
+    const fila = [
+        __ENV.SERVICIO,
+        ESCENARIO,
+        options.vus,
+        m.http_reqs.values.count,
+        m.http_reqs.values.rate.toFixed(1),
+        d.avg.toFixed(2),
+        d.med.toFixed(2),
+        d['p(95)'].toFixed(2),
+        d['p(99)'].toFixed(2),
+        (m.http_req_failed.values.rate * 100).toFixed(2),
+    ].join(',');
+    return {
+        [__ENV.SALIDA]: fila + '\n',
+        stdout: `  ${ESCENARIO} @ ${options.vus} VUs → ${fila.split(',')[4]} req/s, p99 ${fila.split(',')[8]} ms\n`,
+    };
+}
@@ -0,0 +1,88 @@
+#!/bin/bash
+
+# ============================================================================
+# GENERADOR DE REPORTE - BENCHMARK REACTIVO VS CLÁSICO
+# ============================================================================
+# Convierte el CSV de benchmark.sh en un reporte Markdown con una tabla por
+# escenario (una fila por nivel de concurrencia, clásico y reactivo lado a
+# lado). Se puede volver a ejecutar sobre un CSV ya generado:
+#
+#   ./generar-reporte.sh resultados-20251203_113012/resultados.csv
+#   ./generar-reporte.sh resultados.csv reporte.md
+# ============================================================================
+
+set -e
+
+CSV=$1
+SALIDA=${2:-"$(dirname "$CSV")/reporte.md"}
+
+if [ -z "$CSV" ] || [ ! -f "$CSV" ]; then
+    echo "Uso: $0 <resultados.csv> [reporte.md]"
+    exit 1
+fi
+
+{
+    echo "# 📊 Benchmark: Reactivo vs Clásico"
+    echo ""
+    echo "> Generado: $(date '+%Y-%m-%d %H:%M:%S') · Datos: \`$(basename "$CSV")\`"
+    echo ""
+    echo "Misma carga (k6), misma JVM, misma base de datos y mismo volumen sembrado"
+    echo "para ambos servicios, ejecutados uno a la vez."
+    echo ""
+    echo "- **req/s**: throughput sostenido durante la medición"
+    echo "- **p99**: el 99% de los requests respondió en menos de este tiempo"
+    echo "- **Threads**: máximo de threads vivos en la JVM durante la corrida"
+    echo "- **Heap**: máximo de heap usado (MB) durante la corrida"
+    echo ""
+
+    awk -F, '
+        NR == 1 { next }
+        {
+            clave = $2 SUBSEP $3
+            if (!(($2) in visto)) { visto[$2] = 1; orden[++n] = $2 }
+            if (!(clave in vusVisto)) { vusVisto[clave] = 1; vus[$2, ++nv[$2]] = $3 }
+            rps[$1, clave] = $5;  p99[$1, clave] = $9;  err[$1, clave] = $10
+            thr[$1, clave] = $11; heap[$1, clave] = $12
+        }
+        function delta(r, c) {
+            if (c == "" || r == "" || c + 0 == 0) return "-"
+            return sprintf("%+.0f%%", (r - c) * 100 / c)
+        }
+        function v(x) { return x == "" ? "-" : x }
+        END {
+            for (i = 1; i <= n; i++) {
+                e = orden[i]
+                print "## " e
+                print ""
+                print "| VUs | req/s clásico | req/s reactivo | Δ req/s | p99 clásico (ms) | p99 reactivo (ms) | Threads C / R | Heap MB C / R | Errores % C / R |"
+                print "|----:|--------------:|---------------:|--------:|-----------------:|------------------:|--------------:|--------------:|----------------:|"
+                for (j = 1; j <= nv[e]; j++) {
+                    k = e SUBSEP vus[e, j]
+                    printf "| %s | %s | %s | %s | %s | %s | %s / %s | %s / %s | %s / %s |\n",
+                        vus[e, j],
+                        v(rps["clasico", k]), v(rps["reactivo", k]),
+                        delta(rps["reactivo", k], rps["clasico", k]),
+                        v(p99["clasico", k]), v(p99["reactivo", k]),
+                        v(thr["clasico", k]), v(thr["reactivo", k]),
+                        v(heap["clasico", k]), v(heap["reactivo", k]),
+                        v(err["clasico", k]), v(err["reactivo", k])
+                }
+                print ""
+            }
+        }
+    ' "$CSV"
+
+    echo "---"
+    echo ""
+    echo "## 🔍 Cómo leer el reporte"
+    echo ""
+    echo "- Si el throughput deja de subir al aumentar los VUs, el servicio está saturado:"
+    echo "  compara en qué concurrencia satura cada uno."
+    echo "- El p99 del clásico sube en escalón cuando los requests superan el pool de"
+    echo "  threads (esperan en cola); el reactivo mantiene pocos threads (event loop)."
+    echo "- Errores > 0% invalidan la fila: revisar \`app-*.log\` en la carpeta de resultados."
+    echo "- En \`carga-masiva\` el cuello de botella es PostgreSQL, no el modelo de threads:"
+    echo "  diferencias pequeñas son lo esperado."
+} > "$SALIDA"
+
+echo "📄 Reporte generado: $SALIDA"
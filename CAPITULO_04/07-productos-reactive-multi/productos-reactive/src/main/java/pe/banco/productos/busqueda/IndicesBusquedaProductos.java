@@ -0,0 +1,112 @@
+package pe.banco.productos.busqueda;
+
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+
+/**
+ * Crea al arrancar los índices que usan la búsqueda y el autocompletado por nombre.
+ * <p>
+ * Hibernate no sabe crear extensiones ni índices sobre expresiones, así que se
+ * crean aquí con {@code IF NOT EXISTS}:
+ * </p>
+ *
+ * <pre>
+ * ┌─────────────────────────────┬──────────────────────────────────────────┐
+ * │ Índice                      │ Sirve para                               │
+ * ├─────────────────────────────┼──────────────────────────────────────────┤
+ * │ idx_producto_nombre_trgm    │ lower(nombre) LIKE '%lap%'  (GIN trigram)│
+ * ├─────────────────────────────┼──────────────────────────────────────────┤
+ * │ idx_producto_nombre_prefijo │ lower(nombre) COLLATE "C" &gt;= 'lap'       │
+ * │ (lower(nombre) COLLATE "C") │ AND ... &lt; 'laq' ORDER BY ... LIMIT 10:   │
+ * │                             │ recorre el rango ya ordenado y se        │
+ * │                             │ detiene en la fila 10 (ver TextoBusqueda)│
+ * └─────────────────────────────┴──────────────────────────────────────────┘
+ * </pre>
+ *
+ * <p>{@code CONCURRENTLY}: con un millón de productos no se bloquean las escrituras
+ * mientras se construyen. Cada sentencia va suelta por el pool (autocommit).
+ * Si un arranque anterior se cortó a mitad del build, el índice quedó INVALID
+ * ({@code pg_index.indisvalid = false}): se borra y se vuelve a crear.</p>
+ *
+ * <p>Si el usuario de BD no puede crear extensiones, desactivar con
+ * {@code productos.busqueda.crear-indices=false} y que el DBA ejecute el SQL.</p>
+ */
+@ApplicationScoped
+public class IndicesBusquedaProductos {
+
+    private static final Logger LOG = Logger.getLogger(IndicesBusquedaProductos.class);
+
+    static final String EXTENSION = "CREATE EXTENSION IF NOT EXISTS pg_trgm";
+
+    static final List<Indice> INDICES = List.of(
+            new Indice("idx_producto_nombre_trgm",
+                    "ON Producto USING gin (lower(nombre) gin_trgm_ops)"),
+            new Indice("idx_producto_nombre_prefijo",
+                    "ON Producto ((lower(nombre) COLLATE \"C\"), id)"));
+
+    /**
+     * Un CREATE INDEX CONCURRENTLY que falla a medias (cancelado, timeout, la app
+     * se cae) deja el índice creado pero INVALID: no se usa en las consultas e
+     * IF NOT EXISTS lo saltaría en cada arranque. Si está así, se borra y se recrea.
+     */
+    static final String INVALIDO =
+            "SELECT 1 FROM pg_index WHERE indexrelid = to_regclass($1) AND NOT indisvalid";
+
+    @Inject
+    Pool pool;
+
+    @ConfigProperty(name = "productos.busqueda.crear-indices", defaultValue = "true")
+    boolean crearIndices;
+
+    void alIniciar(@Observes StartupEvent evento) {
+        if (!crearIndices) {
+            return;
+        }
+        pool.query(EXTENSION).execute()
+                .onItem().transformToMulti(ok -> Multi.createFrom().iterable(INDICES))
+                .onItem().transformToUniAndConcatenate(this::crear)
+                .collect().last()
+                .subscribe().with(
+                        ok -> LOG.info("🔎 Índices de búsqueda de productos listos (pg_trgm)"),
+                        // La app funciona igual; la búsqueda será un seq scan
+                        error -> LOG.warnf("⚠️ No se pudieron crear los índices de búsqueda: %s", error.getMessage()));
+    }
+
+    private Uni<Void> crear(Indice indice) {
+        return pool.preparedQuery(INVALIDO).execute(Tuple.of(indice.nombre()))
+                .chain(filas -> {
+                    if (filas.size() == 0) {
+                        return Uni.createFrom().voidItem();
+                    }
+                    LOG.warnf("🧹 Índice %s inválido (quedó de un build interrumpido): se recrea", indice.nombre());
+                    return pool.query(indice.borrar()).execute().replaceWithVoid();
+                })
+                .chain(() -> pool.query(indice.crear()).execute())
+                .replaceWithVoid();
+    }
+
+    /**
+     * Un índice de búsqueda: nombre y lo que va después de
+     * {@code CREATE INDEX CONCURRENTLY IF NOT EXISTS <nombre>}.
+     */
+    record Indice(String nombre, String definicion) {
+
+        String crear() {
+            return "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + nombre + " " + definicion;
+        }
+
+        String borrar() {
+            return "DROP INDEX CONCURRENTLY IF EXISTS " + nombre;
+        }
+    }
+}
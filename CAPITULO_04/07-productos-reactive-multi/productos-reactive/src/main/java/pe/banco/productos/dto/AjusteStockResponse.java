@@ -0,0 +1,68 @@
+package pe.banco.productos.dto;
+
+/**
+ * Resultado de un ajuste de stock.
+ * <p>
+ * Si el ajuste viajó a la base de datos junto con otros del mismo producto
+ * (ver {@code AgrupadorStock}), todos reciben el mismo {@code stock} y
+ * {@code version} finales, y {@code agrupados} indica cuántos compartieron el UPDATE.
+ * </p>
+ *
+ * <p><strong>Ejemplo de respuesta:</strong></p>
+ * <pre>{@code
+ * {
+ *   "id": 7,
+ *   "estado": "APLICADO",
+ *   "stock": 118,
+ *   "version": 42,
+ *   "agrupados": 12
+ * }
+ * }</pre>
+ *
+ * @author Curso Quarkus
+ * @version 1.0
+ */
+public class AjusteStockResponse {
+
+    public enum Estado {
+        APLICADO,
+        NO_ENCONTRADO,
+        /** El stock quedaría negativo: el ajuste no se aplicó */
+        STOCK_INSUFICIENTE
+    }
+
+    public final Long id;
+
+    public final Estado estado;
+
+    /**
+     * Stock después del UPDATE (null si no se aplicó).
+     */
+    public final Integer stock;
+
+    /**
+     * Versión del producto después del UPDATE (null si no se aplicó).
+     */
+    public final Long version;
+
+    /**
+     * Ajustes resueltos con el mismo UPDATE.
+     */
+    public final int agrupados;
+
+    private AjusteStockResponse(Long id, Estado estado, Integer stock, Long version, int agrupados) {
+        this.id = id;
+        this.estado = estado;
+        this.stock = stock;
+        this.version = version;
+        this.agrupados = agrupados;
+    }
+
+    public static AjusteStockResponse aplicado(Long id, Integer stock, Long version, int agrupados) {
+        return new AjusteStockResponse(id, Estado.APLICADO, stock, version, agrupados);
+    }
+
+    public static AjusteStockResponse rechazado(Long id, Estado estado) {
+        return new AjusteStockResponse(id, estado, null, null, 1);
+    }
+}
@@ -0,0 +1,31 @@
+package pe.banco.productos.dto;
+
+/**
+ * Vista mínima de un producto para reposición de inventario: ID, nombre, stock y versión.
+ * <p>
+ * Se usa como proyección ({@code project(StockProductoDTO.class)}): la query trae
+ * solo estas columnas en lugar de la entidad completa, y es también la entrada
+ * que guarda el índice en memoria de stock bajo. La versión le permite al índice
+ * descartar datos más viejos que los que ya tiene.
+ * </p>
+ *
+ * @author Curso Quarkus
+ * @version 1.0
+ */
+public class StockProductoDTO {
+
+    public final Long id;
+
+    public final String nombre;
+
+    public final Integer stock;
+
+    public final Long version;
+
+    public StockProductoDTO(Long id, String nombre, Integer stock, Long version) {
+        this.id = id;
+        this.nombre = nombre;
+        this.stock = stock;
+        this.version = version;
+    }
+}
@@ -0,0 +1,219 @@
+package pe.banco.productos.inventario;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowIterator;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import pe.banco.productos.dto.AjusteStockResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Agrupa los ajustes de stock concurrentes de un mismo producto en un solo UPDATE.
+ * <p>
+ * Un producto popular recibe muchos ajustes por segundo ("-1", "-2", "+50"...).
+ * En lugar de una escritura por ajuste, los que llegan dentro de una ventana
+ * corta ({@code productos.stock.ventana}) se suman y viajan juntos:
+ * </p>
+ *
+ * <pre>
+ * t=0ms   -1 ─┐
+ * t=1ms   -2 ─┤  ventana 5 ms            UPDATE Producto
+ * t=3ms   +1 ─┼───────────────────────▶  SET stock = stock + (-4)   ──▶ stock=96
+ * t=4ms   -2 ─┘  (un lote por producto)   ... RETURNING stock            │
+ *                                                                        ▼
+ *                             los 4 Uni se completan con stock=96, agrupados=4
+ * </pre>
+ *
+ * <p><strong>Garantías:</strong></p>
+ * <ul>
+ *   <li>El UPDATE es relativo ({@code stock = stock + delta}) y atómico: sirve con
+ *       varias instancias del servicio sin coordinación entre ellas</li>
+ *   <li>Nunca deja stock negativo ({@code WHERE stock + delta >= 0}). Si la suma del
+ *       lote no entra, cada ajuste se reintenta por separado en orden de llegada y
+ *       solo fallan los que no alcanzan</li>
+ *   <li>Incrementa {@code version}: los ETag y el bloqueo optimista de los PUT
+ *       siguen siendo correctos, y el trigger LISTEN/NOTIFY avisa del cambio</li>
+ * </ul>
+ *
+ * <p>Desactivado ({@code productos.stock.agrupar=false}, por defecto) cada ajuste
+ * hace su propio UPDATE inmediato: mismo resultado, sin la espera de la ventana.</p>
+ */
+@ApplicationScoped
+public class AgrupadorStock {
+
+    private static final Logger LOG = Logger.getLogger(AgrupadorStock.class);
+
+    private static final String AJUSTAR = """
+            UPDATE Producto SET stock = stock + $1, version = version + 1
+            WHERE id = $2 AND stock + $1 >= 0
+            RETURNING stock, version
+            """;
+
+    private static final String EXISTE = "SELECT 1 FROM Producto WHERE id = $1";
+
+    private final Map<Long, Lote> pendientes = new ConcurrentHashMap<>();
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    Pool pool;
+
+    @ConfigProperty(name = "productos.stock.agrupar", defaultValue = "false")
+    boolean habilitado;
+
+    /**
+     * Cuánto espera el primer ajuste de un lote a que lleguen otros.
+     */
+    @ConfigProperty(name = "productos.stock.ventana", defaultValue = "5ms")
+    Duration ventana;
+
+    /**
+     * Con este número de ajustes el lote se envía sin esperar la ventana.
+     */
+    @ConfigProperty(name = "productos.stock.max-agrupados", defaultValue = "200")
+    int maxAgrupados;
+
+    /**
+     * Suma {@code delta} al stock del producto.
+     *
+     * @param id ID del producto
+     * @param delta Unidades a sumar (negativo para descontar)
+     * @return {@link Uni} con el stock resultante del UPDATE que incluyó este ajuste
+     */
+    public Uni<AjusteStockResponse> ajustar(Long id, int delta) {
+        if (!habilitado) {
+            return ajustarUno(id, delta);
+        }
+        return Uni.createFrom().emitter(emisor -> {
+            Ajuste ajuste = new Ajuste(delta, emisor);
+            boolean[] primero = {false};
+            boolean[] lleno = {false};
+            Lote lote = pendientes.compute(id, (k, actual) -> {
+                Lote l = actual != null ? actual : new Lote();
+                l.ajustes.add(ajuste);
+                primero[0] = actual == null;
+                lleno[0] = l.ajustes.size() >= maxAgrupados;
+                return l;
+            });
+            if (lleno[0]) {
+                enviar(id, lote);
+            } else if (primero[0]) {
+                vertx.setTimer(Math.max(1, ventana.toMillis()), timer -> enviar(id, lote));
+            }
+        });
+    }
+
+    /**
+     * Cierra el lote (los ajustes que lleguen después abren uno nuevo) y lo envía.
+     * Lo llaman el timer y el ajuste que llena el lote: solo el primero lo envía.
+     */
+    private void enviar(Long id, Lote lote) {
+        if (!pendientes.remove(id, lote)) {
+            return;
+        }
+        List<Ajuste> ajustes = lote.ajustes;
+        if (ajustes.size() == 1) {
+            Ajuste unico = ajustes.get(0);
+            ajustarUno(id, unico.delta).subscribe().with(unico.emisor::complete, unico.emisor::fail);
+            return;
+        }
+
+        long suma = ajustes.stream().mapToLong(a -> a.delta).sum();
+        if (suma != (int) suma) {
+            // La suma no entra en la columna INTEGER: cada ajuste por separado
+            ajustarUnoPorUno(id, ajustes);
+            return;
+        }
+        int total = (int) suma;
+        pool.preparedQuery(AJUSTAR).execute(Tuple.of(total, id))
+                .subscribe().with(
+                        filas -> {
+                            RowIterator<Row> it = filas.iterator();
+                            if (it.hasNext()) {
+                                Row fila = it.next();
+                                AjusteStockResponse resultado = AjusteStockResponse.aplicado(
+                                        id, fila.getInteger("stock"), fila.getLong("version"), ajustes.size());
+                                LOG.debugf("📦 Producto %d: %d ajustes en 1 UPDATE (delta %d)", id, Integer.valueOf(ajustes.size()), Integer.valueOf(total));
+                                ajustes.forEach(a -> a.emisor.complete(resultado));
+                            } else {
+                                ajustarUnoPorUno(id, ajustes);
+                            }
+                        },
+                        error -> ajustes.forEach(a -> a.emisor.fail(error)));
+    }
+
+    /**
+     * La suma del lote dejaría stock negativo, no entra en un INTEGER o el
+     * producto no existe: cada ajuste se aplica por separado, en orden de llegada.
+     * Si el primero descubre que el producto no existe, el resto se rechaza sin
+     * volver a la BD.
+     */
+    private void ajustarUnoPorUno(Long id, List<Ajuste> ajustes) {
+        boolean[] noExiste = {false};
+        Multi.createFrom().iterable(ajustes)
+                .onItem().transformToUniAndConcatenate(a -> {
+                    if (noExiste[0]) {
+                        a.emisor.complete(AjusteStockResponse.rechazado(id, AjusteStockResponse.Estado.NO_ENCONTRADO));
+                        return Uni.createFrom().nullItem();
+                    }
+                    return ajustarUno(id, a.delta)
+                            .onItemOrFailure().invoke((resultado, error) -> {
+                                if (error != null) {
+                                    a.emisor.fail(error);
+                                } else {
+                                    noExiste[0] = resultado.estado == AjusteStockResponse.Estado.NO_ENCONTRADO;
+                                    a.emisor.complete(resultado);
+                                }
+                            })
+                            .onFailure().recoverWithNull();
+                })
+                .collect().last()
+                .subscribe().with(fin -> { }, error -> LOG.errorf(error, "❌ Ajustes de stock del producto %d", id));
+    }
+
+    private Uni<AjusteStockResponse> ajustarUno(Long id, int delta) {
+        return pool.preparedQuery(AJUSTAR).execute(Tuple.of(delta, id))
+                .chain(filas -> {
+                    RowIterator<Row> it = filas.iterator();
+                    if (it.hasNext()) {
+                        Row fila = it.next();
+                        return Uni.createFrom().item(AjusteStockResponse.aplicado(
+                                id, fila.getInteger("stock"), fila.getLong("version"), 1));
+                    }
+                    return pool.preparedQuery(EXISTE).execute(Tuple.of(id))
+                            .map(RowSet::size)
+                            .map(existe -> AjusteStockResponse.rechazado(id, existe > 0
+                                    ? AjusteStockResponse.Estado.STOCK_INSUFICIENTE
+                                    : AjusteStockResponse.Estado.NO_ENCONTRADO));
+                });
+    }
+
+    private static final class Lote {
+        final List<Ajuste> ajustes = new ArrayList<>();
+    }
+
+    private static final class Ajuste {
+        final int delta;
+        final UniEmitter<? super AjusteStockResponse> emisor;
+
+        Ajuste(int delta, UniEmitter<? super AjusteStockResponse> emisor) {
+            this.delta = delta;
+            this.emisor = emisor;
+        }
+    }
+}
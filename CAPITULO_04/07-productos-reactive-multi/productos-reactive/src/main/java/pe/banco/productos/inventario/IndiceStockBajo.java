@@ -0,0 +1,194 @@
+package pe.banco.productos.inventario;
+
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.vertx.VertxContextSupport;
+import io.smallrye.mutiny.Multi;
+import io.vertx.core.json.JsonObject;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import pe.banco.productos.dto.StockProductoDTO;
+import pe.banco.productos.entity.Producto;
+import pe.banco.productos.repository.ProductoRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Índice en memoria de productos ordenados por (stock, id).
+ * <p>
+ * Los jobs de reposición consultan "stock bajo" constantemente y casi siempre con
+ * los mismos umbrales. Con este índice la consulta {@code stock < umbral} es un
+ * recorrido de rango en un {@link ConcurrentSkipListSet}: O(log n + resultados),
+ * sin ir a la base de datos.
+ * </p>
+ *
+ * <pre>
+ * orden (stock, id):  (0,17) (2,4) (3,91) (3,120) (8,2) (15,33) ...
+ *                     └──── headSet(umbral = 5) ────┘
+ * </pre>
+ *
+ * <p><strong>Cómo se mantiene al día:</strong></p>
+ * <ul>
+ *   <li>Al arrancar se carga desde la BD por páginas (keyset); hasta terminar,
+ *       {@link #consultar(int)} devuelve vacío y se usa la query como respaldo</li>
+ *   <li>Crear/actualizar/eliminar/carga-masiva de ESTA instancia lo actualizan
+ *       después del COMMIT</li>
+ *   <li>INSERT, UPDATE y DELETE de cualquier instancia llegan por el trigger
+ *       LISTEN/NOTIFY (ver {@code CanalCambiosProducto}): sirve con varias réplicas</li>
+ * </ul>
+ *
+ * <p><strong>Orden de llegada:</strong> la carga inicial, las notificaciones y las
+ * escrituras locales llegan en cualquier orden. Cada entrada lleva la
+ * {@code version} del producto y solo la reemplaza una más nueva; un DELETE deja
+ * una lápida (los IDs no se reutilizan) para que una página de la carga o un
+ * aviso atrasado no resucite el producto:</p>
+ *
+ * <pre>
+ * NOTIFY v8 ──▶ (5, id 4, v8)
+ * carga  v7 ──▶ descartada: v7 &lt; v8
+ * DELETE    ──▶ lápida id 4
+ * local  v8 ──▶ descartada: el producto ya no existe
+ * </pre>
+ */
+@ApplicationScoped
+public class IndiceStockBajo {
+
+    private static final Logger LOG = Logger.getLogger(IndiceStockBajo.class);
+
+    private static final Comparator<StockProductoDTO> POR_STOCK_E_ID = Comparator
+            .comparing((StockProductoDTO p) -> p.stock)
+            .thenComparing(p -> p.id);
+
+    private final NavigableSet<StockProductoDTO> orden = new ConcurrentSkipListSet<>(POR_STOCK_E_ID);
+    /**
+     * Última entrada conocida por ID; las lápidas ({@link #esLapida}) no están en {@link #orden}.
+     */
+    private final Map<Long, StockProductoDTO> porId = new ConcurrentHashMap<>();
+
+    private volatile boolean listo;
+
+    @Inject
+    ProductoRepository repository;
+
+    @ConfigProperty(name = "productos.stock-bajo.indice-memoria", defaultValue = "true")
+    boolean habilitado;
+
+    /**
+     * Filas por query al construir el índice.
+     */
+    @ConfigProperty(name = "productos.stock-bajo.pagina-carga", defaultValue = "5000")
+    int paginaCarga;
+
+    void cargar(@Observes StartupEvent evento) {
+        if (!habilitado) {
+            return;
+        }
+        long[] ultimoId = {0L};
+        VertxContextSupport.subscribe(
+                () -> Multi.createBy().repeating()
+                        .uni(() -> Panache.withSession(() -> repository.resumenStockDesde(ultimoId[0], paginaCarga))
+                                .invoke(pagina -> {
+                                    if (!pagina.isEmpty()) {
+                                        ultimoId[0] = pagina.get(pagina.size() - 1).id;
+                                    }
+                                }))
+                        .whilst(pagina -> pagina.size() == paginaCarga),
+                suscripcion -> suscripcion.with(
+                        // Si ya llegó una escritura más nueva o un DELETE durante la carga, ganan esos
+                        pagina -> pagina.forEach(this::registrar),
+                        error -> LOG.errorf(error, "❌ No se pudo cargar el índice de stock; se usará la BD"),
+                        () -> {
+                            listo = true;
+                            LOG.infof("📦 Índice de stock en memoria listo: %d productos", orden.size());
+                        }));
+    }
+
+    /**
+     * Productos con {@code stock < umbral}, ordenados por stock y luego por ID.
+     *
+     * @param umbral Stock límite (exclusivo)
+     * @return la lista, o vacío si el índice no está disponible (usar la BD)
+     */
+    public Optional<List<StockProductoDTO>> consultar(int umbral) {
+        if (!habilitado || !listo) {
+            return Optional.empty();
+        }
+        StockProductoDTO limite = new StockProductoDTO(Long.MIN_VALUE, null, umbral, null);
+        return Optional.of(new ArrayList<>(orden.headSet(limite)));
+    }
+
+    /**
+     * Registra el estado actual de un producto creado o modificado.
+     */
+    public void registrar(Producto producto) {
+        registrar(new StockProductoDTO(producto.id, producto.nombre, producto.stock, producto.version));
+    }
+
+    /**
+     * Quita un producto eliminado y deja su lápida.
+     */
+    public void eliminar(Long id) {
+        if (!habilitado) {
+            return;
+        }
+        porId.compute(id, (k, anterior) -> {
+            if (anterior != null && !esLapida(anterior)) {
+                orden.remove(anterior);
+            }
+            return lapida(id);
+        });
+    }
+
+    /**
+     * Aplica un evento del trigger de la tabla Producto (INSERT, UPDATE o DELETE
+     * de cualquier instancia).
+     *
+     * @param evento JSON enviado por {@code pg_notify}
+     */
+    public void aplicarCambio(JsonObject evento) {
+        Long id = evento.getLong("id");
+        if (evento.getBoolean("eliminado", false)) {
+            eliminar(id);
+        } else {
+            registrar(new StockProductoDTO(id, evento.getString("nombre"), evento.getInteger("stock"),
+                    evento.getLong("version")));
+        }
+    }
+
+    private void registrar(StockProductoDTO nuevo) {
+        if (!habilitado) {
+            return;
+        }
+        porId.compute(nuevo.id, (k, anterior) -> {
+            if (anterior != null) {
+                if (esLapida(anterior) || nuevo.version <= anterior.version) {
+                    return anterior;
+                }
+                orden.remove(anterior);
+            }
+            orden.add(nuevo);
+            return nuevo;
+        });
+    }
+
+    /**
+     * Marca de producto eliminado: una versión que nada supera y fuera de {@link #orden}.
+     */
+    private static StockProductoDTO lapida(Long id) {
+        return new StockProductoDTO(id, null, null, Long.MAX_VALUE);
+    }
+
+    private static boolean esLapida(StockProductoDTO entrada) {
+        return entrada.version == Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,163 @@
+package pe.banco.productos.monitor;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.json.JsonObject;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.pgclient.pubsub.PgSubscriber;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.pgclient.PgConnectOptions;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import pe.banco.productos.inventario.IndiceStockBajo;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Escucha de PostgreSQL los cambios de la tabla Producto (LISTEN/NOTIFY).
+ * <p>
+ * Al arrancar instala un trigger que hace {@code pg_notify} con el estado del
+ * producto en cada INSERT, en cada UPDATE de nombre/stock y en cada DELETE. Una única conexión
+ * dedicada ({@link PgSubscriber}) recibe esas notificaciones y las pasa a
+ * {@link MonitorStock}, que las reparte entre los clientes SSE, y a
+ * {@link IndiceStockBajo}, que mantiene al día el índice de stock en memoria.
+ * </p>
+ *
+ * <p><strong>Antes (polling):</strong> 1 query por segundo POR cliente.
+ * <strong>Ahora:</strong> 1 notificación por cambio real, sin importar cuántos
+ * clientes miren. La notificación se envía al hacer COMMIT: un rollback no
+ * genera eventos.</p>
+ *
+ * <p>Si se corta la conexión, {@link PgSubscriber} reconecta solo. Los cambios
+ * ocurridos durante el corte no se reenvían (NOTIFY no guarda historial).</p>
+ */
+@ApplicationScoped
+public class CanalCambiosProducto {
+
+    private static final Logger LOG = Logger.getLogger(CanalCambiosProducto.class);
+
+    static final String CANAL = "producto_cambios";
+
+    /**
+     * Objetos del trigger. Idempotente: con drop-and-create la tabla se recrea en
+     * cada arranque y el trigger se vuelve a instalar.
+     */
+    private static final List<String> INSTALAR_TRIGGER = List.of(
+            """
+            CREATE OR REPLACE FUNCTION notificar_cambio_producto() RETURNS trigger AS $$
+            BEGIN
+                IF TG_OP = 'DELETE' THEN
+                    PERFORM pg_notify('%1$s', json_build_object('id', OLD.id, 'version', OLD.version, 'eliminado', true)::text);
+                    RETURN OLD;
+                END IF;
+                PERFORM pg_notify('%1$s', json_build_object(
+                        'id', NEW.id, 'nombre', NEW.nombre, 'stock', NEW.stock,
+                        'version', NEW.version, 'timestamp', localtimestamp)::text);
+                RETURN NEW;
+            END;
+            $$ LANGUAGE plpgsql
+            """.formatted(CANAL),
+            "DROP TRIGGER IF EXISTS trg_producto_insertado ON Producto",
+            "DROP TRIGGER IF EXISTS trg_producto_actualizado ON Producto",
+            "DROP TRIGGER IF EXISTS trg_producto_eliminado ON Producto",
+            """
+            CREATE TRIGGER trg_producto_insertado
+                AFTER INSERT ON Producto
+                FOR EACH ROW
+                EXECUTE FUNCTION notificar_cambio_producto()
+            """,
+            """
+            CREATE TRIGGER trg_producto_actualizado
+                AFTER UPDATE OF nombre, stock ON Producto
+                FOR EACH ROW
+                WHEN (OLD.stock IS DISTINCT FROM NEW.stock OR OLD.nombre IS DISTINCT FROM NEW.nombre)
+                EXECUTE FUNCTION notificar_cambio_producto()
+            """,
+            """
+            CREATE TRIGGER trg_producto_eliminado
+                AFTER DELETE ON Producto
+                FOR EACH ROW
+                EXECUTE FUNCTION notificar_cambio_producto()
+            """);
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    Pool pool;
+
+    @Inject
+    MonitorStock monitor;
+
+    @Inject
+    IndiceStockBajo indiceStock;
+
+    @ConfigProperty(name = "quarkus.datasource.reactive.url")
+    String url;
+
+    @ConfigProperty(name = "quarkus.datasource.username")
+    String usuario;
+
+    @ConfigProperty(name = "quarkus.datasource.password")
+    Optional<String> password;
+
+    /**
+     * Espera entre intentos de reconexión del LISTEN (milisegundos).
+     */
+    @ConfigProperty(name = "productos.monitor.reconexion-ms", defaultValue = "1000")
+    long reconexionMs;
+
+    private PgSubscriber subscriber;
+
+    void iniciar(@Observes StartupEvent evento) {
+        PgConnectOptions opciones = PgConnectOptions.fromUri(url).setUser(usuario);
+        password.ifPresent(opciones::setPassword);
+
+        subscriber = PgSubscriber.subscriber(vertx, opciones)
+                .reconnectPolicy(intentos -> {
+                    if (intentos == 0) {
+                        LOG.warnf("⚠️ Conexión LISTEN perdida (%d productos observados), reconectando...",
+                                monitor.productosObservados());
+                    }
+                    return reconexionMs;
+                });
+        subscriber.channel(CANAL)
+                .handler(this::despachar)
+                .subscribeHandler(() -> LOG.infof("📡 LISTEN %s activo", CANAL));
+
+        instalarTrigger()
+                .chain(() -> subscriber.connect())
+                .subscribe().with(
+                        ok -> { },
+                        error -> LOG.errorf(error, "❌ No se pudo iniciar el monitor de stock"));
+    }
+
+    void detener(@Observes ShutdownEvent evento) {
+        if (subscriber != null) {
+            subscriber.closeAndForget();
+        }
+    }
+
+    private Uni<Void> instalarTrigger() {
+        return Multi.createFrom().iterable(INSTALAR_TRIGGER)
+                .onItem().transformToUniAndConcatenate(sql -> pool.query(sql).execute())
+                .collect().last()
+                .replaceWithVoid();
+    }
+
+    private void despachar(String payload) {
+        try {
+            JsonObject evento = new JsonObject(payload);
+            indiceStock.aplicarCambio(evento);
+            monitor.publicar(evento);
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "❌ Notificación de producto inválida: %s", payload);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package pe.banco.productos.monitor;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.operators.multi.processors.BroadcastProcessor;
+import io.vertx.core.json.JsonObject;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reparte los cambios de stock de cada producto entre sus suscriptores SSE.
+ * <p>
+ * Los eventos llegan una sola vez desde PostgreSQL (ver {@link CanalCambiosProducto})
+ * y se difunden con un {@link BroadcastProcessor} por producto: con 5.000 dashboards
+ * abiertos la base de datos sigue viendo cero queries por segundo; solo trabaja
+ * cuando un producto cambia de verdad.
+ * </p>
+ *
+ * <pre>
+ * UPDATE producto ──▶ trigger ──▶ NOTIFY ──▶ CanalCambiosProducto
+ *                                                   │ publicar()
+ *                                                   ▼
+ *                                      canales[id] (BroadcastProcessor)
+ *                                     ┌─────────────┼─────────────┐
+ *                                  cliente 1     cliente 2  ...  cliente N
+ * </pre>
+ *
+ * <p><strong>Clientes lentos:</strong> cada suscriptor tiene su propio
+ * {@code onOverflow().dropPreviousItems()}. Cada evento es el estado completo del
+ * producto, así que si un cliente no alcanza a consumir se descartan los más
+ * antiguos y recibe solo el último: nunca frena a los demás ni acumula memoria.</p>
+ *
+ * <p>Cada evento lleva la {@code version} de la fila: el suscriptor la usa para
+ * descartar lo que ya vio (ver {@code ProductoReactivoResource#monitorearStock}).</p>
+ *
+ * <p>Un canal existe solo mientras alguien lo mira: se crea con el primer
+ * suscriptor y se elimina cuando se va el último.</p>
+ */
+@ApplicationScoped
+public class MonitorStock {
+
+    private final Map<Long, Canal> canales = new ConcurrentHashMap<>();
+
+    /**
+     * Cambios del producto a partir de este momento (stream infinito).
+     * <p>
+     * Termina solo si el producto se elimina, después de emitir el aviso.
+     * </p>
+     *
+     * @param id ID del producto a observar
+     * @return {@link Multi} caliente con el JSON de cada cambio
+     */
+    public Multi<JsonObject> cambios(Long id) {
+        return Multi.createFrom().deferred(() -> {
+            Canal canal = canales.compute(id, (k, actual) -> {
+                Canal c = actual != null ? actual : new Canal();
+                c.suscriptores++;
+                return c;
+            });
+            return canal.procesador
+                    .onOverflow().dropPreviousItems()
+                    .onTermination().invoke(() -> liberar(id, canal));
+        });
+    }
+
+    /**
+     * Entrega un evento del trigger a los suscriptores de ese producto.
+     * <p>
+     * Si nadie observa el producto, el evento se descarta sin costo.
+     * </p>
+     *
+     * @param evento JSON enviado por {@code pg_notify}
+     */
+    void publicar(JsonObject evento) {
+        Long id = evento.getLong("id");
+        Canal canal = canales.get(id);
+        if (canal == null) {
+            return;
+        }
+        if (evento.getBoolean("eliminado", false)) {
+            canal.procesador.onNext(new JsonObject().put("error", "Producto eliminado"));
+            canal.procesador.onComplete();
+            canales.remove(id, canal);
+            return;
+        }
+        canal.procesador.onNext(evento);
+    }
+
+    /**
+     * Productos con al menos un suscriptor (para logs de reconexión).
+     */
+    int productosObservados() {
+        return canales.size();
+    }
+
+    private void liberar(Long id, Canal canal) {
+        canales.computeIfPresent(id, (k, actual) ->
+                actual == canal && --actual.suscriptores == 0 ? null : actual);
+    }
+
+    private static final class Canal {
+        final BroadcastProcessor<JsonObject> procesador = BroadcastProcessor.create();
+        int suscriptores;
+    }
+}
@@ -1,9 +1,20 @@
 package pe.banco.productos.repository;
 
 import io.quarkus.hibernate.reactive.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Sort;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.Tuple;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.hibernate.reactive.mutiny.Mutiny;
+import pe.banco.productos.busqueda.TextoBusqueda;
+import pe.banco.productos.dto.StockProductoDTO;
 import pe.banco.productos.entity.Producto;
+import pe.banco.productos.dto.SugerenciaDTO;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -30,6 +41,31 @@ import java.util.List;
 @ApplicationScoped
 public class ProductoRepository implements PanacheRepositoryBase<Producto, Long> {
 
+    /**
+     * IDs por sentencia en {@link #findPorIds(List)}.
+     */
+    static final int IDS_POR_QUERY = 1000;
+
+    /**
+     * Prefijo como rango [desde, hasta) sobre lower(nombre) con collation "C":
+     * coincide con el índice idx_producto_nombre_prefijo, que resuelve el filtro
+     * Y el orden; con LIMIT PostgreSQL lee solo las primeras filas del rango.
+     * Los límites los calcula TextoBusqueda.
+     */
+    private static final String AUTOCOMPLETAR = """
+            SELECT id, nombre FROM Producto
+            WHERE lower(nombre) COLLATE "C" >= $1
+              AND lower(nombre) COLLATE "C" < $2
+            ORDER BY lower(nombre) COLLATE "C", id
+            LIMIT $3
+            """;
+
+    @Inject
+    Pool pool;
+
+    @Inject
+    Mutiny.SessionFactory sessionFactory;
+
     /**
      * Busca productos con stock por debajo de un umbral especificado.
      * <p>
@@ -59,6 +95,96 @@ public class ProductoRepository implements PanacheRepositoryBase<Producto, Long>
         return list("stock < ?1", umbral);
     }
 
+    /**
+     * Productos por ID, en cualquier orden.
+     * <p>
+     * Completa las entidades de una consulta resuelta en memoria (ver
+     * {@code IndiceStockBajo}): búsqueda por clave primaria en lugar de un
+     * recorrido de {@code stock < umbral}.
+     * </p>
+     *
+     * <p>Los IDs viajan en bloques de {@value #IDS_POR_QUERY}: cada ID es un
+     * parámetro de la sentencia y PostgreSQL acepta como máximo 32767.</p>
+     *
+     * @param ids IDs a cargar
+     * @return {@link Uni} con los productos que todavía existen
+     */
+    public Uni<List<Producto>> findPorIds(List<Long> ids) {
+        int bloques = (ids.size() + IDS_POR_QUERY - 1) / IDS_POR_QUERY;
+        return Multi.createFrom().range(0, bloques)
+                .onItem().transformToUniAndConcatenate(i -> list("id in ?1",
+                        ids.subList(i * IDS_POR_QUERY, Math.min(ids.size(), (i + 1) * IDS_POR_QUERY))))
+                .onItem().<Producto>disjoint()
+                .collect().asList();
+    }
+
+    /**
+     * Variante liviana de {@link #findConStockBajo(int)}: solo ID, nombre, stock y versión.
+     * <p>
+     * La proyección evita traer descripción y precio y no crea entidades en la
+     * sesión. Con el índice {@code (stock, id)} PostgreSQL resuelve el filtro y
+     * el orden recorriendo únicamente el rango {@code stock < umbral}.
+     * </p>
+     *
+     * @param umbral Stock límite (exclusivo)
+     * @return {@link Uni} con los productos ordenados por stock ascendente
+     */
+    public Uni<List<StockProductoDTO>> findResumenStockBajo(int umbral) {
+        return find("stock < ?1", Sort.by("stock").and("id"), umbral)
+                .project(StockProductoDTO.class)
+                .list();
+    }
+
+    /**
+     * Página de la vista de stock de todos los productos (keyset sobre el ID).
+     * <p>
+     * Usada para construir el índice en memoria de stock bajo al arrancar, sin
+     * cargar la tabla de una sola vez.
+     * </p>
+     *
+     * @param ultimoId ID del último producto ya leído (0 para empezar)
+     * @param tamano Cantidad máxima de filas de la página
+     * @return {@link Uni} con la página; menos de {@code tamano} filas = última
+     */
+    public Uni<List<StockProductoDTO>> resumenStockDesde(long ultimoId, int tamano) {
+        return find("id > ?1", Sort.by("id"), ultimoId)
+                .project(StockProductoDTO.class)
+                .range(0, tamano - 1)
+                .list();
+    }
+
+    /**
+     * Versión actual de un producto, sin cargar la entidad.
+     * <p>
+     * Lee una sola columna por clave primaria: es lo único que hace falta para
+     * responder {@code 304 Not Modified} a un GET condicional.
+     * </p>
+     *
+     * @param id ID del producto
+     * @return {@link Uni} con la versión, o null si el producto no existe
+     */
+    public Uni<Long> versionDe(Long id) {
+        return getSession().chain(session -> session
+                .createSelectionQuery("select p.version from Producto p where p.id = ?1", Long.class)
+                .setParameter(1, id)
+                .getSingleResultOrNull());
+    }
+
+    /**
+     * Versión del catálogo completo: cambia con cada alta, baja o modificación.
+     * <p>
+     * Lee el contador que mantiene el trigger de {@link VersionCatalogo} (16 filas,
+     * sin importar cuántos productos haya): permite responder
+     * {@code 304 Not Modified} al listado sin traer ni serializar los productos.
+     * </p>
+     *
+     * @return {@link Uni} con la versión actual del catálogo
+     */
+    public Uni<Long> versionCatalogo() {
+        return pool.query(VersionCatalogo.CONSULTA).execute()
+                .map(filas -> filas.iterator().next().getLong(0));
+    }
+
     /**
      * Busca productos cuyo nombre contenga el texto especificado (búsqueda parcial, case-insensitive).
      * <p>
@@ -90,46 +216,113 @@ public class ProductoRepository implements PanacheRepositoryBase<Producto, Long>
      * @throws NullPointerException si nombre es null
      */
     public Uni<List<Producto>> buscarPorNombre(String nombre) {
-        return list("LOWER(nombre) LIKE LOWER(?1)", "%" + nombre + "%");
+        return list("lower(nombre) like lower(?1) escape '\\'", TextoBusqueda.contiene(nombre));
     }
 
     /**
-     * Persiste múltiples productos en una única operación reactiva (batch insert).
+     * Búsqueda paginada por texto contenido en el nombre (case-insensitive).
      * <p>
-     * Esta operación es más eficiente que persistir productos individualmente
-     * cuando se necesita guardar grandes cantidades de datos.
+     * El filtro {@code lower(nombre) LIKE '%texto%'} lo resuelve el índice GIN
+     * trigram {@code idx_producto_nombre_trgm} (ver {@code IndicesBusquedaProductos}):
+     * en lugar de leer todo el catálogo, PostgreSQL busca los trigramas del texto
+     * ("lap" → "  l", " la", "lap") y revisa solo las filas candidatas.
      * </p>
-     * 
+     *
+     * <p><strong>Ejemplo:</strong> {@code buscarPorNombre("dell", 0, 20)} → primeros
+     * 20 productos cuyo nombre contiene "dell", ordenados por nombre.</p>
+     *
+     * @param texto Texto a buscar (3 caracteres o más para aprovechar el índice)
+     * @param pagina Número de página (desde 0)
+     * @param tamano Productos por página
+     * @return productos de la página, ordenados por nombre e ID
+     */
+    public Uni<List<Producto>> buscarPorNombre(String texto, int pagina, int tamano) {
+        return find("lower(nombre) like lower(?1) escape '\\'", Sort.by("nombre").and("id"),
+                TextoBusqueda.contiene(texto))
+                .page(pagina, tamano)
+                .list();
+    }
+
+    /**
+     * Autocompletado: productos cuyo nombre empieza con el prefijo (case-insensitive).
+     * <p>
+     * Un recorrido de rango en el índice B-tree {@code idx_producto_nombre_prefijo}
+     * que se detiene al llegar a {@code limite} filas: el costo no depende del tamaño
+     * del catálogo (milisegundos con un millón de productos).
+     * </p>
+     *
+     * <p><strong>Operación reactiva:</strong> Va directo por el pool de Vert.x, sin
+     * sesión de Hibernate: es la consulta más frecuente (una por tecla).</p>
+     *
+     * @param prefijo Inicio del nombre tal como lo escribe el usuario
+     * @param limite Máximo de sugerencias
+     * @return sugerencias ordenadas alfabéticamente
+     */
+    public Uni<List<SugerenciaDTO>> autocompletar(String prefijo, int limite) {
+        String hasta = TextoBusqueda.hasta(prefijo);
+        if (hasta == null) {
+            return Uni.createFrom().item(List.of());
+        }
+        return pool.preparedQuery(AUTOCOMPLETAR)
+                .execute(Tuple.of(TextoBusqueda.desde(prefijo), hasta, limite))
+                .map(filas -> {
+                    List<SugerenciaDTO> sugerencias = new ArrayList<>(filas.size());
+                    for (Row fila : filas) {
+                        sugerencias.add(new SugerenciaDTO(fila.getLong("id"), fila.getString("nombre")));
+                    }
+                    return sugerencias;
+                });
+    }
+
+    /**
+     * Trae la siguiente página de productos ordenados por ID (keyset pagination).
+     * <p>
+     * En lugar de {@code OFFSET n} (que obliga a PostgreSQL a recorrer y descartar
+     * n filas), filtra por {@code id > ultimoId} y usa el índice de la clave primaria:
+     * cada página cuesta lo mismo, sea la primera o la número 10.000.
+     * </p>
+     *
+     * <p><strong>Ejemplo:</strong></p>
+     * <pre>{@code
+     * repository.paginaDesde(0, 100)    // ids 1..100
+     * repository.paginaDesde(100, 100)  // ids 101..200
+     * }</pre>
+     *
+     * @param ultimoId ID del último producto ya entregado (0 para empezar)
+     * @param tamano Cantidad máxima de productos de la página
+     * @return {@link Uni} con la página; si trae menos de {@code tamano}
+     *         elementos, es la última
+     */
+    public Uni<List<Producto>> paginaDesde(long ultimoId, int tamano) {
+        return find("id > ?1", Sort.by("id"), ultimoId)
+                .range(0, tamano - 1)
+                .list();
+    }
+
+    /**
+     * Inserta un bloque de productos en su propia transacción, sin contexto de persistencia.
+     * <p>
+     * Pensado para cargas masivas: usa una {@link Mutiny.StatelessSession}, que no
+     * guarda las entidades insertadas (no hay dirty checking ni crecimiento de memoria),
+     * y envía los INSERT en batches de {@code tamanoBatch} por el cliente Vert.x:
+     * un solo viaje de ida y vuelta por batch en lugar de uno por fila.
+     * </p>
+     *
      * <p><strong>Operación reactiva:</strong> No bloquea el hilo actual.
-     * La operación se completa cuando todos los productos han sido persistidos.</p>
-     * 
-     * <p><strong>Transaccionalidad:</strong> Esta operación debe ejecutarse dentro
-     * de un contexto transaccional (típicamente con {@code @Transactional} o
-     * {@code @ReactiveTransactional}).</p>
-     * 
+     * Cada llamada abre y confirma su propia transacción.</p>
+     *
      * <p><strong>Ejemplo de uso:</strong></p>
      * <pre>{@code
-     * List<Producto> productos = Arrays.asList(
-     *     new Producto("Laptop", "HP Pavilion", 850.0, 10),
-     *     new Producto("Mouse", "Logitech MX Master", 99.0, 50)
-     * );
-     * 
-     * repository.persistirLote(productos)
-     *     .subscribe().with(
-     *         () -> log.info("Productos guardados exitosamente"),
-     *         error -> log.error("Error al guardar productos", error)
-     *     );
+     * repository.insertarBloque(bloque, 500)   // COMMIT al completar
+     *     .subscribe().with(v -> log.info("Bloque confirmado"));
      * }</pre>
-     * 
-     * @param productos Lista de productos a persistir (no debe ser null ni vacía).
-     *                  Cada producto debe tener sus campos obligatorios inicializados.
-     * @return {@link Uni} que completa cuando la operación de persistencia finaliza.
-     *         No emite valor (Void), solo señala la finalización exitosa o fallo.
-     * @throws NullPointerException si la lista de productos es null
-     * @throws IllegalArgumentException si la lista está vacía
-     * @throws jakarta.persistence.PersistenceException si hay errores de validación o BD
+     *
+     * @param productos Productos del bloque (nuevos, sin ID)
+     * @param tamanoBatch INSERT por batch enviado a PostgreSQL
+     * @return {@link Uni} que completa cuando el bloque quedó confirmado
      */
-    public Uni<Void> persistirLote(List<Producto> productos) {
-        return persist(productos).replaceWithVoid();
+    public Uni<Void> insertarBloque(List<Producto> productos, int tamanoBatch) {
+        return sessionFactory.withStatelessTransaction(session ->
+                session.insertAll(tamanoBatch, productos.toArray()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,85 @@
+package pe.banco.productos.repository;
+
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Multi;
+import io.vertx.mutiny.sqlclient.Pool;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+
+/**
+ * Contador de cambios del catálogo: la versión que usa el ETag del listado.
+ * <p>
+ * Un trigger por SENTENCIA sobre Producto suma 1 en cada INSERT, UPDATE, DELETE
+ * o TRUNCATE, en la misma transacción que el cambio. Preguntar "¿cambió el
+ * catálogo?" es leer {@value #RANURAS} filas, no recorrer toda la tabla:
+ * </p>
+ *
+ * <pre>
+ * ┌─────────────────────────────────┬──────────────────────────────────────┐
+ * │ Antes: md5(string_agg(...))     │ lee el millón de filas en cada GET   │
+ * │ Ahora: sum(cambios)             │ lee 16 filas, sin importar el tamaño │
+ * └─────────────────────────────────┴──────────────────────────────────────┘
+ * </pre>
+ *
+ * <p><strong>Ranuras:</strong> con una sola fila, cada escritura de productos
+ * quedaría esperando el lock de esa fila hasta que confirme la anterior. Cada
+ * conexión suma en la ranura {@code pg_backend_pid() % 16} y la versión es la
+ * suma de todas: solo crece, así que cualquier cambio la mueve.</p>
+ *
+ * <p><strong>Al arrancar</strong> el contador salta, como mínimo, a la hora actual
+ * en milisegundos: con drop-and-create (o una BD nueva) el catálogo es otro y un
+ * ETag entregado antes del reinicio no puede volver a coincidir.</p>
+ */
+@ApplicationScoped
+public class VersionCatalogo {
+
+    private static final Logger LOG = Logger.getLogger(VersionCatalogo.class);
+
+    static final int RANURAS = 16;
+
+    static final String CONSULTA = "SELECT CAST(sum(cambios) AS bigint) FROM catalogo_version";
+
+    private static final List<String> INSTALAR = List.of(
+            "CREATE TABLE IF NOT EXISTS catalogo_version (ranura int PRIMARY KEY, cambios bigint NOT NULL)",
+            "INSERT INTO catalogo_version SELECT r, 0 FROM generate_series(0, %d) r ON CONFLICT DO NOTHING"
+                    .formatted(RANURAS - 1),
+            """
+            UPDATE catalogo_version
+            SET cambios = GREATEST(cambios + 1, CAST(extract(epoch FROM clock_timestamp()) * 1000 AS bigint))
+            WHERE ranura = 0
+            """,
+            """
+            CREATE OR REPLACE FUNCTION contar_cambio_catalogo() RETURNS trigger AS $$
+            BEGIN
+                UPDATE catalogo_version SET cambios = cambios + 1 WHERE ranura = pg_backend_pid() %% %d;
+                RETURN NULL;
+            END;
+            $$ LANGUAGE plpgsql
+            """.formatted(RANURAS),
+            "DROP TRIGGER IF EXISTS trg_catalogo_version ON Producto",
+            """
+            CREATE TRIGGER trg_catalogo_version
+                AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON Producto
+                FOR EACH STATEMENT
+                EXECUTE FUNCTION contar_cambio_catalogo()
+            """);
+
+    @Inject
+    Pool pool;
+
+    /**
+     * Se espera a que termine (no se suscribe en segundo plano): sin el contador,
+     * el primer GET del listado fallaría o entregaría un ETag no confiable.
+     */
+    void alIniciar(@Observes StartupEvent evento) {
+        Multi.createFrom().iterable(INSTALAR)
+                .onItem().transformToUniAndConcatenate(sql -> pool.query(sql).execute())
+                .collect().last()
+                .await().indefinitely();
+        LOG.info("🏷️ Contador de versión del catálogo listo");
+    }
+}
@@ -1,21 +1,43 @@
 package pe.banco.productos.resource;
 
 import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.panache.common.Sort;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import io.vertx.core.json.JsonObject;
 import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.StaleStateException;
+import org.hibernate.reactive.mutiny.Mutiny;
+import org.jboss.logging.Logger;
 
 import java.time.Duration;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import pe.banco.productos.dto.AjusteStockRequest;
+import pe.banco.productos.dto.CargaMasivaResponse;
 import pe.banco.productos.dto.ProductoRequest;
+import pe.banco.productos.dto.StockProductoDTO;
+import pe.banco.productos.dto.SugerenciaDTO;
 import pe.banco.productos.entity.Producto;
+import pe.banco.productos.inventario.AgrupadorStock;
+import pe.banco.productos.inventario.IndiceStockBajo;
+import pe.banco.productos.monitor.MonitorStock;
 import pe.banco.productos.repository.ProductoRepository;
 
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -23,20 +45,99 @@ import java.util.stream.IntStream;
 @Produces(MediaType.APPLICATION_JSON)
 public class ProductoReactivoResource {
 
+    private static final Logger LOG = Logger.getLogger(ProductoReactivoResource.class);
+
     @Inject
     ProductoRepository repository;
 
+    @Inject
+    MonitorStock monitor;
+
+    @Inject
+    IndiceStockBajo indiceStock;
+
+    @Inject
+    AgrupadorStock agrupadorStock;
+
+    /**
+     * Productos por transacción en /carga-masiva.
+     */
+    @ConfigProperty(name = "productos.carga-masiva.tamano-bloque", defaultValue = "5000")
+    int tamanoBloque;
+
+    /**
+     * INSERT por batch enviado a PostgreSQL dentro de cada bloque.
+     */
+    @ConfigProperty(name = "productos.carga-masiva.tamano-batch", defaultValue = "500")
+    int tamanoBatch;
+
+    /**
+     * Productos por query en /stream.
+     */
+    @ConfigProperty(name = "productos.stream.tamano-pagina", defaultValue = "100")
+    int tamanoPagina;
+
+    /**
+     * Pausa entre productos emitidos en /stream (0 = sin límite de ritmo).
+     */
+    @ConfigProperty(name = "productos.stream.intervalo", defaultValue = "0s")
+    Duration intervalo;
+
+    /**
+     * Máximo de resultados por request en /buscar y /autocompletar.
+     */
+    @ConfigProperty(name = "productos.busqueda.tamano-maximo", defaultValue = "100")
+    int tamanoMaximoBusqueda;
+
+    /**
+     * Máximo |delta| de un ajuste de stock.
+     */
+    @ConfigProperty(name = "productos.stock.delta-maximo", defaultValue = "1000000")
+    int deltaMaximo;
+
+    /**
+     * Todos los productos, ordenados por ID, con {@code ETag} del catálogo.
+     * <p>
+     * Primero se lee la versión del catálogo (el contador de cambios); si coincide
+     * con {@code If-None-Match} responde 304 sin cargar los productos. La versión
+     * se lee antes que los productos (ver {@code EtagProducto.deCatalogo}).
+     * </p>
+     */
     @GET
-    public Uni<List<Producto>> listarTodos() {
-        return repository.listAll();
+    public Uni<Response> listarTodos(@Context Request request) {
+        return repository.versionCatalogo().chain(version -> {
+            EntityTag etag = EtagProducto.deCatalogo(version);
+            Response noModificado = EtagProducto.noModificado(request, etag);
+            if (noModificado != null) {
+                return Uni.createFrom().item(noModificado);
+            }
+            return repository.listAll(Sort.by("id"))
+                    .map(productos -> EtagProducto.ok(productos, etag));
+        });
     }
 
+    /**
+     * Un producto con {@code ETag: "<version>"}.
+     * <p>
+     * Con {@code If-None-Match} primero se lee solo la versión; si coincide
+     * responde 304 y la entidad no se carga.
+     * </p>
+     */
     @GET
     @Path("/{id}")
-    public Uni<Response> buscarPorId(@PathParam("id") Long id) {
-        return repository.findById(id)
-                .onItem().ifNotNull().transform(producto -> Response.ok(producto).build())
-                .onItem().ifNull().continueWith(Response.status(Response.Status.NOT_FOUND).build());
+    public Uni<Response> buscarPorId(@PathParam("id") Long id,
+                                     @Context Request request,
+                                     @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        Uni<Response> noModificado = ifNoneMatch == null
+                ? Uni.createFrom().nullItem()
+                : repository.versionDe(id)
+                        .map(version -> version != null
+                                ? EtagProducto.noModificado(request, EtagProducto.deVersion(version))
+                                : null);
+        return noModificado
+                .onItem().ifNull().switchTo(() -> repository.findById(id)
+                        .onItem().ifNotNull().transform(producto -> EtagProducto.ok(producto, EtagProducto.de(producto)))
+                        .onItem().ifNull().continueWith(Response.status(Response.Status.NOT_FOUND).build()));
     }
 
     @POST
@@ -66,15 +167,32 @@ public class ProductoReactivoResource {
         );
 
         return Panache.withTransaction(() -> repository.persist(producto))
+                .invoke(indiceStock::registrar)
                 .onItem().transform(p -> Response.created(URI.create("/api/v1/productos/reactivo/" + p.id))
                         .entity(p)
                         .build());
     }
 
+    /**
+     * Reemplaza un producto con control de versión optimista.
+     * <p>
+     * El UPDATE lleva {@code WHERE version = ?}: dos PUT simultáneos ya no se pisan
+     * en silencio. Con {@code If-Match: "<etag>"} el que llega tarde recibe 412 y
+     * decide el cliente. Sin {@code If-Match} el PUT es "el último gana" y no se
+     * reintenta: reaplicar el reemplazo completo borraría el cambio que acaba de
+     * confirmar el otro escritor, así que el choque responde 409.
+     * </p>
+     * <p>
+     * Para sumar o descontar stock sin leer antes, usar {@code POST /{id}/stock}:
+     * el servidor calcula el valor nuevo y ningún ajuste se pierde.
+     * </p>
+     */
     @PUT
     @Path("/{id}")
     @Consumes(MediaType.APPLICATION_JSON)
-    public Uni<Response> actualizar(@PathParam("id") Long id, @Valid ProductoRequest request) {
+    public Uni<Response> actualizar(@PathParam("id") Long id, @Valid ProductoRequest request,
+                                    @Context Request httpRequest,
+                                    @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
         if (request.precio != null && request.precio <= 0) {
             return Uni.createFrom().item(
                 Response.status(Response.Status.BAD_REQUEST)
@@ -91,18 +209,77 @@ public class ProductoReactivoResource {
             );
         }
         
-        return Panache.withTransaction(() ->
+        Uni<Response> actualizacion = Panache.withTransaction(() ->
                 repository.findById(id)
                         .onItem().ifNotNull().transformToUni(producto -> {
+                            if (!EtagProducto.cumplePrecondiciones(httpRequest, producto.version)) {
+                                return Uni.createFrom().failure(new OptimisticLockException(
+                                        "Versión " + producto.version + " no coincide", null, producto));
+                            }
                             producto.nombre = request.nombre;
                             producto.descripcion = request.descripcion;
                             producto.precio = request.precio;
                             producto.stock = request.stock;
-                            return repository.persist(producto)
-                                    .onItem().transform(p -> Response.ok(p).build());
+                            // flush dentro de la transacción: el conflicto se detecta aquí
+                            // y la respuesta lleva la versión nueva
+                            return repository.flush()
+                                    .replaceWith(() -> EtagProducto.ok(producto, EtagProducto.de(producto)));
                         })
-                        .onItem().ifNull().continueWith(Response.status(Response.Status.NOT_FOUND).build())
-        );
+                        .onItem().ifNull().continueWith(Response.status(Response.Status.NOT_FOUND).build()));
+
+        return actualizacion
+                .onFailure(ProductoReactivoResource::esConflictoDeVersion).recoverWithItem(e -> ifMatch != null
+                        ? EtagProducto.versionDesactualizada()
+                        : EtagProducto.modificacionSimultanea())
+                .invoke(response -> {
+                    if (response.getStatus() == Response.Status.OK.getStatusCode()) {
+                        indiceStock.registrar((Producto) response.getEntity());
+                    }
+                });
+    }
+
+    /**
+     * Suma o descuenta unidades del stock: {@code {"delta": -2}}.
+     * <p>
+     * Un UPDATE relativo ({@code stock = stock + delta}) que nunca deja stock
+     * negativo. Con {@code productos.stock.agrupar=true} los ajustes simultáneos
+     * del mismo producto se suman y viajan en un solo UPDATE (ver
+     * {@link AgrupadorStock}); cada llamador recibe el stock final de ese UPDATE.
+     * </p>
+     *
+     * <pre>{@code
+     * curl -X POST http://localhost:8080/api/v1/productos/reactivo/1/stock \
+     *   -H "Content-Type: application/json" -d '{"delta": -2}'
+     * }</pre>
+     *
+     * <p>200 con el stock resultante · 400 si el delta es 0 o supera
+     * {@code productos.stock.delta-maximo} · 404 si no existe · 409 si no alcanza el stock.</p>
+     */
+    @POST
+    @Path("/{id}/stock")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Uni<Response> ajustarStock(@PathParam("id") Long id, AjusteStockRequest request) {
+        if (request == null || request.delta == null || request.delta == 0) {
+            return Uni.createFrom().item(
+                Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"El delta debe ser distinto de 0\"}")
+                    .build()
+            );
+        }
+        if (Math.abs((long) request.delta) > deltaMaximo) {
+            return Uni.createFrom().item(
+                Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"El delta no puede superar " + deltaMaximo + " unidades\"}")
+                    .build()
+            );
+        }
+
+        return agrupadorStock.ajustar(id, request.delta)
+                .map(resultado -> switch (resultado.estado) {
+                    case APLICADO -> Response.ok(resultado).build();
+                    case NO_ENCONTRADO -> Response.status(Response.Status.NOT_FOUND).build();
+                    case STOCK_INSUFICIENTE -> Response.status(Response.Status.CONFLICT).entity(resultado).build();
+                });
     }
 
     @DELETE
@@ -113,20 +290,155 @@ public class ProductoReactivoResource {
                         .onItem().transform(deleted -> deleted
                                 ? Response.noContent().build()
                                 : Response.status(Response.Status.NOT_FOUND).build())
-        );
+        ).invoke(response -> {
+            if (response.getStatus() == Response.Status.NO_CONTENT.getStatusCode()) {
+                indiceStock.eliminar(id);
+            }
+        });
     }
 
+    /**
+     * Stock bajo con las entidades completas, ordenado por stock.
+     * <p>
+     * Los IDs salen del índice en memoria ({@link IndiceStockBajo}) y las entidades
+     * se cargan por clave primaria; mientras el índice se carga (o si está
+     * desactivado) se usa la query {@code stock < umbral}.
+     * </p>
+     */
     @GET
     @Path("/stock-bajo/{umbral}")
     public Uni<List<Producto>> stockBajo(@PathParam("umbral") int umbral) {
-        return repository.findConStockBajo(umbral);
+        return indiceStock.consultar(umbral)
+                .map(this::cargarEnOrden)
+                .orElseGet(() -> repository.findConStockBajo(umbral));
+    }
+
+    private Uni<List<Producto>> cargarEnOrden(List<StockProductoDTO> resumen) {
+        if (resumen.isEmpty()) {
+            return Uni.createFrom().item(List.of());
+        }
+        List<Long> ids = resumen.stream().map(p -> p.id).toList();
+        return repository.findPorIds(ids)
+                .map(productos -> {
+                    Map<Long, Producto> porId = productos.stream()
+                            .collect(Collectors.toMap(p -> p.id, p -> p));
+                    return ids.stream().map(porId::get).filter(Objects::nonNull).toList();
+                });
+    }
+
+    /**
+     * Stock bajo para reposición: solo ID, nombre y stock, ordenado por stock.
+     * <p>
+     * Se responde desde el índice en memoria ({@link IndiceStockBajo}) sin tocar la
+     * base de datos; mientras el índice se carga (o si está desactivado) se usa la
+     * query proyectada sobre el índice {@code (stock, id)} de la tabla.
+     * </p>
+     */
+    @GET
+    @Path("/stock-bajo/{umbral}/resumen")
+    public Uni<List<StockProductoDTO>> stockBajoResumen(@PathParam("umbral") int umbral) {
+        return indiceStock.consultar(umbral)
+                .map(productos -> Uni.createFrom().item(productos))
+                .orElseGet(() -> repository.findResumenStockBajo(umbral));
     }
 
+    /**
+     * Búsqueda paginada por texto contenido en el nombre (sin distinguir mayúsculas).
+     * <p>
+     * Usa el índice trigram de {@code nombre}: el costo depende de cuántos productos
+     * coinciden, no del tamaño del catálogo. Se exigen 3 caracteres o más porque con
+     * menos no hay trigramas útiles y la búsqueda recorrería toda la tabla.
+     * </p>
+     *
+     * <pre>{@code
+     * curl "http://localhost:8080/api/v1/productos/reactivo/buscar?q=dell&pagina=0&tamano=20"
+     * }</pre>
+     */
+    @GET
+    @Path("/buscar")
+    public Uni<Response> buscar(@QueryParam("q") String q,
+                                @QueryParam("pagina") @DefaultValue("0") int pagina,
+                                @QueryParam("tamano") @DefaultValue("20") int tamano) {
+        if (q == null || q.isBlank() || q.strip().length() < 3) {
+            return Uni.createFrom().item(
+                Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"El texto a buscar debe tener al menos 3 caracteres\"}")
+                    .build()
+            );
+        }
+        return repository.buscarPorNombre(q.strip(), Math.max(pagina, 0), limitarTamano(tamano))
+                .map(productos -> Response.ok(productos).build());
+    }
+
+    /**
+     * Sugerencias para el autocompletado: ID y nombre de los productos cuyo nombre
+     * empieza con el prefijo, en orden alfabético.
+     * <p>
+     * Un recorrido corto del índice {@code (lower(nombre) COLLATE "C", id)}: pensado
+     * para llamarse en cada tecla.
+     * </p>
+     *
+     * <pre>{@code
+     * curl "http://localhost:8080/api/v1/productos/reactivo/autocompletar?prefijo=lap&limite=10"
+     * }</pre>
+     */
+    @GET
+    @Path("/autocompletar")
+    public Uni<List<SugerenciaDTO>> autocompletar(@QueryParam("prefijo") String prefijo,
+                                                  @QueryParam("limite") @DefaultValue("10") int limite) {
+        if (prefijo == null || prefijo.isBlank()) {
+            return Uni.createFrom().item(List.of());
+        }
+        return repository.autocompletar(prefijo.strip(), limitarTamano(limite));
+    }
+
+    private int limitarTamano(int solicitado) {
+        return Math.min(Math.max(solicitado, 1), tamanoMaximoBusqueda);
+    }
+
+    /**
+     * Crea productos de forma masiva, por bloques.
+     * <p>
+     * Los productos se generan bloque a bloque ({@code productos.carga-masiva.tamano-bloque})
+     * y cada bloque se inserta y confirma en su propia transacción antes de generar el
+     * siguiente: en memoria hay un solo bloque y ninguna transacción crece con el total.
+     * Responde con el rendimiento obtenido (filas por segundo).
+     * </p>
+     */
     @POST
     @Path("/carga-masiva/{cantidad}")
     @Consumes(MediaType.APPLICATION_JSON)
     public Uni<Response> cargaMasiva(@PathParam("cantidad") int cantidad) {
-        List<Producto> productos = IntStream.range(1, cantidad + 1)
+        if (cantidad < 1) {
+            return Uni.createFrom().item(
+                Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"La cantidad debe ser mayor a 0\"}")
+                    .build()
+            );
+        }
+
+        int bloques = (cantidad + tamanoBloque - 1) / tamanoBloque;
+        long inicio = System.nanoTime();
+
+        return Multi.createFrom().range(0, bloques)
+                .onItem().transformToUniAndConcatenate(bloque -> {
+                    int desde = bloque * tamanoBloque + 1;
+                    int hasta = Math.min(desde + tamanoBloque - 1, cantidad);
+                    List<Producto> productos = generarProductos(desde, hasta);
+                    return repository.insertarBloque(productos, tamanoBatch)
+                            .invoke(() -> productos.forEach(indiceStock::registrar));
+                })
+                .collect().last()
+                .onItem().transform(v -> {
+                    CargaMasivaResponse resultado = new CargaMasivaResponse(cantidad, bloques, System.nanoTime() - inicio);
+                    LOG.infof("📦 Carga masiva: %d productos en %d ms (%d filas/s)",
+                            resultado.insertados, resultado.milisegundos, resultado.filasPorSegundo);
+                    return Response.ok(resultado).build();
+                });
+    }
+
+    private static List<Producto> generarProductos(int desde, int hasta) {
+        return IntStream.rangeClosed(desde, hasta)
                 .mapToObj(i -> new Producto(
                         "Producto Masivo " + i,
                         "Generado automáticamente",
@@ -134,47 +446,108 @@ public class ProductoReactivoResource {
                         (int) (Math.random() * 100)
                 ))
                 .collect(Collectors.toList());
-
-        return Panache.withTransaction(() -> repository.persistirLote(productos))
-                .onItem().transform(v -> Response.ok()
-                        .entity("{\"mensaje\": \"" + cantidad + " productos creados exitosamente\"}")
-                        .build());
     }
 
+    /**
+     * Catálogo completo como stream SSE, sin cargar la tabla en memoria.
+     * <p>
+     * Recorre la tabla por páginas (keyset sobre el ID) y pide la siguiente página
+     * solo cuando el cliente consumió la anterior: la demanda del suscriptor marca
+     * el ritmo de las queries. En memoria hay como máximo una página.
+     * </p>
+     *
+     * <p>Tamaño de página y ritmo de emisión se configuran con
+     * {@code productos.stream.tamano-pagina} y {@code productos.stream.intervalo}.</p>
+     */
     @GET
     @Path("/stream")
     @Produces(MediaType.SERVER_SENT_EVENTS)
     public Multi<Producto> streamProductos() {
-        return Panache.withSession(() -> 
-            repository.listAll()
-        ).onItem().transformToMulti(productos ->
-            Multi.createFrom().iterable(productos)
-        ).onItem().call(producto ->
-            Uni.createFrom().voidItem()
-                .onItem().delayIt().by(Duration.ofMillis(1000))
-        );
+        Multi<Producto> productos = Multi.createBy().repeating()
+                .uni(() -> new long[]{0L}, ultimoId -> siguientePagina(ultimoId))
+                .whilst(pagina -> pagina.size() == tamanoPagina)
+                .onItem().transformToIterable(pagina -> pagina);
+
+        if (intervalo.isZero()) {
+            return productos;
+        }
+        return productos.onItem().call(producto ->
+                Uni.createFrom().voidItem().onItem().delayIt().by(intervalo));
     }
 
+    private Uni<List<Producto>> siguientePagina(long[] ultimoId) {
+        return Panache.withSession(() -> repository.paginaDesde(ultimoId[0], tamanoPagina)
+                // Las páginas ya entregadas no deben quedar en la sesión
+                .call(pagina -> Panache.getSession().invoke(Mutiny.Session::clear)))
+                .invoke(pagina -> {
+                    if (!pagina.isEmpty()) {
+                        ultimoId[0] = pagina.get(pagina.size() - 1).id;
+                    }
+                });
+    }
+
+    /**
+     * Stock de un producto en tiempo real (SSE).
+     * <p>
+     * Emite el estado actual y luego un evento por cada cambio, empujado desde
+     * PostgreSQL por LISTEN/NOTIFY y compartido entre todos los clientes del mismo
+     * producto (ver {@link MonitorStock}). No hay polling: la base no recibe queries
+     * mientras el producto no cambie.
+     * </p>
+     * <p>
+     * El estado actual y los cambios llegan por caminos distintos y sin orden
+     * garantizado: cada evento lleva la {@code version} de la fila y se descarta el
+     * que no sea más nuevo que el último enviado (un estado leído antes de un UPDATE
+     * nunca llega al cliente después del cambio).
+     * </p>
+     */
     @GET
     @Path("/monitor-stock/{id}")
     @Produces(MediaType.SERVER_SENT_EVENTS)
     public Multi<String> monitorearStock(@PathParam("id") Long id) {
-        return repository.findById(id)
+        Multi<JsonObject> estadoActual = repository.findById(id)
                 .onItem().ifNull().failWith(() -> new NotFoundException("Producto no encontrado"))
-                .onItem().transformToMulti(producto ->
-                    Multi.createFrom().ticks().every(Duration.ofSeconds(1))
-                        .onItem().transformToUniAndMerge(tick ->
-                            repository.findById(id)
-                                .onItem().transform(p -> {
-                                    if (p == null) {
-                                        return "{\"error\": \"Producto eliminado\"}";
-                                    }
-                                    return String.format(
-                                        "{\"id\": %d, \"nombre\": \"%s\", \"stock\": %d, \"timestamp\": \"%s\"}",
-                                        p.id, p.nombre, p.stock, java.time.LocalDateTime.now()
-                                    );
-                                })
-                        )
-                );
-    }
-}
\ No newline at end of file
+                .onItem().transform(producto -> new JsonObject()
+                        .put("id", producto.id)
+                        .put("nombre", producto.nombre)
+                        .put("stock", producto.stock)
+                        .put("version", producto.version)
+                        .put("timestamp", LocalDateTime.now().toString()))
+                .toMulti();
+
+        return Multi.createFrom().deferred(() -> {
+            // Última versión enviada a ESTE cliente
+            AtomicLong enviada = new AtomicLong(Long.MIN_VALUE);
+            // merging() se suscribe a los cambios ANTES de leer el estado actual:
+            // un cambio confirmado mientras se lee no se pierde
+            return Multi.createBy().merging().streams(monitor.cambios(id), estadoActual)
+                    .select().where(evento -> esMasNuevo(evento, enviada))
+                    .onItem().transform(JsonObject::encode);
+        });
+    }
+
+    /**
+     * true si el evento no lleva versión (aviso de eliminación) o si es más nuevo
+     * que el último enviado, que pasa a ser este.
+     */
+    private static boolean esMasNuevo(JsonObject evento, AtomicLong enviada) {
+        Long version = evento.getLong("version");
+        if (version == null) {
+            return true;
+        }
+        return enviada.getAndAccumulate(version, Math::max) < version;
+    }
+
+    /**
+     * El UPDATE con {@code version} no encontró la fila (otro escritor ganó) o la
+     * precondición {@code If-Match} falló.
+     */
+    private static boolean esConflictoDeVersion(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof OptimisticLockException || e instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
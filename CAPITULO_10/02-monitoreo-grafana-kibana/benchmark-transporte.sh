@@ -0,0 +1,199 @@
+#!/bin/bash
+
+# ============================================================================
+# BENCHMARK DE TRANSPORTE HTTP - REST CLIENTS DE ORDER-SERVICE
+# ============================================================================
+# COMPATIBLE CON: macOS, Linux, Windows (Git Bash con netstat)
+#
+# Compara el throughput de la SAGA y el "churn" de conexiones hacia
+# inventory-service (8081) y payment-service (8082) con 500 órdenes
+# concurrentes. Entre corridas SOLO cambia el transporte de los REST clients
+# (perfiles %bench-* en order-service/src/main/resources/application.properties):
+#
+#   prod              -> keep-alive + pool de 32 conexiones (application.properties)
+#   bench-http1       -> HTTP/1.1 sin keep-alive (una conexión por llamada)
+#   bench-pipelining  -> HTTP/1.1 keep-alive + pipelining
+#   bench-http2       -> HTTP/2 h2c, 4 conexiones multiplexadas
+#
+# El limitador adaptativo y los bulkheads se fijan igual en todas las
+# corridas para que no rechacen órdenes y no contaminen la comparación.
+# Antes de cada perfil se repone el stock de los productos en inventory_db:
+# todas las corridas parten del mismo inventario y "fallidas" no arrastra
+# el stock consumido por el perfil anterior.
+#
+# Los valores de prod NO salen de una medición: pool 32 = bulkhead (20) +
+# margen, TTL 60 s < idle-timeout del servidor. El reporte deja los números
+# medidos de cada perfil para elegir (o confirmar) el transporte con datos.
+#
+# REQUISITOS:
+#   - docker-compose levantado (PostgreSQL + Redis)
+#   - inventory-service y payment-service corriendo
+#   - docker (contenedor postgres-db) o psql en el PATH para reponer el stock
+#   - order-service empaquetado: mvn install -DskipTests (desde la raíz, incluye wire-format)
+#
+# SALIDA:
+#   - Tabla en consola
+#   - Archivo: benchmark-transporte-report-YYYY-MM-DD-HHMMSS.txt
+# ============================================================================
+
+# ----------------------------------------------------------------------------
+# CONFIGURACION
+# ----------------------------------------------------------------------------
+
+ORDER_SERVICE="http://localhost:8080"
+ORDER_JAR="order-service/target/quarkus-app/quarkus-run.jar"
+CONCURRENCY=${CONCURRENCY:-500}
+PROFILES=${PROFILES:-"prod bench-http1 bench-pipelining bench-http2"}
+PRODUCTS=("LAPTOP-001" "MOUSE-001" "KEYBOARD-001" "MONITOR-001" "MOUSE-PAD-001")
+WARMUP_ORDERS=10
+
+# Stock por producto al inicio de cada perfil: alcanza aunque todas las
+# órdenes (calentamiento incluido) pidan el mismo producto
+BENCH_STOCK=$((CONCURRENCY + WARMUP_ORDERS))
+PG_CONTAINER=${PG_CONTAINER:-postgres-db}
+
+# Mismos límites de protección en todas las corridas
+COMMON_OPTS="-Dorder.saga.limiter.enabled=false \
+ -Dorder.bulkhead.inventory.max-concurrent=${CONCURRENCY} \
+ -Dorder.bulkhead.payment.max-concurrent=${CONCURRENCY} \
+ -Dquarkus.log.category.\"pe.banco\".level=WARN \
+ -Dquarkus.hibernate-orm.log.sql=false"
+
+TIMESTAMP=$(date +"%Y-%m-%d-%H%M%S")
+REPORT_FILE="benchmark-transporte-report-${TIMESTAMP}.txt"
+WORK_DIR=$(mktemp -d)
+
+# ----------------------------------------------------------------------------
+# FUNCIONES AUXILIARES
+# ----------------------------------------------------------------------------
+
+get_time_ms() {
+    if command -v python3 &> /dev/null; then
+        python3 -c 'import time; print(int(time.time() * 1000))'
+    else
+        echo $(($(date +%s) * 1000))
+    fi
+}
+
+# Cuenta sockets hacia los servicios downstream en un estado dado
+# (ESTABLISHED = conexiones vivas, TIME_WAIT = conexiones cerradas recientemente)
+count_sockets() {
+    local state=$1
+    netstat -an 2>/dev/null | grep -E "[:.](8081|8082)[[:space:]]" | grep -c "$state"
+}
+
+wait_for_order_service() {
+    for _ in $(seq 1 60); do
+        if curl -s -o /dev/null -w "%{http_code}" "${ORDER_SERVICE}/health" | grep -q "200"; then
+            return 0
+        fi
+        sleep 1
+    done
+    return 1
+}
+
+send_order() {
+    local i=$1
+    local products
+    read -r -a products <<< "$PRODUCTS_LIST"
+    local product=${products[$((i % ${#products[@]}))]}
+    curl -s -o /dev/null -w "%{http_code} %{time_total}\n" \
+        -X POST "${ORDER_SERVICE}/api/orders" \
+        -H "Content-Type: application/json" \
+        -d "{\"userId\":\"bench-${i}\",\"paymentMethod\":\"CREDIT_CARD\",\"items\":[{\"productCode\":\"${product}\",\"quantity\":1}]}"
+}
+export -f send_order
+export ORDER_SERVICE
+export PRODUCTS_LIST="${PRODUCTS[*]}"
+
+# Repone stock y libera reservas de los productos del benchmark
+reset_stock() {
+    local codes
+    codes=$(printf "'%s'," "${PRODUCTS[@]}")
+    local sql="UPDATE products SET stock = ${BENCH_STOCK}, reservedstock = 0 WHERE productcode IN (${codes%,})"
+    if command -v docker &> /dev/null && docker ps --format '{{.Names}}' | grep -qx "$PG_CONTAINER"; then
+        docker exec "$PG_CONTAINER" psql -q -v ON_ERROR_STOP=1 -U postgres -d inventory_db -c "$sql" > /dev/null
+    elif command -v psql &> /dev/null; then
+        PGPASSWORD=postgres psql -q -v ON_ERROR_STOP=1 -h localhost -p 5433 -U postgres -d inventory_db \
+            -c "$sql" > /dev/null
+    else
+        return 1
+    fi
+}
+
+log() {
+    echo -e "$1"
+    echo -e "$1" | sed 's/\x1b\[[0-9;]*m//g' >> "$REPORT_FILE"
+}
+
+# ----------------------------------------------------------------------------
+# BENCHMARK
+# ----------------------------------------------------------------------------
+
+if [[ ! -f "$ORDER_JAR" ]]; then
+    echo "[FAIL] No existe $ORDER_JAR - ejecuta: mvn install -DskipTests (desde la raíz)"
+    exit 1
+fi
+
+log "Benchmark de transporte REST client - ${TIMESTAMP}"
+log "Órdenes concurrentes: ${CONCURRENCY}"
+log ""
+printf -v header "%-18s %8s %10s %10s %10s %12s %12s" \
+    "perfil" "ok" "fallidas" "ord/s" "p99(ms)" "conex.vivas" "TIME_WAIT"
+log "$header"
+
+for profile in $PROFILES; do
+    if ! reset_stock; then
+        log "[FAIL] No se pudo reponer el stock en inventory_db (docker $PG_CONTAINER o psql)"
+        exit 1
+    fi
+
+    # shellcheck disable=SC2086
+    java -Dquarkus.profile="$profile" $COMMON_OPTS -jar "$ORDER_JAR" > "${WORK_DIR}/${profile}.log" 2>&1 &
+    ORDER_PID=$!
+
+    if ! wait_for_order_service; then
+        log "[FAIL] order-service no levantó con perfil $profile (ver ${WORK_DIR}/${profile}.log)"
+        kill "$ORDER_PID" 2>/dev/null
+        continue
+    fi
+
+    # Calentamiento: llena el cache Redis y abre las conexiones iniciales
+    for i in $(seq 0 $((WARMUP_ORDERS - 1))); do
+        send_order "$i" > /dev/null
+    done
+
+    tw_before=$(count_sockets TIME_WAIT)
+    start=$(get_time_ms)
+
+    seq 1 "$CONCURRENCY" | xargs -P "$CONCURRENCY" -I{} \
+        bash -c 'send_order {}' > "${WORK_DIR}/${profile}.results"
+
+    end=$(get_time_ms)
+    established=$(count_sockets ESTABLISHED)
+    tw_after=$(count_sockets TIME_WAIT)
+
+    elapsed=$((end - start))
+    ok=$(grep -c "^201 " "${WORK_DIR}/${profile}.results")
+    failed=$((CONCURRENCY - ok))
+    throughput=$(awk -v n="$CONCURRENCY" -v ms="$elapsed" 'BEGIN { printf "%.1f", n * 1000 / ms }')
+    p99=$(awk '{ print $2 * 1000 }' "${WORK_DIR}/${profile}.results" | sort -n \
+        | awk '{ v[NR] = $1 } END { idx = int(NR * 0.99); if (idx < 1) idx = 1; printf "%.0f", v[idx] }')
+    churn=$((tw_after - tw_before))
+
+    printf -v row "%-18s %8s %10s %10s %10s %12s %12s" \
+        "$profile" "$ok" "$failed" "$throughput" "$p99" "$established" "$churn"
+    log "$row"
+
+    kill "$ORDER_PID" 2>/dev/null
+    wait "$ORDER_PID" 2>/dev/null
+    # Deja que los sockets de la corrida anterior salgan de TIME_WAIT
+    sleep 5
+done
+
+log ""
+log "Cada perfil partió con stock=${BENCH_STOCK} por producto: fallidas son errores o rechazos, no falta de stock."
+log "TIME_WAIT = conexiones abiertas y cerradas durante la corrida (churn)."
+log "Reporte guardado en: ${REPORT_FILE}"
+
+rm -rf "$WORK_DIR"
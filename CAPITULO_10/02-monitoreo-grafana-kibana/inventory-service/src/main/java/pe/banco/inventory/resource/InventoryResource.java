@@ -9,12 +9,14 @@ import pe.banco.inventory.dto.ProductDTO;
 import pe.banco.inventory.dto.ReservationRequest;
 import pe.banco.inventory.dto.ReservationResponse;
 import pe.banco.inventory.service.InventoryService;
+import pe.banco.wire.SmileMessageBodyHandler;
 
 import java.util.List;
 
 @Path("/api/inventory")
-@Produces(MediaType.APPLICATION_JSON)
-@Consumes(MediaType.APPLICATION_JSON)
+// JSON para clientes externos; Smile (binario) para order-service si lo pide
+@Produces({MediaType.APPLICATION_JSON, SmileMessageBodyHandler.APPLICATION_SMILE})
+@Consumes({MediaType.APPLICATION_JSON, SmileMessageBodyHandler.APPLICATION_SMILE})
 public class InventoryResource {
 
     private static final Logger LOG = Logger.getLogger(InventoryResource.class);
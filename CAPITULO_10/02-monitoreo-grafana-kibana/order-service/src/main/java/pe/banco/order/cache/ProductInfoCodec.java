@@ -0,0 +1,187 @@
+package pe.banco.order.cache;
+
+import io.quarkus.redis.datasource.codecs.Codec;
+import io.vertx.core.json.Json;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import pe.banco.order.dto.ProductInfoDTO;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Codec binario para ProductInfoDTO en el cache Redis (reemplaza al codec JSON por defecto).
+ *
+ * Formato (big-endian):
+ * <pre>
+ * [0]    versión del esquema (2)
+ * [1]    flags: bit 7 = comprimido (Deflate), bits 0-5 = campo presente (id..price)
+ * [2..]  campos presentes en orden fijo:
+ *        id (long 8) | productCode (int len + UTF-8) | name (int len + UTF-8)
+ *        stock (int 4) | availableStock (int 4) | price (double 8)
+ * </pre>
+ *
+ * La versión 1 usaba u16 como largo de los strings: un nombre de más de 65535
+ * bytes UTF-8 se truncaba en silencio y desalineaba el resto de los campos.
+ * Las entradas v1 se siguen leyendo hasta que expire su TTL.
+ *
+ * Sin nombres de campo ni texto numérico: ~45% menos bytes que JSON y sin parser
+ * en cada cache HIT. Las entradas JSON escritas antes de este codec (empiezan con '{')
+ * se siguen leyendo hasta que expire su TTL.
+ *
+ * Para agregar un campo: subir VERSION, escribirlo al final y en decode()
+ * leerlo solo si version >= la nueva versión.
+ */
+@ApplicationScoped
+public class ProductInfoCodec implements Codec {
+
+    static final byte VERSION = 2;
+
+    // Primera versión con largo int (antes u16) en los strings
+    private static final byte VERSION_INT_LENGTH = 2;
+
+    private static final int COMPRESSED = 0x80;
+    private static final int HAS_ID = 1;
+    private static final int HAS_CODE = 1 << 1;
+    private static final int HAS_NAME = 1 << 2;
+    private static final int HAS_STOCK = 1 << 3;
+    private static final int HAS_AVAILABLE = 1 << 4;
+    private static final int HAS_PRICE = 1 << 5;
+
+    // Bytes a partir de los cuales se comprime el cuerpo (0 = nunca)
+    @ConfigProperty(name = "order.cache.codec.compress-threshold", defaultValue = "512")
+    int compressThreshold;
+
+    public ProductInfoCodec() {
+    }
+
+    public ProductInfoCodec(int compressThreshold) {
+        this.compressThreshold = compressThreshold;
+    }
+
+    @Override
+    public boolean canHandle(Type clazz) {
+        return clazz == ProductInfoDTO.class;
+    }
+
+    @Override
+    public byte[] encode(Object item) {
+        ProductInfoDTO product = (ProductInfoDTO) item;
+        byte[] code = utf8(product.productCode);
+        byte[] name = utf8(product.name);
+
+        int flags = 0;
+        int size = 0;
+        if (product.id != null) { flags |= HAS_ID; size += 8; }
+        if (code != null) { flags |= HAS_CODE; size += 4 + code.length; }
+        if (name != null) { flags |= HAS_NAME; size += 4 + name.length; }
+        if (product.stock != null) { flags |= HAS_STOCK; size += 4; }
+        if (product.availableStock != null) { flags |= HAS_AVAILABLE; size += 4; }
+        if (product.price != null) { flags |= HAS_PRICE; size += 8; }
+
+        ByteBuffer body = ByteBuffer.allocate(size);
+        if (product.id != null) body.putLong(product.id);
+        if (code != null) body.putInt(code.length).put(code);
+        if (name != null) body.putInt(name.length).put(name);
+        if (product.stock != null) body.putInt(product.stock);
+        if (product.availableStock != null) body.putInt(product.availableStock);
+        if (product.price != null) body.putDouble(product.price);
+
+        byte[] payload = body.array();
+        if (compressThreshold > 0 && payload.length >= compressThreshold) {
+            payload = deflate(payload);
+            flags |= COMPRESSED;
+        }
+
+        byte[] result = new byte[2 + payload.length];
+        result[0] = VERSION;
+        result[1] = (byte) flags;
+        System.arraycopy(payload, 0, result, 2, payload.length);
+        return result;
+    }
+
+    @Override
+    public Object decode(byte[] item) {
+        if (item == null || item.length == 0) {
+            return null;
+        }
+        if (item[0] == '{') {
+            // Entrada escrita por el codec JSON anterior
+            return Json.decodeValue(new String(item, StandardCharsets.UTF_8), ProductInfoDTO.class);
+        }
+        if (item[0] > VERSION) {
+            throw new IllegalStateException("Versión de cache desconocida: " + item[0]);
+        }
+
+        int flags = item[1] & 0xFF;
+        ByteBuffer body = (flags & COMPRESSED) != 0
+                ? ByteBuffer.wrap(inflate(item, 2))
+                : ByteBuffer.wrap(item, 2, item.length - 2);
+
+        boolean intLength = item[0] >= VERSION_INT_LENGTH;
+        ProductInfoDTO product = new ProductInfoDTO();
+        if ((flags & HAS_ID) != 0) product.id = body.getLong();
+        if ((flags & HAS_CODE) != 0) product.productCode = readString(body, intLength);
+        if ((flags & HAS_NAME) != 0) product.name = readString(body, intLength);
+        if ((flags & HAS_STOCK) != 0) product.stock = body.getInt();
+        if ((flags & HAS_AVAILABLE) != 0) product.availableStock = body.getInt();
+        if ((flags & HAS_PRICE) != 0) product.price = body.getDouble();
+        return product;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String readString(ByteBuffer buffer, boolean intLength) {
+        int length = intLength ? buffer.getInt() : Short.toUnsignedInt(buffer.getShort());
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalStateException("Entrada de cache corrupta: largo de string " + length);
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length);
+            byte[] chunk = new byte[256];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data, int offset) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, offset, data.length - offset);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 2);
+            byte[] chunk = new byte[256];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(chunk);
+                if (n == 0 && inflater.needsInput()) {
+                    break;
+                }
+                out.write(chunk, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Entrada de cache corrupta", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package pe.banco.order.client;
 
+import io.smallrye.mutiny.Uni;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.rest.client.annotation.RegisterProvider;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 import pe.banco.order.dto.ProductInfoDTO;
 
 @Path("/api/inventory")
 @RegisterRestClient(configKey = "inventory-api")
+@RegisterProvider(TransportOptionsResolver.Inventory.class)
+@RegisterProvider(WireFormatFilter.Inventory.class)
+// Sin @Bulkhead aquí: sobre la interfaz daría un compartimiento por método.
+// Todas las llamadas pasan por DownstreamBulkheads.inventory() (un cupo compartido).
 public interface InventoryClient {
 
     @GET
@@ -14,6 +20,13 @@ public interface InventoryClient {
     @Produces(MediaType.APPLICATION_JSON)
     ProductInfoDTO getProduct(@PathParam("productCode") String productCode);
 
+    // Misma llamada sin bloquear: cancelar la suscripción aborta el request HTTP
+    // (lo usa HedgedProductLookup para cortar la llamada que perdió)
+    @GET
+    @Path("/products/{productCode}")
+    @Produces(MediaType.APPLICATION_JSON)
+    Uni<ProductInfoDTO> getProductAsync(@PathParam("productCode") String productCode);
+
     @POST
     @Path("/reserve")
     @Consumes(MediaType.APPLICATION_JSON)
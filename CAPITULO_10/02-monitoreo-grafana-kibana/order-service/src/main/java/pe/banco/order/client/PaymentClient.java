@@ -2,10 +2,16 @@ package pe.banco.order.client;
 
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.rest.client.annotation.RegisterProvider;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
 @Path("/api/payments")
 @RegisterRestClient(configKey = "payment-api")
+@RegisterProvider(TransportOptionsResolver.Payment.class)
+@RegisterProvider(WireFormatFilter.Payment.class)
+// Sin @Bulkhead aquí: sobre la interfaz daría un compartimiento por método.
+// Todas las llamadas pasan por DownstreamBulkheads.payment(), independiente del
+// de inventario: un payment-service lento no consume sus permisos.
 public interface PaymentClient {
 
     @POST
@@ -0,0 +1,69 @@
+package pe.banco.order.client;
+
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpVersion;
+import jakarta.ws.rs.ext.ContextResolver;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import java.util.List;
+
+/**
+ * Ajustes de transporte HTTP (Vert.x) que Quarkus no expone como propiedad
+ * quarkus.rest-client.*: pipelining HTTP/1.1, límite de multiplexación HTTP/2
+ * y HTTP/2 sin TLS (h2c) con "prior knowledge".
+ *
+ * El tamaño del pool, keep-alive, TTL y http2 se siguen configurando con
+ * quarkus.rest-client."config-key".* y se aplican encima de estas opciones.
+ *
+ * Propiedades (por cliente):
+ * order.transport."config-key".pipelining=false
+ * order.transport."config-key".pipelining-limit=10
+ * order.transport."config-key".http2-multiplexing-limit=-1
+ * order.transport."config-key".http2-prior-knowledge=false
+ */
+public abstract class TransportOptionsResolver implements ContextResolver<HttpClientOptions> {
+
+    private final HttpClientOptions options;
+
+    protected TransportOptionsResolver(String configKey) {
+        Config config = ConfigProvider.getConfig();
+        String prefix = "order.transport.\"" + configKey + "\".";
+
+        boolean pipelining = config.getOptionalValue(prefix + "pipelining", Boolean.class).orElse(false);
+        int pipeliningLimit = config.getOptionalValue(prefix + "pipelining-limit", Integer.class)
+                .orElse(HttpClientOptions.DEFAULT_PIPELINING_LIMIT);
+        int multiplexingLimit = config.getOptionalValue(prefix + "http2-multiplexing-limit", Integer.class)
+                .orElse(HttpClientOptions.DEFAULT_HTTP2_MULTIPLEXING_LIMIT);
+        boolean priorKnowledge = config.getOptionalValue(prefix + "http2-prior-knowledge", Boolean.class).orElse(false);
+
+        options = new HttpClientOptions()
+                .setPipelining(pipelining)
+                .setPipeliningLimit(pipeliningLimit)
+                .setHttp2MultiplexingLimit(multiplexingLimit);
+
+        if (priorKnowledge) {
+            // h2c directo: sin el round-trip extra de "Upgrade: h2c"
+            options.setProtocolVersion(HttpVersion.HTTP_2)
+                    .setHttp2ClearTextUpgrade(false)
+                    .setAlpnVersions(List.of(HttpVersion.HTTP_2, HttpVersion.HTTP_1_1));
+        }
+    }
+
+    @Override
+    public HttpClientOptions getContext(Class<?> type) {
+        return HttpClientOptions.class.equals(type) ? options : null;
+    }
+
+    public static class Inventory extends TransportOptionsResolver {
+        public Inventory() {
+            super("inventory-api");
+        }
+    }
+
+    public static class Payment extends TransportOptionsResolver {
+        public Payment() {
+            super("payment-api");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package pe.banco.order.client;
+
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientRequestFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.config.ConfigProvider;
+import pe.banco.wire.SmileMessageBodyHandler;
+
+/**
+ * Selecciona el formato de serialización de cada REST client.
+ *
+ * Las interfaces declaran JSON (contrato público). Si el cliente está configurado
+ * con wire-format=smile, este filtro cambia el body y el Accept a
+ * application/x-jackson-smile antes de serializar.
+ *
+ * Propiedad (por cliente):
+ * order.transport."config-key".wire-format=json | smile
+ */
+public abstract class WireFormatFilter implements ClientRequestFilter {
+
+    private final boolean smile;
+
+    protected WireFormatFilter(String configKey) {
+        String format = ConfigProvider.getConfig()
+                .getOptionalValue("order.transport.\"" + configKey + "\".wire-format", String.class)
+                .orElse("json");
+        this.smile = "smile".equalsIgnoreCase(format);
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext) {
+        if (!smile) {
+            return;
+        }
+        if (requestContext.hasEntity()) {
+            requestContext.setEntity(requestContext.getEntity(), requestContext.getEntityAnnotations(),
+                    SmileMessageBodyHandler.APPLICATION_SMILE_TYPE);
+        }
+        // JSON queda como alternativa por si el servidor aún no soporta Smile
+        requestContext.getHeaders().putSingle(HttpHeaders.ACCEPT,
+                SmileMessageBodyHandler.APPLICATION_SMILE + ", " + MediaType.APPLICATION_JSON + ";q=0.5");
+    }
+
+    public static class Inventory extends WireFormatFilter {
+        public Inventory() {
+            super("inventory-api");
+        }
+    }
+
+    public static class Payment extends WireFormatFilter {
+        public Payment() {
+            super("payment-api");
+        }
+    }
+}
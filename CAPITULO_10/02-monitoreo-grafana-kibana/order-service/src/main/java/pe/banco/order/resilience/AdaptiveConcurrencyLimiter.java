@@ -0,0 +1,148 @@
+package pe.banco.order.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limitador de concurrencia adaptativo (AIMD) para la SAGA de órdenes.
+ *
+ * A diferencia del @Bulkhead (límite fijo por cliente REST), este limitador
+ * ajusta sus permisos según la latencia observada:
+ * - Additive Increase: si las llamadas responden rápido y el límite se está usando, sube +1
+ * - Multiplicative Decrease: si una llamada es lenta o falla, multiplica el límite por backoff-ratio
+ *
+ * Cuando no hay permisos disponibles, la orden se rechaza de inmediato (503 + Retry-After)
+ * en vez de quedar encolada esperando a un inventory-service lento.
+ *
+ * Analogía: Es como el semáforo de entrada a una autopista. Si el tráfico fluye,
+ * deja pasar más autos; si hay congestión, deja pasar menos.
+ */
+@ApplicationScoped
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger LOG = Logger.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    @ConfigProperty(name = "order.saga.limiter.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "order.saga.limiter.initial-limit", defaultValue = "20")
+    int initialLimit;
+
+    @ConfigProperty(name = "order.saga.limiter.min-limit", defaultValue = "2")
+    int minLimit;
+
+    @ConfigProperty(name = "order.saga.limiter.max-limit", defaultValue = "200")
+    int maxLimit;
+
+    @ConfigProperty(name = "order.saga.limiter.backoff-ratio", defaultValue = "0.9")
+    double backoffRatio;
+
+    @ConfigProperty(name = "order.saga.limiter.latency-threshold-ms", defaultValue = "2000")
+    long latencyThresholdMs;
+
+    @ConfigProperty(name = "order.saga.limiter.retry-after-seconds", defaultValue = "1")
+    int retryAfterSeconds;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private Counter rejected;
+    private Counter dropped;
+
+    @jakarta.annotation.PostConstruct
+    void init() {
+        limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+
+        Gauge.builder("order.saga.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Permisos actuales del limitador adaptativo de la SAGA")
+                .register(registry);
+        Gauge.builder("order.saga.limiter.inflight", inFlight, AtomicInteger::get)
+                .description("SAGAs en ejecución")
+                .register(registry);
+        rejected = Counter.builder("order.saga.limiter.rejected")
+                .description("Órdenes rechazadas por sobrecarga (503)")
+                .register(registry);
+        dropped = Counter.builder("order.saga.limiter.dropped")
+                .description("SAGAs lentas o fallidas que redujeron el límite")
+                .register(registry);
+    }
+
+    /**
+     * Intenta obtener un permiso sin bloquear.
+     *
+     * @throws OverloadException si ya se alcanzó el límite actual
+     */
+    public Permit acquire() {
+        if (!enabled) {
+            return new Permit(System.nanoTime());
+        }
+
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                LOG.warn("🚦 Limitador saturado (" + current + "/" + (int) limit + ") - rechazando orden");
+                throw new OverloadException("Servicio de órdenes saturado, reintente en " + retryAfterSeconds + "s",
+                        retryAfterSeconds);
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * Ajusta el límite según el resultado de la llamada (AIMD).
+     */
+    private synchronized void onComplete(long startNanos, boolean success) {
+        long rttMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        int current = inFlight.getAndDecrement();
+
+        if (!success || rttMs > latencyThresholdMs) {
+            dropped.increment();
+            limit = Math.max(minLimit, limit * backoffRatio);
+            LOG.debug("📉 Límite reducido a " + (int) limit + " (rtt=" + rttMs + "ms, success=" + success + ")");
+        } else if (current * 2 >= limit) {
+            // Solo crece si el límite realmente se está usando
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    public double getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Permiso obtenido del limitador. Debe liberarse exactamente una vez.
+     */
+    public class Permit {
+        private final long startNanos;
+        private boolean released;
+
+        Permit(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        public void release(boolean success) {
+            if (released || !enabled) {
+                return;
+            }
+            released = true;
+            onComplete(startNanos, success);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package pe.banco.order.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
+import org.jboss.logging.Logger;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Un compartimiento (bulkhead) de llamadas concurrentes POR servicio downstream.
+ *
+ * @Bulkhead sobre la interfaz del REST client crea un compartimiento por MÉTODO:
+ * con 5 métodos en InventoryClient serían hasta 5 × 20 llamadas simultáneas a
+ * inventory-service. Aquí todas las llamadas a un mismo servicio comparten un
+ * único cupo, incluidas las asíncronas del hedging:
+ *
+ *   reserveStock ─┐
+ *   confirm ──────┤
+ *   cancel ───────┼──▶ [ inventory: 20 permisos ] ──▶ inventory-service
+ *   getProduct ───┤
+ *   hedge (Uni) ──┘
+ *
+ *   processPayment ─┬──▶ [ payment: 20 permisos ] ──▶ payment-service
+ *   refundPayment ──┘
+ *
+ * Sin permisos la llamada se rechaza de inmediato con BulkheadException (la misma
+ * que lanzaba @Bulkhead): OrderResource la convierte en 503 + Retry-After.
+ *
+ * Analogía: Es como los compartimientos estancos de un barco. Si uno se inunda
+ * (inventory-service lento), el agua no pasa al de pagos.
+ */
+@ApplicationScoped
+public class DownstreamBulkheads {
+
+    private static final Logger LOG = Logger.getLogger(DownstreamBulkheads.class);
+
+    @ConfigProperty(name = "order.bulkhead.inventory.max-concurrent", defaultValue = "20")
+    int inventoryMaxConcurrent;
+
+    @ConfigProperty(name = "order.bulkhead.payment.max-concurrent", defaultValue = "20")
+    int paymentMaxConcurrent;
+
+    @Inject
+    MeterRegistry registry;
+
+    private Compartment inventory;
+    private Compartment payment;
+
+    @jakarta.annotation.PostConstruct
+    void init() {
+        inventory = new Compartment("inventory", inventoryMaxConcurrent, registry);
+        payment = new Compartment("payment", paymentMaxConcurrent, registry);
+    }
+
+    public Compartment inventory() {
+        return inventory;
+    }
+
+    public Compartment payment() {
+        return payment;
+    }
+
+    /**
+     * Cupo fijo de llamadas en curso hacia un servicio.
+     */
+    public static final class Compartment {
+
+        private final String name;
+        private final int maxConcurrent;
+        private final Semaphore permits;
+        private final Counter rejected;
+
+        Compartment(String name, int maxConcurrent, MeterRegistry registry) {
+            this.name = name;
+            this.maxConcurrent = maxConcurrent;
+            this.permits = new Semaphore(maxConcurrent);
+            this.rejected = Counter.builder("order.bulkhead.rejected")
+                    .tag("downstream", name)
+                    .description("Llamadas rechazadas por bulkhead lleno")
+                    .register(registry);
+            Gauge.builder("order.bulkhead.inflight", this, c -> c.maxConcurrent - c.permits.availablePermits())
+                    .tag("downstream", name)
+                    .description("Llamadas en curso hacia el servicio downstream")
+                    .register(registry);
+        }
+
+        /**
+         * Ejecuta una llamada bloqueante dentro del cupo.
+         *
+         * @throws BulkheadException si el cupo está lleno
+         */
+        public <T> T call(Supplier<T> call) {
+            acquire();
+            try {
+                return call.get();
+            } finally {
+                permits.release();
+            }
+        }
+
+        public void run(Runnable call) {
+            call(() -> {
+                call.run();
+                return null;
+            });
+        }
+
+        /**
+         * Versión asíncrona: el permiso se toma al suscribirse y se devuelve al
+         * terminar, fallar o cancelar (el hedge que pierde libera su permiso).
+         */
+        public <T> Uni<T> async(Supplier<Uni<T>> call) {
+            return Uni.createFrom().deferred(() -> {
+                acquire();
+                AtomicBoolean released = new AtomicBoolean();
+                Runnable release = () -> {
+                    if (released.compareAndSet(false, true)) {
+                        permits.release();
+                    }
+                };
+                try {
+                    return call.get().onTermination().invoke(release);
+                } catch (RuntimeException e) {
+                    release.run();
+                    throw e;
+                }
+            });
+        }
+
+        private void acquire() {
+            if (!permits.tryAcquire()) {
+                rejected.increment();
+                LOG.warn("🚧 Bulkhead " + name + " lleno (" + maxConcurrent + " llamadas en curso)");
+                throw new BulkheadException("Bulkhead " + name + " lleno");
+            }
+        }
+    }
+}
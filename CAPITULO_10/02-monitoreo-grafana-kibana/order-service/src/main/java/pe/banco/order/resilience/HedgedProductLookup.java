@@ -0,0 +1,271 @@
+package pe.banco.order.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.subscription.Cancellable;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.RestClientBuilder;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.logging.Logger;
+import pe.banco.order.client.InventoryClient;
+import pe.banco.order.dto.ProductInfoDTO;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Consulta de productos con "hedged requests" (peticiones de cobertura).
+ *
+ * InventoryClient.getProduct es un GET idempotente que está en el camino crítico
+ * de la creación de órdenes (cache MISS). Si la primera llamada no respondió dentro
+ * del p95 observado, se lanza una segunda llamada a otra réplica y gana la primera
+ * respuesta exitosa.
+ *
+ * Para no duplicar la carga sobre inventory-service, los hedges consumen un
+ * presupuesto: cada petición aporta budget-percent/100 tokens y cada hedge cuesta 1.
+ *
+ * Detalles que importan:
+ * - El p95 se calcula con la latencia de la llamada ORIGINAL, no la del ganador:
+ *   si el hedge gana, la original se corta y cuenta con lo que llevaba (cota
+ *   inferior). Con la latencia del ganador el p95 bajaría solo y los hedges se
+ *   lanzarían cada vez antes.
+ * - Las llamadas son Uni del REST client: cancelar la suscripción aborta el
+ *   request HTTP, así la llamada que perdió no sigue ocupando inventory-service.
+ * - Original y hedge (también hacia réplicas) toman permiso del mismo bulkhead de
+ *   inventario: el hedging no puede pasar por encima del cupo de 20 llamadas.
+ *
+ * Analogía: Es como pedir un taxi en dos aplicaciones cuando el primero tarda
+ * más de lo normal. Te subes al que llega primero.
+ */
+@ApplicationScoped
+public class HedgedProductLookup {
+
+    private static final Logger LOG = Logger.getLogger(HedgedProductLookup.class);
+    private static final int LATENCY_WINDOW = 1024;
+    private static final int RECALCULATE_EVERY = 64;
+    private static final double MAX_TOKENS = 10.0;
+
+    @ConfigProperty(name = "order.inventory.hedging.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "order.inventory.hedging.replica-urls")
+    Optional<List<String>> replicaUrls;
+
+    @ConfigProperty(name = "order.inventory.hedging.budget-percent", defaultValue = "5")
+    double budgetPercent;
+
+    @ConfigProperty(name = "order.inventory.hedging.min-delay-ms", defaultValue = "10")
+    long minDelayMs;
+
+    @ConfigProperty(name = "order.inventory.hedging.initial-delay-ms", defaultValue = "100")
+    long initialDelayMs;
+
+    @Inject
+    @RestClient
+    InventoryClient inventoryClient;
+
+    @Inject
+    DownstreamBulkheads bulkheads;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final List<InventoryClient> replicas = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    // Ventana circular de latencias (ms) para estimar el p95
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private final AtomicInteger samples = new AtomicInteger();
+    private volatile long p95Ms;
+
+    private double tokens;
+
+    private Counter requests;
+    private Counter hedges;
+    private Counter hedgeWins;
+    private Counter budgetExhausted;
+
+    @jakarta.annotation.PostConstruct
+    void init() {
+        p95Ms = initialDelayMs;
+
+        for (String url : replicaUrls.orElse(List.of())) {
+            replicas.add(RestClientBuilder.newBuilder()
+                    .baseUri(URI.create(url))
+                    .build(InventoryClient.class));
+        }
+
+        requests = Counter.builder("order.inventory.hedging.requests")
+                .description("Consultas de producto que pasaron por el hedging")
+                .register(registry);
+        hedges = Counter.builder("order.inventory.hedging.hedges")
+                .description("Segundas llamadas lanzadas (hedge rate = hedges / requests)")
+                .register(registry);
+        hedgeWins = Counter.builder("order.inventory.hedging.wins")
+                .description("Veces que el hedge respondió antes que la llamada original")
+                .register(registry);
+        budgetExhausted = Counter.builder("order.inventory.hedging.budget.exhausted")
+                .description("Hedges descartados por falta de presupuesto")
+                .register(registry);
+        Gauge.builder("order.inventory.hedging.delay.ms", this, h -> h.p95Ms)
+                .description("Retraso actual antes de lanzar el hedge (p95 observado)")
+                .register(registry);
+    }
+
+    /**
+     * Obtiene un producto, lanzando un hedge si la primera llamada tarda más que el p95.
+     */
+    public ProductInfoDTO getProduct(String productCode) {
+        if (!enabled) {
+            return bulkheads.inventory().call(() -> inventoryClient.getProduct(productCode));
+        }
+
+        requests.increment();
+        earnBudget();
+        Race race = new Race(System.nanoTime());
+
+        Cancellable primary = launch(inventoryClient, productCode, race, false);
+        Cancellable hedge = null;
+        try {
+            return race.winner.get(Math.max(minDelayMs, p95Ms), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException slow) {
+            if (race.addCall(this::tryConsumeBudget)) {
+                hedges.increment();
+                LOG.debug("🏁 Hedge lanzado para producto: " + productCode + " tras " + p95Ms + "ms");
+                hedge = launch(pickReplica(), productCode, race, true);
+            } else if (!race.winner.isDone()) {
+                budgetExhausted.increment();
+            }
+            try {
+                return race.winner.get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw unwrap(e);
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw unwrap(e);
+        } finally {
+            // La original que perdió (o quedó colgada) se corta y su latencia cuenta igual
+            if (race.primaryFinished.compareAndSet(false, true)) {
+                primary.cancel();
+                record(race.startNanos);
+            }
+            if (hedge != null) {
+                hedge.cancel();
+            }
+        }
+    }
+
+    private Cancellable launch(InventoryClient client, String productCode, Race race, boolean isHedge) {
+        return bulkheads.inventory().async(() -> client.getProductAsync(productCode))
+                .subscribe().with(
+                        product -> {
+                            if (!isHedge && race.primaryFinished.compareAndSet(false, true)) {
+                                record(race.startNanos);
+                            }
+                            if (race.winner.complete(product) && isHedge) {
+                                hedgeWins.increment();
+                            }
+                        },
+                        error -> {
+                            if (!isHedge) {
+                                // Un error rápido no es una latencia: no entra al p95
+                                race.primaryFinished.set(true);
+                            }
+                            race.failed(error);
+                        });
+    }
+
+    private InventoryClient pickReplica() {
+        if (replicas.isEmpty()) {
+            return inventoryClient;
+        }
+        return replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+    }
+
+    private synchronized void earnBudget() {
+        // Cada petición suma budget-percent/100 tokens (5% => 1 hedge cada 20 peticiones)
+        tokens = Math.min(MAX_TOKENS, tokens + budgetPercent / 100.0);
+    }
+
+    private synchronized boolean tryConsumeBudget() {
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return true;
+        }
+        return false;
+    }
+
+    private void record(long startNanos) {
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        int n = samples.getAndIncrement();
+        latencies[n % LATENCY_WINDOW] = elapsedMs;
+
+        if (n > 0 && n % RECALCULATE_EVERY == 0) {
+            long[] copy = Arrays.copyOf(latencies, Math.min(n + 1, LATENCY_WINDOW));
+            Arrays.sort(copy);
+            p95Ms = copy[(int) (copy.length * 0.95) - 1];
+        }
+    }
+
+    private RuntimeException unwrap(Exception e) {
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new IllegalStateException("Error consultando producto", cause);
+    }
+
+    /**
+     * Estado de una consulta: el resultado y cuántas llamadas siguen en curso.
+     *
+     * Lanzar el hedge y registrar un error pasan por el mismo lock: así no puede
+     * ocurrir que la original falle (y se dé la consulta por fallida) justo
+     * mientras se lanza un hedge que todavía podría responder.
+     */
+    private static final class Race {
+        final CompletableFuture<ProductInfoDTO> winner = new CompletableFuture<>();
+        final AtomicBoolean primaryFinished = new AtomicBoolean();
+        final long startNanos;
+        private int pending = 1;
+
+        Race(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Suma una llamada si la consulta sigue abierta y el presupuesto lo permite.
+         */
+        synchronized boolean addCall(BooleanSupplier budget) {
+            if (winner.isDone() || !budget.getAsBoolean()) {
+                return false;
+            }
+            pending++;
+            return true;
+        }
+
+        /**
+         * Solo se propaga el error si ya no queda ninguna llamada en curso.
+         */
+        synchronized void failed(Throwable error) {
+            if (--pending == 0) {
+                winner.completeExceptionally(error);
+            }
+        }
+    }
+}
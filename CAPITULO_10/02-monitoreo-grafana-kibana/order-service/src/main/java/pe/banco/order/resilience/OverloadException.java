@@ -0,0 +1,19 @@
+package pe.banco.order.resilience;
+
+/**
+ * Se lanza cuando el servicio rechaza trabajo por sobrecarga.
+ * Se traduce a HTTP 503 con header Retry-After.
+ */
+public class OverloadException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public OverloadException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
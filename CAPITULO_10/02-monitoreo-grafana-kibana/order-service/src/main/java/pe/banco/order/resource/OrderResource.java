@@ -5,9 +5,11 @@ import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
 import org.jboss.logging.Logger;
 import pe.banco.order.dto.CreateOrderRequest;
 import pe.banco.order.dto.OrderResponse;
+import pe.banco.order.resilience.OverloadException;
 import pe.banco.order.service.OrderService;
 
 import java.util.List;
@@ -33,6 +35,18 @@ public class OrderResource {
             } else {
                 return Response.status(Response.Status.BAD_REQUEST).entity(response).build();
             }
+        } catch (OverloadException e) {
+            // Fail fast: el cliente reintenta más tarde en vez de encolar threads
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", e.getRetryAfterSeconds())
+                    .entity(new ErrorResponse(e.getMessage()))
+                    .build();
+        } catch (BulkheadException e) {
+            LOG.warn("🚧 Bulkhead lleno hacia servicio downstream: " + e.getMessage());
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", 1)
+                    .entity(new ErrorResponse("Servicio downstream saturado, reintente más tarde"))
+                    .build();
         } catch (Exception e) {
             LOG.error("Error creando orden", e);
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
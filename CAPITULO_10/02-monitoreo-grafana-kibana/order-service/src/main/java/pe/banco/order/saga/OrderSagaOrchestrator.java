@@ -7,6 +7,7 @@ import jakarta.transaction.Transactional;
 import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
 import org.eclipse.microprofile.faulttolerance.Fallback;
 import org.eclipse.microprofile.faulttolerance.Timeout;
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.logging.Logger;
 import pe.banco.order.client.InventoryClient;
@@ -14,6 +15,7 @@ import pe.banco.order.client.PaymentClient;
 import pe.banco.order.entity.Order;
 import pe.banco.order.entity.OrderItem;
 import pe.banco.order.repository.OrderRepository;
+import pe.banco.order.resilience.DownstreamBulkheads;
 
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
@@ -45,6 +47,9 @@ public class OrderSagaOrchestrator {
     @RestClient
     PaymentClient paymentClient;
 
+    @Inject
+    DownstreamBulkheads bulkheads;
+
     @Inject
     OrderRepository orderRepository;
 
@@ -57,12 +62,16 @@ public class OrderSagaOrchestrator {
      * 3. Confirmar las reservas
      * 
      * Si cualquier paso falla, se ejecutan las compensaciones en orden inverso.
+     *
+     * Si un paso es rechazado por el bulkhead del servicio downstream (DownstreamBulkheads), tras compensar se
+     * relanza la BulkheadException (el @Fallback no la captura): OrderResource la
+     * convierte en 503 + Retry-After y la transacción de la orden se revierte.
      */
     @Transactional
     @Timeout(value = 30, unit = ChronoUnit.SECONDS)
     @CircuitBreaker(requestVolumeThreshold = 4, failureRatio = 0.5, delay = 5000)
     @CircuitBreakerName("order-saga")
-    @Fallback(fallbackMethod = "fallbackExecuteSaga")
+    @Fallback(fallbackMethod = "fallbackExecuteSaga", skipOn = BulkheadException.class)
     public SagaResult executeSaga(Order order, String paymentMethod) {
         LOG.info("🚀 Iniciando SAGA para orden: " + order.id);
         
@@ -77,7 +86,7 @@ public class OrderSagaOrchestrator {
                 request.productCode = item.productCode;
                 request.quantity = item.quantity;
                 
-                InventoryClient.ReservationResponse response = inventoryClient.reserveStock(request);
+                InventoryClient.ReservationResponse response = bulkheads.inventory().call(() -> inventoryClient.reserveStock(request));
                 
                 if (!response.success) {
                     LOG.error("❌ Fallo al reservar inventario para: " + item.productCode);
@@ -99,7 +108,7 @@ public class OrderSagaOrchestrator {
             paymentRequest.amount = order.totalAmount;
             paymentRequest.paymentMethod = paymentMethod;
             
-            PaymentClient.PaymentResponse paymentResponse = paymentClient.processPayment(paymentRequest);
+            PaymentClient.PaymentResponse paymentResponse = bulkheads.payment().call(() -> paymentClient.processPayment(paymentRequest));
             
             if (!paymentResponse.success) {
                 LOG.error("❌ Fallo al procesar pago");
@@ -119,7 +128,7 @@ public class OrderSagaOrchestrator {
                 confirmRequest.productCode = item.productCode;
                 confirmRequest.quantity = item.quantity;
                 
-                inventoryClient.confirmReservation(order.id, confirmRequest);
+                bulkheads.inventory().run(() -> inventoryClient.confirmReservation(order.id, confirmRequest));
                 LOG.info("✅ Reserva confirmada para: " + item.productCode);
             }
 
@@ -129,6 +138,11 @@ public class OrderSagaOrchestrator {
             LOG.info("🎉 SAGA completada exitosamente para orden: " + order.id);
             return SagaResult.success(order.id, "Orden creada exitosamente");
 
+        } catch (BulkheadException e) {
+            LOG.warn("🚧 Servicio downstream saturado, compensando y rechazando orden: " + order.id);
+            compensate(order, completedSteps);
+            throw e;
+
         } catch (Exception e) {
             LOG.error("💥 Error en SAGA, ejecutando compensaciones...", e);
             compensate(order, completedSteps);
@@ -157,7 +171,7 @@ public class OrderSagaOrchestrator {
                 switch (step.stepType) {
                     case "PAYMENT":
                         LOG.info("↩️  Compensando PAYMENT: Reembolsando...");
-                        paymentClient.refundPayment(order.id);
+                        bulkheads.payment().run(() -> paymentClient.refundPayment(order.id));
                         LOG.info("✅ Pago reembolsado");
                         break;
                         
@@ -166,7 +180,7 @@ public class OrderSagaOrchestrator {
                         InventoryClient.CancelRequest cancelRequest = new InventoryClient.CancelRequest();
                         cancelRequest.productCode = step.productCode;
                         cancelRequest.quantity = step.quantity;
-                        inventoryClient.cancelReservation(order.id, cancelRequest);
+                        bulkheads.inventory().run(() -> inventoryClient.cancelReservation(order.id, cancelRequest));
                         LOG.info("✅ Reserva liberada para: " + step.productCode);
                         break;
                 }
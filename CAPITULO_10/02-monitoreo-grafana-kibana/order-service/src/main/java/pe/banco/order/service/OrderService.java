@@ -1,20 +1,20 @@
 package pe.banco.order.service;
 
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.redis.datasource.RedisDataSource;
 import io.quarkus.redis.datasource.value.SetArgs;
 import io.quarkus.redis.datasource.value.ValueCommands;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.logging.Logger;
-import pe.banco.order.client.InventoryClient;
 import pe.banco.order.dto.CreateOrderRequest;
 import pe.banco.order.dto.OrderResponse;
 import pe.banco.order.dto.ProductInfoDTO;
 import pe.banco.order.entity.Order;
 import pe.banco.order.entity.OrderItem;
 import pe.banco.order.repository.OrderRepository;
+import pe.banco.order.resilience.AdaptiveConcurrencyLimiter;
+import pe.banco.order.resilience.HedgedProductLookup;
 import pe.banco.order.saga.OrderSagaOrchestrator;
 
 import java.time.Duration;
@@ -45,24 +45,51 @@ public class OrderService {
     OrderSagaOrchestrator sagaOrchestrator;
 
     @Inject
-    @RestClient
-    InventoryClient inventoryClient;
+    RedisDataSource redisDataSource;
 
     @Inject
-    RedisDataSource redisDataSource;
+    AdaptiveConcurrencyLimiter limiter;
+
+    @Inject
+    HedgedProductLookup productLookup;
 
     private ValueCommands<String, ProductInfoDTO> productCache;
 
     @jakarta.annotation.PostConstruct
     void init() {
+        // Serializado con ProductInfoCodec (binario), no con el codec JSON por defecto
         productCache = redisDataSource.value(ProductInfoDTO.class);
     }
 
     /**
-     * Crea una nueva orden ejecutando la SAGA completa
+     * Crea una nueva orden ejecutando la SAGA completa.
+     *
+     * Antes de tocar inventario o pagos se pide un permiso al limitador adaptativo.
+     * Si el sistema está saturado se lanza OverloadException (503) sin crear la orden.
+     *
+     * El permiso se pide FUERA de la transacción: una orden rechazada no abre
+     * transacción ni ocupa conexión. Al limitador le llega el resultado real de la
+     * SAGA (una SAGA compensada cuenta como fallo y reduce el límite).
      */
-    @Transactional
     public OrderResponse createOrder(CreateOrderRequest request) {
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire();
+        boolean success = false;
+        try {
+            CreatedOrder created = QuarkusTransaction.joiningExisting().call(() -> doCreateOrder(request));
+            success = created.saga().success;
+            return created.response();
+        } finally {
+            permit.release(success);
+        }
+    }
+
+    /**
+     * Orden creada junto con el resultado de su SAGA.
+     */
+    private record CreatedOrder(OrderResponse response, OrderSagaOrchestrator.SagaResult saga) {
+    }
+
+    private CreatedOrder doCreateOrder(CreateOrderRequest request) {
         LOG.info("📝 Creando orden para usuario: " + request.userId);
 
         // Crear la orden
@@ -90,7 +117,7 @@ public class OrderService {
         // Ejecutar SAGA
         OrderSagaOrchestrator.SagaResult result = sagaOrchestrator.executeSaga(order, request.paymentMethod);
 
-        return toResponse(order, result.message);
+        return new CreatedOrder(toResponse(order, result.message), result);
     }
 
     /**
@@ -111,9 +138,9 @@ public class OrderService {
             return cached;
         }
 
-        // 2. Cache MISS - obtener del servicio
+        // 2. Cache MISS - obtener del servicio (con hedging opcional)
         LOG.debug("❌ Cache MISS para producto: " + productCode + " - consultando servicio");
-        ProductInfoDTO product = inventoryClient.getProduct(productCode);
+        ProductInfoDTO product = productLookup.getProduct(productCode);
 
         // 3. Guardar en cache con TTL de 10 minutos (CORREGIDO)
         SetArgs setArgs = new SetArgs().ex(CACHE_TTL);
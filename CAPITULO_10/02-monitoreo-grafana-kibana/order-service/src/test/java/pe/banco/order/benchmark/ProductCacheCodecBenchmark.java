@@ -0,0 +1,81 @@
+package pe.banco.order.benchmark;
+
+import io.quarkus.redis.datasource.codecs.Codec;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import org.openjdk.jmh.annotations.*;
+import pe.banco.order.cache.ProductInfoCodec;
+import pe.banco.order.dto.ProductInfoDTO;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Codec JSON por defecto de quarkus-redis vs ProductInfoCodec (binario).
+ *
+ * decode = costo de un cache HIT, encode = costo de un cache MISS.
+ *
+ * Ejecutar:
+ *   ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark=ProductCacheCodecBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductCacheCodecBenchmark {
+
+    @Param({"json", "binary"})
+    String codecName;
+
+    Codec codec;
+    ProductInfoDTO product;
+    byte[] cached;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        codec = "binary".equals(codecName) ? new ProductInfoCodec(512) : new JsonCodec();
+
+        product = new ProductInfoDTO();
+        product.id = 1L;
+        product.productCode = "LAPTOP-001";
+        product.name = "Laptop HP Pavilion 15";
+        product.stock = 50;
+        product.availableStock = 48;
+        product.price = 899.99;
+
+        cached = codec.encode(product);
+        System.out.printf("%n[%s] bytes por entrada en Redis: %d%n", codecName, cached.length);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return codec.decode(cached);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return codec.encode(product);
+    }
+
+    /**
+     * Misma lógica que el codec JSON que quarkus-redis usa por defecto para POJOs.
+     */
+    static class JsonCodec implements Codec {
+        @Override
+        public boolean canHandle(Type clazz) {
+            return clazz == ProductInfoDTO.class;
+        }
+
+        @Override
+        public byte[] encode(Object item) {
+            return Json.encodeToBuffer(item).getBytes();
+        }
+
+        @Override
+        public Object decode(byte[] item) {
+            return Json.decodeValue(Buffer.buffer(item), ProductInfoDTO.class);
+        }
+    }
+}
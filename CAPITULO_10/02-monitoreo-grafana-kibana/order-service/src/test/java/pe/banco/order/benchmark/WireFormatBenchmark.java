@@ -0,0 +1,103 @@
+package pe.banco.order.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import pe.banco.order.client.InventoryClient;
+import pe.banco.order.client.PaymentClient;
+import pe.banco.order.dto.ProductInfoDTO;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de serialización JSON vs Smile para los payloads de una SAGA:
+ * ReservationRequest, PaymentRequest (salida) y ProductInfoDTO (entrada).
+ *
+ * Ejecutar:
+ *   ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark=WireFormatBenchmark
+ *
+ * Los bytes en el cable de cada formato se imprimen al iniciar la corrida.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    @Param({"json", "smile"})
+    String format;
+
+    ObjectMapper mapper;
+
+    InventoryClient.ReservationRequest reservation;
+    PaymentClient.PaymentRequest payment;
+    byte[] productBytes;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        // Misma configuración que los mappers reales: Quarkus (JSON) y SmileMessageBodyHandler
+        MapperBuilder<?, ?> builder = "smile".equals(format) ? SmileMapper.builder() : JsonMapper.builder();
+        mapper = builder
+                .addModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        reservation = new InventoryClient.ReservationRequest();
+        reservation.orderId = "5f0c2a8e-3b1d-4c6f-9a7e-2d4b8c1e0f93";
+        reservation.productCode = "LAPTOP-001";
+        reservation.quantity = 2;
+
+        payment = new PaymentClient.PaymentRequest();
+        payment.orderId = reservation.orderId;
+        payment.userId = "user-123";
+        payment.amount = 1799.98;
+        payment.paymentMethod = "CREDIT_CARD";
+
+        ProductInfoDTO product = new ProductInfoDTO();
+        product.id = 1L;
+        product.productCode = "LAPTOP-001";
+        product.name = "Laptop HP Pavilion 15";
+        product.stock = 50;
+        product.availableStock = 48;
+        product.price = 899.99;
+        productBytes = mapper.writeValueAsBytes(product);
+
+        System.out.printf("%n[%s] bytes en el cable: ReservationRequest=%d PaymentRequest=%d ProductInfoDTO=%d%n",
+                format,
+                mapper.writeValueAsBytes(reservation).length,
+                mapper.writeValueAsBytes(payment).length,
+                productBytes.length);
+    }
+
+    @Benchmark
+    public byte[] serializeReservation() throws Exception {
+        return mapper.writeValueAsBytes(reservation);
+    }
+
+    @Benchmark
+    public byte[] serializePayment() throws Exception {
+        return mapper.writeValueAsBytes(payment);
+    }
+
+    @Benchmark
+    public ProductInfoDTO deserializeProduct() throws Exception {
+        return mapper.readValue(productBytes, ProductInfoDTO.class);
+    }
+
+    @Benchmark
+    public void sagaRoundTrip(Blackhole bh) throws Exception {
+        // Lo que order-service serializa/deserializa en una SAGA de un item
+        bh.consume(mapper.writeValueAsBytes(reservation));
+        bh.consume(mapper.writeValueAsBytes(payment));
+        bh.consume(mapper.readValue(productBytes, ProductInfoDTO.class));
+    }
+}
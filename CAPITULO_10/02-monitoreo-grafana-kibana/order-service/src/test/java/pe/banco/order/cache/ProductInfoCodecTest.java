@@ -0,0 +1,147 @@
+package pe.banco.order.cache;
+
+import org.junit.jupiter.api.Test;
+import pe.banco.order.dto.ProductInfoDTO;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ida y vuelta de ProductInfoCodec, sin Quarkus ni Redis.
+ *
+ * Cubre los cuatro formatos que decode() tiene que aceptar:
+ * <pre>
+ * v2 plano      [2][flags][campos, strings con largo int]
+ * v2 comprimido [2][flags | 0x80][Deflate(campos)]
+ * v1            [1][flags][campos, strings con largo u16]
+ * JSON legado   {"id":...}
+ * </pre>
+ */
+class ProductInfoCodecTest {
+
+    private static final int NO_COMPRESSION = 0;
+
+    private static ProductInfoDTO product(String name) {
+        ProductInfoDTO product = new ProductInfoDTO();
+        product.id = 42L;
+        product.productCode = "PROD-001";
+        product.name = name;
+        product.stock = 150;
+        product.availableStock = 120;
+        product.price = 1299.90;
+        return product;
+    }
+
+    private static void assertSameProduct(ProductInfoDTO expected, Object actual) {
+        ProductInfoDTO decoded = assertInstanceOf(ProductInfoDTO.class, actual);
+        assertEquals(expected.id, decoded.id);
+        assertEquals(expected.productCode, decoded.productCode);
+        assertEquals(expected.name, decoded.name);
+        assertEquals(expected.stock, decoded.stock);
+        assertEquals(expected.availableStock, decoded.availableStock);
+        assertEquals(expected.price, decoded.price);
+    }
+
+    @Test
+    void shouldRoundTripV2() {
+        ProductInfoCodec codec = new ProductInfoCodec(NO_COMPRESSION);
+        ProductInfoDTO product = product("Laptop Lenovo ThinkPad X1 — edición año 2025");
+
+        byte[] encoded = codec.encode(product);
+
+        assertEquals(ProductInfoCodec.VERSION, encoded[0]);
+        assertEquals(0, encoded[1] & 0x80);
+        assertSameProduct(product, codec.decode(encoded));
+    }
+
+    @Test
+    void shouldRoundTripMissingFieldsAsNull() {
+        ProductInfoCodec codec = new ProductInfoCodec(NO_COMPRESSION);
+        ProductInfoDTO product = new ProductInfoDTO();
+        product.id = 7L;
+        product.availableStock = 0;
+
+        assertSameProduct(product, codec.decode(codec.encode(product)));
+    }
+
+    @Test
+    void shouldRoundTripStringLongerThan65535Bytes() {
+        ProductInfoCodec codec = new ProductInfoCodec(NO_COMPRESSION);
+        // 40,000 × 'ñ' = 80,000 bytes UTF-8: con el largo u16 de la v1 se truncaba
+        ProductInfoDTO product = product("ñ".repeat(40_000));
+
+        ProductInfoDTO decoded = (ProductInfoDTO) codec.decode(codec.encode(product));
+
+        assertEquals(40_000, decoded.name.length());
+        assertSameProduct(product, decoded);
+    }
+
+    @Test
+    void shouldCompressBodyAboveThreshold() {
+        ProductInfoCodec codec = new ProductInfoCodec(64);
+        ProductInfoDTO product = product("Monitor 27 pulgadas ".repeat(50));
+        byte[] plain = new ProductInfoCodec(NO_COMPRESSION).encode(product);
+
+        byte[] encoded = codec.encode(product);
+
+        assertNotEquals(0, encoded[1] & 0x80);
+        assertTrue(encoded.length < plain.length);
+        assertSameProduct(product, codec.decode(encoded));
+        // El decode no depende del umbral: cualquier instancia lee una entrada comprimida
+        assertSameProduct(product, new ProductInfoCodec(NO_COMPRESSION).decode(encoded));
+    }
+
+    @Test
+    void shouldNotCompressBelowThreshold() {
+        ProductInfoCodec codec = new ProductInfoCodec(512);
+
+        byte[] encoded = codec.encode(product("Mouse"));
+
+        assertEquals(0, encoded[1] & 0x80);
+    }
+
+    @Test
+    void shouldDecodeV1EntryWithU16Lengths() {
+        byte[] code = "PROD-001".getBytes(StandardCharsets.UTF_8);
+        byte[] name = "Teclado mecánico".getBytes(StandardCharsets.UTF_8);
+        // v1: mismo orden de campos, pero largo de string en 2 bytes sin signo
+        ByteBuffer v1 = ByteBuffer.allocate(2 + 8 + 2 + code.length + 2 + name.length + 4 + 4 + 8);
+        v1.put((byte) 1).put((byte) 0b0011_1111);
+        v1.putLong(42L);
+        v1.putShort((short) code.length).put(code);
+        v1.putShort((short) name.length).put(name);
+        v1.putInt(150).putInt(120).putDouble(1299.90);
+
+        Object decoded = new ProductInfoCodec(NO_COMPRESSION).decode(v1.array());
+
+        assertSameProduct(product("Teclado mecánico"), decoded);
+    }
+
+    @Test
+    void shouldDecodeLegacyJsonEntry() {
+        String json = """
+                {"id":42,"productCode":"PROD-001","name":"Laptop","stock":150,"availableStock":120,"price":1299.9}""";
+
+        Object decoded = new ProductInfoCodec().decode(json.getBytes(StandardCharsets.UTF_8));
+
+        assertSameProduct(product("Laptop"), decoded);
+    }
+
+    @Test
+    void shouldRejectUnknownVersion() {
+        byte[] future = {(byte) (ProductInfoCodec.VERSION + 1), 0};
+
+        assertThrows(IllegalStateException.class, () -> new ProductInfoCodec().decode(future));
+    }
+
+    @Test
+    void shouldRejectTruncatedString() {
+        byte[] encoded = new ProductInfoCodec(NO_COMPRESSION).encode(product("Laptop"));
+        byte[] truncated = Arrays.copyOf(encoded, 2 + 8 + 4 + 3);
+
+        assertThrows(IllegalStateException.class, () -> new ProductInfoCodec().decode(truncated));
+    }
+}
@@ -8,10 +8,12 @@ import org.jboss.logging.Logger;
 import pe.banco.payment.dto.PaymentRequest;
 import pe.banco.payment.dto.PaymentResponse;
 import pe.banco.payment.service.PaymentService;
+import pe.banco.wire.SmileMessageBodyHandler;
 
 @Path("/api/payments")
-@Produces(MediaType.APPLICATION_JSON)
-@Consumes(MediaType.APPLICATION_JSON)
+// JSON para clientes externos; Smile (binario) para order-service si lo pide
+@Produces({MediaType.APPLICATION_JSON, SmileMessageBodyHandler.APPLICATION_SMILE})
+@Consumes({MediaType.APPLICATION_JSON, SmileMessageBodyHandler.APPLICATION_SMILE})
 public class PaymentResource {
 
     private static final Logger LOG = Logger.getLogger(PaymentResource.class);
@@ -0,0 +1,82 @@
+package pe.banco.wire;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Serialización binaria Jackson Smile para el tráfico interno entre servicios.
+ *
+ * Smile es el mismo modelo de datos que JSON (mismos DTOs, mismas anotaciones)
+ * pero codificado en binario: nombres de campo compartidos por referencia,
+ * números sin texto y sin escapar strings. Se registra en server y clients:
+ * los clientes externos siguen recibiendo JSON; solo quien envía
+ * Accept/Content-Type application/x-jackson-smile recibe binario.
+ *
+ * Solo se aplica al tipo exacto: un comodín (*&#47;*, application/*) nunca
+ * selecciona Smile, ni aquí ni en la negociación (ver SmileNegotiationFilter).
+ *
+ * Vive en el módulo wire-format, compartido por los 3 microservicios.
+ */
+@Provider
+@Consumes(SmileMessageBodyHandler.APPLICATION_SMILE)
+@Produces(SmileMessageBodyHandler.APPLICATION_SMILE)
+public class SmileMessageBodyHandler implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
+
+    public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE_TYPE = MediaType.valueOf(APPLICATION_SMILE);
+
+    static final ObjectMapper MAPPER = SmileMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    /**
+     * true solo para application/x-jackson-smile escrito tal cual, sin comodines.
+     */
+    public static boolean isSmile(MediaType mediaType) {
+        return mediaType != null
+                && !mediaType.isWildcardType()
+                && !mediaType.isWildcardSubtype()
+                && APPLICATION_SMILE_TYPE.isCompatible(mediaType);
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return isSmile(mediaType);
+    }
+
+    @Override
+    public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                           MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException {
+        return MAPPER.readValue(entityStream, MAPPER.constructType(genericType != null ? genericType : type));
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return isSmile(mediaType);
+    }
+
+    @Override
+    public void writeTo(Object value, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        MAPPER.writerFor(MAPPER.constructType(genericType != null ? genericType : type))
+                .writeValue(entityStream, value);
+    }
+}
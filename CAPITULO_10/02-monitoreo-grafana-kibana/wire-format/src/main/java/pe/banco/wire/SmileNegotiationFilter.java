@@ -0,0 +1,39 @@
+package pe.banco.wire;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Garantiza que solo recibe Smile quien lo pide por nombre.
+ *
+ * Los recursos declaran @Produces({JSON, SMILE}). Con Accept: *&#47;* (curl,
+ * navegador, Postman) o sin Accept, la especificación JAX-RS deja el desempate
+ * a la implementación y podría elegirse Smile. Este filtro corrige la respuesta:
+ *
+ * ┌────────────────────────────────────────────┬─────────────────┐
+ * │ Accept del request                         │ Respuesta       │
+ * ├────────────────────────────────────────────┼─────────────────┤
+ * │ application/x-jackson-smile, ...;q=0.5     │ Smile           │
+ * │ *&#47;*  /  application/*  /  (sin Accept)      │ JSON            │
+ * │ application/json                           │ JSON            │
+ * └────────────────────────────────────────────┴─────────────────┘
+ */
+@Provider
+public class SmileNegotiationFilter implements ContainerResponseFilter {
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        if (!responseContext.hasEntity() || !SmileMessageBodyHandler.isSmile(responseContext.getMediaType())) {
+            return;
+        }
+        boolean pedidoExplicito = requestContext.getAcceptableMediaTypes().stream()
+                .anyMatch(SmileMessageBodyHandler::isSmile);
+        if (!pedidoExplicito) {
+            responseContext.setEntity(responseContext.getEntity(), responseContext.getEntityAnnotations(),
+                    MediaType.APPLICATION_JSON_TYPE);
+        }
+    }
+}